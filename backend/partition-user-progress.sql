@@ -0,0 +1,108 @@
+-- ╔═══════════════════════════════════════════════════════════════╗
+-- ║     EDUCADINO - Particionado mensual de user_progress         ║
+-- ╚═══════════════════════════════════════════════════════════════╝
+--
+-- Convierte user_progress en una tabla particionada por RANGE (played_at),
+-- una partición por mes (user_progress_AAAA_MM) más una por defecto.
+-- Requiere PostgreSQL 12 o superior.
+--
+-- INSTRUCCIONES:
+-- 1. Detén el backend (la copia bloquea user_progress durante la migración)
+-- 2. Ejecuta este script:  psql -d educadino -f partition-user-progress.sql
+-- 3. Arranca el backend: ProgressRetentionJob detecta la tabla particionada
+--    y crea por adelantado las particiones de los próximos meses
+-- 4. Tras comprobar los datos, borra la tabla antigua (último bloque)
+--
+-- Con decenas de millones de filas la copia tarda minutos; se hace mes a
+-- mes para que cada INSERT vaya a una sola partición.
+--
+
+BEGIN;
+
+LOCK TABLE user_progress IN ACCESS EXCLUSIVE MODE;
+
+-- 1. Apartar la tabla actual (los nombres de índices son únicos por esquema)
+ALTER TABLE user_progress RENAME TO user_progress_legacy;
+ALTER INDEX IF EXISTS idx_user_progress_user_played RENAME TO idx_user_progress_legacy_user_played;
+ALTER INDEX IF EXISTS idx_user_progress_user_type_played RENAME TO idx_user_progress_legacy_user_type_played;
+ALTER INDEX IF EXISTS idx_user_progress_played_at RENAME TO idx_user_progress_legacy_played_at;
+
+-- 2. Tabla particionada (la clave primaria debe incluir played_at)
+CREATE TABLE user_progress (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id       BIGINT       NOT NULL REFERENCES users (id),
+    minigame_type VARCHAR(50)  NOT NULL,
+    score         INTEGER      NOT NULL,
+    time_played   INTEGER      NOT NULL,
+    completed     BOOLEAN,
+    played_at     TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id, played_at)
+) PARTITION BY RANGE (played_at);
+
+CREATE TABLE user_progress_default PARTITION OF user_progress DEFAULT;
+
+-- 3. Una partición por mes con datos, hasta 3 meses por delante, y copia
+DO $$
+DECLARE
+    month_start DATE;
+    last_month  DATE := date_trunc('month', now())::date + INTERVAL '3 months';
+BEGIN
+    SELECT COALESCE(date_trunc('month', MIN(played_at))::date, date_trunc('month', now())::date)
+      INTO month_start FROM user_progress_legacy;
+
+    WHILE month_start <= last_month LOOP
+        EXECUTE format(
+            'CREATE TABLE %I PARTITION OF user_progress FOR VALUES FROM (%L) TO (%L)',
+            'user_progress_' || to_char(month_start, 'YYYY_MM'),
+            month_start, (month_start + INTERVAL '1 month')::date);
+
+        INSERT INTO user_progress (id, user_id, minigame_type, score, time_played, completed, played_at)
+        SELECT id, user_id, minigame_type, score, time_played, completed, played_at
+        FROM user_progress_legacy
+        WHERE played_at >= month_start AND played_at < month_start + INTERVAL '1 month';
+
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+-- 4. Continuar la secuencia donde la dejó la tabla antigua
+SELECT setval(pg_get_serial_sequence('user_progress', 'id'),
+              (SELECT COALESCE(MAX(id), 0) + 1 FROM user_progress_legacy), false);
+
+-- 5. Índices (se crean en cada partición automáticamente)
+CREATE INDEX idx_user_progress_user_played ON user_progress (user_id, played_at, id);
+CREATE INDEX idx_user_progress_user_type_played ON user_progress (user_id, minigame_type, played_at, id);
+CREATE INDEX idx_user_progress_played_at ON user_progress (played_at);
+
+-- Comprobación: deben coincidir
+SELECT (SELECT COUNT(*) FROM user_progress_legacy) AS filas_antes,
+       (SELECT COUNT(*) FROM user_progress)        AS filas_despues;
+
+COMMIT;
+
+ANALYZE user_progress;
+
+-- ═══════════════════════════════════════════════════════════════
+-- MEDIR EL EFECTO (antes y después, con datos reales)
+-- ═══════════════════════════════════════════════════════════════
+-- Historial de un usuario en un rango: solo deben aparecer las
+-- particiones del rango ("Subplans Removed" / partition pruning):
+--
+--   EXPLAIN (ANALYZE, BUFFERS)
+--   SELECT * FROM user_progress
+--   WHERE user_id = 1 AND played_at >= '2025-01-01' AND played_at < '2025-02-01'
+--   ORDER BY played_at DESC, id DESC LIMIT 51;
+--
+-- Inserción (el coste debe ser el mismo que sin particiones: una sola
+-- partición y sus índices, más pequeños):
+--
+--   \timing on
+--   INSERT INTO user_progress (user_id, minigame_type, score, time_played, completed, played_at)
+--   SELECT 1, 'quiz', 50, 30, true, now() FROM generate_series(1, 10000);
+--
+-- Retención: DROP TABLE de una partición frente a DELETE de sus filas.
+
+-- ═══════════════════════════════════════════════════════════════
+-- LIMPIEZA (ejecutar a mano tras comprobar los datos)
+-- ═══════════════════════════════════════════════════════════════
+-- DROP TABLE user_progress_legacy;
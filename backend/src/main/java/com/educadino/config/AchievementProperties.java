@@ -0,0 +1,33 @@
+package com.educadino.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reglas de logros (educadino.achievements.rules en application.yml).
+ *
+ * Cada regla tiene un bit fijo en users.achievements: no se debe
+ * reutilizar el bit de una regla retirada.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "educadino.achievements")
+@Data
+public class AchievementProperties {
+
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+        private String id;
+        private int bit;
+        private String name;
+        private String description;
+        private String metric;        // ver AchievementEngine.Metric
+        private String minigameType;  // obligatorio en las métricas por minijuego
+        private long threshold;
+    }
+}
@@ -0,0 +1,291 @@
+package com.educadino.config;
+
+import com.educadino.event.CatalogChangedEvent;
+import com.educadino.service.DinosaurCatalog;
+import com.educadino.util.OffHeapLruCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caché de Respuestas del Catálogo Público
+ *
+ * Los listados de dinosaurios y productos devuelven los mismos bytes
+ * mientras el catálogo no cambia, pero cada petición rehacía los DTOs, el
+ * JSON y (si acaso) la compresión. Este filtro guarda la respuesta ya
+ * serializada, junto con sus variantes gzip y deflate, en una caché fuera
+ * del heap (OffHeapLruCache) y en los aciertos copia directamente los
+ * bytes de la variante que acepta el cliente, sin pasar por el controlador
+ * ni por Jackson ni volver a comprimir.
+ *
+ * La clave es la ruta, los parámetros normalizados (ordenados por nombre
+ * y por valor) y la versión del catálogo. Solo entran en la clave los
+ * parámetros que acepta cada ruta; una petición con cualquier otro no se
+ * cachea, para que parámetros inventados (?_=123) no llenen la caché de
+ * entradas distintas ni expulsen las buenas. Cada CatalogChangedEvent
+ * confirmado sube la versión, de modo que las entradas viejas dejan de
+ * encontrarse y además se descartan para liberar memoria.
+ *
+ * Solo se cachean respuestas 200 con JSON. Las cabeceras de seguridad y
+ * CORS las siguen poniendo los filtros anteriores en cada petición.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogResponseCacheFilter extends OncePerRequestFilter {
+
+    static final int IDENTITY = 0;
+    static final int GZIP = 1;
+    static final int DEFLATE = 2;
+
+    private static final String[] ENCODINGS = {null, "gzip", "deflate"};
+
+    private static final Set<String> DINOSAUR_FILTERS = Set.of("diet", "period", "taxonomy", "family", "size");
+    private static final Set<String> PRODUCT_FILTERS = Set.of(
+            "page", "pageSize", "search", "category", "minPrice", "maxPrice", "featured", "sortBy", "sortOrder");
+
+    /**
+     * Rutas cacheadas (sin el context-path), el catálogo del que dependen y
+     * los parámetros que aceptan sus controladores.
+     */
+    private static final Map<String, Endpoint> CACHED_PATHS = Map.of(
+            "/dinosaurs", new Endpoint(CatalogChangedEvent.Catalog.DINOSAURS, DINOSAUR_FILTERS),
+            "/dinosaurs/facets", new Endpoint(CatalogChangedEvent.Catalog.DINOSAURS, DINOSAUR_FILTERS),
+            "/dinosaurs/taxonomy", new Endpoint(CatalogChangedEvent.Catalog.DINOSAURS, Set.of()),
+            "/products", new Endpoint(CatalogChangedEvent.Catalog.PRODUCTS, PRODUCT_FILTERS),
+            "/products/featured", new Endpoint(CatalogChangedEvent.Catalog.PRODUCTS, Set.of()),
+            "/products/categories", new Endpoint(CatalogChangedEvent.Catalog.PRODUCTS, Set.of())
+    );
+
+    private final DinosaurCatalog dinosaurCatalog;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${educadino.response-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${educadino.response-cache.max-bytes:32MB}")
+    private DataSize maxBytes;
+
+    /** Los productos se leen de la BD: su versión solo la llevamos aquí. */
+    private final AtomicLong productsVersion = new AtomicLong();
+    private OffHeapLruCache<Key> cache;
+
+    private Counter hitCounter;
+    private Counter missCounter;
+    private Counter bypassCounter;
+
+    /**
+     * Clave de una respuesta cacheada.
+     */
+    record Key(CatalogChangedEvent.Catalog catalog, long version, String path, String query) {
+    }
+
+    private record Endpoint(CatalogChangedEvent.Catalog catalog, Set<String> parameters) {
+    }
+
+    @PostConstruct
+    void init() {
+        cache = new OffHeapLruCache<>(maxBytes.toBytes());
+
+        hitCounter = Counter.builder("educadino.response-cache.hits")
+                .description("Respuestas del catálogo servidas desde la caché")
+                .register(meterRegistry);
+        missCounter = Counter.builder("educadino.response-cache.misses")
+                .description("Respuestas del catálogo generadas y cacheadas")
+                .register(meterRegistry);
+        bypassCounter = Counter.builder("educadino.response-cache.bypassed")
+                .description("Peticiones con parámetros desconocidos que no se cachean")
+                .register(meterRegistry);
+        Gauge.builder("educadino.response-cache.bytes", cache, OffHeapLruCache::bytes)
+                .description("Memoria fuera del heap ocupada por la caché de respuestas")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("educadino.response-cache.evictions", cache, OffHeapLruCache::evictions)
+                .description("Entradas expulsadas por falta de sitio")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Invalida las respuestas del catálogo modificado.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.catalog() == CatalogChangedEvent.Catalog.PRODUCTS) {
+            productsVersion.incrementAndGet();
+        }
+        cache.removeIf(key -> key.catalog() == event.catalog());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"GET".equals(request.getMethod()) || !CACHED_PATHS.containsKey(path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        String path = path(request);
+        Endpoint endpoint = CACHED_PATHS.get(path);
+        String query = normalizeQuery(request.getParameterMap(), endpoint.parameters());
+        if (query == null) {
+            bypassCounter.increment();
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Key key = new Key(endpoint.catalog(), version(endpoint.catalog()), path, query);
+        int variant = negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+
+        OffHeapLruCache.Entry entry = cache.get(key);
+        if (entry != null) {
+            hitCounter.increment();
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(entry.contentType());
+            write(entry, variant, response, "HIT");
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+
+        byte[] body = wrapper.getContentAsByteArray();
+        String contentType = wrapper.getContentType();
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || body.length == 0
+                || contentType == null || !contentType.contains("json")) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        missCounter.increment();
+        entry = cache.put(key, contentType, body, compress(body, GZIP), compress(body, DEFLATE));
+        if (entry == null) {
+            // Demasiado grande para la caché: se envía tal cual
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        write(entry, variant, response, "MISS");
+    }
+
+    private static void write(OffHeapLruCache.Entry entry, int variant, HttpServletResponse response,
+                              String cacheStatus) throws IOException {
+        if (entry.length(variant) < 0) {
+            variant = IDENTITY;
+        }
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader("X-Cache", cacheStatus);
+        if (ENCODINGS[variant] != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, ENCODINGS[variant]);
+        }
+        response.setContentLength(entry.length(variant));
+        entry.writeTo(variant, response.getOutputStream());
+    }
+
+    private long version(CatalogChangedEvent.Catalog catalog) {
+        return catalog == CatalogChangedEvent.Catalog.DINOSAURS ? dinosaurCatalog.version() : productsVersion.get();
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /**
+     * Parámetros ordenados por nombre y, dentro de cada uno, por valor:
+     * ?diet=a&period=b y ?period=b&diet=a dan la misma clave.
+     *
+     * @param accepted parámetros que acepta la ruta
+     * @return la clave, o null si hay algún parámetro no aceptado
+     */
+    static String normalizeQuery(Map<String, String[]> parameters, Set<String> accepted) {
+        if (!accepted.containsAll(parameters.keySet())) {
+            return null;
+        }
+        StringBuilder query = new StringBuilder();
+        new TreeMap<>(parameters).forEach((name, values) -> {
+            String[] sorted = values.clone();
+            Arrays.sort(sorted);
+            for (String value : sorted) {
+                query.append(name).append('=').append(value).append('\u0000');
+            }
+        });
+        return query.toString();
+    }
+
+    /**
+     * Variante preferida según Accept-Encoding: gzip, luego deflate y si
+     * no, sin comprimir. Se respetan los q=0.
+     */
+    static int negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return IDENTITY;
+        }
+        boolean gzip = false;
+        boolean deflate = false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            if (quality(tokens) <= 0) {
+                continue;
+            }
+            switch (coding) {
+                case "gzip", "x-gzip", "*" -> gzip = true;
+                case "deflate" -> deflate = true;
+                default -> {
+                }
+            }
+        }
+        return gzip ? GZIP : deflate ? DEFLATE : IDENTITY;
+    }
+
+    private static double quality(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String parameter = tokens[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * @return el contenido comprimido, o null si no ocupa menos que el original
+     */
+    private static byte[] compress(byte[] body, int variant) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (DeflaterOutputStream compressor = variant == GZIP
+                ? new GZIPOutputStream(out)
+                : new DeflaterOutputStream(out)) {
+            compressor.write(body);
+        }
+        return out.size() < body.length ? out.toByteArray() : null;
+    }
+}
@@ -79,11 +79,15 @@ public class DataInitializer {
                         .description("El T-Rex fue uno de los dinosaurios carnívoros más grandes que jamás existieron. Tenía una mordida extremadamente poderosa y pequeños brazos.")
                         .diet("Carnívoro")
                         .period("Cretácico Superior")
+                        .fromMya(68.0)
+                        .toMya(66.0)
                         .taxonomy("Theropoda")
                         .family("Tyrannosauridae")
                         .imageUrl("img/T-rex.png")
                         .size("Grande")
                         .location("América del Norte")
+                        .latitude(47.6)
+                        .longitude(-106.7)  // Hell Creek, Montana
                         .curiosities("Su mordida era la más fuerte de todos los animales terrestres. Podía ejercer una fuerza de 6 toneladas.")
                         .build(),
 
@@ -92,11 +96,15 @@ public class DataInitializer {
                         .description("Dinosaurio carnívoro pequeño pero muy inteligente y ágil. Cazaba en manada y tenía garras afiladas.")
                         .diet("Carnívoro")
                         .period("Cretácico Superior")
+                        .fromMya(75.0)
+                        .toMya(71.0)
                         .taxonomy("Theropoda")
                         .family("Dromaeosauridae")
                         .imageUrl("img/velocirraptor.png")
                         .size("Pequeño")
                         .location("Asia (Mongolia)")
+                        .latitude(44.14)
+                        .longitude(103.73)  // Flaming Cliffs, Gobi
                         .curiosities("Tenía plumas y era del tamaño de un pavo. Las películas lo muestran mucho más grande de lo que era.")
                         .build(),
 
@@ -105,11 +113,15 @@ public class DataInitializer {
                         .description("Herbívoro con tres cuernos distintivos y una gran cresta ósea. Usaba sus cuernos para defenderse de depredadores.")
                         .diet("Herbívoro")
                         .period("Cretácico Superior")
+                        .fromMya(68.0)
+                        .toMya(66.0)
                         .taxonomy("Ornithischia")
                         .family("Ceratopsidae")
                         .imageUrl("img/triceratops.png")
                         .size("Grande")
                         .location("América del Norte")
+                        .latitude(43.0)
+                        .longitude(-104.5)  // Formación Lance, Wyoming
                         .curiosities("Su nombre significa 'cara de tres cuernos'. La cresta podría haber servido para regular su temperatura.")
                         .build(),
 
@@ -118,11 +130,15 @@ public class DataInitializer {
                         .description("Uno de los dinosaurios más altos. Sus patas delanteras eran más largas que las traseras, lo que le daba una postura única.")
                         .diet("Herbívoro")
                         .period("Jurásico Superior")
+                        .fromMya(154.0)
+                        .toMya(153.0)
                         .taxonomy("Sauropoda")
                         .family("Brachiosauridae")
                         .imageUrl("img/Brachiosaurus.png")
                         .size("Gigante")
                         .location("América del Norte, África")
+                        .latitude(39.07)
+                        .longitude(-108.56)  // Riggs Hill, Colorado
                         .curiosities("Podía alcanzar 13 metros de altura. Su corazón pesaba aproximadamente 200 kg.")
                         .build(),
 
@@ -131,11 +147,15 @@ public class DataInitializer {
                         .description("Reptil volador con una envergadura de hasta 7 metros. Técnicamente no es un dinosaurio, sino un pterosaurio.")
                         .diet("Carnívoro (peces)")
                         .period("Cretácico Superior")
+                        .fromMya(86.0)
+                        .toMya(84.5)
                         .taxonomy("Pterosauria")
                         .family("Pteranodontidae")
                         .imageUrl("img/quetzalcoatl.png")
                         .size("Grande")
                         .location("América del Norte")
+                        .latitude(38.9)
+                        .longitude(-100.9)  // Formación Niobrara, Kansas
                         .curiosities("No tenía dientes. Usaba su pico para atrapar peces como las aves marinas actuales.")
                         .build(),
 
@@ -144,11 +164,15 @@ public class DataInitializer {
                         .description("Saurópodo de cuello y cola extremadamente largos. Uno de los dinosaurios más largos que existieron.")
                         .diet("Herbívoro")
                         .period("Jurásico Superior")
+                        .fromMya(154.0)
+                        .toMya(152.0)
                         .taxonomy("Sauropoda")
                         .family("Diplodocidae")
                         .imageUrl("img/Diplodocus.png")
                         .size("Gigante")
                         .location("América del Norte")
+                        .latitude(41.95)
+                        .longitude(-106.1)  // Como Bluff, Wyoming
                         .curiosities("Podía usar su cola como un látigo para defenderse. Medía hasta 27 metros de largo.")
                         .build(),
 
@@ -157,11 +181,15 @@ public class DataInitializer {
                         .description("Depredador del Jurásico, anterior al T-Rex. Era el mayor carnívoro de su época.")
                         .diet("Carnívoro")
                         .period("Jurásico Superior")
+                        .fromMya(155.0)
+                        .toMya(145.0)
                         .taxonomy("Theropoda")
                         .family("Allosauridae")
                         .imageUrl("img/Allosaurio.png")
                         .size("Grande")
                         .location("América del Norte, Europa")
+                        .latitude(39.32)
+                        .longitude(-110.69)  // Cleveland-Lloyd, Utah
                         .curiosities("Tenía crestas óseas sobre los ojos. Probablemente cazaba en grupo para derribar presas grandes.")
                         .build(),
 
@@ -170,11 +198,15 @@ public class DataInitializer {
                         .description("Posiblemente el animal terrestre más grande que jamás existió. Era un titanosaurio gigante.")
                         .diet("Herbívoro")
                         .period("Cretácico Superior")
+                        .fromMya(96.0)
+                        .toMya(92.0)
                         .taxonomy("Sauropoda")
                         .family("Titanosauridae")
                         .imageUrl("img/Argentinasaurus.png")
                         .size("Gigante")
                         .location("Argentina")
+                        .latitude(-38.93)
+                        .longitude(-69.21)  // Plaza Huincul, Neuquén
                         .curiosities("Podía pesar hasta 100 toneladas. Sus vértebras medían más de 1 metro de alto.")
                         .build()
                 );
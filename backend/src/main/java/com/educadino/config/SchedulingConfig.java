@@ -0,0 +1,15 @@
+package com.educadino.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuración de Tareas Programadas
+ *
+ * Habilita @Scheduled para los trabajos en segundo plano
+ * del paquete com.educadino.job.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -48,6 +48,7 @@ public class SecurityConfig {
         .requestMatchers("/actuator/**").permitAll()
         .requestMatchers(HttpMethod.GET, "/dinosaurs/**").permitAll()
         .requestMatchers(HttpMethod.GET, "/products/**").permitAll()
+        .requestMatchers(HttpMethod.GET, "/media/**").permitAll()
         .requestMatchers(HttpMethod.POST, "/contact").permitAll()
 
         // Rutas examen / pruebas
@@ -0,0 +1,82 @@
+package com.educadino.controller;
+
+import com.educadino.dto.ActivityReportDto;
+import com.educadino.dto.ApiResponse;
+import com.educadino.dto.RollupBackfillStatusDto;
+import com.educadino.job.ProgressRollupBackfill;
+import com.educadino.service.ProgressRollupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * Controlador de Analítica (Administración)
+ *
+ * Actividad diaria por minijuego servida desde progress_daily_rollup.
+ * Requiere rol ADMIN (ver SecurityConfig, /admin/**).
+ *
+ * Base URL: /api/admin/analytics
+ */
+@RestController
+@RequestMapping("/admin/analytics")
+@RequiredArgsConstructor
+@Tag(name = "Analítica", description = "Actividad agregada de minijuegos (solo ADMIN)")
+@SecurityRequirement(name = "bearerAuth")
+public class AdminAnalyticsController {
+
+    private final ProgressRollupService rollupService;
+    private final ProgressRollupBackfill rollupBackfill;
+
+    /**
+     * Actividad diaria por minijuego.
+     *
+     * GET /api/admin/analytics/daily?from=2025-01-01&to=2025-12-31&minigameType=quiz
+     *
+     * Por defecto, los últimos 365 días de todos los minijuegos.
+     */
+    @GetMapping("/daily")
+    @Operation(summary = "Actividad diaria", description = "Partidas, jugadores únicos, puntuación media y tiempo por día y minijuego")
+    public ResponseEntity<ApiResponse<ActivityReportDto>> getDailyActivity(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String minigameType
+    ) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(364);
+        return ResponseEntity.ok(ApiResponse.success(rollupService.getActivity(start, end, minigameType)));
+    }
+
+    /**
+     * Reconstruye los resúmenes diarios desde user_progress (en segundo plano).
+     *
+     * POST /api/admin/analytics/rollup/backfill?from=2024-01-01&to=2025-01-01
+     */
+    @PostMapping("/rollup/backfill")
+    @Operation(summary = "Reconstruir resúmenes", description = "Recalcula progress_daily_rollup desde el historial, por días y en paralelo")
+    public ResponseEntity<ApiResponse<RollupBackfillStatusDto>> startBackfill(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        RollupBackfillStatusDto status = rollupBackfill.start(from, to != null ? to : LocalDate.now());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(status, "Reconstrucción iniciada"));
+    }
+
+    /**
+     * Estado de la última reconstrucción.
+     *
+     * GET /api/admin/analytics/rollup/backfill
+     */
+    @GetMapping("/rollup/backfill")
+    @Operation(summary = "Estado de la reconstrucción", description = "Progreso de la última reconstrucción de resúmenes")
+    public ResponseEntity<ApiResponse<RollupBackfillStatusDto>> getBackfillStatus() {
+        return ResponseEntity.ok(ApiResponse.success(rollupBackfill.status()));
+    }
+}
@@ -0,0 +1,67 @@
+package com.educadino.controller;
+
+import com.educadino.dto.ApiResponse;
+import com.educadino.dto.ReconciliationStatusDto;
+import com.educadino.job.UserStatsReconciliationJob;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controlador de Estadísticas de Usuarios (Administración)
+ *
+ * Conciliación de los contadores desnormalizados de users con el
+ * historial de partidas. Requiere rol ADMIN (ver SecurityConfig, /admin/**).
+ *
+ * Base URL: /api/admin/user-stats
+ */
+@RestController
+@RequestMapping("/admin/user-stats")
+@RequiredArgsConstructor
+@Tag(name = "Estadísticas de usuarios", description = "Conciliación de contadores de usuarios (solo ADMIN)")
+@SecurityRequirement(name = "bearerAuth")
+public class AdminUserStatsController {
+
+    private final UserStatsReconciliationJob reconciliationJob;
+
+    /**
+     * Inicia o continúa la conciliación (en segundo plano).
+     *
+     * POST /api/admin/user-stats/reconciliation?restart=false
+     */
+    @PostMapping("/reconciliation")
+    @Operation(summary = "Conciliar estadísticas", description = "Recalcula puntuación, minijuegos completados, tiempo y nivel desde el historial y corrige las desviaciones")
+    public ResponseEntity<ApiResponse<ReconciliationStatusDto>> startReconciliation(
+            @RequestParam(defaultValue = "false") boolean restart
+    ) {
+        ReconciliationStatusDto status = reconciliationJob.start(restart);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success(status, "Conciliación iniciada"));
+    }
+
+    /**
+     * Detiene la conciliación en curso; se puede continuar más tarde.
+     *
+     * POST /api/admin/user-stats/reconciliation/stop
+     */
+    @PostMapping("/reconciliation/stop")
+    @Operation(summary = "Detener la conciliación", description = "Deja de procesar usuarios y guarda el punto de control")
+    public ResponseEntity<ApiResponse<ReconciliationStatusDto>> stopReconciliation() {
+        return ResponseEntity.ok(ApiResponse.success(reconciliationJob.stop(), "Conciliación detenida"));
+    }
+
+    /**
+     * Estado de la última conciliación y desviaciones encontradas.
+     *
+     * GET /api/admin/user-stats/reconciliation
+     */
+    @GetMapping("/reconciliation")
+    @Operation(summary = "Estado de la conciliación", description = "Progreso y usuarios con desviación por contador")
+    public ResponseEntity<ApiResponse<ReconciliationStatusDto>> getReconciliationStatus() {
+        return ResponseEntity.ok(ApiResponse.success(reconciliationJob.status()));
+    }
+}
@@ -1,6 +1,7 @@
 package com.educadino.controller;
 
 import com.educadino.dto.*;
+import com.educadino.service.DinosaurSearchService;
 import com.educadino.service.DinosaurService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -27,31 +28,181 @@ import java.util.List;
 public class DinosaurController {
 
     private final DinosaurService dinosaurService;
+    private final DinosaurSearchService dinosaurSearchService;
 
     // ═══════════════════════════════════════════════════════════════
     // ENDPOINTS PÚBLICOS (sin autenticación)
     // ═══════════════════════════════════════════════════════════════
 
     /**
-     * Obtiene todos los dinosaurios.
+     * Obtiene los dinosaurios, opcionalmente filtrados.
      *
      * GET /api/dinosaurs
+     * GET /api/dinosaurs?diet=Carnívoro&period=Cretácico,Jurásico&taxonomy=Theropoda
+     *
+     * Varios valores de un parámetro (repetido o separado por comas) se
+     * combinan con OR; parámetros distintos, con AND. Sin tildes ni
+     * mayúsculas también coincide ("carnivoro").
      */
     @GetMapping
-    @Operation(summary = "Listar dinosaurios", description = "Obtiene todos los dinosaurios")
-    public ResponseEntity<ApiResponse<List<DinosaurDto>>> getAllDinosaurs() {
-        return ResponseEntity.ok(ApiResponse.success(dinosaurService.getAllDinosaurs()));
+    @Operation(summary = "Listar dinosaurios", description = "Obtiene todos los dinosaurios o los que cumplen los filtros de dieta, período, taxonomía, familia y tamaño")
+    public ResponseEntity<ApiResponse<List<DinosaurDto>>> getAllDinosaurs(
+            @RequestParam(required = false) List<String> diet,
+            @RequestParam(required = false) List<String> period,
+            @RequestParam(required = false) List<String> taxonomy,
+            @RequestParam(required = false) List<String> family,
+            @RequestParam(required = false) List<String> size
+    ) {
+        if (diet == null && period == null && taxonomy == null && family == null && size == null) {
+            return ResponseEntity.ok(ApiResponse.success(dinosaurService.getAllDinosaurs()));
+        }
+        return ResponseEntity.ok(ApiResponse.success(dinosaurService.filter(diet, period, taxonomy, family, size)));
+    }
+
+    /**
+     * Recuentos de cada valor de dieta, período, taxonomía, familia y tamaño.
+     *
+     * GET /api/dinosaurs/facets?diet=Herbívoro
+     *
+     * Acepta los mismos filtros que GET /api/dinosaurs. El recuento de un
+     * valor aplica los filtros de los demás atributos, no el del suyo.
+     */
+    @GetMapping("/facets")
+    @Operation(summary = "Facetas del catálogo", description = "Total de resultados y recuentos por atributo para un filtro")
+    public ResponseEntity<ApiResponse<DinosaurFacetsDto>> getFacets(
+            @RequestParam(required = false) List<String> diet,
+            @RequestParam(required = false) List<String> period,
+            @RequestParam(required = false) List<String> taxonomy,
+            @RequestParam(required = false) List<String> family,
+            @RequestParam(required = false) List<String> size
+    ) {
+        return ResponseEntity.ok(ApiResponse.success(dinosaurService.getFacets(diet, period, taxonomy, family, size)));
+    }
+
+    /**
+     * Yacimientos para el mapa del mundo, agrupados según el zoom.
+     *
+     * GET /api/dinosaurs/map?bbox=-130,20,-60,55&zoom=3
+     *
+     * bbox es minLon,minLat,maxLon,maxLat (sin él, el mundo entero); si
+     * minLon > maxLon el rectángulo cruza el antimeridiano.
+     */
+    @GetMapping("/map")
+    @Operation(summary = "Mapa de yacimientos", description = "Grupos de yacimientos dentro de un rectángulo para un nivel de zoom")
+    public ResponseEntity<ApiResponse<DinosaurMapDto>> getMap(
+            @RequestParam(required = false) String bbox,
+            @RequestParam(defaultValue = "2") int zoom
+    ) {
+        return ResponseEntity.ok(ApiResponse.success(dinosaurService.getMap(bbox, zoom)));
+    }
+
+    /**
+     * Dinosaurios que vivían en un momento dado.
+     *
+     * GET /api/dinosaurs/timeline?at=70
+     *
+     * at en millones de años (Ma) antes del presente.
+     */
+    @GetMapping("/timeline")
+    @Operation(summary = "Dinosaurios en un momento", description = "Dinosaurios que vivían hace los millones de años indicados")
+    public ResponseEntity<ApiResponse<List<DinosaurDto>>> getAliveAt(@RequestParam double at) {
+        return ResponseEntity.ok(ApiResponse.success(dinosaurService.getAliveAt(at)));
+    }
+
+    /**
+     * Línea temporal por tramos.
+     *
+     * GET /api/dinosaurs/timeline/slices?from=252&to=66&step=5
+     */
+    @GetMapping("/timeline/slices")
+    @Operation(summary = "Línea temporal", description = "Dinosaurios de cada tramo de step millones de años entre from y to")
+    public ResponseEntity<ApiResponse<DinosaurTimelineDto>> getTimeline(
+            @RequestParam(defaultValue = "252") double from,
+            @RequestParam(defaultValue = "66") double to,
+            @RequestParam(defaultValue = "5") double step
+    ) {
+        return ResponseEntity.ok(ApiResponse.success(dinosaurService.getTimeline(from, to, step)));
+    }
+
+    /**
+     * Árbol taxonómico del catálogo: clados, familias y géneros con recuentos.
+     *
+     * GET /api/dinosaurs/taxonomy
+     */
+    @GetMapping("/taxonomy")
+    @Operation(summary = "Árbol taxonómico", description = "Clados, familias y géneros del catálogo con el número de dinosaurios de cada uno")
+    public ResponseEntity<ApiResponse<DinosaurTaxonomyDto>> getTaxonomy() {
+        return ResponseEntity.ok(ApiResponse.success(dinosaurService.getTaxonomy()));
+    }
+
+    /**
+     * Dinosaurios bajo un clado o familia.
+     *
+     * GET /api/dinosaurs/taxonomy/Theropoda/dinosaurs
+     */
+    @GetMapping("/taxonomy/{group}/dinosaurs")
+    @Operation(summary = "Dinosaurios de un grupo", description = "Todos los dinosaurios bajo un clado o familia")
+    public ResponseEntity<ApiResponse<List<DinosaurDto>>> getDinosaursInGroup(@PathVariable String group) {
+        return ResponseEntity.ok(ApiResponse.success(dinosaurService.getDinosaursInGroup(group)));
+    }
+
+    /**
+     * Clado común más bajo de varios dinosaurios.
+     *
+     * GET /api/dinosaurs/taxonomy/common-ancestor?ids=1,6
+     */
+    @GetMapping("/taxonomy/common-ancestor")
+    @Operation(summary = "Ancestro común", description = "Clado común más bajo de dos o más dinosaurios y el camino de cada uno")
+    public ResponseEntity<ApiResponse<DinosaurTaxonomyDto.CommonAncestor>> getCommonAncestor(
+            @RequestParam List<Long> ids
+    ) {
+        return ResponseEntity.ok(ApiResponse.success(dinosaurService.getCommonAncestor(ids)));
+    }
+
+    /**
+     * Cambios del catálogo para clientes con copia local.
+     *
+     * GET /api/dinosaurs/changes
+     * GET /api/dinosaurs/changes?since=v1.lx3k2a9c
+     *
+     * Devuelve los dinosaurios creados o modificados y los IDs de los
+     * borrados desde el token, más el token para la siguiente llamada. Sin
+     * token (o si es demasiado antiguo) devuelve el catálogo completo con
+     * reset=true.
+     */
+    @GetMapping("/changes")
+    @Operation(summary = "Sincronización incremental", description = "Dinosaurios cambiados y borrados desde un token de sincronización")
+    public ResponseEntity<ApiResponse<CatalogChangesDto<DinosaurDto>>> getChanges(
+            @RequestParam(required = false) String since
+    ) {
+        return ResponseEntity.ok(ApiResponse.success(dinosaurService.getChanges(since)));
     }
 
     /**
      * Obtiene un dinosaurio por ID.
      *
      * GET /api/dinosaurs/{id}
+     * GET /api/dinosaurs/{id}?include=similar
      */
     @GetMapping("/{id}")
-    @Operation(summary = "Obtener dinosaurio", description = "Obtiene un dinosaurio por su ID")
-    public ResponseEntity<ApiResponse<DinosaurDto>> getDinosaurById(@PathVariable Long id) {
-        return ResponseEntity.ok(ApiResponse.success(dinosaurService.getDinosaurById(id)));
+    @Operation(summary = "Obtener dinosaurio",
+            description = "Obtiene un dinosaurio por su ID; con include=similar añade los dinosaurios más parecidos")
+    public ResponseEntity<ApiResponse<DinosaurDto>> getDinosaurById(
+            @PathVariable Long id,
+            @RequestParam(required = false) List<String> include
+    ) {
+        return ResponseEntity.ok(ApiResponse.success(dinosaurService.getDinosaurById(id, include)));
+    }
+
+    /**
+     * Dinosaurios que coincidieron en el tiempo con uno dado.
+     *
+     * GET /api/dinosaurs/{id}/contemporaries
+     */
+    @GetMapping("/{id}/contemporaries")
+    @Operation(summary = "Contemporáneos", description = "Dinosaurios cuyo rango temporal se solapa con el del indicado")
+    public ResponseEntity<ApiResponse<List<DinosaurDto>>> getContemporaries(@PathVariable Long id) {
+        return ResponseEntity.ok(ApiResponse.success(dinosaurService.getContemporaries(id)));
     }
 
     /**
@@ -65,6 +216,21 @@ public class DinosaurController {
         return ResponseEntity.ok(ApiResponse.success(dinosaurService.searchByName(name)));
     }
 
+    /**
+     * Búsqueda de texto libre en nombre, descripción, curiosidades y demás
+     * campos, sin tildes y con plurales y género ("cuello largo", "plumas").
+     *
+     * GET /api/dinosaurs/search/text?q=carnivoro con plumas&limit=10
+     */
+    @GetMapping("/search/text")
+    @Operation(summary = "Buscar por texto", description = "Resultados por relevancia con fragmentos resaltados")
+    public ResponseEntity<ApiResponse<List<DinosaurSearchHitDto>>> searchText(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(ApiResponse.success(dinosaurSearchService.search(q, limit)));
+    }
+
     /**
      * Filtra dinosaurios por dieta.
      *
@@ -0,0 +1,96 @@
+package com.educadino.controller;
+
+import com.educadino.dto.ApiResponse;
+import com.educadino.dto.MediaDto;
+import com.educadino.service.MediaService;
+import com.educadino.service.UserService;
+import com.educadino.util.ZeroCopyFileSender;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+/**
+ * Controlador de Multimedia
+ *
+ * Subida de imágenes al almacén local y descarga de originales y
+ * miniaturas. Los administradores suben cualquier imagen; el resto de
+ * usuarios solo su imagen de perfil, con límite de tamaño y cupo diario.
+ * Las descargas son públicas y, como el id es el hash del contenido, se
+ * sirven con caché inmutable de un año.
+ *
+ * Base URL: /api/media
+ */
+@RestController
+@RequestMapping("/media")
+@RequiredArgsConstructor
+@Tag(name = "Multimedia", description = "Imágenes de dinosaurios, productos y perfiles")
+public class MediaController {
+
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String PROVISIONAL = "public, max-age=60";
+
+    private final MediaService mediaService;
+    private final UserService userService;
+
+    /**
+     * Sube una imagen (JPEG, PNG o GIF). Si ya existía se devuelve la misma.
+     * El id devuelto es el valor a guardar en imageUrl, image o profileImage.
+     * Para los usuarios que no son administradores es su imagen de perfil:
+     * 413 si supera educadino.media.profile.max-bytes y 429 al agotar su
+     * cupo diario.
+     *
+     * POST /api/media (multipart, campo "file")
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Subir imagen", description = "Guarda una imagen y encola sus miniaturas")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<ApiResponse<MediaDto>> upload(@RequestParam("file") MultipartFile file,
+                                                        HttpServletRequest request) {
+        MediaDto media = request.isUserInRole("ADMIN")
+                ? mediaService.store(file)
+                : mediaService.storeProfileImage(userService.getCurrentUserId(), file);
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(ApiResponse.success(media));
+    }
+
+    /**
+     * Datos de una imagen: tamaño, dimensiones y urls de sus miniaturas.
+     *
+     * GET /api/media/{id}/info
+     */
+    @GetMapping("/{id}/info")
+    @Operation(summary = "Datos de imagen", description = "Dimensiones, tamaño y miniaturas de una imagen")
+    public ResponseEntity<ApiResponse<MediaDto>> getInfo(@PathVariable String id) {
+        return ResponseEntity.ok(ApiResponse.success(mediaService.getMedia(id)));
+    }
+
+    /**
+     * Descarga una imagen. Con width se sirve la miniatura más pequeña que
+     * tenga al menos ese ancho. Admite Range e If-None-Match.
+     *
+     * GET /api/media/{id}?width=320
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Descargar imagen", description = "Original o miniatura, con soporte de rangos")
+    public void download(
+            @PathVariable String id,
+            @RequestParam(required = false) Integer width,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        MediaService.MediaContent content = mediaService.content(id, width);
+        ZeroCopyFileSender.send(request, response, content.file(), content.contentType(), content.etag(),
+                content.immutable() ? IMMUTABLE : PROVISIONAL);
+    }
+}
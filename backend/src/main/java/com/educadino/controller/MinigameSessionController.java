@@ -0,0 +1,100 @@
+package com.educadino.controller;
+
+import com.educadino.dto.ApiResponse;
+import com.educadino.dto.FinishSessionRequest;
+import com.educadino.dto.MinigameSessionDto;
+import com.educadino.dto.SaveProgressRequest;
+import com.educadino.dto.UserProgressDto;
+import com.educadino.service.MinigameSessionService;
+import com.educadino.service.UserProgressService;
+import com.educadino.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * Controlador de Partidas de Minijuegos
+ *
+ * Partidas con tiempo medido por el servidor: abrir, latidos y terminar.
+ * El resultado se guarda como cualquier otra partida (POST /progress).
+ *
+ * Base URL: /api/minigames/{minigameType}/sessions
+ */
+@RestController
+@RequestMapping("/minigames/{minigameType}/sessions")
+@RequiredArgsConstructor
+@Tag(name = "Partidas", description = "Partidas de minijuegos con tiempo medido en el servidor")
+@SecurityRequirement(name = "bearerAuth")
+public class MinigameSessionController {
+
+    private final MinigameSessionService sessionService;
+    private final UserProgressService progressService;
+    private final UserService userService;
+
+    /**
+     * Abre una partida.
+     *
+     * POST /api/minigames/quiz/sessions
+     */
+    @PostMapping
+    @Operation(summary = "Empezar partida", description = "Abre una partida y devuelve cada cuánto enviar latidos")
+    public ResponseEntity<ApiResponse<MinigameSessionDto>> startSession(@PathVariable String minigameType) {
+        MinigameSessionDto session = sessionService.start(userService.getCurrentUserId(), minigameType);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success(session, "Partida iniciada"));
+    }
+
+    /**
+     * Latido mientras se juega; no accede a la base de datos.
+     *
+     * POST /api/minigames/quiz/sessions/{sessionId}/heartbeat
+     */
+    @PostMapping("/{sessionId}/heartbeat")
+    @Operation(summary = "Latido", description = "Mantiene la partida abierta y suma el tiempo activo")
+    public ResponseEntity<ApiResponse<MinigameSessionDto>> heartbeat(
+            @PathVariable String minigameType,
+            @PathVariable UUID sessionId
+    ) {
+        return ResponseEntity.ok(ApiResponse.success(
+                sessionService.heartbeat(userService.getCurrentUserId(), minigameType, sessionId)));
+    }
+
+    /**
+     * Termina la partida y guarda el resultado con el tiempo medido.
+     *
+     * POST /api/minigames/quiz/sessions/{sessionId}/finish
+     *
+     * Body: { "score": 100, "completed": true }
+     */
+    @PostMapping("/{sessionId}/finish")
+    @Operation(summary = "Terminar partida", description = "Cierra la partida y guarda la puntuación con el tiempo jugado calculado por el servidor")
+    public ResponseEntity<ApiResponse<UserProgressDto>> finishSession(
+            @PathVariable String minigameType,
+            @PathVariable UUID sessionId,
+            @Valid @RequestBody FinishSessionRequest request
+    ) {
+        // Si no se puede guardar, la partida sigue abierta y el cliente puede reintentar
+        return sessionService.finish(userService.getCurrentUserId(), minigameType, sessionId, finished -> {
+            SaveProgressRequest progress = new SaveProgressRequest();
+            progress.setMinigameType(finished.minigameType());
+            progress.setScore(request.getScore());
+            progress.setTimePlayed(finished.activeSeconds());
+            progress.setCompleted(request.getCompleted());
+
+            if (progressService.isAsyncIngestEnabled()) {
+                progressService.enqueueProgress(progress);
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .body(ApiResponse.success(null, "Partida terminada, se guardará en unos segundos"));
+            }
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success(progressService.saveProgress(progress), "Partida guardada correctamente"));
+        });
+    }
+}
@@ -92,6 +92,21 @@ public class ProductController {
         return ResponseEntity.ok(ApiResponse.success(productService.getAllCategories()));
     }
 
+    /**
+     * Cambios del catálogo para clientes con copia local.
+     *
+     * GET /api/products/changes?since=v1.lx3k2a9c
+     *
+     * Igual que GET /api/dinosaurs/changes, para productos.
+     */
+    @GetMapping("/changes")
+    @Operation(summary = "Sincronización incremental", description = "Productos cambiados y borrados desde un token de sincronización")
+    public ResponseEntity<ApiResponse<CatalogChangesDto<ProductDto>>> getChanges(
+            @RequestParam(required = false) String since
+    ) {
+        return ResponseEntity.ok(ApiResponse.success(productService.getChanges(since)));
+    }
+
     // ═══════════════════════════════════════════════════════════════
     // ENDPOINTS DE ADMIN (requieren autenticación)
     // ═══════════════════════════════════════════════════════════════
@@ -1,18 +1,28 @@
 package com.educadino.controller;
 
 import com.educadino.dto.*;
+import com.educadino.service.LeaderboardService;
+import com.educadino.service.ProgressBatchReader;
+import com.educadino.service.ScoreDistributionService;
 import com.educadino.service.UserProgressService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Controlador de Progreso de Usuario
@@ -29,6 +39,9 @@ import java.util.Map;
 public class ProgressController {
 
     private final UserProgressService progressService;
+    private final ProgressBatchReader batchReader;
+    private final LeaderboardService leaderboardService;
+    private final ScoreDistributionService scoreDistributionService;
 
     /**
      * Guarda el progreso de un minijuego.
@@ -36,22 +49,58 @@ public class ProgressController {
      * POST /api/progress
      *
      * Body: { "minigameType": "dino-ride", "score": 100, "timePlayed": 60, "completed": true }
+     *
+     * Con educadino.progress.async.enabled la partida se encola y se responde
+     * 202 sin datos; si la cola está llena se responde 429 con Retry-After.
      */
     @PostMapping
     @Operation(summary = "Guardar progreso", description = "Registra el resultado de un minijuego")
     public ResponseEntity<ApiResponse<UserProgressDto>> saveProgress(@Valid @RequestBody SaveProgressRequest request) {
+        if (progressService.isAsyncIngestEnabled()) {
+            progressService.enqueueProgress(request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success(null, "Progreso recibido, se guardará en unos segundos"));
+        }
+
         UserProgressDto saved = progressService.saveProgress(request);
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success(saved, "Progreso guardado correctamente"));
     }
 
     /**
-     * Obtiene todo el progreso del usuario.
+     * Guarda un lote de partidas (juego sin conexión o varias seguidas).
+     *
+     * POST /api/progress/batch
+     *
+     * Body: [ { "minigameType": "quiz", "score": 80, "timePlayed": 45, "completed": true,
+     *           "playedAt": "2026-01-10T17:30:00Z" }, ... ]
+     *
+     * playedAt es opcional y se ajusta a los últimos educadino.progress.batch.max-age.
+     *
+     * El cuerpo se lee en streaming y se rechaza con 413 si supera
+     * educadino.progress.batch.max-items o educadino.progress.batch.max-bytes.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Guardar lote de progreso", description = "Registra varios resultados de minijuegos en una sola petición")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(
+            array = @ArraySchema(schema = @Schema(implementation = SaveProgressRequest.class))))
+    public ResponseEntity<ApiResponse<List<UserProgressDto>>> saveProgressBatch(HttpServletRequest request) throws IOException {
+        List<SaveProgressRequest> batch = batchReader.read(request.getInputStream(), request.getContentLengthLong());
+        List<UserProgressDto> saved = progressService.saveProgressBatch(batch);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success(saved, saved.size() + " partidas guardadas correctamente"));
+    }
+
+    /**
+     * Obtiene el progreso más reciente del usuario.
      *
      * GET /api/progress
+     *
+     * Limitado a educadino.progress.history.max-legacy-items partidas;
+     * para el historial completo usar GET /api/progress/history.
      */
     @GetMapping
-    @Operation(summary = "Mi progreso", description = "Obtiene todo el historial de progreso del usuario")
+    @Operation(summary = "Mi progreso", description = "Obtiene las partidas más recientes del usuario (limitado, ver /progress/history)")
     public ResponseEntity<ApiResponse<List<UserProgressDto>>> getMyProgress() {
         return ResponseEntity.ok(ApiResponse.success(progressService.getMyProgress()));
     }
@@ -62,11 +111,32 @@ public class ProgressController {
      * GET /api/progress/minigame/{type}
      */
     @GetMapping("/minigame/{type}")
-    @Operation(summary = "Progreso por minijuego", description = "Obtiene el progreso en un minijuego específico")
+    @Operation(summary = "Progreso por minijuego", description = "Obtiene las partidas más recientes en un minijuego específico")
     public ResponseEntity<ApiResponse<List<UserProgressDto>>> getProgressByMinigame(@PathVariable String type) {
         return ResponseEntity.ok(ApiResponse.success(progressService.getProgressByMinigame(type)));
     }
 
+    /**
+     * Historial de progreso paginado por cursor, de más reciente a más antiguo.
+     *
+     * GET /api/progress/history?minigameType=quiz&from=2025-01-01T00:00:00&to=2025-02-01T00:00:00&limit=50
+     *
+     * Para la página siguiente se reenvían los mismos filtros con
+     * cursor=nextCursor. from es inclusivo y to exclusivo.
+     */
+    @GetMapping("/history")
+    @Operation(summary = "Historial de progreso", description = "Historial paginado por cursor con filtro por minijuego y rango de fechas")
+    public ResponseEntity<ApiResponse<CursorPage<UserProgressDto>>> getHistory(
+            @RequestParam(required = false) String minigameType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(ApiResponse.success(
+                progressService.getHistory(minigameType, from, to, cursor, limit)));
+    }
+
     /**
      * Obtiene las estadísticas resumidas del usuario.
      *
@@ -76,7 +146,39 @@ public class ProgressController {
      */
     @GetMapping("/stats")
     @Operation(summary = "Estadísticas", description = "Obtiene estadísticas resumidas del progreso")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> getStats() {
+    public ResponseEntity<ApiResponse<UserStatsDto>> getStats() {
         return ResponseEntity.ok(ApiResponse.success(progressService.getStats()));
     }
+
+    /**
+     * Obtiene la clasificación de un minijuego.
+     *
+     * GET /api/progress/leaderboard/{minigameType}?window=weekly&limit=10
+     *
+     * window: all (histórica), weekly (últimos 7 días) o daily (hoy).
+     * Incluye la posición del usuario actual en "me".
+     */
+    @GetMapping("/leaderboard/{minigameType}")
+    @Operation(summary = "Clasificación", description = "Top de jugadores de un minijuego (histórico, semanal o diario)")
+    public ResponseEntity<ApiResponse<LeaderboardDto>> getLeaderboard(
+            @PathVariable String minigameType,
+            @RequestParam(defaultValue = "all") String window,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(ApiResponse.success(leaderboardService.getLeaderboard(minigameType, window, limit)));
+    }
+
+    /**
+     * Distribución de mejores puntuaciones de un minijuego.
+     *
+     * GET /api/progress/distribution/{minigameType}
+     *
+     * Incluye percentiles, cubos del histograma y el % de jugadores que
+     * supera el usuario actual con su mejor puntuación.
+     */
+    @GetMapping("/distribution/{minigameType}")
+    @Operation(summary = "Distribución de puntuaciones", description = "Percentiles e histograma de mejores puntuaciones de un minijuego")
+    public ResponseEntity<ApiResponse<ScoreDistributionDto>> getDistribution(@PathVariable String minigameType) {
+        return ResponseEntity.ok(ApiResponse.success(scoreDistributionService.getDistribution(minigameType)));
+    }
 }
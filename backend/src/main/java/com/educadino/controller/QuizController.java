@@ -0,0 +1,88 @@
+package com.educadino.controller;
+
+import com.educadino.dto.ApiResponse;
+import com.educadino.dto.QuizAnswersRequest;
+import com.educadino.dto.QuizDto;
+import com.educadino.dto.QuizResultDto;
+import com.educadino.dto.SaveProgressRequest;
+import com.educadino.service.QuizService;
+import com.educadino.service.UserProgressService;
+import com.educadino.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+/**
+ * Controlador del Quiz
+ *
+ * Quizzes generados y corregidos en el servidor. El resultado se guarda
+ * como una partida del minijuego "quiz" (igual que POST /progress).
+ *
+ * Base URL: /api/minigames/quiz
+ */
+@RestController
+@RequestMapping("/minigames/quiz")
+@RequiredArgsConstructor
+@Tag(name = "Quiz", description = "Preguntas sobre dinosaurios generadas en el servidor")
+@SecurityRequirement(name = "bearerAuth")
+public class QuizController {
+
+    private final QuizService quizService;
+    private final UserProgressService progressService;
+    private final UserService userService;
+
+    /**
+     * Genera un quiz. Las respuestas correctas no se incluyen.
+     *
+     * GET /api/minigames/quiz?count=10&difficulty=medium
+     */
+    @GetMapping
+    @Operation(summary = "Nuevo quiz", description = "Preguntas sin repetir con sus opciones; descarta el quiz anterior sin contestar")
+    public ResponseEntity<ApiResponse<QuizDto>> generate(
+            @RequestParam(defaultValue = "10") int count,
+            @RequestParam(defaultValue = "medium") String difficulty
+    ) {
+        return ResponseEntity.ok(ApiResponse.success(
+                quizService.generate(userService.getCurrentUserId(), count, difficulty)));
+    }
+
+    /**
+     * Corrige el quiz y guarda la partida.
+     *
+     * POST /api/minigames/quiz/{quizId}/answers
+     *
+     * Body: { "answers": [2, 0, null, 1] }
+     */
+    @PostMapping("/{quizId}/answers")
+    @Operation(summary = "Enviar respuestas", description = "Corrige el quiz y guarda la puntuación con el tiempo medido por el servidor")
+    public ResponseEntity<ApiResponse<QuizResultDto>> submitAnswers(
+            @PathVariable UUID quizId,
+            @Valid @RequestBody QuizAnswersRequest request
+    ) {
+        // Si no se puede guardar, el quiz sigue abierto y se pueden reenviar las respuestas
+        return quizService.grade(userService.getCurrentUserId(), quizId, request.getAnswers(), graded -> {
+            SaveProgressRequest progress = new SaveProgressRequest();
+            progress.setMinigameType(QuizService.MINIGAME_TYPE);
+            progress.setScore(graded.score());
+            progress.setTimePlayed(graded.timePlayed());
+            progress.setCompleted(graded.completed());
+
+            QuizResultDto result = graded.result();
+            if (progressService.isAsyncIngestEnabled()) {
+                progressService.enqueueProgress(progress);
+                return ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .body(ApiResponse.success(result, "Quiz corregido, se guardará en unos segundos"));
+            }
+            result.setProgress(progressService.saveProgress(progress));
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success(result, "Quiz corregido y guardado"));
+        });
+    }
+}
@@ -62,6 +62,17 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success(null, "Tiempo de aprendizaje actualizado"));
     }
 
+    /**
+     * Calendario de actividad (mapa de calor) y rachas de días seguidos.
+     *
+     * GET /api/users/me/activity?year=2025
+     */
+    @GetMapping("/me/activity")
+    @Operation(summary = "Mi actividad", description = "Días con actividad de un año, racha actual y racha más larga")
+    public ResponseEntity<ApiResponse<ActivityCalendarDto>> getActivity(@RequestParam(required = false) Integer year) {
+        return ResponseEntity.ok(ApiResponse.success(userService.getActivity(year)));
+    }
+
     // ═══════════════════════════════════════════════════════════════
     // ENDPOINTS DE ADMIN
     // ═══════════════════════════════════════════════════════════════
@@ -0,0 +1,20 @@
+package com.educadino.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para un logro conseguido.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AchievementDto {
+
+    private String id;
+    private String name;
+    private String description;
+}
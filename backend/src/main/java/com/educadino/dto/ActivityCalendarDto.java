@@ -0,0 +1,24 @@
+package com.educadino.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO para el calendario de actividad del perfil (mapa de calor y rachas).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityCalendarDto {
+
+    private int year;
+    private List<LocalDate> activeDays;
+    private int currentStreak;
+    private int longestStreak;
+}
@@ -0,0 +1,43 @@
+package com.educadino.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO para el informe de actividad diaria por minijuego (administración).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityReportDto {
+
+    private LocalDate from;
+    private LocalDate to;
+    private String minigameType;  // null = todos
+    private long totalPlays;
+    private long uniquePlayers;   // estimación para todo el rango
+    private double averageScore;
+    private long totalTime;       // en segundos
+    private long completions;
+    private List<Day> days;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Day {
+        private LocalDate day;
+        private String minigameType;
+        private long plays;
+        private long uniquePlayers;
+        private double averageScore;
+        private long totalTime;
+        private long completions;
+    }
+}
@@ -0,0 +1,28 @@
+package com.educadino.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de Cambios del Catálogo
+ *
+ * Respuesta de la sincronización incremental: los elementos creados o
+ * modificados desde el token recibido y los IDs de los borrados. El
+ * cliente guarda syncToken y lo envía en la siguiente petición. Con
+ * reset=true la respuesta es el catálogo completo y el cliente debe
+ * descartar su copia local.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChangesDto<T> {
+    private List<T> changed;
+    private List<Long> deleted;
+    private String syncToken;
+    private boolean reset;
+}
@@ -0,0 +1,25 @@
+package com.educadino.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para páginas por cursor.
+ *
+ * nextCursor es opaco: el cliente lo reenvía tal cual en ?cursor= para
+ * pedir la siguiente página. Es null cuando no hay más resultados.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -1,17 +1,19 @@
 package com.educadino.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * DTO para transferencia de datos de Dinosaurio.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class DinosaurDto {
@@ -21,11 +23,34 @@ public class DinosaurDto {
     private String description;
     private String diet;
     private String period;
+    private Double fromMya;
+    private Double toMya;
     private String taxonomy;
     private String family;
     private String imageUrl;
     private String size;
     private String location;
+    private Double latitude;
+    private Double longitude;
     private String curiosities;
     private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    /** Solo con GET /dinosaurs/{id}?include=similar */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<Similar> similar;
+
+    /**
+     * Dinosaurio parecido, con la similitud (0-1) como puntuación.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Similar {
+        private Long id;
+        private String name;
+        private String imageUrl;
+        private double score;
+    }
 }
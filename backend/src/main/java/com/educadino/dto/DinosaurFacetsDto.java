@@ -0,0 +1,31 @@
+package com.educadino.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO con los recuentos de facetas del catálogo de dinosaurios para un filtro.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DinosaurFacetsDto {
+
+    private int total;                       // dinosaurios que cumplen el filtro
+    private Map<String, List<Facet>> facets; // atributo (diet, period...) -> valores
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Facet {
+        private String value;
+        private int count;  // resultados al elegir este valor con el resto de filtros
+    }
+}
@@ -0,0 +1,36 @@
+package com.educadino.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO con los yacimientos de un rectángulo del mapa, agrupados por zoom.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DinosaurMapDto {
+
+    private String bbox;            // minLon,minLat,maxLon,maxLat
+    private int zoom;
+    private int total;              // dinosaurios en los grupos devueltos
+    private List<Cluster> clusters;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Cluster {
+        private double latitude;    // centroide del grupo
+        private double longitude;
+        private int count;
+        private Long dinosaurId;    // solo si count es 1
+        private String name;
+        private String imageUrl;
+    }
+}
@@ -1,5 +1,7 @@
 package com.educadino.dto;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 
@@ -15,10 +17,28 @@ public class DinosaurRequest {
     private String description;
     private String diet;
     private String period;
+
+    // Millones de años; sin ellos se toman de period si es un período conocido
+    @DecimalMin(value = "0", message = "fromMya no puede ser negativo")
+    private Double fromMya;
+
+    @DecimalMin(value = "0", message = "toMya no puede ser negativo")
+    private Double toMya;
+
     private String taxonomy;
     private String family;
     private String imageUrl;
     private String size;
     private String location;
+
+    // Sin coordenadas se toman de location si menciona un lugar conocido
+    @DecimalMin(value = "-90", message = "La latitud debe estar entre -90 y 90")
+    @DecimalMax(value = "90", message = "La latitud debe estar entre -90 y 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180", message = "La longitud debe estar entre -180 y 180")
+    @DecimalMax(value = "180", message = "La longitud debe estar entre -180 y 180")
+    private Double longitude;
+
     private String curiosities;
 }
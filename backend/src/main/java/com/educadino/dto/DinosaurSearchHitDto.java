@@ -0,0 +1,22 @@
+package com.educadino.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * DTO de un resultado de la búsqueda de texto en dinosaurios.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DinosaurSearchHitDto {
+
+    private DinosaurDto dinosaur;
+    private double score;                  // relevancia BM25
+    private Map<String, String> highlights; // campo -> fragmento con <mark>coincidencias</mark> (HTML escapado)
+}
@@ -0,0 +1,56 @@
+package com.educadino.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO del árbol taxonómico del catálogo (clados → familia → género).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DinosaurTaxonomyDto {
+
+    private Node root;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Node {
+        private String name;
+        private String rank;        // root, clade, family o genus
+        private int count;          // dinosaurios bajo el nodo
+        private Long dinosaurId;    // solo en los géneros
+        private List<Node> children;
+    }
+
+    /**
+     * Clado común más bajo de varios dinosaurios.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CommonAncestor {
+        private String name;
+        private String rank;
+        private List<String> path;              // desde la raíz hasta el clado común
+        private List<Lineage> lineages;         // camino de cada dinosaurio
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Lineage {
+        private Long dinosaurId;
+        private String name;
+        private List<String> path;  // desde la raíz hasta el género
+    }
+}
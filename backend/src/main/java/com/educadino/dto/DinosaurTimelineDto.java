@@ -0,0 +1,34 @@
+package com.educadino.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO de la línea temporal: qué dinosaurios vivieron en cada tramo.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DinosaurTimelineDto {
+
+    private double fromMya;     // inicio (más antiguo)
+    private double toMya;       // final
+    private double step;        // millones de años por tramo
+    private List<Slice> slices; // del más antiguo al más reciente
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Slice {
+        private double fromMya;
+        private double toMya;
+        private int count;
+        private List<Long> dinosaurIds;
+    }
+}
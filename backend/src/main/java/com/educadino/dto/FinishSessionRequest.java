@@ -0,0 +1,18 @@
+package com.educadino.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+/**
+ * DTO para terminar una partida. El tiempo jugado lo calcula el servidor.
+ */
+@Data
+public class FinishSessionRequest {
+
+    @NotNull(message = "La puntuación es obligatoria")
+    @PositiveOrZero(message = "La puntuación debe ser positiva o cero")
+    private Integer score;
+
+    private Boolean completed = false;
+}
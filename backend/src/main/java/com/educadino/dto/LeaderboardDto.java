@@ -0,0 +1,34 @@
+package com.educadino.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para la clasificación de un minijuego.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardDto {
+
+    private String minigameType;
+    private String window;        // all, weekly, daily
+    private int totalPlayers;
+    private List<Entry> entries;
+    private Entry me;             // posición del usuario actual (null si no ha jugado)
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private int rank;
+        private String username;
+        private int score;
+    }
+}
@@ -0,0 +1,32 @@
+package com.educadino.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * DTO de Archivo Multimedia
+ *
+ * El id es lo que se guarda en imageUrl, image o profileImage; url es la
+ * dirección desde la que se sirve el original y thumbnails las de cada
+ * ancho de miniatura (más estrechas que el original).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaDto {
+
+    private String id;
+    private String url;
+    private String contentType;
+    private Long size;
+    private Integer width;
+    private Integer height;
+
+    /** ancho en píxeles -> url */
+    private Map<Integer, String> thumbnails;
+}
@@ -0,0 +1,26 @@
+package com.educadino.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * DTO de una partida en curso con el tiempo medido por el servidor.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MinigameSessionDto {
+
+    private UUID sessionId;
+    private String minigameType;
+    private LocalDateTime startedAt;
+    private Long activeSeconds;
+    private Long heartbeatIntervalSeconds;  // cada cuánto debe llamar el cliente
+    private LocalDateTime expiresAt;        // caduca si no llega ningún latido antes
+}
@@ -0,0 +1,25 @@
+package com.educadino.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO con las estadísticas de un usuario en un minijuego.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MinigameStatsDto {
+
+    private String minigameType;
+    private Integer bestScore;
+    private Integer plays;
+    private Long totalTime;
+    private Integer completions;
+    private LocalDateTime lastPlayedAt;
+}
@@ -0,0 +1,17 @@
+package com.educadino.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO con las respuestas de un quiz: la opción elegida en cada pregunta,
+ * en orden (null si se dejó sin contestar).
+ */
+@Data
+public class QuizAnswersRequest {
+
+    @NotNull(message = "Las respuestas son obligatorias")
+    private List<Integer> answers;
+}
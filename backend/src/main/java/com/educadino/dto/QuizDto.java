@@ -0,0 +1,36 @@
+package com.educadino.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO de un quiz generado. Las respuestas correctas se quedan en el
+ * servidor hasta que se envían las del niño.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizDto {
+
+    private UUID quizId;
+    private String difficulty;
+    private List<Question> questions;
+    private LocalDateTime expiresAt;  // después hay que pedir otro quiz
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Question {
+        private int number;            // posición, desde 0
+        private String text;
+        private List<String> options;
+    }
+}
@@ -0,0 +1,37 @@
+package com.educadino.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO con la corrección de un quiz y la partida guardada.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizResultDto {
+
+    private int correct;
+    private int total;
+    private int score;
+    private int timePlayed;            // segundos desde que se generó
+    private boolean completed;         // aprobado: al menos la mitad bien
+    private List<Answer> answers;
+    private UserProgressDto progress;  // null si el guardado es asíncrono
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Answer {
+        private int number;
+        private Integer chosen;
+        private int correctOption;
+        private boolean correct;
+    }
+}
@@ -0,0 +1,30 @@
+package com.educadino.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * DTO con el estado de la conciliación de estadísticas de usuarios.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationStatusDto {
+
+    private boolean running;
+    private String status;
+    private long nextUserId;
+    private long maxUserId;
+    private long usersChecked;
+    private long usersUpdated;
+    private Map<String, Long> drift;  // usuarios con desviación por contador
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+}
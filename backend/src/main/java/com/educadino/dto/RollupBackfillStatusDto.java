@@ -0,0 +1,28 @@
+package com.educadino.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DTO con el estado de la reconstrucción de resúmenes diarios.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RollupBackfillStatusDto {
+
+    private boolean running;
+    private LocalDate from;
+    private LocalDate to;
+    private int daysTotal;
+    private int daysDone;
+    private int daysFailed;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
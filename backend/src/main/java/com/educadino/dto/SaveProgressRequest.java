@@ -5,6 +5,8 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.Data;
 
+import java.time.Instant;
+
 /**
  * DTO para registrar progreso en un minijuego.
  */
@@ -23,4 +25,10 @@ public class SaveProgressRequest {
     private Integer timePlayed;
 
     private Boolean completed = false;
+
+    /**
+     * Cuándo se jugó, solo en POST /progress/batch (partidas guardadas sin
+     * conexión). Opcional: si falta se usa la hora de recepción.
+     */
+    private Instant playedAt;
 }
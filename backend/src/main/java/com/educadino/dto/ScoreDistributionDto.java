@@ -0,0 +1,38 @@
+package com.educadino.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para la distribución de mejores puntuaciones de un minijuego.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreDistributionDto {
+
+    private String minigameType;
+    private long players;
+    private long p50;
+    private long p75;
+    private long p90;
+    private long p99;
+    private Integer myBestScore;   // null si el usuario no ha jugado
+    private Integer myPercentile;  // % de jugadores con peor mejor puntuación
+    private List<Bucket> buckets;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        private long from;   // incluido
+        private long to;     // excluido
+        private long players;
+    }
+}
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 /**
  * DTO para información del usuario (perfil).
  */
@@ -24,4 +26,5 @@ public class UserDto {
     private Integer learningTime;
     private Integer completedMinigames;
     private Integer totalScore;
+    private List<AchievementDto> achievements;
 }
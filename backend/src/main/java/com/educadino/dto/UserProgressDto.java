@@ -23,4 +23,5 @@ public class UserProgressDto {
     private Integer timePlayed;
     private Boolean completed;
     private LocalDateTime playedAt;
+    private Integer percentile;  // % de jugadores superados (solo al guardar)
 }
@@ -0,0 +1,28 @@
+package com.educadino.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO con las estadísticas resumidas del usuario (GET /progress/stats).
+ * Compatible con ProgressStats del frontend Angular.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStatsDto {
+
+    private Integer totalScore;
+    private Long totalTimePlayed;
+    private Integer completedMinigames;
+    private Integer level;
+    private Integer learningTime;
+    private Map<String, Integer> bestScores;
+    private List<MinigameStatsDto> minigames;
+}
@@ -11,7 +11,10 @@ import java.time.LocalDateTime;
  * Representa un producto en el carrito de un usuario.
  */
 @Entity
-@Table(name = "cart_items")
+@Table(name = "cart_items", indexes = {
+        @Index(name = "idx_cart_items_user", columnList = "user_id"),
+        @Index(name = "idx_cart_items_added_at", columnList = "added_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
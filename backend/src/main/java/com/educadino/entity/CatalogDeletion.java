@@ -0,0 +1,45 @@
+package com.educadino.entity;
+
+import com.educadino.event.CatalogChangedEvent;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad Borrado del Catálogo
+ *
+ * Marca (tombstone) de un dinosaurio o producto eliminado. La fila borrada
+ * ya no existe, así que sin esta marca la sincronización incremental no
+ * podría decirle al cliente que lo quite de su copia local. Se purgan
+ * pasado educadino.sync.tombstone-retention.
+ */
+@Entity
+@Table(name = "catalog_deletions", indexes = {
+        @Index(name = "idx_catalog_deletions_catalog_deleted_at", columnList = "catalog, deleted_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogDeletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private CatalogChangedEvent.Catalog catalog;
+
+    @Column(nullable = false)
+    private Long itemId;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime deletedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        deletedAt = LocalDateTime.now();
+    }
+}
@@ -12,7 +12,9 @@ import java.time.LocalDateTime;
  * que se muestra en la aplicación.
  */
 @Entity
-@Table(name = "dinosaurs")
+@Table(name = "dinosaurs", indexes = {
+        @Index(name = "idx_dinosaurs_updated_at", columnList = "updated_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -35,6 +37,10 @@ public class Dinosaur {
     @Column(length = 100)
     private String period;  // Triásico, Jurásico, Cretácico
 
+    private Double fromMya;  // Primer registro fósil (millones de años)
+
+    private Double toMya;    // Último registro fósil
+
     @Column(length = 100)
     private String taxonomy;  // Theropoda, Sauropoda, etc.
 
@@ -50,6 +56,10 @@ public class Dinosaur {
     @Column(length = 200)
     private String location;  // Ubicación geográfica de fósiles
 
+    private Double latitude;   // Yacimiento representativo (grados, WGS84)
+
+    private Double longitude;
+
     @Column(columnDefinition = "TEXT")
     private String curiosities;  // Datos curiosos
 
@@ -0,0 +1,55 @@
+package com.educadino.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad Archivo Multimedia
+ *
+ * Imagen subida al almacén local (ver MediaService). El id es el SHA-256
+ * del contenido en hexadecimal, así que subir dos veces la misma imagen
+ * devuelve el mismo archivo. Las miniaturas no se registran: existen o no
+ * en disco junto al original.
+ *
+ * uploadedBy es el usuario (no admin) que la subió como imagen de perfil,
+ * para aplicar su cupo; es null en las que suben los administradores.
+ */
+@Entity
+@Table(name = "media_files", indexes = {
+        @Index(name = "idx_media_files_uploaded_by", columnList = "uploaded_by, created_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MediaFile {
+
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    @Column(nullable = false, length = 50)
+    private String contentType;
+
+    @Column(nullable = false)
+    private Long size;
+
+    @Column(nullable = false)
+    private Integer width;
+
+    @Column(nullable = false)
+    private Integer height;
+
+    @Column(updatable = false)
+    private Long uploadedBy;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
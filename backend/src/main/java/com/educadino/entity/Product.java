@@ -13,7 +13,9 @@ import java.time.LocalDateTime;
  * Compatible con el ProductService del frontend Angular.
  */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_updated_at", columnList = "updated_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
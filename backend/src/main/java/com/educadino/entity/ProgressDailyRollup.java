@@ -0,0 +1,64 @@
+package com.educadino.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad Resumen Diario de Actividad
+ *
+ * Actividad agregada por día y minijuego para analítica de administración.
+ * Se mantiene de forma incremental desde las partidas guardadas (ver
+ * ProgressRollupService) y se puede reconstruir desde user_progress con
+ * ProgressRollupBackfill.
+ *
+ * Los jugadores únicos se guardan como sketch HyperLogLog para poder
+ * unir días sin recorrer el historial; uniquePlayers es su estimación.
+ */
+@Entity
+@Table(name = "progress_daily_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_progress_daily_rollup", columnNames = {"day", "minigame_type"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProgressDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false, length = 50)
+    private String minigameType;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long plays = 0L;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long totalScore = 0L;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long totalTime = 0L;  // en segundos
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long completions = 0L;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long uniquePlayers = 0L;
+
+    @Column(nullable = false)
+    private byte[] playersSketch;  // HyperLogLog serializado
+
+    private LocalDateTime updatedAt;
+}
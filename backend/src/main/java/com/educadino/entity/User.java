@@ -2,6 +2,7 @@ package com.educadino.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,9 +16,15 @@ import java.util.List;
  *
  * Representa un usuario registrado en EducaDino.
  * Implementa UserDetails para integración con Spring Security.
+ *
+ * Los contadores de progreso se incrementan con UPDATE atómicos en SQL
+ * (ProgressRecorder, LearningTimeAccumulator). Con @DynamicUpdate un save()
+ * del perfil o de la contraseña solo escribe las columnas modificadas y no
+ * pisa esos contadores con los valores leídos al cargar la entidad.
  */
 @Entity
 @Table(name = "users")
+@DynamicUpdate
 @Data
 @Builder
 @NoArgsConstructor
@@ -58,12 +65,25 @@ public class User implements UserDetails {
     @Builder.Default
     private Integer learningTime = 0;  // en minutos
 
+    /** Minutos enviados por el frontend (POST /users/me/learning-time), incluidos en learningTime */
+    @Builder.Default
+    @Column(columnDefinition = "integer")
+    private Integer sentMinutes = 0;
+
     @Builder.Default
     private Integer completedMinigames = 0;
 
     @Builder.Default
     private Integer totalScore = 0;
 
+    @Builder.Default
+    @Column(columnDefinition = "integer default 0")
+    private Integer totalTimePlayed = 0;  // en segundos, suma de UserProgress.timePlayed
+
+    @Builder.Default
+    @Column(columnDefinition = "bigint default 0")
+    private Long achievements = 0L;  // un bit por logro (ver AchievementEngine)
+
     // ═══════════════════════════════════════════════════════════════
     // TIMESTAMPS
     // ═══════════════════════════════════════════════════════════════
@@ -0,0 +1,40 @@
+package com.educadino.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Entidad Días de Actividad
+ *
+ * Un mapa de bits por usuario y año con los días en los que jugó o sumó
+ * tiempo de aprendizaje (ver ActivityCalendar). Se actualiza con set_bit
+ * en un upsert, sin leer la fila.
+ *
+ * Tamaño: 46 bytes de datos por usuario y año; con la cabecera de la
+ * fila y el índice único, unos 130 bytes en disco. Para 1M de usuarios
+ * activos en un año son ~46 MB de mapas de bits y ~130 MB en total.
+ */
+@Entity
+@Table(name = "user_activity_days", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_user_activity_days", columnNames = {"user_id", "activity_year"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserActivityDays {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    private Integer activityYear;
+
+    @Column(nullable = false)
+    private byte[] days;  // 46 bytes, bit n = día del año n + 1
+}
@@ -0,0 +1,59 @@
+package com.educadino.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad Estadísticas por Minijuego
+ *
+ * Agregado materializado de user_progress por usuario y minijuego.
+ * Se actualiza en la misma transacción que cada partida guardada
+ * (ver ProgressRecorder), de modo que /progress/stats no necesita
+ * agregar el historial. La entidad solo define la tabla: se lee y se
+ * escribe con JdbcTemplate (upserts), sin repositorio JPA.
+ */
+@Entity
+@Table(name = "user_minigame_stats", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_user_minigame_stats", columnNames = {"user_id", "minigame_type"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserMinigameStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false, length = 50)
+    private String minigameType;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer bestScore = 0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer plays = 0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long totalScore = 0L;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long totalTime = 0L;  // en segundos
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer completions = 0;
+
+    private LocalDateTime lastPlayedAt;
+}
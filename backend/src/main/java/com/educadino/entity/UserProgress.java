@@ -12,7 +12,11 @@ import java.time.LocalDateTime;
  * Se sincroniza con el perfil del frontend.
  */
 @Entity
-@Table(name = "user_progress")
+@Table(name = "user_progress", indexes = {
+        @Index(name = "idx_user_progress_user_played", columnList = "user_id, played_at, id"),
+        @Index(name = "idx_user_progress_user_type_played", columnList = "user_id, minigame_type, played_at, id"),
+        @Index(name = "idx_user_progress_played_at", columnList = "played_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
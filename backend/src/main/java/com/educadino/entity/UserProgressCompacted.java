@@ -0,0 +1,57 @@
+package com.educadino.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad Progreso Compactado
+ *
+ * Resumen mensual por usuario y minijuego de las partidas que la política
+ * de retención ha borrado de user_progress (ver ProgressRetentionJob).
+ * Cualquier recálculo desde el historial debe sumar esta tabla a las
+ * filas que sigan en user_progress.
+ */
+@Entity
+@Table(name = "user_progress_compacted", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_user_progress_compacted", columnNames = {"user_id", "minigame_type", "month_start"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProgressCompacted {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false, length = 50)
+    private String minigameType;
+
+    @Column(nullable = false)
+    private LocalDate monthStart;  // primer día del mes compactado
+
+    @Column(nullable = false)
+    private Integer plays;
+
+    @Column(nullable = false)
+    private Integer bestScore;
+
+    @Column(nullable = false)
+    private Long totalScore;
+
+    @Column(nullable = false)
+    private Long totalTime;  // en segundos
+
+    @Column(nullable = false)
+    private Integer completions;
+
+    private LocalDateTime lastPlayedAt;
+}
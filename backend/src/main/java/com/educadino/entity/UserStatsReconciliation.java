@@ -0,0 +1,71 @@
+package com.educadino.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad Conciliación de Estadísticas
+ *
+ * Punto de control de UserStatsReconciliationJob: una única fila con el
+ * estado de la última conciliación, el id de usuario hasta el que está
+ * terminada (todos los ids menores ya se han revisado) y los usuarios con
+ * desviación en cada contador. Permite reanudar una conciliación
+ * interrumpida sin volver a empezar.
+ */
+@Entity
+@Table(name = "user_stats_reconciliation")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStatsReconciliation {
+
+    @Id
+    @Column(length = 30)
+    private String id;
+
+    @Column(nullable = false, length = 20)
+    private String status;  // RUNNING, STOPPED, FAILED, FINISHED
+
+    @Column(nullable = false)
+    private Long nextUserId;  // ids menores ya conciliados
+
+    @Column(nullable = false)
+    private Long maxUserId;  // mayor id al empezar
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long usersChecked = 0L;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long usersUpdated = 0L;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long totalScoreDrift = 0L;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long completedMinigamesDrift = 0L;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long totalTimePlayedDrift = 0L;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long learningTimeDrift = 0L;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Long levelDrift = 0L;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime finishedAt;
+}
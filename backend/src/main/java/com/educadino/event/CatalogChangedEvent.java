@@ -0,0 +1,20 @@
+package com.educadino.event;
+
+/**
+ * Evento publicado cuando un administrador crea, modifica o elimina un
+ * elemento del catálogo público.
+ *
+ * Los índices y cachés en memoria del catálogo lo escuchan con
+ * @TransactionalEventListener para rehacerse solo cuando el cambio se ha
+ * confirmado.
+ *
+ * @param catalog catálogo modificado
+ * @param id      elemento afectado
+ */
+public record CatalogChangedEvent(Catalog catalog, Long id) {
+
+    public enum Catalog {
+        DINOSAURS,
+        PRODUCTS
+    }
+}
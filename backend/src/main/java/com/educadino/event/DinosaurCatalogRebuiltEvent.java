@@ -0,0 +1,16 @@
+package com.educadino.event;
+
+/**
+ * Evento publicado por DinosaurCatalog después de sustituir su instantánea.
+ *
+ * Lo escuchan los índices que se derivan del catálogo (búsqueda, quizzes)
+ * para leer los dinosaurios de la instantánea nueva en lugar de volver a
+ * consultar la BD. Escuchar directamente CatalogChangedEvent no sirve: el
+ * orden entre los listeners no está garantizado y podrían leer la
+ * instantánea anterior.
+ *
+ * @param version   versión de la instantánea nueva
+ * @param changedId dinosaurio modificado, o null si se ha cargado entero (arranque)
+ */
+public record DinosaurCatalogRebuiltEvent(long version, Long changedId) {
+}
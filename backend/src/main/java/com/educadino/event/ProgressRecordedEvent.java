@@ -0,0 +1,15 @@
+package com.educadino.event;
+
+import com.educadino.dto.UserProgressDto;
+
+import java.util.List;
+
+/**
+ * Evento publicado por ProgressRecorder al guardar partidas de un usuario.
+ *
+ * Las estructuras en memoria (clasificaciones, distribuciones...) lo
+ * escuchan con @TransactionalEventListener para actualizarse solo cuando
+ * la transacción se ha confirmado.
+ */
+public record ProgressRecordedEvent(Long userId, List<UserProgressDto> progress) {
+}
@@ -0,0 +1,159 @@
+package com.educadino.job;
+
+import com.educadino.repository.CartItemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limpieza de Carritos Abandonados
+ *
+ * Borra periódicamente los items de carrito cuyo addedAt supera la
+ * antigüedad configurada. Trabaja por lotes acotados, cada uno en su
+ * propia transacción corta, para no mantener bloqueos largos sobre
+ * cart_items mientras los usuarios siguen comprando.
+ *
+ * Métricas (Actuator /actuator/metrics):
+ * - educadino.cart.reaper.removed: items borrados (acumulado)
+ * - educadino.cart.reaper.pending: items caducados que quedan en la ejecución actual
+ * - educadino.cart.reaper.last.removed: items borrados en la última ejecución
+ * - educadino.cart.reaper.run: duración de cada ejecución
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AbandonedCartReaper {
+
+    private final CartItemRepository cartItemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${educadino.cart-reaper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${educadino.cart-reaper.max-age:30d}")
+    private Duration maxAge;
+
+    @Value("${educadino.cart-reaper.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${educadino.cart-reaper.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    @Value("${educadino.cart-reaper.pause-between-chunks:50ms}")
+    private Duration pauseBetweenChunks;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lastRunRemoved = new AtomicLong();
+
+    private Counter removedCounter;
+    private Timer runTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        removedCounter = Counter.builder("educadino.cart.reaper.removed")
+                .description("Items de carrito abandonados borrados")
+                .register(meterRegistry);
+        runTimer = Timer.builder("educadino.cart.reaper.run")
+                .description("Duración de cada ejecución del limpiador de carritos")
+                .register(meterRegistry);
+        Gauge.builder("educadino.cart.reaper.pending", pending, AtomicLong::get)
+                .description("Items caducados pendientes en la ejecución en curso")
+                .register(meterRegistry);
+        Gauge.builder("educadino.cart.reaper.last.removed", lastRunRemoved, AtomicLong::get)
+                .description("Items borrados en la última ejecución")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecución programada (por defecto cada noche a las 03:30).
+     */
+    @Scheduled(cron = "${educadino.cart-reaper.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        if (enabled) {
+            reap();
+        }
+    }
+
+    /**
+     * Borra los items caducados por lotes.
+     *
+     * @return número de items borrados en esta ejecución
+     */
+    public long reap() {
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Limpieza de carritos ya en curso, se omite esta ejecución");
+            return 0;
+        }
+        try {
+            return runTimer.record(this::reapInChunks);
+        } catch (RuntimeException e) {
+            log.error("Error limpiando carritos abandonados", e);
+            return 0;
+        } finally {
+            pending.set(0);
+            running.set(false);
+        }
+    }
+
+    /**
+     * Si el hilo se interrumpe durante la pausa (p. ej. al apagar), se
+     * termina tras el último lote confirmado y se conserva la interrupción.
+     */
+    private long reapInChunks() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(maxAge);
+        pending.set(cartItemRepository.countByAddedAtBefore(cutoff));
+
+        long removed = 0;
+        for (int chunk = 0; chunk < maxChunksPerRun; chunk++) {
+            Integer deleted = transactionTemplate.execute(status -> deleteChunk(cutoff));
+            if (deleted == null || deleted == 0) {
+                break;
+            }
+            removed += deleted;
+            removedCounter.increment(deleted);
+            pending.updateAndGet(value -> Math.max(0, value - deleted));
+
+            if (deleted < chunkSize) {
+                break;
+            }
+            try {
+                Thread.sleep(pauseBetweenChunks.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.info("Limpieza de carritos interrumpida tras borrar {} items", removed);
+                break;
+            }
+        }
+
+        lastRunRemoved.set(removed);
+        if (removed > 0) {
+            log.info("🧹 {} items de carrito abandonados borrados (anteriores a {})", removed, cutoff);
+        }
+        return removed;
+    }
+
+    private int deleteChunk(LocalDateTime cutoff) {
+        List<Long> ids = cartItemRepository.findIdsAddedBefore(cutoff, PageRequest.of(0, chunkSize));
+        if (!ids.isEmpty()) {
+            cartItemRepository.deleteAllByIdInBatch(ids);
+        }
+        return ids.size();
+    }
+}
@@ -0,0 +1,55 @@
+package com.educadino.job;
+
+import com.educadino.service.AchievementAwarder;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Carga inicial de users.achievements
+ *
+ * Hibernate (ddl-auto) añade la columna con 0 a los usuarios existentes y
+ * los logros solo se evalúan al guardar partidas o volcar minutos, así que
+ * quien ya había superado algún umbral no lo tendría hasta su próxima
+ * actividad. Antes de que el servidor acepte peticiones se evalúan todas
+ * las reglas para los usuarios con actividad y sin ningún logro.
+ *
+ * Los usuarios que ya tienen algún bit no se vuelven a evaluar, de modo
+ * que en los arranques siguientes solo se recorren los que aún no han
+ * alcanzado ningún umbral.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class AchievementBackfill {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AchievementAwarder achievementAwarder;
+
+    @PostConstruct
+    void backfill() {
+        List<Long> userIds = jdbcTemplate.queryForList("""
+                SELECT id FROM users
+                WHERE COALESCE(achievements, 0) = 0
+                  AND (COALESCE(total_score, 0) > 0 OR COALESCE(completed_minigames, 0) > 0
+                       OR COALESCE(learning_time, 0) > 0)
+                ORDER BY id
+                """, Long.class);
+
+        int awarded = 0;
+        for (Long userId : userIds) {
+            if (achievementAwarder.award(userId, null) != 0) {
+                awarded++;
+            }
+        }
+        if (awarded > 0) {
+            log.info("🏅 Logros inicializados para {} de {} usuarios con actividad", awarded, userIds.size());
+        }
+    }
+}
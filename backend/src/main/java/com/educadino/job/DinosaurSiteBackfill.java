@@ -0,0 +1,49 @@
+package com.educadino.job;
+
+import com.educadino.entity.Dinosaur;
+import com.educadino.repository.DinosaurRepository;
+import com.educadino.util.GeoPoint;
+import com.educadino.util.PlaceGazetteer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Carga inicial de las coordenadas de los yacimientos
+ *
+ * Hibernate (ddl-auto) añade latitude y longitude a dinosaurs vacías. Los
+ * dinosaurios que aún no tienen coordenadas pero sí location se ubican con
+ * PlaceGazetteer antes de que el catálogo se indexe; los que mencionan un
+ * lugar desconocido se quedan fuera del mapa hasta que un admin las ponga.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class DinosaurSiteBackfill {
+
+    private final DinosaurRepository dinosaurRepository;
+
+    @PostConstruct
+    void backfillMissingSites() {
+        List<Dinosaur> located = new ArrayList<>();
+        for (Dinosaur dinosaur : dinosaurRepository.findByLatitudeIsNullAndLocationIsNotNull()) {
+            Optional<GeoPoint> point = PlaceGazetteer.locate(dinosaur.getLocation());
+            if (point.isPresent()) {
+                dinosaur.setLatitude(point.get().latitude());
+                dinosaur.setLongitude(point.get().longitude());
+                located.add(dinosaur);
+            }
+        }
+        if (!located.isEmpty()) {
+            dinosaurRepository.saveAll(located);
+            log.info("🗺️ Coordenadas asignadas a {} dinosaurios a partir de su ubicación", located.size());
+        }
+    }
+}
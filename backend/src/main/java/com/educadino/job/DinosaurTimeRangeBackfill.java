@@ -0,0 +1,49 @@
+package com.educadino.job;
+
+import com.educadino.entity.Dinosaur;
+import com.educadino.repository.DinosaurRepository;
+import com.educadino.util.GeologicTimeScale;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Carga inicial de los rangos temporales
+ *
+ * Hibernate (ddl-auto) añade from_mya y to_mya a dinosaurs vacías. Los
+ * dinosaurios sin rango se completan con el de su period según
+ * GeologicTimeScale ("Cretácico Superior" -> 100.5-66 Ma) antes de que el
+ * catálogo se indexe. Es un rango aproximado: un admin puede afinarlo con
+ * el del registro fósil de cada especie.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class DinosaurTimeRangeBackfill {
+
+    private final DinosaurRepository dinosaurRepository;
+
+    @PostConstruct
+    void backfillMissingRanges() {
+        List<Dinosaur> dated = new ArrayList<>();
+        for (Dinosaur dinosaur : dinosaurRepository.findByFromMyaIsNullAndPeriodIsNotNull()) {
+            Optional<GeologicTimeScale.Range> range = GeologicTimeScale.range(dinosaur.getPeriod());
+            if (range.isPresent()) {
+                dinosaur.setFromMya(range.get().fromMya());
+                dinosaur.setToMya(range.get().toMya());
+                dated.add(dinosaur);
+            }
+        }
+        if (!dated.isEmpty()) {
+            dinosaurRepository.saveAll(dated);
+            log.info("⏳ Rango temporal asignado a {} dinosaurios a partir de su período", dated.size());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.educadino.job;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carga inicial de user_minigame_stats
+ *
+ * La tabla la crea Hibernate (ddl-auto) vacía. Si existe historial en
+ * user_progress y la tabla aún no tiene filas, se rellena con una única
+ * sentencia INSERT ... SELECT antes de que el servidor acepte peticiones.
+ * Incluye las partidas ya compactadas en user_progress_compacted.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class MinigameStatsBackfill {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void backfillIfEmpty() {
+        Boolean empty = jdbcTemplate.queryForObject(
+                "SELECT NOT EXISTS (SELECT 1 FROM user_minigame_stats)", Boolean.class);
+        if (!Boolean.TRUE.equals(empty)) {
+            return;
+        }
+
+        int rows = jdbcTemplate.update("""
+                INSERT INTO user_minigame_stats
+                    (user_id, minigame_type, best_score, plays, total_score, total_time, completions, last_played_at)
+                SELECT user_id, minigame_type, MAX(best_score), SUM(plays), SUM(total_score), SUM(total_time),
+                       SUM(completions), MAX(last_played_at)
+                FROM (
+                    SELECT user_id, minigame_type, MAX(score) AS best_score, COUNT(*) AS plays,
+                           SUM(score) AS total_score, SUM(time_played) AS total_time,
+                           COUNT(*) FILTER (WHERE completed) AS completions, MAX(played_at) AS last_played_at
+                    FROM user_progress
+                    GROUP BY user_id, minigame_type
+                    UNION ALL
+                    SELECT user_id, minigame_type, best_score, plays, total_score, total_time,
+                           completions, last_played_at
+                    FROM user_progress_compacted
+                ) history
+                GROUP BY user_id, minigame_type
+                ON CONFLICT (user_id, minigame_type) DO NOTHING
+                """);
+        if (rows > 0) {
+            log.info("📊 user_minigame_stats inicializada con {} filas desde user_progress", rows);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.educadino.job;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Particiones y Retención de user_progress
+ *
+ * Si user_progress está particionada por mes (ver
+ * partition-user-progress.sql) mantiene creadas las particiones de los
+ * próximos meses para que las inserciones nunca caigan en la partición
+ * por defecto.
+ *
+ * Con educadino.progress.retention.enabled, las partidas anteriores a
+ * educadino.progress.retention.months meses se compactan en
+ * user_progress_compacted (una fila por usuario, minijuego y mes) y se
+ * borran. Con particiones, cada mes caducado se compacta y se elimina con
+ * DROP TABLE en la misma transacción. Sin particiones se borra por lotes
+ * con DELETE ... RETURNING, compactando cada lote en su transacción.
+ *
+ * users y user_minigame_stats ya incluyen esas partidas, así que las
+ * estadísticas que ve el usuario no cambian; solo se recorta el historial.
+ *
+ * Métricas:
+ * - educadino.progress.retention.compacted: partidas compactadas y borradas
+ * - educadino.progress.retention.partitions.dropped: particiones eliminadas
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProgressRetentionJob {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("user_progress_(\\d{4})_(\\d{2})");
+
+    private static final String COMPACT_UPSERT = """
+            ON CONFLICT (user_id, minigame_type, month_start) DO UPDATE SET
+                plays = user_progress_compacted.plays + EXCLUDED.plays,
+                best_score = GREATEST(user_progress_compacted.best_score, EXCLUDED.best_score),
+                total_score = user_progress_compacted.total_score + EXCLUDED.total_score,
+                total_time = user_progress_compacted.total_time + EXCLUDED.total_time,
+                completions = user_progress_compacted.completions + EXCLUDED.completions,
+                last_played_at = GREATEST(user_progress_compacted.last_played_at, EXCLUDED.last_played_at)
+            """;
+
+    private static final String COMPACT_COLUMNS = """
+            INSERT INTO user_progress_compacted
+                (user_id, minigame_type, month_start, plays, best_score, total_score, total_time, completions, last_played_at)
+            SELECT user_id, minigame_type, CAST(date_trunc('month', played_at) AS date), COUNT(*), MAX(score),
+                   SUM(score), SUM(time_played), COUNT(*) FILTER (WHERE completed), MAX(played_at)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${educadino.progress.retention.enabled:false}")
+    private boolean retentionEnabled;
+
+    @Value("${educadino.progress.retention.months:24}")
+    private int retentionMonths;
+
+    @Value("${educadino.progress.retention.premake-months:3}")
+    private int premakeMonths;
+
+    @Value("${educadino.progress.retention.chunk-size:5000}")
+    private int chunkSize;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private Counter compactedCounter;
+    private Counter droppedCounter;
+
+    @PostConstruct
+    void registerMetrics() {
+        compactedCounter = Counter.builder("educadino.progress.retention.compacted")
+                .description("Partidas compactadas y borradas de user_progress")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("educadino.progress.retention.partitions.dropped")
+                .description("Particiones mensuales de user_progress eliminadas")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Primer mes que se conserva en user_progress, o null si no hay retención.
+     * Los recálculos desde el historial no deben tocar meses anteriores.
+     */
+    public YearMonth oldestRetainedMonth() {
+        return retentionEnabled ? YearMonth.now().minusMonths(retentionMonths) : null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (isPartitioned()) {
+            createUpcomingPartitions();
+        }
+    }
+
+    @Scheduled(cron = "${educadino.progress.retention.cron:0 15 4 * * *}")
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            boolean partitioned = isPartitioned();
+            if (partitioned) {
+                createUpcomingPartitions();
+            }
+            if (retentionEnabled) {
+                if (partitioned) {
+                    dropExpiredPartitions();
+                } else {
+                    deleteExpiredRows();
+                }
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private boolean isPartitioned() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("""
+                SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt
+                               JOIN pg_class c ON c.oid = pt.partrelid
+                               WHERE c.relname = 'user_progress')
+                """, Boolean.class));
+    }
+
+    private void createUpcomingPartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= premakeMonths; i++) {
+            YearMonth month = current.plusMonths(i);
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                        + " PARTITION OF user_progress FOR VALUES FROM ('" + month.atDay(1)
+                        + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+            } catch (RuntimeException e) {
+                // Suele indicar filas de ese mes en la partición por defecto
+                log.error("No se pudo crear la partición {} de user_progress", partitionName(month), e);
+            }
+        }
+    }
+
+    private void dropExpiredPartitions() {
+        YearMonth oldestRetained = oldestRetainedMonth();
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                JOIN pg_class p ON p.oid = i.inhparent
+                WHERE p.relname = 'user_progress'
+                ORDER BY c.relname
+                """, String.class);
+
+        for (String partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (!month.isBefore(oldestRetained)) {
+                continue;
+            }
+            // Compactar y eliminar juntos: si algo falla no se pierde ni se duplica nada
+            Long rows = transactionTemplate.execute(status -> {
+                Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + partition, Long.class);
+                jdbcTemplate.update(COMPACT_COLUMNS + " FROM " + partition
+                        + " GROUP BY user_id, minigame_type, CAST(date_trunc('month', played_at) AS date) "
+                        + COMPACT_UPSERT);
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                return count;
+            });
+            compactedCounter.increment(rows != null ? rows : 0);
+            droppedCounter.increment();
+            log.info("🗜️ Partición {} compactada ({} partidas) y eliminada", partition, rows);
+        }
+    }
+
+    private void deleteExpiredRows() {
+        Timestamp cutoff = Timestamp.valueOf(oldestRetainedMonth().atDay(1).atStartOfDay());
+        long total = 0;
+        while (true) {
+            // Las sentencias de modificación dentro de WITH se ejecutan siempre completas
+            Long deleted = transactionTemplate.execute(status -> jdbcTemplate.queryForObject("""
+                    WITH moved AS (
+                        DELETE FROM user_progress
+                        WHERE id IN (SELECT id FROM user_progress WHERE played_at < ? LIMIT ?)
+                        RETURNING user_id, minigame_type, score, time_played, completed, played_at
+                    ), compacted AS (
+                    """ + COMPACT_COLUMNS + " FROM moved "
+                    + "GROUP BY user_id, minigame_type, CAST(date_trunc('month', played_at) AS date) "
+                    + COMPACT_UPSERT + " RETURNING 1) SELECT COUNT(*) FROM moved", Long.class, cutoff, chunkSize));
+            if (deleted == null || deleted == 0) {
+                break;
+            }
+            compactedCounter.increment(deleted);
+            total += deleted;
+        }
+        if (total > 0) {
+            log.info("🗜️ {} partidas anteriores a {} compactadas en user_progress_compacted",
+                    total, cutoff.toLocalDateTime().toLocalDate());
+        }
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("user_progress_%d_%02d", month.getYear(), month.getMonthValue());
+    }
+}
@@ -0,0 +1,155 @@
+package com.educadino.job;
+
+import com.educadino.dto.RollupBackfillStatusDto;
+import com.educadino.exception.BadRequestException;
+import com.educadino.service.ProgressRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reconstrucción de Resúmenes Diarios
+ *
+ * Recalcula progress_daily_rollup desde user_progress para un rango de
+ * días. Cada día es un trozo independiente: se lee con cursor (fetch size
+ * acotado) por el índice de played_at, se agrega en memoria y se sustituye
+ * en una transacción propia. Los días se procesan en paralelo con
+ * educadino.analytics.rollup.backfill.parallelism hilos.
+ *
+ * ProgressRollupService.replaceDay descarta los acumuladores pendientes
+ * del día antes de leerlo, para no sumar dos veces las partidas que aún
+ * no se han volcado. El día en curso no se reconstruye porque está
+ * incompleto.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProgressRollupBackfill {
+
+    private static final String DAY_SQL =
+            "SELECT user_id, minigame_type, score, time_played, completed FROM user_progress "
+                    + "WHERE played_at >= ? AND played_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProgressRollupService rollupService;
+    private final ProgressRetentionJob retentionJob;
+
+    @Value("${educadino.analytics.rollup.backfill.parallelism:4}")
+    private int parallelism;
+
+    @Value("${educadino.analytics.rollup.backfill.fetch-size:5000}")
+    private int fetchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicInteger daysDone = new AtomicInteger();
+    private final AtomicInteger daysFailed = new AtomicInteger();
+    private volatile LocalDate from;
+    private volatile LocalDate to;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    /**
+     * Lanza la reconstrucción en segundo plano.
+     *
+     * @param from primer día (incluido); se recorta al primer mes que
+     *             conserva la retención, porque los anteriores ya no están
+     *             en user_progress y se vaciarían sus resúmenes
+     * @param to   último día (incluido); se recorta a ayer
+     */
+    public RollupBackfillStatusDto start(LocalDate from, LocalDate to) {
+        YearMonth oldestRetained = retentionJob.oldestRetainedMonth();
+        if (oldestRetained != null && from.isBefore(oldestRetained.atDay(1))) {
+            from = oldestRetained.atDay(1);
+        }
+        LocalDate lastDay = to.isBefore(LocalDate.now()) ? to : LocalDate.now().minusDays(1);
+        if (from.isAfter(lastDay)) {
+            throw new BadRequestException("No hay días completos que reconstruir en el rango indicado");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new BadRequestException("Ya hay una reconstrucción de resúmenes en curso");
+        }
+
+        this.from = from;
+        this.to = lastDay;
+        this.startedAt = LocalDateTime.now();
+        this.finishedAt = null;
+        daysDone.set(0);
+        daysFailed.set(0);
+
+        LocalDate firstDay = from;
+        Thread.ofVirtual().name("rollup-backfill").start(() -> run(firstDay, lastDay));
+        return status();
+    }
+
+    public RollupBackfillStatusDto status() {
+        return RollupBackfillStatusDto.builder()
+                .running(running.get())
+                .from(from)
+                .to(to)
+                .daysTotal(from != null ? (int) ChronoUnit.DAYS.between(from, to) + 1 : 0)
+                .daysDone(daysDone.get())
+                .daysFailed(daysFailed.get())
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .build();
+    }
+
+    private void run(LocalDate first, LocalDate last) {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+                LocalDate current = day;
+                executor.execute(() -> rebuildDay(current));
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+            log.info("📈 Resúmenes diarios reconstruidos del {} al {} ({} días, {} fallidos)",
+                    first, last, daysDone.get(), daysFailed.get());
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            finishedAt = LocalDateTime.now();
+            running.set(false);
+        }
+    }
+
+    private void rebuildDay(LocalDate day) {
+        try {
+            rollupService.replaceDay(day, () -> {
+                Map<String, ProgressRollupService.Delta> deltas = new HashMap<>();
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement ps = connection.prepareStatement(DAY_SQL);
+                    ps.setFetchSize(fetchSize);
+                    ps.setTimestamp(1, Timestamp.valueOf(day.atStartOfDay()));
+                    ps.setTimestamp(2, Timestamp.valueOf(day.plusDays(1).atStartOfDay()));
+                    return ps;
+                }, rs -> {
+                    deltas.computeIfAbsent(rs.getString(2), type -> new ProgressRollupService.Delta())
+                            .add(rs.getLong(1), rs.getInt(3), rs.getInt(4), rs.getBoolean(5));
+                });
+                return deltas;
+            });
+            daysDone.incrementAndGet();
+        } catch (RuntimeException e) {
+            daysFailed.incrementAndGet();
+            log.error("No se pudo reconstruir el resumen del {}", day, e);
+        }
+    }
+}
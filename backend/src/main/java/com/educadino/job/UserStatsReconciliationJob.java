@@ -0,0 +1,489 @@
+package com.educadino.job;
+
+import com.educadino.dto.ReconciliationStatusDto;
+import com.educadino.entity.UserStatsReconciliation;
+import com.educadino.exception.BadRequestException;
+import com.educadino.service.LevelPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Conciliación de Estadísticas de Usuarios
+ *
+ * total_score, completed_minigames, total_time_played, learning_time y
+ * level de users son copias desnormalizadas del historial. Este proceso
+ * las recalcula desde user_progress más user_progress_compacted y
+ * corrige con un UPDATE por lotes solo las filas que difieren, contando
+ * cuántos usuarios tenían desviación en cada campo. También sirve para
+ * recalcular los niveles tras cambiar LevelPolicy.
+ *
+ * Los usuarios se recorren por rangos de id de
+ * educadino.users.reconciliation.chunk-size, cada uno en su propia
+ * transacción corta y en paralelo. Las filas del rango se bloquean antes
+ * de agregar el historial: una partida que se esté guardando espera a que
+ * termine el rango o ya está incluida en el agregado, así que no se pierde
+ * ningún incremento. learning_time es sent_minutes (minutos enviados por
+ * el frontend, sin tabla de origen) más los minutos del tiempo de juego;
+ * solo se recalcula esa segunda parte. Los usuarios con sent_minutes NULL
+ * (aún sin inicializar por UserTimePlayedBackfill) conservan learning_time
+ * y level.
+ *
+ * El avance se guarda en user_stats_reconciliation (id hasta el que todos
+ * los rangos están terminados). Una conciliación detenida, fallida o
+ * cortada por un reinicio continúa desde ahí; al arrancar se reanuda sola
+ * si quedó en curso.
+ *
+ * Métricas:
+ * - educadino.users.reconciliation.checked: usuarios revisados
+ * - educadino.users.reconciliation.updated: usuarios corregidos
+ * - educadino.users.reconciliation.drift{field}: usuarios con desviación por campo
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserStatsReconciliationJob {
+
+    private static final String JOB_ID = "user-stats";
+
+    private static final String RUNNING = "RUNNING";
+    private static final String STOPPED = "STOPPED";
+    private static final String FAILED = "FAILED";
+    private static final String FINISHED = "FINISHED";
+
+    /** Campos conciliados, en el orden de los arrays de valores. */
+    private static final String[] FIELDS = {
+            "totalScore", "completedMinigames", "totalTimePlayed", "learningTime", "level"
+    };
+
+    private static final String LOCK_SQL = """
+            SELECT id, COALESCE(total_score, 0), COALESCE(completed_minigames, 0),
+                   COALESCE(total_time_played, 0), COALESCE(learning_time, 0), COALESCE(level, 0),
+                   sent_minutes
+            FROM users
+            WHERE id >= ? AND id < ?
+            ORDER BY id
+            FOR NO KEY UPDATE
+            """;
+
+    private static final String SOURCE_SQL = """
+            SELECT user_id, SUM(score), SUM(completions), SUM(seconds)
+            FROM (
+                SELECT user_id, SUM(score) AS score, COUNT(*) FILTER (WHERE completed) AS completions,
+                       SUM(time_played) AS seconds
+                FROM user_progress
+                WHERE user_id >= ? AND user_id < ?
+                GROUP BY user_id
+                UNION ALL
+                SELECT user_id, SUM(total_score), SUM(completions), SUM(total_time)
+                FROM user_progress_compacted
+                WHERE user_id >= ? AND user_id < ?
+                GROUP BY user_id
+            ) totals
+            GROUP BY user_id
+            """;
+
+    private static final String UPDATE_SQL = """
+            UPDATE users SET total_score = ?, completed_minigames = ?, total_time_played = ?,
+                             learning_time = ?, level = ?, updated_at = ?
+            WHERE id = ?
+            """;
+
+    private static final String SAVE_SQL = """
+            INSERT INTO user_stats_reconciliation
+                (id, status, next_user_id, max_user_id, users_checked, users_updated, total_score_drift,
+                 completed_minigames_drift, total_time_played_drift, learning_time_drift, level_drift,
+                 started_at, updated_at, finished_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (id) DO UPDATE SET
+                status = EXCLUDED.status, next_user_id = EXCLUDED.next_user_id,
+                max_user_id = EXCLUDED.max_user_id, users_checked = EXCLUDED.users_checked,
+                users_updated = EXCLUDED.users_updated, total_score_drift = EXCLUDED.total_score_drift,
+                completed_minigames_drift = EXCLUDED.completed_minigames_drift,
+                total_time_played_drift = EXCLUDED.total_time_played_drift,
+                learning_time_drift = EXCLUDED.learning_time_drift, level_drift = EXCLUDED.level_drift,
+                started_at = EXCLUDED.started_at, updated_at = EXCLUDED.updated_at,
+                finished_at = EXCLUDED.finished_at
+            """;
+
+    private static final long[] NO_PROGRESS = {0, 0, 0};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${educadino.users.reconciliation.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${educadino.users.reconciliation.parallelism:4}")
+    private int parallelism;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    /** Estado final si hay que parar antes de terminar (null: seguir). */
+    private final AtomicReference<String> stopStatus = new AtomicReference<>();
+
+    /** Rangos terminados por encima de nextUserId, por id inicial. */
+    private final Map<Long, ChunkResult> pendingChunks = new HashMap<>();
+
+    private UserStatsReconciliation state;
+
+    private Counter checkedCounter;
+    private Counter updatedCounter;
+    private final Counter[] driftCounters = new Counter[FIELDS.length];
+
+    /**
+     * Resultado de un rango: usuarios revisados, corregidos y desviaciones
+     * por campo (en el orden de FIELDS).
+     */
+    private record ChunkResult(long end, long checked, long updated, long[] drift) {
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        checkedCounter = Counter.builder("educadino.users.reconciliation.checked")
+                .description("Usuarios revisados por la conciliación de estadísticas")
+                .register(meterRegistry);
+        updatedCounter = Counter.builder("educadino.users.reconciliation.updated")
+                .description("Usuarios con estadísticas corregidas")
+                .register(meterRegistry);
+        for (int i = 0; i < FIELDS.length; i++) {
+            driftCounters[i] = Counter.builder("educadino.users.reconciliation.drift")
+                    .description("Usuarios con desviación en un contador desnormalizado")
+                    .tag("field", FIELDS[i])
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Reanuda la conciliación si un reinicio la cortó a medias.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        UserStatsReconciliation saved = load();
+        if (saved != null && RUNNING.equals(saved.getStatus())) {
+            log.info("🔁 Reanudando la conciliación de estadísticas desde el usuario {}", saved.getNextUserId());
+            start(false);
+        }
+    }
+
+    @Scheduled(cron = "${educadino.users.reconciliation.cron:-}")
+    public void runScheduled() {
+        if (!running.get()) {
+            start(false);
+        }
+    }
+
+    /**
+     * Lanza la conciliación en segundo plano.
+     *
+     * @param restart true para empezar desde el primer usuario aunque la
+     *                anterior no terminase; false para continuarla
+     */
+    public ReconciliationStatusDto start(boolean restart) {
+        if (!running.compareAndSet(false, true)) {
+            throw new BadRequestException("Ya hay una conciliación de estadísticas en curso");
+        }
+        try {
+            UserStatsReconciliation saved = load();
+            synchronized (this) {
+                if (restart || saved == null || FINISHED.equals(saved.getStatus())) {
+                    Long maxUserId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM users", Long.class);
+                    state = UserStatsReconciliation.builder()
+                            .id(JOB_ID)
+                            .nextUserId(0L)
+                            .maxUserId(maxUserId)
+                            .startedAt(LocalDateTime.now())
+                            .build();
+                } else {
+                    state = saved;
+                    state.setFinishedAt(null);
+                }
+                state.setStatus(RUNNING);
+                state.setUpdatedAt(LocalDateTime.now());
+                pendingChunks.clear();
+                save(state);
+            }
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+
+        stopStatus.set(null);
+        Thread.ofVirtual().name("user-stats-reconciliation").start(this::run);
+        return status();
+    }
+
+    /**
+     * Detiene la conciliación; se puede continuar después con start(false).
+     */
+    public ReconciliationStatusDto stop() {
+        if (!running.get()) {
+            throw new BadRequestException("No hay ninguna conciliación de estadísticas en curso");
+        }
+        stopStatus.compareAndSet(null, STOPPED);
+        return status();
+    }
+
+    /**
+     * Al apagar se deja de repartir rangos y el estado queda RUNNING para
+     * reanudarla en el siguiente arranque.
+     */
+    @PreDestroy
+    void stopOnShutdown() {
+        stopStatus.compareAndSet(null, RUNNING);
+    }
+
+    public synchronized ReconciliationStatusDto status() {
+        UserStatsReconciliation current = state != null ? state : load();
+        if (current == null) {
+            return ReconciliationStatusDto.builder().running(false).drift(Map.of()).build();
+        }
+        long[] drift = driftOf(current);
+        Map<String, Long> byField = new LinkedHashMap<>();
+        for (int i = 0; i < FIELDS.length; i++) {
+            byField.put(FIELDS[i], drift[i]);
+        }
+        return ReconciliationStatusDto.builder()
+                .running(running.get())
+                .status(current.getStatus())
+                .nextUserId(current.getNextUserId())
+                .maxUserId(current.getMaxUserId())
+                .usersChecked(current.getUsersChecked())
+                .usersUpdated(current.getUsersUpdated())
+                .drift(byField)
+                .startedAt(current.getStartedAt())
+                .updatedAt(current.getUpdatedAt())
+                .finishedAt(current.getFinishedAt())
+                .build();
+    }
+
+    private void run() {
+        long first;
+        long last;
+        synchronized (this) {
+            first = state.getNextUserId();
+            last = state.getMaxUserId();
+        }
+
+        // Como mucho dos rangos por hilo en cola: millones de usuarios no llenan la memoria de tareas
+        Semaphore slots = new Semaphore(parallelism * 2);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            for (long from = first; from <= last && stopStatus.get() == null; from += chunkSize) {
+                slots.acquire();
+                long start = from;
+                long end = from + chunkSize;
+                executor.execute(() -> {
+                    try {
+                        reconcileChunk(start, end);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            stopStatus.compareAndSet(null, RUNNING);
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (this) {
+                String finalStatus = stopStatus.get();
+                state.setStatus(finalStatus != null ? finalStatus : FINISHED);
+                state.setUpdatedAt(LocalDateTime.now());
+                if (finalStatus == null) {
+                    state.setFinishedAt(LocalDateTime.now());
+                }
+                try {
+                    save(state);
+                } catch (RuntimeException e) {
+                    log.warn("No se pudo guardar el estado final de la conciliación: {}", e.getMessage());
+                }
+                long[] drift = driftOf(state);
+                log.info("🧮 Conciliación de estadísticas {}: {} usuarios revisados, {} corregidos "
+                                + "(puntuación {}, completados {}, tiempo {}, aprendizaje {}, nivel {})",
+                        state.getStatus(), state.getUsersChecked(), state.getUsersUpdated(),
+                        drift[0], drift[1], drift[2], drift[3], drift[4]);
+            }
+            running.set(false);
+        }
+    }
+
+    private void reconcileChunk(long start, long end) {
+        if (stopStatus.get() != null) {
+            return;
+        }
+        try {
+            ChunkResult result = transactionTemplate.execute(status -> reconcile(start, end));
+            checkedCounter.increment(result.checked());
+            updatedCounter.increment(result.updated());
+            for (int i = 0; i < FIELDS.length; i++) {
+                driftCounters[i].increment(result.drift()[i]);
+            }
+            complete(start, result);
+        } catch (RuntimeException e) {
+            log.error("No se pudieron conciliar los usuarios {}-{}", start, end - 1, e);
+            stopStatus.compareAndSet(null, FAILED);
+        }
+    }
+
+    /**
+     * Concilia los usuarios con id en [start, end) dentro de la transacción
+     * actual.
+     */
+    private ChunkResult reconcile(long start, long end) {
+        Map<Long, long[]> stored = new LinkedHashMap<>();
+        Map<Long, Long> sentMinutes = new HashMap<>();
+        jdbcTemplate.query(LOCK_SQL, rs -> {
+            stored.put(rs.getLong(1), new long[]{
+                    rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5), rs.getLong(6)
+            });
+            long sent = rs.getLong(7);
+            if (!rs.wasNull()) {
+                sentMinutes.put(rs.getLong(1), sent);
+            }
+        }, start, end);
+        if (stored.isEmpty()) {
+            return new ChunkResult(end, 0, 0, new long[FIELDS.length]);
+        }
+
+        Map<Long, long[]> totals = new HashMap<>();
+        jdbcTemplate.query(SOURCE_SQL, rs -> {
+            totals.put(rs.getLong(1), new long[]{rs.getLong(2), rs.getLong(3), rs.getLong(4)});
+        }, start, end, start, end);
+
+        long[] drift = new long[FIELDS.length];
+        List<Object[]> updates = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        stored.forEach((userId, current) -> {
+            long[] source = totals.getOrDefault(userId, NO_PROGRESS);
+            long score = source[0];
+            long completed = source[1];
+            long seconds = source[2];
+            Long sent = sentMinutes.get(userId);
+            long learningTime = sent != null ? sent + seconds / 60 : current[3];
+            long level = sent != null ? LevelPolicy.level(learningTime, completed, score) : current[4];
+            long[] expected = {score, completed, seconds, learningTime, level};
+
+            boolean differs = false;
+            for (int i = 0; i < FIELDS.length; i++) {
+                if (expected[i] != current[i]) {
+                    drift[i]++;
+                    differs = true;
+                }
+            }
+            if (differs) {
+                updates.add(new Object[]{
+                        expected[0], expected[1], expected[2], expected[3], expected[4], now, userId
+                });
+            }
+        });
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        }
+        return new ChunkResult(end, stored.size(), updates.size(), drift);
+    }
+
+    /**
+     * Anota un rango terminado y avanza el punto de control mientras los
+     * rangos sean contiguos. Los rangos terminados fuera de orden esperan en
+     * memoria; si se corta la ejecución se repiten, lo que es inocuo.
+     */
+    private synchronized void complete(long start, ChunkResult result) {
+        pendingChunks.put(start, result);
+        boolean advanced = false;
+        ChunkResult next;
+        while ((next = pendingChunks.remove(state.getNextUserId())) != null) {
+            state.setNextUserId(next.end());
+            state.setUsersChecked(state.getUsersChecked() + next.checked());
+            state.setUsersUpdated(state.getUsersUpdated() + next.updated());
+            state.setTotalScoreDrift(state.getTotalScoreDrift() + next.drift()[0]);
+            state.setCompletedMinigamesDrift(state.getCompletedMinigamesDrift() + next.drift()[1]);
+            state.setTotalTimePlayedDrift(state.getTotalTimePlayedDrift() + next.drift()[2]);
+            state.setLearningTimeDrift(state.getLearningTimeDrift() + next.drift()[3]);
+            state.setLevelDrift(state.getLevelDrift() + next.drift()[4]);
+            advanced = true;
+        }
+        if (advanced) {
+            state.setUpdatedAt(LocalDateTime.now());
+            save(state);
+        }
+    }
+
+    private static long[] driftOf(UserStatsReconciliation run) {
+        return new long[]{
+                run.getTotalScoreDrift(), run.getCompletedMinigamesDrift(), run.getTotalTimePlayedDrift(),
+                run.getLearningTimeDrift(), run.getLevelDrift()
+        };
+    }
+
+    private UserStatsReconciliation load() {
+        List<UserStatsReconciliation> rows = jdbcTemplate.query(
+                "SELECT * FROM user_stats_reconciliation WHERE id = ?", this::mapRow, JOB_ID);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private void save(UserStatsReconciliation run) {
+        jdbcTemplate.update(SAVE_SQL,
+                run.getId(), run.getStatus(), run.getNextUserId(), run.getMaxUserId(),
+                run.getUsersChecked(), run.getUsersUpdated(), run.getTotalScoreDrift(),
+                run.getCompletedMinigamesDrift(), run.getTotalTimePlayedDrift(), run.getLearningTimeDrift(),
+                run.getLevelDrift(), toTimestamp(run.getStartedAt()), toTimestamp(run.getUpdatedAt()),
+                toTimestamp(run.getFinishedAt()));
+    }
+
+    private UserStatsReconciliation mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return UserStatsReconciliation.builder()
+                .id(rs.getString("id"))
+                .status(rs.getString("status"))
+                .nextUserId(rs.getLong("next_user_id"))
+                .maxUserId(rs.getLong("max_user_id"))
+                .usersChecked(rs.getLong("users_checked"))
+                .usersUpdated(rs.getLong("users_updated"))
+                .totalScoreDrift(rs.getLong("total_score_drift"))
+                .completedMinigamesDrift(rs.getLong("completed_minigames_drift"))
+                .totalTimePlayedDrift(rs.getLong("total_time_played_drift"))
+                .learningTimeDrift(rs.getLong("learning_time_drift"))
+                .levelDrift(rs.getLong("level_drift"))
+                .startedAt(toLocalDateTime(rs.getTimestamp("started_at")))
+                .updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+                .finishedAt(toLocalDateTime(rs.getTimestamp("finished_at")))
+                .build();
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp value) {
+        return value != null ? value.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,71 @@
+package com.educadino.job;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carga inicial de users.total_time_played y users.sent_minutes
+ *
+ * Hibernate (ddl-auto) añade la columna con 0 a los usuarios existentes,
+ * pero su historial ya tenía tiempo de juego. Un usuario con 0 y alguna
+ * partida con tiempo no se ha rellenado todavía (cada partida nueva suma
+ * a la columna), así que se le asigna la suma de user_progress y
+ * user_progress_compacted antes de que el servidor acepte peticiones.
+ * learning_time no se toca: ya incluía esos minutos.
+ *
+ * Después, sent_minutes (los minutos enviados por el frontend, NULL en los
+ * usuarios existentes) se calcula una sola vez como learning_time menos
+ * los minutos de juego ya rellenados. A partir de ahí se mantiene al
+ * volcar LearningTimeAccumulator y la conciliación no tiene que deducirlo.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class UserTimePlayedBackfill {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void backfill() {
+        int rows = jdbcTemplate.update("""
+                WITH pending AS (
+                    SELECT id FROM users WHERE COALESCE(total_time_played, 0) = 0
+                )
+                UPDATE users u SET total_time_played = history.seconds
+                FROM (
+                    SELECT user_id, SUM(seconds) AS seconds
+                    FROM (
+                        SELECT user_id, SUM(time_played) AS seconds
+                        FROM user_progress
+                        WHERE user_id IN (SELECT id FROM pending)
+                        GROUP BY user_id
+                        UNION ALL
+                        SELECT user_id, SUM(total_time)
+                        FROM user_progress_compacted
+                        WHERE user_id IN (SELECT id FROM pending)
+                        GROUP BY user_id
+                    ) totals
+                    GROUP BY user_id
+                ) history
+                WHERE u.id = history.user_id
+                  AND history.seconds > 0
+                """);
+        if (rows > 0) {
+            log.info("⏱️ total_time_played rellenado para {} usuarios desde su historial", rows);
+        }
+
+        int initialized = jdbcTemplate.update("""
+                UPDATE users
+                SET sent_minutes = GREATEST(0, COALESCE(learning_time, 0) - COALESCE(total_time_played, 0) / 60)
+                WHERE sent_minutes IS NULL
+                """);
+        if (initialized > 0) {
+            log.info("⏱️ sent_minutes inicializado para {} usuarios", initialized);
+        }
+    }
+}
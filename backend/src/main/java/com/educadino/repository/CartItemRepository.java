@@ -1,11 +1,13 @@
 package com.educadino.repository;
 
 import com.educadino.entity.CartItem;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,4 +30,13 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
 
     @Query("SELECT SUM(ci.quantity * ci.product.price) FROM CartItem ci WHERE ci.user.id = :userId")
     Double getTotalByUserId(@Param("userId") Long userId);
+
+    /**
+     * IDs de items añadidos antes de la fecha indicada, en orden de ID.
+     * Se usa para borrar carritos abandonados por lotes acotados.
+     */
+    @Query("SELECT ci.id FROM CartItem ci WHERE ci.addedAt < :cutoff ORDER BY ci.id")
+    List<Long> findIdsAddedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    long countByAddedAtBefore(LocalDateTime cutoff);
 }
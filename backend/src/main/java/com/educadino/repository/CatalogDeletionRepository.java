@@ -0,0 +1,27 @@
+package com.educadino.repository;
+
+import com.educadino.entity.CatalogDeletion;
+import com.educadino.event.CatalogChangedEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio para la entidad CatalogDeletion.
+ */
+@Repository
+public interface CatalogDeletionRepository extends JpaRepository<CatalogDeletion, Long> {
+
+    /**
+     * IDs de los elementos del catálogo borrados después de la fecha indicada.
+     */
+    @Query("SELECT DISTINCT d.itemId FROM CatalogDeletion d WHERE d.catalog = :catalog AND d.deletedAt > :since")
+    List<Long> findItemIdsDeletedAfter(@Param("catalog") CatalogChangedEvent.Catalog catalog,
+                                       @Param("since") LocalDateTime since);
+
+    long deleteByDeletedAtBefore(LocalDateTime cutoff);
+}
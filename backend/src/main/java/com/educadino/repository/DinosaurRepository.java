@@ -4,6 +4,7 @@ import com.educadino.entity.Dinosaur;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -12,11 +13,11 @@ import java.util.List;
 @Repository
 public interface DinosaurRepository extends JpaRepository<Dinosaur, Long> {
 
-    List<Dinosaur> findByDiet(String diet);
+    List<Dinosaur> findByNameContainingIgnoreCase(String name);
 
-    List<Dinosaur> findByPeriod(String period);
+    List<Dinosaur> findByUpdatedAtAfterOrderByIdAsc(LocalDateTime since);
 
-    List<Dinosaur> findByTaxonomy(String taxonomy);
+    List<Dinosaur> findByLatitudeIsNullAndLocationIsNotNull();
 
-    List<Dinosaur> findByNameContainingIgnoreCase(String name);
+    List<Dinosaur> findByFromMyaIsNullAndPeriodIsNotNull();
 }
@@ -0,0 +1,16 @@
+package com.educadino.repository;
+
+import com.educadino.entity.MediaFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repositorio para la entidad MediaFile.
+ */
+@Repository
+public interface MediaFileRepository extends JpaRepository<MediaFile, String> {
+
+    long countByUploadedByAndCreatedAtAfter(Long uploadedBy, LocalDateTime since);
+}
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -19,6 +20,8 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     List<Product> findByFeaturedTrue();
 
+    List<Product> findByUpdatedAtAfterOrderByIdAsc(LocalDateTime since);
+
     List<Product> findByCategory(String category);
 
     Page<Product> findByCategory(String category, Pageable pageable);
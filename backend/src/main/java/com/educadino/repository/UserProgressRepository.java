@@ -1,11 +1,13 @@
 package com.educadino.repository;
 
 import com.educadino.entity.UserProgress;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -18,6 +20,38 @@ public interface UserProgressRepository extends JpaRepository<UserProgress, Long
 
     List<UserProgress> findByUserIdAndMinigameType(Long userId, String minigameType);
 
+    /**
+     * Página del historial, de la más reciente a la más antigua, a partir
+     * de la posición (cursorAt, cursorId) excluida. Recorre el índice
+     * (user_id, played_at, id) sin OFFSET.
+     */
+    @Query("SELECT up FROM UserProgress up WHERE up.user.id = :userId AND up.playedAt >= :from "
+            + "AND (up.playedAt < :cursorAt OR (up.playedAt = :cursorAt AND up.id < :cursorId)) "
+            + "ORDER BY up.playedAt DESC, up.id DESC")
+    List<UserProgress> findPageByUserId(
+            @Param("userId") Long userId,
+            @Param("from") LocalDateTime from,
+            @Param("cursorAt") LocalDateTime cursorAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable
+    );
+
+    /**
+     * Igual que findPageByUserId pero de un solo minijuego.
+     */
+    @Query("SELECT up FROM UserProgress up WHERE up.user.id = :userId AND up.minigameType = :minigameType "
+            + "AND up.playedAt >= :from "
+            + "AND (up.playedAt < :cursorAt OR (up.playedAt = :cursorAt AND up.id < :cursorId)) "
+            + "ORDER BY up.playedAt DESC, up.id DESC")
+    List<UserProgress> findPageByUserIdAndMinigameType(
+            @Param("userId") Long userId,
+            @Param("minigameType") String minigameType,
+            @Param("from") LocalDateTime from,
+            @Param("cursorAt") LocalDateTime cursorAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable
+    );
+
     @Query("SELECT SUM(up.score) FROM UserProgress up WHERE up.user.id = :userId")
     Integer getTotalScoreByUserId(@Param("userId") Long userId);
 
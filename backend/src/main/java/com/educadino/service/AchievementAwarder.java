@@ -0,0 +1,107 @@
+package com.educadino.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Concesión de Logros
+ *
+ * Lee los contadores de un usuario (users y user_minigame_stats), los
+ * evalúa con AchievementEngine y guarda los logros nuevos en
+ * users.achievements con un OR, así que dos evaluaciones concurrentes no
+ * se pisan. La usan ProgressRecorder al guardar partidas,
+ * LearningTimeAccumulator al volcar minutos y AchievementBackfill.
+ *
+ * Métricas:
+ * - educadino.achievements.award: latencia de cada concesión (lectura de
+ *   contadores y racha, evaluación y UPDATE), lo que añade al guardado
+ */
+@Component
+@RequiredArgsConstructor
+public class AchievementAwarder {
+
+    private static final String COUNTERS_SQL = """
+            SELECT u.total_score, u.completed_minigames, u.level, u.learning_time, u.achievements,
+                   s.minigame_type, s.plays, s.completions, s.best_score
+            FROM users u
+            LEFT JOIN user_minigame_stats s ON s.user_id = u.id
+            WHERE u.id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AchievementEngine achievementEngine;
+    private final ActivityStreakService activityStreakService;
+    private final MeterRegistry meterRegistry;
+
+    private Timer awardTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        awardTimer = Timer.builder("educadino.achievements.award")
+                .description("Latencia de la concesión de logros, con sus lecturas y escritura en BD")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Indica si el volcado de minutos puede conceder algún logro: solo
+     * cambia learning_time, el nivel y la racha.
+     */
+    public boolean usesLearningMetrics() {
+        return achievementEngine.usesMetric(AchievementEngine.Metric.LEARNING_TIME)
+                || achievementEngine.usesMetric(AchievementEngine.Metric.LEVEL)
+                || achievementEngine.usesMetric(AchievementEngine.Metric.STREAK);
+    }
+
+    /**
+     * Evalúa los logros de un usuario con sus contadores actuales.
+     *
+     * @param minigameTypes minijuegos cuyas reglas se evalúan (null para todos)
+     * @return los bits concedidos
+     */
+    public long award(Long userId, Set<String> minigameTypes) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return awardUntimed(userId, minigameTypes);
+        } finally {
+            sample.stop(awardTimer);
+        }
+    }
+
+    private long awardUntimed(Long userId, Set<String> minigameTypes) {
+        long[] user = new long[5];  // total_score, completed_minigames, level, learning_time, achievements
+        Map<String, AchievementEngine.MinigameCounters> minigames = new HashMap<>();
+        jdbcTemplate.query(COUNTERS_SQL, rs -> {
+            user[0] = rs.getLong("total_score");
+            user[1] = rs.getLong("completed_minigames");
+            user[2] = rs.getLong("level");
+            user[3] = rs.getLong("learning_time");
+            user[4] = rs.getLong("achievements");
+            String type = rs.getString("minigame_type");
+            if (type != null && (minigameTypes == null || minigameTypes.contains(type))) {
+                minigames.put(type, new AchievementEngine.MinigameCounters(
+                        rs.getLong("plays"), rs.getLong("completions"), rs.getLong("best_score")));
+            }
+        }, userId);
+
+        long streak = achievementEngine.usesMetric(AchievementEngine.Metric.STREAK)
+                ? activityStreakService.currentStreak(userId, LocalDate.now())
+                : 0;
+        long awarded = achievementEngine.evaluate(user[4],
+                new AchievementEngine.Counters(user[0], user[1], user[2], user[3], streak, minigames));
+        if (awarded != 0) {
+            jdbcTemplate.update("UPDATE users SET achievements = COALESCE(achievements, 0) | ? WHERE id = ?",
+                    awarded, userId);
+        }
+        return awarded;
+    }
+}
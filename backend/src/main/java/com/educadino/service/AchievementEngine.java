@@ -0,0 +1,227 @@
+package com.educadino.service;
+
+import com.educadino.config.AchievementProperties;
+import com.educadino.dto.AchievementDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Motor de Logros
+ *
+ * Compila al arrancar las reglas de educadino.achievements.rules en, por
+ * cada métrica (y minijuego), un array de umbrales ordenado con la máscara
+ * acumulada de los logros que alcanza cada umbral. Evaluar una partida es
+ * una búsqueda binaria por métrica sobre contadores que ya mantiene
+ * ProgressRecorder, sin recorrer el historial, y el coste está acotado
+ * por el número de métricas.
+ *
+ * Los logros se guardan como bits en users.achievements.
+ *
+ * Métricas:
+ * - educadino.achievements.evaluate: latencia de cada evaluación en memoria
+ *   (el coste total al guardar, con las lecturas en BD, lo mide
+ *   educadino.achievements.award en AchievementAwarder)
+ * - educadino.achievements.awarded: logros concedidos
+ */
+@Component
+@Slf4j
+public class AchievementEngine {
+
+    /**
+     * Contador sobre el que se evalúa una regla.
+     */
+    public enum Metric {
+        TOTAL_SCORE(false),
+        COMPLETED_MINIGAMES(false),
+        LEVEL(false),
+        LEARNING_TIME(false),
+        STREAK(false),
+        MINIGAME_PLAYS(true),
+        MINIGAME_COMPLETIONS(true),
+        MINIGAME_BEST_SCORE(true);
+
+        private final boolean perMinigame;
+
+        Metric(boolean perMinigame) {
+            this.perMinigame = perMinigame;
+        }
+    }
+
+    /**
+     * Contadores de un usuario tras guardar sus partidas. minigames solo
+     * necesita los minijuegos afectados.
+     */
+    public record Counters(long totalScore, long completedMinigames, long level, long learningTime, long streak,
+                           Map<String, MinigameCounters> minigames) {
+    }
+
+    public record MinigameCounters(long plays, long completions, long bestScore) {
+    }
+
+    /** Umbrales ordenados y máscara acumulada de una métrica. */
+    private record Thresholds(long[] values, long[] masks) {
+
+        long reached(long value) {
+            int index = Arrays.binarySearch(values, value);
+            // Sin coincidencia exacta: el último umbral menor que value
+            int last = index >= 0 ? index : -index - 2;
+            return last >= 0 ? masks[last] : 0L;
+        }
+    }
+
+    private final AchievementDto[] byBit = new AchievementDto[Long.SIZE];
+    private final Map<Metric, Thresholds> global = new EnumMap<>(Metric.class);
+    private final Map<Metric, Map<String, Thresholds>> perMinigame = new EnumMap<>(Metric.class);
+
+    private final Timer evaluateTimer;
+    private final Counter awardedCounter;
+
+    public AchievementEngine(AchievementProperties properties, MeterRegistry meterRegistry) {
+        compile(properties.getRules());
+        this.evaluateTimer = Timer.builder("educadino.achievements.evaluate")
+                .description("Latencia de la evaluación de logros en memoria")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.awardedCounter = Counter.builder("educadino.achievements.awarded")
+                .description("Logros concedidos")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Devuelve los bits de logros nuevos (no presentes en current).
+     */
+    public long evaluate(long current, Counters counters) {
+        long start = System.nanoTime();
+        long reached = 0L;
+        reached |= reached(Metric.TOTAL_SCORE, counters.totalScore());
+        reached |= reached(Metric.COMPLETED_MINIGAMES, counters.completedMinigames());
+        reached |= reached(Metric.LEVEL, counters.level());
+        reached |= reached(Metric.LEARNING_TIME, counters.learningTime());
+        reached |= reached(Metric.STREAK, counters.streak());
+        for (Map.Entry<String, MinigameCounters> entry : counters.minigames().entrySet()) {
+            MinigameCounters minigame = entry.getValue();
+            reached |= reached(Metric.MINIGAME_PLAYS, entry.getKey(), minigame.plays());
+            reached |= reached(Metric.MINIGAME_COMPLETIONS, entry.getKey(), minigame.completions());
+            reached |= reached(Metric.MINIGAME_BEST_SCORE, entry.getKey(), minigame.bestScore());
+        }
+        long awarded = reached & ~current;
+        evaluateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (awarded != 0) {
+            awardedCounter.increment(Long.bitCount(awarded));
+        }
+        return awarded;
+    }
+
+    /**
+     * Indica si alguna regla usa la métrica, para no calcular contadores
+     * que no se van a evaluar (p. ej. la racha).
+     */
+    public boolean usesMetric(Metric metric) {
+        return global.containsKey(metric) || perMinigame.containsKey(metric);
+    }
+
+    /**
+     * Logros correspondientes a una máscara, en orden de bit. Los bits sin
+     * regla configurada (reglas retiradas) se ignoran.
+     */
+    public List<AchievementDto> decode(long bits) {
+        List<AchievementDto> result = new ArrayList<>(Long.bitCount(bits));
+        for (long remaining = bits; remaining != 0; remaining &= remaining - 1) {
+            AchievementDto achievement = byBit[Long.numberOfTrailingZeros(remaining)];
+            if (achievement != null) {
+                result.add(achievement);
+            }
+        }
+        return result;
+    }
+
+    private long reached(Metric metric, long value) {
+        Thresholds thresholds = global.get(metric);
+        return thresholds != null ? thresholds.reached(value) : 0L;
+    }
+
+    private long reached(Metric metric, String minigameType, long value) {
+        Map<String, Thresholds> byType = perMinigame.get(metric);
+        Thresholds thresholds = byType != null ? byType.get(minigameType) : null;
+        return thresholds != null ? thresholds.reached(value) : 0L;
+    }
+
+    private void compile(List<AchievementProperties.Rule> rules) {
+        Map<Metric, List<AchievementProperties.Rule>> globalRules = new EnumMap<>(Metric.class);
+        Map<Metric, Map<String, List<AchievementProperties.Rule>>> minigameRules = new EnumMap<>(Metric.class);
+
+        for (AchievementProperties.Rule rule : rules) {
+            if (rule.getBit() < 0 || rule.getBit() >= Long.SIZE) {
+                throw new IllegalStateException("Logro " + rule.getId() + ": el bit debe estar entre 0 y 63");
+            }
+            if (byBit[rule.getBit()] != null) {
+                throw new IllegalStateException("Logro " + rule.getId() + ": el bit " + rule.getBit()
+                        + " ya lo usa " + byBit[rule.getBit()].getId());
+            }
+            Metric metric;
+            try {
+                metric = Metric.valueOf(rule.getMetric());
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalStateException("Logro " + rule.getId() + ": métrica desconocida " + rule.getMetric());
+            }
+            if (metric.perMinigame && (rule.getMinigameType() == null || rule.getMinigameType().isBlank())) {
+                throw new IllegalStateException("Logro " + rule.getId() + ": la métrica " + metric + " requiere minigameType");
+            }
+
+            byBit[rule.getBit()] = AchievementDto.builder()
+                    .id(rule.getId())
+                    .name(rule.getName())
+                    .description(rule.getDescription())
+                    .build();
+            if (metric.perMinigame) {
+                minigameRules.computeIfAbsent(metric, m -> new HashMap<>())
+                        .computeIfAbsent(rule.getMinigameType(), t -> new ArrayList<>())
+                        .add(rule);
+            } else {
+                globalRules.computeIfAbsent(metric, m -> new ArrayList<>()).add(rule);
+            }
+        }
+
+        globalRules.forEach((metric, list) -> global.put(metric, thresholds(list)));
+        minigameRules.forEach((metric, byType) -> {
+            Map<String, Thresholds> compiled = new HashMap<>();
+            byType.forEach((type, list) -> compiled.put(type, thresholds(list)));
+            perMinigame.put(metric, compiled);
+        });
+        log.info("🏅 {} reglas de logros compiladas", rules.size());
+    }
+
+    private static Thresholds thresholds(List<AchievementProperties.Rule> rules) {
+        List<AchievementProperties.Rule> sorted = new ArrayList<>(rules);
+        sorted.sort(Comparator.comparingLong(AchievementProperties.Rule::getThreshold));
+
+        // Umbrales iguales comparten posición
+        long[] values = new long[sorted.size()];
+        long[] masks = new long[sorted.size()];
+        int size = 0;
+        long mask = 0L;
+        for (AchievementProperties.Rule rule : sorted) {
+            mask |= 1L << rule.getBit();
+            if (size > 0 && values[size - 1] == rule.getThreshold()) {
+                masks[size - 1] = mask;
+            } else {
+                values[size] = rule.getThreshold();
+                masks[size] = mask;
+                size++;
+            }
+        }
+        return new Thresholds(Arrays.copyOf(values, size), Arrays.copyOf(masks, size));
+    }
+}
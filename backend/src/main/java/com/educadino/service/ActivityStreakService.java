@@ -0,0 +1,96 @@
+package com.educadino.service;
+
+import com.educadino.dto.ActivityCalendarDto;
+import com.educadino.util.ActivityCalendar;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Servicio de Actividad y Rachas
+ *
+ * Marca los días con actividad en user_activity_days (un bit por día) y
+ * calcula a partir de esos mapas de bits la racha actual, la más larga y
+ * el mapa de calor del perfil, sin consultar user_progress.
+ */
+@Service
+@RequiredArgsConstructor
+public class ActivityStreakService {
+
+    // Si el bit ya está a 1 no se reescribe la fila
+    private static final String MARK_SQL = """
+            INSERT INTO user_activity_days (user_id, activity_year, days)
+            VALUES (?, ?, set_bit(decode(repeat('00', %d), 'hex'), ?, 1))
+            ON CONFLICT (user_id, activity_year) DO UPDATE
+                SET days = set_bit(user_activity_days.days, ?, 1)
+                WHERE get_bit(user_activity_days.days, ?) = 0
+            """.formatted(ActivityCalendar.BYTES_PER_YEAR);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Marca días de actividad de un usuario.
+     */
+    public void markActive(Long userId, Collection<LocalDate> days) {
+        List<Object[]> rows = new ArrayList<>();
+        for (LocalDate day : new TreeSet<>(days)) {
+            rows.add(markRow(userId, day));
+        }
+        jdbcTemplate.batchUpdate(MARK_SQL, rows);
+    }
+
+    /**
+     * Marca el mismo día para varios usuarios.
+     */
+    public void markActive(Collection<Long> userIds, LocalDate day) {
+        List<Object[]> rows = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            rows.add(markRow(userId, day));
+        }
+        jdbcTemplate.batchUpdate(MARK_SQL, rows);
+    }
+
+    /**
+     * Racha actual (solo lee este año y el anterior).
+     */
+    public int currentStreak(Long userId, LocalDate today) {
+        return load(userId, today.getYear() - 1).currentStreak(today);
+    }
+
+    /**
+     * Calendario de un año con las rachas del usuario.
+     */
+    public ActivityCalendarDto getCalendar(Long userId, int year) {
+        ActivityCalendar calendar = load(userId, null);
+        return ActivityCalendarDto.builder()
+                .year(year)
+                .activeDays(calendar.activeDays(year))
+                .currentStreak(calendar.currentStreak(LocalDate.now()))
+                .longestStreak(calendar.longestStreak())
+                .build();
+    }
+
+    private ActivityCalendar load(Long userId, Integer fromYear) {
+        Map<Integer, byte[]> years = new HashMap<>();
+        String sql = "SELECT activity_year, days FROM user_activity_days WHERE user_id = ?"
+                + (fromYear != null ? " AND activity_year >= ?" : "");
+        Object[] params = fromYear != null ? new Object[]{userId, fromYear} : new Object[]{userId};
+        jdbcTemplate.query(sql, rs -> {
+            years.put(rs.getInt(1), rs.getBytes(2));
+        }, params);
+        return ActivityCalendar.of(years);
+    }
+
+    private static Object[] markRow(Long userId, LocalDate day) {
+        int bit = ActivityCalendar.dayIndex(day);
+        return new Object[]{userId, day.getYear(), bit, bit, bit};
+    }
+}
@@ -54,7 +54,7 @@ public class AuthService {
                 .username(user.getUsername())
                 .email(user.getEmail())
                 .role(user.getRole().name())
-                .profileImage(user.getProfileImage())
+                .profileImage(MediaService.url(user.getProfileImage()))
                 .level(user.getLevel())
                 .learningTime(user.getLearningTime())
                 .completedMinigames(user.getCompletedMinigames())
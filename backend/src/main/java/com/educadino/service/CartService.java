@@ -180,7 +180,7 @@ public class CartService {
                 .id(item.getId())
                 .productId(item.getProduct().getId())
                 .productName(item.getProduct().getName())
-                .productImage(item.getProduct().getImage())
+                .productImage(MediaService.url(item.getProduct().getImage()))
                 .productPrice(item.getProduct().getPrice())
                 .quantity(item.getQuantity())
                 .subtotal(item.getProduct().getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
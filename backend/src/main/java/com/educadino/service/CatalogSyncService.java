@@ -0,0 +1,145 @@
+package com.educadino.service;
+
+import com.educadino.dto.CatalogChangesDto;
+import com.educadino.entity.CatalogDeletion;
+import com.educadino.event.CatalogChangedEvent;
+import com.educadino.exception.BadRequestException;
+import com.educadino.repository.CatalogDeletionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Servicio de Sincronización del Catálogo
+ *
+ * Permite a los clientes con el catálogo guardado sin conexión pedir solo
+ * lo que ha cambiado: GET /dinosaurs/changes?since=token y su equivalente
+ * de productos devuelven las filas con updatedAt posterior al token y las
+ * marcas de borrado (CatalogDeletion) del mismo intervalo.
+ *
+ * El token es opaco para el cliente: codifica el instante en que empezó la
+ * consulta anterior. Al leer se resta educadino.sync.overlap para no perder
+ * filas cuyo updatedAt se fijó antes de ese instante pero cuya transacción
+ * se confirmó después; el cliente puede recibir alguna fila repetida, que
+ * simplemente vuelve a sustituir por id.
+ *
+ * Sin token, o con uno más antiguo que la retención de las marcas de
+ * borrado, se responde el catálogo completo con reset=true.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogSyncService {
+
+    private static final String TOKEN_PREFIX = "v1.";
+
+    private final CatalogDeletionRepository catalogDeletionRepository;
+
+    @Value("${educadino.sync.overlap:5s}")
+    private Duration overlap;
+
+    @Value("${educadino.sync.tombstone-retention:90d}")
+    private Duration tombstoneRetention;
+
+    /**
+     * Intervalo de una petición de cambios.
+     *
+     * @param since     updatedAt a partir del cual hay que devolver filas (null si reset)
+     * @param nextToken token que el cliente debe enviar la próxima vez
+     * @param reset     true si hay que devolver el catálogo completo
+     */
+    public record Window(LocalDateTime since, String nextToken, boolean reset) {
+    }
+
+    /**
+     * Abre el intervalo de cambios a partir del token del cliente. Debe
+     * llamarse antes de consultar las filas, para que el nuevo token no
+     * sea posterior a lo leído.
+     *
+     * @param token token devuelto por la sincronización anterior, o null
+     */
+    public Window open(String token) {
+        long now = System.currentTimeMillis();
+        String nextToken = encode(now);
+        if (token == null || token.isBlank()) {
+            return new Window(null, nextToken, true);
+        }
+        long since = decode(token) - overlap.toMillis();
+        if (since > now || since < now - tombstoneRetention.toMillis()) {
+            return new Window(null, nextToken, true);
+        }
+        return new Window(toLocalDateTime(since), nextToken, false);
+    }
+
+    /**
+     * Construye la respuesta: añade los borrados del intervalo (ninguno si
+     * es un reset) y el nuevo token.
+     */
+    @Transactional(readOnly = true)
+    public <T> CatalogChangesDto<T> changes(CatalogChangedEvent.Catalog catalog, Window window, List<T> changed) {
+        List<Long> deleted = window.reset()
+                ? List.of()
+                : catalogDeletionRepository.findItemIdsDeletedAfter(catalog, window.since());
+        return CatalogChangesDto.<T>builder()
+                .changed(changed)
+                .deleted(deleted)
+                .syncToken(window.nextToken())
+                .reset(window.reset())
+                .build();
+    }
+
+    /**
+     * Registra el borrado de un elemento. Se llama dentro de la transacción
+     * del borrado para que la marca y el borrado se confirmen juntos.
+     */
+    @Transactional
+    public void recordDeletion(CatalogChangedEvent.Catalog catalog, Long itemId) {
+        catalogDeletionRepository.save(CatalogDeletion.builder()
+                .catalog(catalog)
+                .itemId(itemId)
+                .build());
+    }
+
+    /**
+     * Purga las marcas de borrado más antiguas que la retención (por
+     * defecto cada noche a las 04:45). Los tokens anteriores ya reciben
+     * el catálogo completo, así que las marcas no se necesitan.
+     */
+    @Scheduled(cron = "${educadino.sync.purge-cron:0 45 4 * * *}")
+    @Transactional
+    public void purgeTombstones() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(tombstoneRetention);
+        long purged = catalogDeletionRepository.deleteByDeletedAtBefore(cutoff);
+        if (purged > 0) {
+            log.info("🧹 {} marcas de borrado del catálogo purgadas (anteriores a {})", purged, cutoff);
+        }
+    }
+
+    static String encode(long epochMillis) {
+        return TOKEN_PREFIX + Long.toString(epochMillis, Character.MAX_RADIX);
+    }
+
+    static long decode(String token) {
+        if (!token.startsWith(TOKEN_PREFIX)) {
+            throw new BadRequestException("Token de sincronización no válido");
+        }
+        try {
+            return Long.parseLong(token.substring(TOKEN_PREFIX.length()), Character.MAX_RADIX);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Token de sincronización no válido");
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
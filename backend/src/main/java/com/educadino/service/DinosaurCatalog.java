@@ -0,0 +1,327 @@
+package com.educadino.service;
+
+import com.educadino.dto.DinosaurDto;
+import com.educadino.dto.DinosaurFacetsDto;
+import com.educadino.event.CatalogChangedEvent;
+import com.educadino.event.DinosaurCatalogRebuiltEvent;
+import com.educadino.repository.DinosaurRepository;
+import com.educadino.util.FacetIndex;
+import com.educadino.util.GeoPoint;
+import com.educadino.util.IntervalTree;
+import com.educadino.util.SimilarityIndex;
+import com.educadino.util.SpatialGrid;
+import com.educadino.util.SpanishAnalyzer;
+import com.educadino.util.TaxonomyTree;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Catálogo de Dinosaurios en Memoria
+ *
+ * Los dinosaurios son datos de referencia que casi nunca cambian, así que
+ * se sirven desde una instantánea en memoria con un índice de bits por
+ * dieta, período, taxonomía, familia y tamaño (ver FacetIndex). Los
+ * filtros combinados y sus facetas se resuelven sin consultar la BD.
+ *
+ * Con la misma instantánea se construye el árbol taxonómico (clados →
+ * familia → género, ver TaxonomyTree). El campo taxonomy puede ser un
+ * clado ("Theropoda") o un camino ("Saurischia > Theropoda"); los clados
+ * conocidos se completan con sus ancestros (CLADE_PARENTS) para que el
+ * ancestro común de un terópodo y un saurópodo sea Saurischia y no la raíz.
+ * También se indexan los yacimientos con coordenadas en una SpatialGrid
+ * para el mapa (grupos por zoom y consultas por rectángulo), y los rangos
+ * fromMya-toMya en un IntervalTree para la línea temporal.
+ *
+ * Por último se precalculan los dinosaurios parecidos a cada uno
+ * (SimilarityIndex): atributos (dieta, período, tamaño, familia y clados)
+ * y palabras de la descripción y las curiosidades, ponderados con TF-IDF.
+ * Se calculan en paralelo al reconstruir, no en cada petición.
+ *
+ * La instantánea es inmutable: cada alta, cambio o baja confirmada
+ * (CatalogChangedEvent) la reconstruye desde la BD y la sustituye de
+ * golpe, así que una consulta nunca ve un índice a medio rehacer. Tras
+ * cada sustitución publica un DinosaurCatalogRebuiltEvent para los índices
+ * que se construyen a partir de la instantánea.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DinosaurCatalog {
+
+    public static final String DIET = "diet";
+    public static final String PERIOD = "period";
+    public static final String TAXONOMY = "taxonomy";
+    public static final String FAMILY = "family";
+    public static final String SIZE = "size";
+
+    private static final Map<String, Function<DinosaurDto, String>> ATTRIBUTES = new LinkedHashMap<>();
+
+    static {
+        ATTRIBUTES.put(DIET, DinosaurDto::getDiet);
+        ATTRIBUTES.put(PERIOD, DinosaurDto::getPeriod);
+        ATTRIBUTES.put(TAXONOMY, DinosaurDto::getTaxonomy);
+        ATTRIBUTES.put(FAMILY, DinosaurDto::getFamily);
+        ATTRIBUTES.put(SIZE, DinosaurDto::getSize);
+    }
+
+    public static final String TAXONOMY_ROOT = "Reptilia";
+
+    /** Último zoom con grupos; por encima el mapa recibe los yacimientos sueltos. */
+    public static final int MAP_MAX_ZOOM = 12;
+
+    /** Clado -> clado padre, para los clados habituales del catálogo. */
+    private static final Map<String, String> CLADE_PARENTS = Map.ofEntries(
+            Map.entry("archosauria", "Reptilia"),
+            Map.entry("ornithodira", "Archosauria"),
+            Map.entry("pterosauria", "Ornithodira"),
+            Map.entry("dinosauria", "Ornithodira"),
+            Map.entry("saurischia", "Dinosauria"),
+            Map.entry("ornithischia", "Dinosauria"),
+            Map.entry("theropoda", "Saurischia"),
+            Map.entry("sauropodomorpha", "Saurischia"),
+            Map.entry("sauropoda", "Sauropodomorpha"),
+            Map.entry("prosauropoda", "Sauropodomorpha"),
+            Map.entry("ornithopoda", "Ornithischia"),
+            Map.entry("marginocephalia", "Ornithischia"),
+            Map.entry("ceratopsia", "Marginocephalia"),
+            Map.entry("pachycephalosauria", "Marginocephalia"),
+            Map.entry("thyreophora", "Ornithischia"),
+            Map.entry("stegosauria", "Thyreophora"),
+            Map.entry("ankylosauria", "Thyreophora"),
+            Map.entry("sauropterygia", "Reptilia"),
+            Map.entry("plesiosauria", "Sauropterygia"),
+            Map.entry("ichthyosauria", "Reptilia")
+    );
+
+    /** Peso de los atributos y del texto en la similitud entre dinosaurios. */
+    private static final double ATTRIBUTES_WEIGHT = 0.6;
+    private static final double TEXT_WEIGHT = 0.4;
+
+    private static final List<SimilarityIndex.Block<DinosaurDto>> SIMILARITY_BLOCKS = List.of(
+            new SimilarityIndex.Block<>(DinosaurCatalog::attributeTerms, ATTRIBUTES_WEIGHT),
+            new SimilarityIndex.Block<>(DinosaurCatalog::textTerms, TEXT_WEIGHT));
+
+    private static final Pattern CLADE_SEPARATOR = Pattern.compile("\\s*[>/]\\s*");
+
+    private final DinosaurRepository dinosaurRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${educadino.dinosaurs.similar:6}")
+    private int similarCount;
+
+    private volatile Snapshot snapshot = Snapshot.build(List.of(), 0, 0);
+
+    /**
+     * Instantánea del catálogo. version aumenta con cada reconstrucción.
+     */
+    private record Snapshot(FacetIndex<DinosaurDto> index, Map<Long, DinosaurDto> byId,
+                            TaxonomyTree<DinosaurDto> taxonomy, SpatialGrid<DinosaurDto> sites,
+                            IntervalTree<DinosaurDto> timeline, SimilarityIndex<DinosaurDto> similar,
+                            long version) {
+
+        static Snapshot build(List<DinosaurDto> dinosaurs, long version, int similarCount) {
+            Map<Long, DinosaurDto> byId = dinosaurs.stream()
+                    .collect(Collectors.toUnmodifiableMap(DinosaurDto::getId, Function.identity()));
+            TaxonomyTree<DinosaurDto> taxonomy = TaxonomyTree.build(TAXONOMY_ROOT, dinosaurs,
+                    DinosaurCatalog::taxonomyLevels, DinosaurDto::getName, DinosaurDto::getId);
+            SpatialGrid<DinosaurDto> sites = SpatialGrid.build(dinosaurs, DinosaurCatalog::site, MAP_MAX_ZOOM);
+            IntervalTree<DinosaurDto> timeline = IntervalTree.build(dinosaurs, DinosaurCatalog::lifespan);
+            SimilarityIndex<DinosaurDto> similar = SimilarityIndex.build(dinosaurs, DinosaurDto::getId,
+                    SIMILARITY_BLOCKS, similarCount);
+            return new Snapshot(FacetIndex.build(dinosaurs, ATTRIBUTES), byId, taxonomy, sites, timeline, similar,
+                    version);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild(null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.catalog() == CatalogChangedEvent.Catalog.DINOSAURS) {
+            rebuild(event.id());
+        }
+    }
+
+    /**
+     * Relee los dinosaurios y publica la nueva instantánea. Sincronizado para
+     * que dos cambios seguidos no publiquen instantáneas (ni sus eventos)
+     * fuera de orden.
+     *
+     * @param changedId dinosaurio modificado, o null para una carga completa
+     */
+    public synchronized void rebuild(Long changedId) {
+        long start = System.nanoTime();
+        List<DinosaurDto> dinosaurs = dinosaurRepository.findAll(Sort.by("id")).stream()
+                .map(DinosaurService::mapToDto)
+                .toList();
+        snapshot = Snapshot.build(dinosaurs, snapshot.version() + 1, similarCount);
+        log.info("🦕 Catálogo de dinosaurios indexado: {} dinosaurios en {} µs",
+                dinosaurs.size(), (System.nanoTime() - start) / 1000);
+        eventPublisher.publishEvent(new DinosaurCatalogRebuiltEvent(snapshot.version(), changedId));
+    }
+
+    public long version() {
+        return snapshot.version();
+    }
+
+    public List<DinosaurDto> findAll() {
+        return snapshot.index().items();
+    }
+
+    public Optional<DinosaurDto> findById(Long id) {
+        return Optional.ofNullable(snapshot.byId().get(id));
+    }
+
+    /**
+     * Árbol taxonómico de la instantánea actual.
+     */
+    public TaxonomyTree<DinosaurDto> taxonomy() {
+        return snapshot.taxonomy();
+    }
+
+    /**
+     * Índice espacial de los yacimientos de la instantánea actual.
+     */
+    public SpatialGrid<DinosaurDto> sites() {
+        return snapshot.sites();
+    }
+
+    /**
+     * Árbol de intervalos con los rangos temporales de la instantánea actual.
+     * Los intervalos son [toMya, fromMya].
+     */
+    public IntervalTree<DinosaurDto> timeline() {
+        return snapshot.timeline();
+    }
+
+    /**
+     * Dinosaurios más parecidos a uno, de más a menos parecido.
+     */
+    public List<SimilarityIndex.Neighbor<DinosaurDto>> similar(Long id) {
+        return snapshot.similar().neighbors(id);
+    }
+
+    /**
+     * Dinosaurios que cumplen el filtro: OR entre los valores de un mismo
+     * atributo y AND entre atributos.
+     *
+     * @param filters atributo (diet, period, taxonomy, family, size) -> valores
+     */
+    public List<DinosaurDto> find(Map<String, List<String>> filters) {
+        FacetIndex<DinosaurDto> index = snapshot.index();
+        return index.select(index.match(filters));
+    }
+
+    /**
+     * Total y facetas para un filtro, de mayor a menor recuento.
+     */
+    public DinosaurFacetsDto facets(Map<String, List<String>> filters) {
+        FacetIndex<DinosaurDto> index = snapshot.index();
+        BitSet matches = index.match(filters);
+
+        Map<String, List<DinosaurFacetsDto.Facet>> facets = new LinkedHashMap<>();
+        index.facets(filters).forEach((attribute, counts) -> facets.put(attribute, counts.entrySet().stream()
+                .map(e -> DinosaurFacetsDto.Facet.builder().value(e.getKey()).count(e.getValue()).build())
+                .sorted(Comparator.comparingInt(DinosaurFacetsDto.Facet::getCount).reversed()
+                        .thenComparing(DinosaurFacetsDto.Facet::getValue))
+                .toList()));
+
+        return DinosaurFacetsDto.builder()
+                .total(matches.cardinality())
+                .facets(facets)
+                .build();
+    }
+
+    /**
+     * Camino taxonómico de un dinosaurio desde debajo de la raíz: clados
+     * (completados con CLADE_PARENTS) y familia.
+     */
+    static List<TaxonomyTree.Level> taxonomyLevels(DinosaurDto dinosaur) {
+        List<String> clades = new ArrayList<>();
+        if (dinosaur.getTaxonomy() != null && !dinosaur.getTaxonomy().isBlank()) {
+            for (String clade : CLADE_SEPARATOR.split(dinosaur.getTaxonomy().trim())) {
+                if (!clade.isBlank()) {
+                    clades.add(clade.trim());
+                }
+            }
+        }
+        if (!clades.isEmpty()) {
+            List<String> ancestors = new ArrayList<>();
+            String parent = CLADE_PARENTS.get(FacetIndex.normalize(clades.get(0)));
+            while (parent != null && !parent.equals(TAXONOMY_ROOT)) {
+                ancestors.add(0, parent);
+                parent = CLADE_PARENTS.get(FacetIndex.normalize(parent));
+            }
+            clades.addAll(0, ancestors);
+        }
+
+        List<TaxonomyTree.Level> levels = new ArrayList<>(clades.size() + 1);
+        for (String clade : clades) {
+            levels.add(new TaxonomyTree.Level(clade, TaxonomyTree.Rank.CLADE));
+        }
+        if (dinosaur.getFamily() != null && !dinosaur.getFamily().isBlank()) {
+            levels.add(new TaxonomyTree.Level(dinosaur.getFamily(), TaxonomyTree.Rank.FAMILY));
+        }
+        return levels;
+    }
+
+    /**
+     * Atributos como términos "atributo=valor" (sin tildes ni mayúsculas),
+     * más los clados del camino taxonómico y la familia.
+     */
+    static List<String> attributeTerms(DinosaurDto dinosaur) {
+        List<String> terms = new ArrayList<>();
+        for (String attribute : List.of(DIET, PERIOD, SIZE)) {
+            String value = ATTRIBUTES.get(attribute).apply(dinosaur);
+            if (value != null && !value.isBlank()) {
+                terms.add(attribute + "=" + FacetIndex.normalize(value));
+            }
+        }
+        for (TaxonomyTree.Level level : taxonomyLevels(dinosaur)) {
+            terms.add(level.rank().name().toLowerCase(Locale.ROOT) + "=" + FacetIndex.normalize(level.name()));
+        }
+        return terms;
+    }
+
+    static List<String> textTerms(DinosaurDto dinosaur) {
+        List<String> terms = new ArrayList<>(SpanishAnalyzer.terms(dinosaur.getDescription()));
+        terms.addAll(SpanishAnalyzer.terms(dinosaur.getCuriosities()));
+        return terms;
+    }
+
+    private static GeoPoint site(DinosaurDto dinosaur) {
+        if (dinosaur.getLatitude() == null || dinosaur.getLongitude() == null) {
+            return null;
+        }
+        return new GeoPoint(dinosaur.getLatitude(), dinosaur.getLongitude());
+    }
+
+    static IntervalTree.Interval lifespan(DinosaurDto dinosaur) {
+        if (dinosaur.getFromMya() == null || dinosaur.getToMya() == null) {
+            return null;
+        }
+        return new IntervalTree.Interval(dinosaur.getToMya(), dinosaur.getFromMya());
+    }
+}
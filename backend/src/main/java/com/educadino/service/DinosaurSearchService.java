@@ -0,0 +1,189 @@
+package com.educadino.service;
+
+import com.educadino.dto.DinosaurDto;
+import com.educadino.dto.DinosaurSearchHitDto;
+import com.educadino.event.DinosaurCatalogRebuiltEvent;
+import com.educadino.exception.BadRequestException;
+import com.educadino.util.Bm25Index;
+import com.educadino.util.SpanishAnalyzer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Servicio de Búsqueda de Dinosaurios
+ *
+ * Búsqueda de texto libre sobre nombre, descripción, curiosidades y demás
+ * campos ("cuello largo", "plumas", "carnivoro" sin tilde). Usa un índice
+ * invertido en memoria (Bm25Index) con análisis en español: sin tildes,
+ * sin palabras vacías y con raíces ligeras. Devuelve los resultados por
+ * relevancia BM25 con fragmentos resaltados.
+ *
+ * Los dinosaurios salen de la instantánea de DinosaurCatalog, sin
+ * consultas propias a la BD: al cargarse el catálogo se construye el
+ * índice entero y, con cada DinosaurCatalogRebuiltEvent por un cambio, se
+ * reindexa solo el dinosaurio afectado. Los resultados se resuelven contra
+ * la instantánea actual, así que un dinosaurio borrado no aparece aunque
+ * el índice aún no se haya actualizado.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DinosaurSearchService {
+
+    private static final int MAX_LIMIT = 50;
+    private static final int SNIPPET_CONTEXT = 40;
+    private static final int SNIPPET_LENGTH = 160;
+
+    private static final Map<String, Double> FIELD_WEIGHTS = Map.of(
+            "name", 3.0,
+            "taxonomy", 1.5,
+            "family", 1.5,
+            "diet", 1.0,
+            "period", 1.0,
+            "size", 1.0,
+            "location", 1.0,
+            "description", 1.0,
+            "curiosities", 1.0
+    );
+
+    /** Campos de los que se devuelven fragmentos resaltados. */
+    private static final List<String> HIGHLIGHTED_FIELDS = List.of("name", "description", "curiosities");
+
+    private final DinosaurCatalog dinosaurCatalog;
+
+    private volatile Bm25Index index = new Bm25Index(FIELD_WEIGHTS);
+
+    /**
+     * Indexa el catálogo entero (arranque) o solo el dinosaurio modificado.
+     */
+    @EventListener
+    public void onCatalogRebuilt(DinosaurCatalogRebuiltEvent event) {
+        if (event.changedId() == null) {
+            long start = System.nanoTime();
+            Bm25Index rebuilt = new Bm25Index(FIELD_WEIGHTS);
+            dinosaurCatalog.findAll().forEach(dinosaur -> rebuilt.put(dinosaur.getId(), fields(dinosaur)));
+            index = rebuilt;
+            log.info("🔎 Índice de búsqueda de dinosaurios: {} documentos en {} µs",
+                    rebuilt.size(), (System.nanoTime() - start) / 1000);
+            return;
+        }
+        Optional<DinosaurDto> dinosaur = dinosaurCatalog.findById(event.changedId());
+        if (dinosaur.isPresent()) {
+            index.put(event.changedId(), fields(dinosaur.get()));
+        } else {
+            index.remove(event.changedId());
+        }
+    }
+
+    /**
+     * Busca dinosaurios por texto libre, de más a menos relevante.
+     */
+    public List<DinosaurSearchHitDto> search(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Escribe algo que buscar");
+        }
+        int cappedLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        Bm25Index current = index;
+        Set<String> terms = current.expand(new LinkedHashSet<>(SpanishAnalyzer.terms(query)));
+
+        return current.search(query, cappedLimit).stream()
+                .flatMap(hit -> dinosaurCatalog.findById(hit.id()).stream().map(dinosaur -> {
+                    Map<String, String> highlights = new LinkedHashMap<>();
+                    Map<String, String> fields = fields(dinosaur);
+                    for (String field : HIGHLIGHTED_FIELDS) {
+                        String snippet = snippet(fields.get(field), terms);
+                        if (snippet != null) {
+                            highlights.put(field, snippet);
+                        }
+                    }
+                    return DinosaurSearchHitDto.builder()
+                            .dinosaur(dinosaur)
+                            .score(hit.score())
+                            .highlights(highlights)
+                            .build();
+                }))
+                .toList();
+    }
+
+    private static Map<String, String> fields(DinosaurDto dinosaur) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("name", dinosaur.getName());
+        fields.put("taxonomy", dinosaur.getTaxonomy());
+        fields.put("family", dinosaur.getFamily());
+        fields.put("diet", dinosaur.getDiet());
+        fields.put("period", dinosaur.getPeriod());
+        fields.put("size", dinosaur.getSize());
+        fields.put("location", dinosaur.getLocation());
+        fields.put("description", dinosaur.getDescription());
+        fields.put("curiosities", dinosaur.getCuriosities());
+        return fields;
+    }
+
+    /**
+     * Fragmento del texto alrededor de la primera coincidencia, con las
+     * palabras coincidentes entre <mark> y el resto escapado como HTML.
+     *
+     * @return null si el texto no contiene ningún término
+     */
+    static String snippet(String text, Set<String> terms) {
+        if (text == null || terms.isEmpty()) {
+            return null;
+        }
+        List<SpanishAnalyzer.Token> tokens = SpanishAnalyzer.tokens(text);
+        SpanishAnalyzer.Token first = tokens.stream()
+                .filter(token -> token.term() != null && terms.contains(token.term()))
+                .findFirst()
+                .orElse(null);
+        if (first == null) {
+            return null;
+        }
+
+        int from = Math.max(0, first.start() - SNIPPET_CONTEXT);
+        while (from > 0 && !Character.isWhitespace(text.charAt(from - 1))) {
+            from--;
+        }
+        int to = Math.min(text.length(), from + SNIPPET_LENGTH);
+        while (to < text.length() && !Character.isWhitespace(text.charAt(to))) {
+            to++;
+        }
+
+        StringBuilder snippet = new StringBuilder(to - from + 32);
+        if (from > 0) {
+            snippet.append("…");
+        }
+        int position = from;
+        for (SpanishAnalyzer.Token token : tokens) {
+            if (token.start() < from || token.end() > to) {
+                continue;
+            }
+            if (token.term() != null && terms.contains(token.term())) {
+                snippet.append(escape(text.substring(position, token.start())))
+                        .append("<mark>")
+                        .append(escape(text.substring(token.start(), token.end())))
+                        .append("</mark>");
+                position = token.end();
+            }
+        }
+        snippet.append(escape(text.substring(position, to)));
+        if (to < text.length()) {
+            snippet.append("…");
+        }
+        return snippet.toString();
+    }
+
+    /** Escapa solo &lt; &gt; &amp; y comillas; las tildes se quedan como están. */
+    private static String escape(String text) {
+        return HtmlUtils.htmlEscape(text, "UTF-8");
+    }
+}
@@ -1,44 +1,285 @@
 package com.educadino.service;
 
+import com.educadino.dto.CatalogChangesDto;
 import com.educadino.dto.DinosaurDto;
 import com.educadino.dto.DinosaurRequest;
+import com.educadino.dto.DinosaurFacetsDto;
+import com.educadino.dto.DinosaurMapDto;
+import com.educadino.dto.DinosaurTaxonomyDto;
+import com.educadino.dto.DinosaurTimelineDto;
 import com.educadino.entity.Dinosaur;
+import com.educadino.event.CatalogChangedEvent;
+import com.educadino.exception.BadRequestException;
 import com.educadino.exception.ResourceNotFoundException;
 import com.educadino.repository.DinosaurRepository;
+import com.educadino.util.GeologicTimeScale;
+import com.educadino.util.IntervalTree;
+import com.educadino.util.PlaceGazetteer;
+import com.educadino.util.SpatialGrid;
+import com.educadino.util.TaxonomyTree;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
  * Servicio de Dinosaurios
+ *
+ * Las lecturas se sirven desde DinosaurCatalog (en memoria); las escrituras
+ * van a la BD y publican un CatalogChangedEvent para rehacer el catálogo.
+ * Los borrados dejan además una marca para la sincronización incremental.
  */
 @Service
 @RequiredArgsConstructor
 public class DinosaurService {
 
+    private static final int MAX_MAP_ZOOM = 22;
+    private static final int MAX_TIMELINE_SLICES = 500;
+    private static final String INCLUDE_SIMILAR = "similar";
+
+    /** Los más antiguos primero. */
+    private static final Comparator<DinosaurDto> OLDEST_FIRST = Comparator
+            .comparing(DinosaurDto::getFromMya, Comparator.reverseOrder())
+            .thenComparing(DinosaurDto::getId);
+
     private final DinosaurRepository dinosaurRepository;
+    private final DinosaurCatalog dinosaurCatalog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MediaService mediaService;
+    private final CatalogSyncService catalogSyncService;
 
     /**
      * Obtiene todos los dinosaurios.
      */
-    @Transactional(readOnly = true)
     public List<DinosaurDto> getAllDinosaurs() {
-        return dinosaurRepository.findAll().stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return dinosaurCatalog.findAll();
+    }
+
+    /**
+     * Filtra dinosaurios combinando atributos. Varios valores de un mismo
+     * atributo se combinan con OR y los atributos entre sí con AND; los
+     * parámetros vacíos no filtran.
+     */
+    public List<DinosaurDto> filter(List<String> diet, List<String> period, List<String> taxonomy,
+                                    List<String> family, List<String> size) {
+        return dinosaurCatalog.find(filters(diet, period, taxonomy, family, size));
+    }
+
+    /**
+     * Recuentos por dieta, período, taxonomía, familia y tamaño para un filtro.
+     */
+    public DinosaurFacetsDto getFacets(List<String> diet, List<String> period, List<String> taxonomy,
+                                       List<String> family, List<String> size) {
+        return dinosaurCatalog.facets(filters(diet, period, taxonomy, family, size));
+    }
+
+    /**
+     * Dinosaurios que vivían hace mya millones de años.
+     */
+    public List<DinosaurDto> getAliveAt(double mya) {
+        if (mya < 0) {
+            throw new BadRequestException("Los millones de años no pueden ser negativos");
+        }
+        return sortedOldestFirst(dinosaurCatalog.timeline().stab(mya));
+    }
+
+    /**
+     * Dinosaurios cuyo rango temporal se solapa con el del indicado.
+     */
+    public List<DinosaurDto> getContemporaries(Long id) {
+        DinosaurDto dinosaur = getDinosaurById(id);
+        IntervalTree.Interval lifespan = DinosaurCatalog.lifespan(dinosaur);
+        if (lifespan == null) {
+            throw new BadRequestException("Este dinosaurio no tiene rango temporal");
+        }
+        List<DinosaurDto> contemporaries = new ArrayList<>(
+                dinosaurCatalog.timeline().overlapping(lifespan.low(), lifespan.high()));
+        contemporaries.removeIf(other -> other.getId().equals(id));
+        return sortedOldestFirst(contemporaries);
+    }
+
+    /**
+     * Tramos de step millones de años entre fromMya y toMya con los
+     * dinosaurios de cada uno. Cada tramo incluye su final y no su inicio
+     * (salvo el primero), así que un dinosaurio que desaparece justo en el
+     * límite no cuenta en el tramo siguiente.
+     */
+    public DinosaurTimelineDto getTimeline(double fromMya, double toMya, double step) {
+        if (!(fromMya > toMya && toMya >= 0)) {
+            throw new BadRequestException("fromMya debe ser mayor que toMya y toMya no puede ser negativo");
+        }
+        double count = Math.ceil((fromMya - toMya) / step);
+        if (!(step > 0) || count > MAX_TIMELINE_SLICES) {
+            throw new BadRequestException("step debe ser positivo y dar como mucho " + MAX_TIMELINE_SLICES + " tramos");
+        }
+
+        IntervalTree<DinosaurDto> timeline = dinosaurCatalog.timeline();
+        List<DinosaurTimelineDto.Slice> slices = new ArrayList<>((int) count);
+        for (int i = 0; i < count; i++) {
+            double start = fromMya - i * step;
+            double end = Math.max(toMya, start - step);
+            double older = i == 0 ? start : Math.nextDown(start);
+            List<Long> ids = sortedOldestFirst(timeline.overlapping(end, older)).stream()
+                    .map(DinosaurDto::getId)
+                    .toList();
+            slices.add(DinosaurTimelineDto.Slice.builder()
+                    .fromMya(start)
+                    .toMya(end)
+                    .count(ids.size())
+                    .dinosaurIds(ids)
+                    .build());
+        }
+        return DinosaurTimelineDto.builder()
+                .fromMya(fromMya)
+                .toMya(toMya)
+                .step(step)
+                .slices(slices)
+                .build();
+    }
+
+    /**
+     * Árbol taxonómico completo del catálogo.
+     */
+    public DinosaurTaxonomyDto getTaxonomy() {
+        TaxonomyTree<DinosaurDto> tree = dinosaurCatalog.taxonomy();
+        return DinosaurTaxonomyDto.builder()
+                .root(toTaxonomyNode(tree, tree.root()))
+                .build();
+    }
+
+    /**
+     * Dinosaurios bajo un clado o familia ("Theropoda", "sauropoda"...).
+     */
+    public List<DinosaurDto> getDinosaursInGroup(String group) {
+        TaxonomyTree<DinosaurDto> tree = dinosaurCatalog.taxonomy();
+        return tree.find(group)
+                .map(tree::items)
+                .orElseThrow(() -> new ResourceNotFoundException("Grupo taxonómico no encontrado: " + group));
+    }
+
+    /**
+     * Clado común más bajo de dos o más dinosaurios.
+     */
+    public DinosaurTaxonomyDto.CommonAncestor getCommonAncestor(List<Long> ids) {
+        if (ids == null || ids.size() < 2) {
+            throw new BadRequestException("Indica al menos dos dinosaurios");
+        }
+        TaxonomyTree<DinosaurDto> tree = dinosaurCatalog.taxonomy();
+        TaxonomyTree.Node ancestor = null;
+        List<DinosaurTaxonomyDto.Lineage> lineages = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            TaxonomyTree.Node leaf = tree.leaf(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Dinosaurio", id));
+            ancestor = ancestor == null ? leaf : tree.lowestCommonAncestor(ancestor, leaf);
+            lineages.add(DinosaurTaxonomyDto.Lineage.builder()
+                    .dinosaurId(id)
+                    .name(leaf.name())
+                    .path(names(tree.path(leaf)))
+                    .build());
+        }
+        return DinosaurTaxonomyDto.CommonAncestor.builder()
+                .name(ancestor.name())
+                .rank(rankName(ancestor))
+                .path(names(tree.path(ancestor)))
+                .lineages(lineages)
+                .build();
+    }
+
+    /**
+     * Yacimientos del rectángulo agrupados para el zoom del mapa.
+     *
+     * @param bbox minLon,minLat,maxLon,maxLat (null = el mundo entero)
+     */
+    public DinosaurMapDto getMap(String bbox, int zoom) {
+        if (zoom < 0 || zoom > MAX_MAP_ZOOM) {
+            throw new BadRequestException("El zoom debe estar entre 0 y " + MAX_MAP_ZOOM);
+        }
+        SpatialGrid.BoundingBox box;
+        try {
+            box = bbox == null || bbox.isBlank() ? SpatialGrid.BoundingBox.WORLD : SpatialGrid.BoundingBox.parse(bbox);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("bbox no válido (minLon,minLat,maxLon,maxLat): " + e.getMessage());
+        }
+
+        List<DinosaurMapDto.Cluster> clusters = new ArrayList<>();
+        int total = 0;
+        for (SpatialGrid.Cluster<DinosaurDto> cluster : dinosaurCatalog.sites().clusters(box, zoom)) {
+            DinosaurDto dinosaur = cluster.item();
+            clusters.add(DinosaurMapDto.Cluster.builder()
+                    .latitude(cluster.latitude())
+                    .longitude(cluster.longitude())
+                    .count(cluster.count())
+                    .dinosaurId(dinosaur == null ? null : dinosaur.getId())
+                    .name(dinosaur == null ? null : dinosaur.getName())
+                    .imageUrl(dinosaur == null ? null : dinosaur.getImageUrl())
+                    .build());
+            total += cluster.count();
+        }
+        return DinosaurMapDto.builder()
+                .bbox(box.toString())
+                .zoom(zoom)
+                .total(total)
+                .clusters(clusters)
+                .build();
     }
 
     /**
      * Obtiene un dinosaurio por ID.
      */
-    @Transactional(readOnly = true)
     public DinosaurDto getDinosaurById(Long id) {
-        Dinosaur dinosaur = dinosaurRepository.findById(id)
+        return dinosaurCatalog.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Dinosaurio", id));
-        return mapToDto(dinosaur);
+    }
+
+    /**
+     * Obtiene un dinosaurio con datos adicionales.
+     *
+     * @param include similar: añade los dinosaurios parecidos, ya precalculados en el catálogo
+     */
+    public DinosaurDto getDinosaurById(Long id, List<String> include) {
+        DinosaurDto dinosaur = getDinosaurById(id);
+        if (include == null || include.isEmpty()) {
+            return dinosaur;
+        }
+        for (String option : include) {
+            if (!INCLUDE_SIMILAR.equals(option.trim().toLowerCase(Locale.ROOT))) {
+                throw new BadRequestException("Opción de include no válida: " + option);
+            }
+        }
+        List<DinosaurDto.Similar> similar = dinosaurCatalog.similar(id).stream()
+                .map(neighbor -> DinosaurDto.Similar.builder()
+                        .id(neighbor.item().getId())
+                        .name(neighbor.item().getName())
+                        .imageUrl(neighbor.item().getImageUrl())
+                        .score(neighbor.score())
+                        .build())
+                .toList();
+        // El DTO del catálogo es compartido: se devuelve una copia
+        return dinosaur.toBuilder().similar(similar).build();
+    }
+
+    /**
+     * Cambios desde el token de sincronización (ver CatalogSyncService).
+     * Se lee de la BD y no del catálogo en memoria, que se rehace tras
+     * confirmarse cada cambio y podría ir por detrás del token.
+     */
+    @Transactional(readOnly = true)
+    public CatalogChangesDto<DinosaurDto> getChanges(String syncToken) {
+        CatalogSyncService.Window window = catalogSyncService.open(syncToken);
+        List<Dinosaur> changed = window.reset()
+                ? dinosaurRepository.findAll(Sort.by("id"))
+                : dinosaurRepository.findByUpdatedAtAfterOrderByIdAsc(window.since());
+        return catalogSyncService.changes(CatalogChangedEvent.Catalog.DINOSAURS, window,
+                changed.stream().map(DinosaurService::mapToDto).toList());
     }
 
     /**
@@ -47,28 +288,22 @@ public class DinosaurService {
     @Transactional(readOnly = true)
     public List<DinosaurDto> searchByName(String name) {
         return dinosaurRepository.findByNameContainingIgnoreCase(name).stream()
-                .map(this::mapToDto)
+                .map(DinosaurService::mapToDto)
                 .collect(Collectors.toList());
     }
 
     /**
      * Filtra dinosaurios por dieta.
      */
-    @Transactional(readOnly = true)
     public List<DinosaurDto> getByDiet(String diet) {
-        return dinosaurRepository.findByDiet(diet).stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return dinosaurCatalog.find(Map.of(DinosaurCatalog.DIET, List.of(diet)));
     }
 
     /**
      * Filtra dinosaurios por período.
      */
-    @Transactional(readOnly = true)
     public List<DinosaurDto> getByPeriod(String period) {
-        return dinosaurRepository.findByPeriod(period).stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return dinosaurCatalog.find(Map.of(DinosaurCatalog.PERIOD, List.of(period)));
     }
 
     /**
@@ -83,13 +318,16 @@ public class DinosaurService {
                 .period(request.getPeriod())
                 .taxonomy(request.getTaxonomy())
                 .family(request.getFamily())
-                .imageUrl(request.getImageUrl())
+                .imageUrl(mediaService.toReference(request.getImageUrl()))
                 .size(request.getSize())
                 .location(request.getLocation())
                 .curiosities(request.getCuriosities())
                 .build();
+        applyCoordinates(dinosaur, request);
+        applyTimeRange(dinosaur, request);
 
         dinosaurRepository.save(dinosaur);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Catalog.DINOSAURS, dinosaur.getId()));
         return mapToDto(dinosaur);
     }
 
@@ -107,12 +345,15 @@ public class DinosaurService {
         if (request.getPeriod() != null) dinosaur.setPeriod(request.getPeriod());
         if (request.getTaxonomy() != null) dinosaur.setTaxonomy(request.getTaxonomy());
         if (request.getFamily() != null) dinosaur.setFamily(request.getFamily());
-        if (request.getImageUrl() != null) dinosaur.setImageUrl(request.getImageUrl());
+        if (request.getImageUrl() != null) dinosaur.setImageUrl(mediaService.toReference(request.getImageUrl()));
         if (request.getSize() != null) dinosaur.setSize(request.getSize());
         if (request.getLocation() != null) dinosaur.setLocation(request.getLocation());
         if (request.getCuriosities() != null) dinosaur.setCuriosities(request.getCuriosities());
+        applyCoordinates(dinosaur, request);
+        applyTimeRange(dinosaur, request);
 
         dinosaurRepository.save(dinosaur);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Catalog.DINOSAURS, dinosaur.getId()));
         return mapToDto(dinosaur);
     }
 
@@ -125,25 +366,115 @@ public class DinosaurService {
             throw new ResourceNotFoundException("Dinosaurio", id);
         }
         dinosaurRepository.deleteById(id);
+        catalogSyncService.recordDeletion(CatalogChangedEvent.Catalog.DINOSAURS, id);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Catalog.DINOSAURS, id));
+    }
+
+    private static Map<String, List<String>> filters(List<String> diet, List<String> period, List<String> taxonomy,
+                                                     List<String> family, List<String> size) {
+        Map<String, List<String>> filters = new LinkedHashMap<>();
+        filters.put(DinosaurCatalog.DIET, diet);
+        filters.put(DinosaurCatalog.PERIOD, period);
+        filters.put(DinosaurCatalog.TAXONOMY, taxonomy);
+        filters.put(DinosaurCatalog.FAMILY, family);
+        filters.put(DinosaurCatalog.SIZE, size);
+        return filters;
+    }
+
+    /**
+     * Coordenadas del yacimiento: las del request o, si el dinosaurio aún no
+     * tiene, las de PlaceGazetteer para su location. Unas coordenadas ya
+     * guardadas nunca se sustituyen por el centro de un país ni se borran
+     * al corregir location: para moverlas hay que enviarlas.
+     */
+    private static void applyCoordinates(Dinosaur dinosaur, DinosaurRequest request) {
+        if ((request.getLatitude() == null) != (request.getLongitude() == null)) {
+            throw new BadRequestException("Indica la latitud y la longitud a la vez");
+        }
+        if (request.getLatitude() != null) {
+            dinosaur.setLatitude(request.getLatitude());
+            dinosaur.setLongitude(request.getLongitude());
+        } else if (dinosaur.getLatitude() == null && dinosaur.getLocation() != null) {
+            PlaceGazetteer.locate(dinosaur.getLocation()).ifPresent(point -> {
+                dinosaur.setLatitude(point.latitude());
+                dinosaur.setLongitude(point.longitude());
+            });
+        }
+    }
+
+    /**
+     * Rango temporal: el del request o, si el dinosaurio aún no tiene, el de
+     * GeologicTimeScale para su period. Un rango ya guardado (el publicado
+     * para la especie) nunca se sustituye por el del período entero ni se
+     * borra al corregir period: para cambiarlo hay que enviarlo.
+     */
+    private static void applyTimeRange(Dinosaur dinosaur, DinosaurRequest request) {
+        if ((request.getFromMya() == null) != (request.getToMya() == null)) {
+            throw new BadRequestException("Indica fromMya y toMya a la vez");
+        }
+        if (request.getFromMya() != null) {
+            if (request.getFromMya() < request.getToMya()) {
+                throw new BadRequestException("fromMya (aparición) no puede ser menor que toMya (extinción)");
+            }
+            dinosaur.setFromMya(request.getFromMya());
+            dinosaur.setToMya(request.getToMya());
+        } else if (dinosaur.getFromMya() == null && dinosaur.getPeriod() != null) {
+            GeologicTimeScale.range(dinosaur.getPeriod()).ifPresent(range -> {
+                dinosaur.setFromMya(range.fromMya());
+                dinosaur.setToMya(range.toMya());
+            });
+        }
+    }
+
+    private static List<DinosaurDto> sortedOldestFirst(List<DinosaurDto> dinosaurs) {
+        List<DinosaurDto> sorted = new ArrayList<>(dinosaurs);
+        sorted.sort(OLDEST_FIRST);
+        return sorted;
+    }
+
+    private static DinosaurTaxonomyDto.Node toTaxonomyNode(TaxonomyTree<DinosaurDto> tree, TaxonomyTree.Node node) {
+        boolean genus = node.rank() == TaxonomyTree.Rank.GENUS;
+        return DinosaurTaxonomyDto.Node.builder()
+                .name(node.name())
+                .rank(rankName(node))
+                .count(node.count())
+                .dinosaurId(genus ? tree.item(node).getId() : null)
+                .children(genus ? null : tree.children(node).stream()
+                        .map(child -> toTaxonomyNode(tree, child))
+                        .toList())
+                .build();
+    }
+
+    private static String rankName(TaxonomyTree.Node node) {
+        return node.rank().name().toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> names(List<TaxonomyTree.Node> path) {
+        return path.stream().map(TaxonomyTree.Node::name).toList();
     }
 
     /**
      * Convierte Dinosaur a DinosaurDto.
      */
-    private DinosaurDto mapToDto(Dinosaur dinosaur) {
+    static DinosaurDto mapToDto(Dinosaur dinosaur) {
         return DinosaurDto.builder()
                 .id(dinosaur.getId())
                 .name(dinosaur.getName())
                 .description(dinosaur.getDescription())
                 .diet(dinosaur.getDiet())
                 .period(dinosaur.getPeriod())
+                .fromMya(dinosaur.getFromMya())
+                .toMya(dinosaur.getToMya())
                 .taxonomy(dinosaur.getTaxonomy())
                 .family(dinosaur.getFamily())
-                .imageUrl(dinosaur.getImageUrl())
+                .imageUrl(MediaService.url(dinosaur.getImageUrl()))
                 .size(dinosaur.getSize())
                 .location(dinosaur.getLocation())
+                .latitude(dinosaur.getLatitude())
+                .longitude(dinosaur.getLongitude())
                 .curiosities(dinosaur.getCuriosities())
                 .createdAt(dinosaur.getCreatedAt())
+                .updatedAt(dinosaur.getUpdatedAt())
                 .build();
     }
 }
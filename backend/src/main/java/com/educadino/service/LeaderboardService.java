@@ -0,0 +1,240 @@
+package com.educadino.service;
+
+import com.educadino.dto.LeaderboardDto;
+import com.educadino.dto.UserProgressDto;
+import com.educadino.entity.User;
+import com.educadino.event.ProgressRecordedEvent;
+import com.educadino.exception.BadRequestException;
+import com.educadino.repository.UserRepository;
+import com.educadino.util.RankedScoreBoard;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio de Clasificaciones
+ *
+ * Mantiene en memoria, por minijuego, la mejor puntuación de cada usuario
+ * en tres ventanas: histórica, semanal (últimos 7 días) y diaria. Se
+ * actualiza con cada partida guardada y se reconstruye desde la BD al
+ * arrancar, así que consultar el top N o la posición de un usuario no
+ * necesita recorrer user_progress.
+ *
+ * Las ventanas móviles se apoyan en un anillo de 7 cubos diarios: al
+ * cambiar de día se descarta el cubo más antiguo y se rehacen la
+ * clasificación semanal y la diaria a partir de los cubos vigentes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardService {
+
+    private static final int WEEK_DAYS = 7;
+    private static final int MAX_LIMIT = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final UserService userService;
+
+    private final Map<String, MinigameBoards> boards = new ConcurrentHashMap<>();
+
+    /**
+     * Actualiza las clasificaciones cuando se confirma el guardado de partidas.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProgressRecorded(ProgressRecordedEvent event) {
+        LocalDate today = LocalDate.now();
+        for (UserProgressDto progress : event.progress()) {
+            boardsFor(progress.getMinigameType())
+                    .offer(event.userId(), progress.getScore(), progress.getPlayedAt().toLocalDate(), today);
+        }
+    }
+
+    /**
+     * Reconstruye las clasificaciones desde la BD al arrancar. Las partidas
+     * que lleguen mientras tanto no se pierden porque solo se conserva el
+     * máximo por usuario.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+
+        jdbcTemplate.query(
+                "SELECT user_id, minigame_type, best_score FROM user_minigame_stats",
+                rs -> {
+                    boardsFor(rs.getString(2)).allTime.offer(rs.getLong(1), rs.getInt(3));
+                });
+
+        jdbcTemplate.query(
+                "SELECT user_id, minigame_type, CAST(played_at AS date), MAX(score) FROM user_progress "
+                        + "WHERE played_at >= ? GROUP BY user_id, minigame_type, CAST(played_at AS date)",
+                rs -> {
+                    boardsFor(rs.getString(2)).offer(rs.getLong(1), rs.getInt(4), rs.getDate(3).toLocalDate(), today);
+                },
+                Timestamp.valueOf(today.minusDays(WEEK_DAYS - 1).atStartOfDay()));
+
+        log.info("🏆 Clasificaciones reconstruidas para {} minijuegos en {} ms",
+                boards.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Rota los cubos diarios a medianoche (también se rota al vuelo al leer).
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    public void rotate() {
+        LocalDate today = LocalDate.now();
+        boards.values().forEach(b -> b.rotateIfNeeded(today));
+    }
+
+    /**
+     * Obtiene la clasificación de un minijuego.
+     *
+     * @param window all, weekly o daily
+     */
+    public LeaderboardDto getLeaderboard(String minigameType, String window, int limit) {
+        MinigameBoards minigameBoards = boards.get(minigameType);
+        int cappedLimit = Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        RankedScoreBoard board;
+        if (minigameBoards == null) {
+            board = new RankedScoreBoard();
+        } else {
+            minigameBoards.rotateIfNeeded(LocalDate.now());
+            board = switch (window.toLowerCase()) {
+                case "all" -> minigameBoards.allTime;
+                case "weekly" -> minigameBoards.weekly;
+                case "daily" -> minigameBoards.daily;
+                default -> throw new BadRequestException("Ventana no válida: " + window + " (all, weekly, daily)");
+            };
+        }
+
+        List<RankedScoreBoard.Entry> top = board.top(cappedLimit);
+        RankedScoreBoard.Entry me = board.rankOf(userService.getCurrentUserId());
+
+        List<Long> ids = top.stream().map(RankedScoreBoard.Entry::userId).collect(Collectors.toList());
+        if (me != null) {
+            ids.add(me.userId());
+        }
+        Map<Long, String> usernames = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, User::getUsername));
+        Function<RankedScoreBoard.Entry, LeaderboardDto.Entry> toDto = entry -> LeaderboardDto.Entry.builder()
+                .rank(entry.rank())
+                .username(usernames.get(entry.userId()))
+                .score(entry.score())
+                .build();
+
+        return LeaderboardDto.builder()
+                .minigameType(minigameType)
+                .window(window.toLowerCase())
+                .totalPlayers(board.size())
+                .entries(top.stream().map(toDto).toList())
+                .me(me != null ? toDto.apply(me) : null)
+                .build();
+    }
+
+    private MinigameBoards boardsFor(String minigameType) {
+        return boards.computeIfAbsent(minigameType, type -> new MinigameBoards(LocalDate.now()));
+    }
+
+    /**
+     * Clasificaciones de un minijuego y sus cubos diarios.
+     */
+    private static final class MinigameBoards {
+
+        final RankedScoreBoard allTime = new RankedScoreBoard();
+
+        /** Mejores puntuaciones por día, indexadas por epochDay % 7. */
+        private final DayBucket[] buckets = new DayBucket[WEEK_DAYS];
+
+        volatile RankedScoreBoard weekly = new RankedScoreBoard();
+        volatile RankedScoreBoard daily = new RankedScoreBoard();
+        private volatile LocalDate currentDay;
+
+        MinigameBoards(LocalDate today) {
+            this.currentDay = today;
+        }
+
+        void offer(long userId, int score, LocalDate day, LocalDate today) {
+            allTime.offer(userId, score);
+
+            long age = today.toEpochDay() - day.toEpochDay();
+            if (age < 0 || age >= WEEK_DAYS) {
+                return;
+            }
+            synchronized (this) {
+                rotateIfNeeded(today);
+                bucketFor(day.toEpochDay()).best.merge(userId, score, Math::max);
+                weekly.offer(userId, score);
+                if (age == 0) {
+                    daily.offer(userId, score);
+                }
+            }
+        }
+
+        void rotateIfNeeded(LocalDate today) {
+            if (today.equals(currentDay)) {
+                return;
+            }
+            synchronized (this) {
+                if (today.equals(currentDay)) {
+                    return;
+                }
+                long todayEpoch = today.toEpochDay();
+                RankedScoreBoard newWeekly = new RankedScoreBoard();
+                RankedScoreBoard newDaily = new RankedScoreBoard();
+                for (int i = 0; i < WEEK_DAYS; i++) {
+                    DayBucket bucket = buckets[i];
+                    if (bucket == null) {
+                        continue;
+                    }
+                    long age = todayEpoch - bucket.epochDay;
+                    if (age < 0 || age >= WEEK_DAYS) {
+                        buckets[i] = null;
+                        continue;
+                    }
+                    bucket.best.forEach(newWeekly::offer);
+                    if (age == 0) {
+                        bucket.best.forEach(newDaily::offer);
+                    }
+                }
+                weekly = newWeekly;
+                daily = newDaily;
+                currentDay = today;
+            }
+        }
+
+        private DayBucket bucketFor(long epochDay) {
+            int index = Math.floorMod(epochDay, WEEK_DAYS);
+            DayBucket bucket = buckets[index];
+            if (bucket == null || bucket.epochDay != epochDay) {
+                bucket = new DayBucket(epochDay);
+                buckets[index] = bucket;
+            }
+            return bucket;
+        }
+    }
+
+    private static final class DayBucket {
+        final long epochDay;
+        final Map<Long, Integer> best = new HashMap<>();
+
+        DayBucket(long epochDay) {
+            this.epochDay = epochDay;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.educadino.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Acumulador de Tiempo de Aprendizaje
+ *
+ * POST /users/me/learning-time llega periódicamente por cada niño activo.
+ * En lugar de leer y reescribir la fila de users en cada llamada, los
+ * minutos se suman en un LongAdder por usuario y un proceso periódico los
+ * vuelca con un único UPDATE por lotes que incrementa learning_time y
+ * recalcula level en la misma sentencia. Los minutos se suman también a
+ * sent_minutes, la parte de learning_time que no sale del tiempo de juego
+ * (NULL hasta que UserTimePlayedBackfill la inicializa, y NULL + x sigue
+ * siendo NULL). Las pestañas concurrentes ya no pisan sus incrementos.
+ *
+ * Los contadores se escriben con ConcurrentHashMap.compute, de modo que
+ * retirar un contador vacío no puede perder un incremento concurrente.
+ * Si el volcado falla los minutos vuelven a los contadores; al apagar se
+ * vuelca lo pendiente. Cada volcado marca además el día de hoy como día
+ * de actividad de esos usuarios y evalúa sus logros de tiempo, nivel y
+ * racha (ver AchievementAwarder).
+ *
+ * Métricas:
+ * - educadino.learning-time.pending.minutes: minutos pendientes de volcar
+ * - educadino.learning-time.pending.users: usuarios con minutos pendientes
+ * - educadino.learning-time.flush.lag: segundos desde el último volcado correcto
+ * - educadino.learning-time.flush: duración de cada volcado
+ * - educadino.learning-time.flushed: minutos volcados
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LearningTimeAccumulator {
+
+    private static final String FLUSH_SQL = "UPDATE users SET "
+            + "learning_time = COALESCE(learning_time, 0) + ?, "
+            + "sent_minutes = sent_minutes + ?, "
+            + "level = " + LevelPolicy.sql("COALESCE(learning_time, 0) + ?",
+                    "COALESCE(completed_minigames, 0)", "COALESCE(total_score, 0)") + ", "
+            + "updated_at = ? "
+            + "WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ActivityStreakService activityStreakService;
+    private final AchievementAwarder achievementAwarder;
+
+    @Value("${educadino.learning-time.batch-size:500}")
+    private int batchSize;
+
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private final AtomicLong lastFlushMillis = new AtomicLong(System.currentTimeMillis());
+
+    private Counter flushedCounter;
+    private Timer flushTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("educadino.learning-time.pending.minutes", pending,
+                        map -> map.values().stream().mapToLong(LongAdder::sum).sum())
+                .description("Minutos de aprendizaje pendientes de volcar")
+                .register(meterRegistry);
+        Gauge.builder("educadino.learning-time.pending.users", pending, Map::size)
+                .description("Usuarios con minutos de aprendizaje pendientes")
+                .register(meterRegistry);
+        Gauge.builder("educadino.learning-time.flush.lag", lastFlushMillis,
+                        last -> (System.currentTimeMillis() - last.get()) / 1000.0)
+                .description("Segundos desde el último volcado correcto")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("educadino.learning-time.flush")
+                .description("Duración de cada volcado de tiempo de aprendizaje")
+                .register(meterRegistry);
+        flushedCounter = Counter.builder("educadino.learning-time.flushed")
+                .description("Minutos de aprendizaje volcados a users")
+                .register(meterRegistry);
+    }
+
+    public void add(Long userId, int minutes) {
+        pending.compute(userId, (id, adder) -> {
+            LongAdder counter = adder != null ? adder : new LongAdder();
+            counter.add(minutes);
+            return counter;
+        });
+    }
+
+    /**
+     * Minutos de un usuario aún no volcados (para mostrarlos en su perfil).
+     */
+    public long pendingMinutes(Long userId) {
+        LongAdder adder = pending.get(userId);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    @Scheduled(fixedDelayString = "${educadino.learning-time.flush-interval:10s}")
+    public void flush() {
+        flushTimer.record(this::flushPending);
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flushPending();
+    }
+
+    private synchronized void flushPending() {
+        boolean written = true;
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            // sumThenReset no pierde incrementos concurrentes (getAndSet por celda)
+            long minutes = entry.getValue().sumThenReset();
+            if (minutes == 0) {
+                pending.computeIfPresent(entry.getKey(), (id, adder) -> adder.sum() == 0 ? null : adder);
+                continue;
+            }
+            batch.add(new Object[]{minutes, minutes, minutes, null, entry.getKey()});
+            if (batch.size() == batchSize) {
+                written &= write(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            written &= write(batch);
+        }
+        // Con algún lote devuelto a los contadores el volcado no cuenta como correcto
+        if (written) {
+            lastFlushMillis.set(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * @return false si el lote no se pudo escribir y volvió a los contadores
+     */
+    private boolean write(List<Object[]> batch) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        batch.forEach(row -> row[3] = now);
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+        } catch (DataAccessException e) {
+            log.warn("No se pudo volcar el tiempo de aprendizaje de {} usuarios, se reintentará: {}",
+                    batch.size(), e.getMessage());
+            batch.forEach(row -> add((Long) row[4], (int) (long) (Long) row[0]));
+            return false;
+        }
+        flushedCounter.increment(batch.stream().mapToLong(row -> (Long) row[0]).sum());
+        // Los minutos ya están escritos: si falla el día de actividad no se vuelven a sumar
+        try {
+            activityStreakService.markActive(batch.stream().map(row -> (Long) row[4]).toList(), LocalDate.now());
+        } catch (DataAccessException e) {
+            log.warn("No se pudieron marcar los días de actividad de {} usuarios: {}", batch.size(), e.getMessage());
+        }
+        awardAchievements(batch);
+        return true;
+    }
+
+    /**
+     * Los minutos volcados (y el día marcado) pueden alcanzar umbrales de
+     * LEARNING_TIME, LEVEL o STREAK sin que el usuario guarde ninguna partida.
+     */
+    private void awardAchievements(List<Object[]> batch) {
+        if (!achievementAwarder.usesLearningMetrics()) {
+            return;
+        }
+        for (Object[] row : batch) {
+            try {
+                achievementAwarder.award((Long) row[4], Set.of());
+            } catch (DataAccessException e) {
+                log.warn("No se pudieron evaluar los logros del usuario {}: {}", row[4], e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.educadino.service;
+
+/**
+ * Fórmula del Nivel
+ *
+ * Única definición del nivel de un usuario a partir de sus contadores:
+ * un punto por minuto de aprendizaje, 10 por minijuego completado y uno
+ * por cada 100 puntos de puntuación; 50 puntos por nivel, hasta el 100.
+ *
+ * Las sentencias que actualizan users recalculan el nivel en SQL con
+ * {@link #sql}, y la conciliación (UserStatsReconciliationJob) lo hace en
+ * Java con {@link #level}; ambas salen de estas constantes. Si se cambia
+ * la fórmula, hay que lanzar la conciliación para recalcular los niveles
+ * ya guardados.
+ */
+public final class LevelPolicy {
+
+    public static final int MAX_LEVEL = 100;
+
+    private static final int POINTS_PER_LEVEL = 50;
+    private static final int POINTS_PER_COMPLETION = 10;
+    private static final int SCORE_PER_POINT = 100;
+
+    private LevelPolicy() {
+    }
+
+    public static int level(long learningMinutes, long completedMinigames, long totalScore) {
+        long points = learningMinutes + completedMinigames * POINTS_PER_COMPLETION + totalScore / SCORE_PER_POINT;
+        return (int) Math.min(MAX_LEVEL, 1 + points / POINTS_PER_LEVEL);
+    }
+
+    /**
+     * Expresión SQL equivalente a {@link #level} sobre tres expresiones
+     * enteras no negativas (la división entera de PostgreSQL trunca igual
+     * que la de Java).
+     */
+    public static String sql(String learningMinutes, String completedMinigames, String totalScore) {
+        return "LEAST(" + MAX_LEVEL + ", 1 + ("
+                + "(" + learningMinutes + ")"
+                + " + (" + completedMinigames + ") * " + POINTS_PER_COMPLETION
+                + " + (" + totalScore + ") / " + SCORE_PER_POINT
+                + ") / " + POINTS_PER_LEVEL + ")";
+    }
+}
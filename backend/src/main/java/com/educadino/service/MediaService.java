@@ -0,0 +1,497 @@
+package com.educadino.service;
+
+import com.educadino.dto.MediaDto;
+import com.educadino.entity.MediaFile;
+import com.educadino.exception.BadRequestException;
+import com.educadino.exception.PayloadTooLargeException;
+import com.educadino.exception.ResourceNotFoundException;
+import com.educadino.exception.TooManyRequestsException;
+import com.educadino.repository.MediaFileRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Servicio de Archivos Multimedia
+ *
+ * Almacén local de imágenes direccionado por contenido: el id de cada
+ * imagen es el SHA-256 de sus bytes y el archivo vive en
+ * {dir}/originals/ab/{id}. Subir la misma imagen dos veces no la duplica
+ * y, como un id nunca cambia de contenido, se puede servir con caché
+ * inmutable.
+ *
+ * Tras cada subida se encargan a un pool de hilos las miniaturas JPEG de
+ * los anchos configurados (solo los más estrechos que el original), para
+ * que las tablets de los niños no descarguen la imagen completa. Mientras
+ * una miniatura no existe se sirve el original con caché corta.
+ *
+ * Los campos imageUrl, image y profileImage guardan el id de la imagen
+ * (o una url externa, como hasta ahora) y los DTOs lo devuelven resuelto
+ * a su url con url(...).
+ *
+ * Los administradores suben imágenes de hasta educadino.media.max-bytes.
+ * El resto de usuarios solo puede subir su imagen de perfil, con un
+ * tamaño menor y un cupo de imágenes nuevas al día por usuario, para que
+ * una cuenta cualquiera no pueda llenar el disco.
+ *
+ * Métricas:
+ * - educadino.media.uploads: imágenes nuevas guardadas
+ * - educadino.media.thumbnails.generated / .failed: miniaturas generadas o fallidas
+ * - educadino.media.thumbnails.pending: imágenes con miniaturas en cola
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MediaService {
+
+    /** Ruta pública de las imágenes (con el context-path /api). */
+    public static final String PUBLIC_PATH = "/api/media/";
+
+    private static final Pattern ID = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern OWN_URL = Pattern.compile("(?:" + PUBLIC_PATH + ")?([0-9a-f]{64})(?:\\?.*)?");
+
+    /** Formatos que ImageIO sabe leer sin dependencias, por nombre de formato. */
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "jpeg", "image/jpeg",
+            "png", "image/png",
+            "gif", "image/gif"
+    );
+
+    private final MediaFileRepository mediaFileRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${educadino.media.dir:./media}")
+    private Path dir;
+
+    @Value("${educadino.media.max-bytes:10MB}")
+    private DataSize maxBytes;
+
+    @Value("${educadino.media.profile.max-bytes:2MB}")
+    private DataSize profileMaxBytes;
+
+    @Value("${educadino.media.profile.max-per-day:10}")
+    private int profileMaxPerDay;
+
+    @Value("${educadino.media.max-pixels:24000000}")
+    private long maxPixels;
+
+    @Value("${educadino.media.thumbnails.widths:160,320,640}")
+    private List<Integer> thumbnailWidths;
+
+    @Value("${educadino.media.thumbnails.quality:0.8}")
+    private float jpegQuality;
+
+    @Value("${educadino.media.thumbnails.workers:2}")
+    private int workers;
+
+    @Value("${educadino.media.thumbnails.queue-capacity:1000}")
+    private int queueCapacity;
+
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor thumbnailPool;
+
+    private Counter uploadCounter;
+    private Counter thumbnailCounter;
+    private Counter thumbnailFailedCounter;
+
+    /**
+     * Archivo a servir para una petición: el original o una miniatura.
+     *
+     * @param immutable false si se sirve el original en lugar de una
+     *                  miniatura que aún no existe
+     */
+    public record MediaContent(Path file, String contentType, String etag, boolean immutable) {
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(dir.resolve("originals"));
+        Files.createDirectories(dir.resolve("thumbnails"));
+        Files.createDirectories(dir.resolve("tmp"));
+        thumbnailWidths = thumbnailWidths.stream().sorted().distinct().toList();
+
+        thumbnailPool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("media-thumbnails-", 0).daemon().factory());
+
+        uploadCounter = Counter.builder("educadino.media.uploads")
+                .description("Imágenes nuevas guardadas")
+                .register(meterRegistry);
+        thumbnailCounter = Counter.builder("educadino.media.thumbnails.generated")
+                .description("Miniaturas generadas")
+                .register(meterRegistry);
+        thumbnailFailedCounter = Counter.builder("educadino.media.thumbnails.failed")
+                .description("Imágenes cuyas miniaturas no se pudieron generar")
+                .register(meterRegistry);
+        Gauge.builder("educadino.media.thumbnails.pending", pending, Set::size)
+                .description("Imágenes con miniaturas en cola")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Encola las miniaturas que falten (p. ej. tras cambiar los anchos).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        mediaFileRepository.findAll().stream()
+                .filter(media -> !missingThumbnails(media).isEmpty())
+                .forEach(this::scheduleThumbnails);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        thumbnailPool.shutdownNow();
+    }
+
+    /**
+     * Guarda una imagen subida por un administrador, o devuelve la
+     * existente si ya estaba.
+     *
+     * @throws PayloadTooLargeException si supera educadino.media.max-bytes
+     * @throws BadRequestException      si no es una imagen JPEG, PNG o GIF válida
+     */
+    public MediaDto store(MultipartFile file) {
+        return store(file, maxBytes, null);
+    }
+
+    /**
+     * Guarda la imagen de perfil de un usuario. Las imágenes que ya
+     * existían no cuentan para su cupo.
+     *
+     * @throws PayloadTooLargeException  si supera educadino.media.profile.max-bytes
+     * @throws TooManyRequestsException si ya subió educadino.media.profile.max-per-day imágenes en 24 horas
+     */
+    public MediaDto storeProfileImage(Long userId, MultipartFile file) {
+        long uploaded = mediaFileRepository.countByUploadedByAndCreatedAtAfter(
+                userId, LocalDateTime.now().minusDays(1));
+        if (uploaded >= profileMaxPerDay) {
+            throw new TooManyRequestsException(
+                    "Has subido demasiadas imágenes hoy, inténtalo de nuevo mañana", Duration.ofDays(1));
+        }
+        return store(file, profileMaxBytes, userId);
+    }
+
+    private MediaDto store(MultipartFile file, DataSize limit, Long uploadedBy) {
+        if (file == null || file.isEmpty()) {
+            throw new BadRequestException("No se ha enviado ninguna imagen");
+        }
+        if (file.getSize() > limit.toBytes()) {
+            throw new PayloadTooLargeException("La imagen supera el máximo de " + limit.toMegabytes() + " MB");
+        }
+
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(dir.resolve("tmp"), "upload-", ".part");
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(file.getInputStream(), sha256)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String id = HexFormat.of().formatHex(sha256.digest());
+
+            MediaFile existing = mediaFileRepository.findById(id).orElse(null);
+            if (existing != null && Files.exists(original(id))) {
+                return mapToDto(existing);
+            }
+
+            MediaFile media = probe(id, temp);
+            media.setUploadedBy(uploadedBy);
+            Path target = original(id);
+            Files.createDirectories(target.getParent());
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            try {
+                media = mediaFileRepository.save(media);
+                uploadCounter.increment();
+            } catch (DataIntegrityViolationException e) {
+                // Otra petición subió la misma imagen a la vez
+                media = mediaFileRepository.findById(id).orElseThrow(() -> e);
+            }
+            scheduleThumbnails(media);
+            return mapToDto(media);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo guardar la imagen", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.warn("No se pudo borrar el temporal {}", temp, e);
+                }
+            }
+        }
+    }
+
+    public MediaDto getMedia(String id) {
+        return mapToDto(find(id));
+    }
+
+    /**
+     * Archivo que corresponde a una petición. Con width se elige la
+     * miniatura más pequeña que sea al menos tan ancha; si no la hay (o es
+     * más ancha que el original) se sirve el original.
+     */
+    public MediaContent content(String id, Integer width) {
+        MediaFile media = find(id);
+        String originalTag = "\"" + id + "\"";
+        if (width == null) {
+            return new MediaContent(original(id), media.getContentType(), originalTag, true);
+        }
+        Integer chosen = thumbnailWidths.stream()
+                .filter(w -> w >= width && w < media.getWidth())
+                .findFirst()
+                .orElse(null);
+        if (chosen == null) {
+            return new MediaContent(original(id), media.getContentType(), originalTag, true);
+        }
+        Path thumbnail = thumbnail(id, chosen);
+        if (Files.exists(thumbnail)) {
+            return new MediaContent(thumbnail, "image/jpeg", "\"" + id + "-w" + chosen + "\"", true);
+        }
+        scheduleThumbnails(media);
+        return new MediaContent(original(id), media.getContentType(), originalTag, false);
+    }
+
+    /**
+     * Valor a guardar en un campo de imagen: el id si es una imagen del
+     * almacén (id o url /api/media/{id}) y el valor tal cual si es una url
+     * externa o una ruta del frontend.
+     *
+     * @throws BadRequestException si apunta a una imagen que no existe
+     */
+    public String toReference(String value) {
+        if (value == null) {
+            return null;
+        }
+        Matcher matcher = OWN_URL.matcher(value.trim());
+        if (!matcher.matches()) {
+            return value;
+        }
+        String id = matcher.group(1);
+        if (!mediaFileRepository.existsById(id)) {
+            throw new BadRequestException("La imagen " + id + " no existe");
+        }
+        return id;
+    }
+
+    /**
+     * Url pública de un campo de imagen: los ids se resuelven y el resto
+     * se devuelve sin cambios.
+     */
+    public static String url(String reference) {
+        if (reference != null && ID.matcher(reference).matches()) {
+            return PUBLIC_PATH + reference;
+        }
+        return reference;
+    }
+
+    private MediaFile find(String id) {
+        if (id == null || !ID.matcher(id).matches()) {
+            throw new ResourceNotFoundException("Imagen no encontrada");
+        }
+        return mediaFileRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Imagen no encontrada"));
+    }
+
+    /**
+     * Lee formato y dimensiones sin decodificar la imagen.
+     */
+    private MediaFile probe(String id, Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                throw new BadRequestException("El archivo no es una imagen JPEG, PNG o GIF");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                String contentType = CONTENT_TYPES.get(reader.getFormatName().toLowerCase(Locale.ROOT));
+                if (contentType == null) {
+                    throw new BadRequestException("Formato no soportado: usa JPEG, PNG o GIF");
+                }
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new PayloadTooLargeException("La imagen tiene demasiados píxeles (" + width + "x" + height + ")");
+                }
+                return MediaFile.builder()
+                        .id(id)
+                        .contentType(contentType)
+                        .size(Files.size(file))
+                        .width(width)
+                        .height(height)
+                        .build();
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new BadRequestException("La imagen está dañada o no se puede leer");
+        }
+    }
+
+    private void scheduleThumbnails(MediaFile media) {
+        if (!pending.add(media.getId())) {
+            return;
+        }
+        try {
+            thumbnailPool.execute(() -> {
+                try {
+                    generateThumbnails(media);
+                } catch (Exception e) {
+                    thumbnailFailedCounter.increment();
+                    log.warn("No se pudieron generar las miniaturas de {}", media.getId(), e);
+                } finally {
+                    pending.remove(media.getId());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Cola llena: se reintentará cuando alguien pida la miniatura
+            pending.remove(media.getId());
+        }
+    }
+
+    private void generateThumbnails(MediaFile media) throws IOException {
+        List<Integer> widths = missingThumbnails(media);
+        if (widths.isEmpty()) {
+            return;
+        }
+        BufferedImage source = ImageIO.read(original(media.getId()).toFile());
+        if (source == null) {
+            throw new IOException("Formato no legible");
+        }
+        for (int width : widths) {
+            int height = Math.max(1, Math.round((float) media.getHeight() * width / media.getWidth()));
+            writeJpeg(resize(source, width, height), thumbnail(media.getId(), width));
+            thumbnailCounter.increment();
+        }
+    }
+
+    private List<Integer> missingThumbnails(MediaFile media) {
+        return thumbnailWidths.stream()
+                .filter(width -> width < media.getWidth())
+                .filter(width -> !Files.exists(thumbnail(media.getId(), width)))
+                .toList();
+    }
+
+    /**
+     * Reduce a la mitad en pasos sucesivos con interpolación bilineal hasta
+     * llegar al tamaño pedido; da casi la calidad de un filtro bicúbico a
+     * una fracción del coste. La transparencia se rellena de blanco (JPEG).
+     */
+    static BufferedImage resize(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = Math.max(width, w / 2);
+            h = Math.max(height, h / 2);
+            BufferedImage next = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, w, h, Color.WHITE, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (w != width || h != height);
+        return current;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(dir.resolve("tmp"), "thumbnail-", ".part");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(jpegQuality);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path original(String id) {
+        return dir.resolve(Paths.get("originals", id.substring(0, 2), id));
+    }
+
+    private Path thumbnail(String id, int width) {
+        return dir.resolve(Paths.get("thumbnails", id.substring(0, 2), id + "-w" + width + ".jpg"));
+    }
+
+    private MediaDto mapToDto(MediaFile media) {
+        Map<Integer, String> thumbnails = new LinkedHashMap<>();
+        for (int width : thumbnailWidths) {
+            if (width < media.getWidth()) {
+                thumbnails.put(width, url(media.getId()) + "?width=" + width);
+            }
+        }
+        return MediaDto.builder()
+                .id(media.getId())
+                .url(url(media.getId()))
+                .contentType(media.getContentType())
+                .size(media.getSize())
+                .width(media.getWidth())
+                .height(media.getHeight())
+                .thumbnails(thumbnails)
+                .build();
+    }
+}
@@ -0,0 +1,275 @@
+package com.educadino.service;
+
+import com.educadino.dto.MinigameSessionDto;
+import com.educadino.exception.BadRequestException;
+import com.educadino.exception.ResourceNotFoundException;
+import com.educadino.exception.TooManyRequestsException;
+import com.educadino.util.TimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Servicio de Partidas en Curso
+ *
+ * Mide en el servidor el tiempo jugado en cada minijuego: el cliente abre
+ * una partida, envía latidos mientras juega y la termina con su
+ * puntuación. Solo el resultado final se guarda, por el camino normal de
+ * progreso; la tabla de partidas vive en memoria y los latidos nunca tocan
+ * la base de datos.
+ *
+ * El tiempo activo suma los intervalos entre latidos, cada uno limitado a
+ * dos intervalos de latido: si la pestaña se duerme, ese hueco no cuenta.
+ *
+ * Las partidas sin latidos durante educadino.minigames.sessions.ttl
+ * caducan mediante una rueda de temporizadores (TimingWheel) que avanza
+ * cada segundo; un latido solo aplaza el vencimiento. La tabla está
+ * limitada a educadino.minigames.sessions.max-sessions partidas (unos
+ * 250 bytes cada una con sus entradas en el mapa y la rueda: ~25 MB para
+ * 100.000) y a max-per-user por usuario; por encima se responde 429.
+ *
+ * Métricas:
+ * - educadino.minigames.sessions.open: partidas abiertas
+ * - educadino.minigames.sessions.started / finished / expired
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MinigameSessionService {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int MAX_MINIGAME_TYPE_LENGTH = 50;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${educadino.minigames.sessions.ttl:2m}")
+    private Duration ttl;
+
+    @Value("${educadino.minigames.sessions.heartbeat-interval:30s}")
+    private Duration heartbeatInterval;
+
+    @Value("${educadino.minigames.sessions.max-sessions:100000}")
+    private int maxSessions;
+
+    @Value("${educadino.minigames.sessions.max-per-user:5}")
+    private int maxPerUser;
+
+    private final Map<UUID, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> sessionsPerUser = new ConcurrentHashMap<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private TimingWheel<Session> wheel;
+
+    private Counter startedCounter;
+    private Counter finishedCounter;
+    private Counter expiredCounter;
+
+    /**
+     * Partida abierta. El tiempo activo se actualiza con el monitor de la
+     * propia partida; el vencimiento lo gestiona la rueda.
+     */
+    static final class Session extends TimingWheel.Timeout {
+        final UUID id;
+        final long userId;
+        final String minigameType;
+        final long startedAt;
+        long lastSeen;
+        long activeMillis;
+
+        Session(UUID id, long userId, String minigameType, long now) {
+            this.id = id;
+            this.userId = userId;
+            this.minigameType = minigameType;
+            this.startedAt = now;
+            this.lastSeen = now;
+        }
+
+        synchronized long beat(long now, long maxGap) {
+            activeMillis += Math.min(Math.max(0, now - lastSeen), maxGap);
+            lastSeen = now;
+            return activeMillis;
+        }
+    }
+
+    /**
+     * Resultado de cerrar una partida: el tiempo activo medido.
+     */
+    public record FinishedSession(String minigameType, int activeSeconds) {
+    }
+
+    @PostConstruct
+    void init() {
+        // Una vuelta de la rueda cubre el TTL con margen
+        int ticks = (int) (ttl.toMillis() / TICK_MILLIS) + 2;
+        wheel = new TimingWheel<>(TICK_MILLIS, ticks, System.currentTimeMillis());
+
+        Gauge.builder("educadino.minigames.sessions.open", open, AtomicInteger::get)
+                .description("Partidas de minijuego abiertas")
+                .register(meterRegistry);
+        startedCounter = Counter.builder("educadino.minigames.sessions.started")
+                .description("Partidas de minijuego abiertas")
+                .register(meterRegistry);
+        finishedCounter = Counter.builder("educadino.minigames.sessions.finished")
+                .description("Partidas de minijuego terminadas")
+                .register(meterRegistry);
+        expiredCounter = Counter.builder("educadino.minigames.sessions.expired")
+                .description("Partidas de minijuego caducadas sin terminar")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Abre una partida.
+     *
+     * @throws TooManyRequestsException si la tabla de partidas está llena
+     * @throws BadRequestException      si el usuario ya tiene demasiadas abiertas
+     */
+    public MinigameSessionDto start(Long userId, String minigameType) {
+        if (minigameType == null || minigameType.isBlank() || minigameType.length() > MAX_MINIGAME_TYPE_LENGTH) {
+            throw new BadRequestException("Tipo de minijuego no válido");
+        }
+        if (open.incrementAndGet() > maxSessions) {
+            open.decrementAndGet();
+            throw new TooManyRequestsException("Hay demasiadas partidas en curso, inténtalo de nuevo en unos segundos",
+                    heartbeatInterval);
+        }
+        try {
+            sessionsPerUser.compute(userId, (id, count) -> {
+                int current = count != null ? count : 0;
+                if (current >= maxPerUser) {
+                    throw new BadRequestException("Tienes demasiadas partidas abiertas, termina alguna antes");
+                }
+                return current + 1;
+            });
+        } catch (BadRequestException e) {
+            open.decrementAndGet();
+            throw e;
+        }
+
+        long now = System.currentTimeMillis();
+        Session session = new Session(UUID.randomUUID(), userId, minigameType.intern(), now);
+        sessions.put(session.id, session);
+        wheel.schedule(session, now + ttl.toMillis());
+        startedCounter.increment();
+        return toDto(session, 0, now);
+    }
+
+    /**
+     * Registra un latido: suma el tiempo activo y aplaza la caducidad.
+     */
+    public MinigameSessionDto heartbeat(Long userId, String minigameType, UUID sessionId) {
+        Session session = find(userId, minigameType, sessionId);
+        long now = System.currentTimeMillis();
+        long active = session.beat(now, maxGapMillis());
+        session.touch(now + ttl.toMillis());
+        return toDto(session, active, now);
+    }
+
+    /**
+     * Cierra la partida y guarda el resultado con el tiempo activo medido.
+     *
+     * La partida se retira de la tabla antes de guardar, así que una segunda
+     * llamada simultánea (o después de caducar) responde 404 y un resultado
+     * no se puede guardar dos veces. Si save falla (429 de la cola de
+     * ingesta, error de BD...) la partida se vuelve a abrir con el tiempo ya
+     * medido y el cliente puede reintentar.
+     *
+     * @param save guarda el resultado; se llama una vez
+     */
+    public <R> R finish(Long userId, String minigameType, UUID sessionId, Function<FinishedSession, R> save) {
+        Session session = find(userId, minigameType, sessionId);
+        if (!remove(session)) {
+            throw notFound();
+        }
+        long active = session.beat(System.currentTimeMillis(), maxGapMillis());
+        FinishedSession finished =
+                new FinishedSession(session.minigameType, (int) Math.min(Integer.MAX_VALUE, active / 1000));
+        R result;
+        try {
+            result = save.apply(finished);
+        } catch (RuntimeException e) {
+            reopen(session);
+            throw e;
+        }
+        finishedCounter.increment();
+        return result;
+    }
+
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void expire() {
+        List<Session> expired = wheel.advance(System.currentTimeMillis());
+        for (Session session : expired) {
+            // Si ya se terminó, remove devuelve false y no se cuenta
+            if (remove(session)) {
+                expiredCounter.increment();
+            }
+        }
+    }
+
+    private Session find(Long userId, String minigameType, UUID sessionId) {
+        Session session = sessions.get(sessionId);
+        if (session == null || session.userId != userId || !session.minigameType.equals(minigameType)) {
+            throw notFound();
+        }
+        return session;
+    }
+
+    private boolean remove(Session session) {
+        if (!sessions.remove(session.id, session)) {
+            return false;
+        }
+        wheel.cancel(session);
+        open.decrementAndGet();
+        sessionsPerUser.computeIfPresent(session.userId, (id, count) -> count > 1 ? count - 1 : null);
+        return true;
+    }
+
+    /**
+     * Devuelve a la tabla una partida retirada por finish. Puede superar
+     * momentáneamente max-sessions o max-per-user: la partida ya contaba.
+     */
+    private void reopen(Session session) {
+        open.incrementAndGet();
+        sessionsPerUser.merge(session.userId, 1, Integer::sum);
+        sessions.put(session.id, session);
+        wheel.schedule(session, System.currentTimeMillis() + ttl.toMillis());
+    }
+
+    private long maxGapMillis() {
+        return heartbeatInterval.toMillis() * 2;
+    }
+
+    private MinigameSessionDto toDto(Session session, long activeMillis, long now) {
+        return MinigameSessionDto.builder()
+                .sessionId(session.id)
+                .minigameType(session.minigameType)
+                .startedAt(toLocalDateTime(session.startedAt))
+                .activeSeconds(activeMillis / 1000)
+                .heartbeatIntervalSeconds(heartbeatInterval.toSeconds())
+                .expiresAt(toLocalDateTime(now + ttl.toMillis()))
+                .build();
+    }
+
+    private static LocalDateTime toLocalDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    private static ResourceNotFoundException notFound() {
+        return new ResourceNotFoundException("Partida no encontrada o caducada");
+    }
+}
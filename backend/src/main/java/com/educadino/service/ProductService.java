@@ -2,9 +2,11 @@ package com.educadino.service;
 
 import com.educadino.dto.*;
 import com.educadino.entity.Product;
+import com.educadino.event.CatalogChangedEvent;
 import com.educadino.exception.ResourceNotFoundException;
 import com.educadino.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -20,12 +22,18 @@ import java.util.stream.Collectors;
  * Servicio de Productos
  *
  * Compatible con el ProductService del frontend Angular.
+ * Las escrituras publican un CatalogChangedEvent para invalidar las
+ * respuestas cacheadas del catálogo, y los borrados dejan una marca para
+ * la sincronización incremental.
  */
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MediaService mediaService;
+    private final CatalogSyncService catalogSyncService;
 
     /**
      * Obtiene todos los productos con paginación y filtros.
@@ -112,12 +120,13 @@ public class ProductService {
                 .description(request.getDescription())
                 .price(request.getPrice())
                 .category(request.getCategory())
-                .image(request.getImage())
+                .image(mediaService.toReference(request.getImage()))
                 .stock(request.getStock())
                 .featured(request.getFeatured())
                 .build();
 
         productRepository.save(product);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Catalog.PRODUCTS, product.getId()));
         return mapToDto(product);
     }
 
@@ -133,14 +142,28 @@ public class ProductService {
         if (request.getDescription() != null) product.setDescription(request.getDescription());
         if (request.getPrice() != null) product.setPrice(request.getPrice());
         if (request.getCategory() != null) product.setCategory(request.getCategory());
-        if (request.getImage() != null) product.setImage(request.getImage());
+        if (request.getImage() != null) product.setImage(mediaService.toReference(request.getImage()));
         if (request.getStock() != null) product.setStock(request.getStock());
         if (request.getFeatured() != null) product.setFeatured(request.getFeatured());
 
         productRepository.save(product);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Catalog.PRODUCTS, product.getId()));
         return mapToDto(product);
     }
 
+    /**
+     * Cambios desde el token de sincronización (ver CatalogSyncService).
+     */
+    @Transactional(readOnly = true)
+    public CatalogChangesDto<ProductDto> getChanges(String syncToken) {
+        CatalogSyncService.Window window = catalogSyncService.open(syncToken);
+        List<Product> changed = window.reset()
+                ? productRepository.findAll(Sort.by("id"))
+                : productRepository.findByUpdatedAtAfterOrderByIdAsc(window.since());
+        return catalogSyncService.changes(CatalogChangedEvent.Catalog.PRODUCTS, window,
+                changed.stream().map(this::mapToDto).toList());
+    }
+
     /**
      * Elimina un producto (solo admin).
      */
@@ -150,6 +173,8 @@ public class ProductService {
             throw new ResourceNotFoundException("Producto", id);
         }
         productRepository.deleteById(id);
+        catalogSyncService.recordDeletion(CatalogChangedEvent.Catalog.PRODUCTS, id);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Catalog.PRODUCTS, id));
     }
 
     /**
@@ -162,7 +187,7 @@ public class ProductService {
                 .description(product.getDescription())
                 .price(product.getPrice())
                 .category(product.getCategory())
-                .image(product.getImage())
+                .image(MediaService.url(product.getImage()))
                 .stock(product.getStock())
                 .featured(product.getFeatured())
                 .createdAt(product.getCreatedAt())
@@ -0,0 +1,143 @@
+package com.educadino.service;
+
+import com.educadino.dto.SaveProgressRequest;
+import com.educadino.exception.BadRequestException;
+import com.educadino.exception.PayloadTooLargeException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Lector de Lotes de Progreso
+ *
+ * Lee en streaming un array JSON de SaveProgressRequest, validando cada
+ * elemento según llega y cortando en cuanto se superan los límites de
+ * elementos o de bytes, sin cargar antes el cuerpo completo en memoria.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProgressBatchReader {
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${educadino.progress.batch.max-items:200}")
+    private int maxItems;
+
+    @Value("${educadino.progress.batch.max-bytes:256KB}")
+    private DataSize maxBytes;
+
+    /**
+     * Lee y valida el lote.
+     *
+     * @param body          cuerpo de la petición
+     * @param contentLength Content-Length declarado o -1 si no se conoce
+     */
+    public List<SaveProgressRequest> read(InputStream body, long contentLength) {
+        if (contentLength > maxBytes.toBytes()) {
+            throw tooLarge();
+        }
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(new LimitedInputStream(body))) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new BadRequestException("Se esperaba un array de partidas");
+            }
+
+            List<SaveProgressRequest> items = new ArrayList<>();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                if (items.size() == maxItems) {
+                    throw new PayloadTooLargeException("El lote no puede tener más de " + maxItems + " partidas");
+                }
+                SaveProgressRequest item = objectMapper.readValue(parser, SaveProgressRequest.class);
+                validate(item, items.size());
+                items.add(item);
+            }
+
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new BadRequestException("Cada elemento del lote debe ser un objeto");
+            }
+            if (items.isEmpty()) {
+                throw new BadRequestException("El lote está vacío");
+            }
+            return items;
+        } catch (JsonProcessingException e) {
+            // Jackson envuelve las excepciones del stream al deserializar un campo
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof PayloadTooLargeException tooLarge) {
+                    throw tooLarge;
+                }
+            }
+            throw new BadRequestException("JSON inválido: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new BadRequestException("No se pudo leer el lote de partidas");
+        }
+    }
+
+    private void validate(SaveProgressRequest item, int index) {
+        Set<ConstraintViolation<SaveProgressRequest>> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            String errors = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            throw new BadRequestException("Partida " + index + ": " + errors);
+        }
+    }
+
+    private PayloadTooLargeException tooLarge() {
+        return new PayloadTooLargeException("El lote supera el tamaño máximo de " + maxBytes.toKilobytes() + " KB");
+    }
+
+    /**
+     * Cuenta los bytes leídos y corta al superar el máximo, también cuando
+     * el cliente no envía Content-Length (chunked).
+     */
+    private class LimitedInputStream extends FilterInputStream {
+
+        private long read;
+
+        LimitedInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) {
+            read += n;
+            if (read > maxBytes.toBytes()) {
+                throw tooLarge();
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.educadino.service;
+
+import com.educadino.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición en el historial de progreso: la última partida devuelta.
+ *
+ * Se serializa como "playedAt|id" en Base64 URL para que el cliente lo
+ * trate como un token opaco.
+ */
+record ProgressCursor(LocalDateTime playedAt, long id) {
+
+    String encode() {
+        String raw = playedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ProgressCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new ProgressCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+            throw new BadRequestException("Cursor no válido");
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.educadino.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cola de Ingesta Asíncrona de Progreso
+ *
+ * Modo opcional (educadino.progress.async.enabled) para absorber los picos
+ * de POST /progress al final de una clase: la petición se valida, se encola
+ * en un buffer circular acotado y se responde 202. Varios workers en hilos
+ * virtuales vacían la cola por lotes, agrupan por usuario y guardan cada
+ * grupo con ProgressRecorder, es decir, una actualización de estadísticas
+ * por usuario y lote. Con la cola llena el productor recibe false y la API
+ * responde 429 con Retry-After.
+ *
+ * Métricas:
+ * - educadino.progress.ingest.depth: partidas en cola
+ * - educadino.progress.ingest.drained: partidas guardadas (su tasa es el ritmo de vaciado)
+ * - educadino.progress.ingest.rejected / failed: partidas rechazadas por cola llena / perdidas por error
+ * - educadino.progress.ingest.lag: tiempo desde que se encola hasta que se guarda
+ * - educadino.progress.ingest.batch.size: partidas por lote vaciado
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProgressIngestQueue {
+
+    private final ProgressRecorder progressRecorder;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${educadino.progress.async.enabled:false}")
+    private boolean enabled;
+
+    @Value("${educadino.progress.async.capacity:10000}")
+    private int capacity;
+
+    @Value("${educadino.progress.async.batch-size:500}")
+    private int batchSize;
+
+    @Value("${educadino.progress.async.workers:2}")
+    private int workers;
+
+    @Value("${educadino.progress.async.retry-after:5s}")
+    private Duration retryAfter;
+
+    private BlockingQueue<Pending> queue;
+    private final List<Thread> workerThreads = new ArrayList<>();
+    private volatile boolean running;
+
+    private Counter drainedCounter;
+    private Counter rejectedCounter;
+    private Counter failedCounter;
+    private Timer lagTimer;
+    private DistributionSummary batchSizeSummary;
+
+    private record Pending(Long userId, ProgressRecorder.Entry entry, long enqueuedAt) {
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(capacity);
+
+        Gauge.builder("educadino.progress.ingest.depth", queue, BlockingQueue::size)
+                .description("Partidas pendientes en la cola de ingesta")
+                .register(meterRegistry);
+        drainedCounter = Counter.builder("educadino.progress.ingest.drained")
+                .description("Partidas guardadas desde la cola de ingesta")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("educadino.progress.ingest.rejected")
+                .description("Partidas rechazadas por cola llena")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("educadino.progress.ingest.failed")
+                .description("Partidas que no se pudieron guardar")
+                .register(meterRegistry);
+        lagTimer = Timer.builder("educadino.progress.ingest.lag")
+                .description("Tiempo entre encolar una partida y guardarla")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        batchSizeSummary = DistributionSummary.builder("educadino.progress.ingest.batch.size")
+                .description("Partidas por lote vaciado")
+                .register(meterRegistry);
+
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            workerThreads.add(Thread.ofVirtual().name("progress-ingest-" + i).start(this::drainLoop));
+        }
+        log.info("Ingesta asíncrona de progreso activa (capacidad {}, {} workers)", capacity, workers);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    /**
+     * Encola una partida sin bloquear.
+     *
+     * @return false si la cola está llena
+     */
+    public boolean offer(Long userId, ProgressRecorder.Entry entry) {
+        boolean accepted = queue.offer(new Pending(userId, entry, System.nanoTime()));
+        if (!accepted) {
+            rejectedCounter.increment();
+        }
+        return accepted;
+    }
+
+    private void drainLoop() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Pending first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                persist(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void persist(List<Pending> batch) {
+        batchSizeSummary.record(batch.size());
+
+        Map<Long, List<Pending>> byUser = new LinkedHashMap<>();
+        for (Pending pending : batch) {
+            byUser.computeIfAbsent(pending.userId(), id -> new ArrayList<>()).add(pending);
+        }
+
+        byUser.forEach((userId, pendings) -> {
+            try {
+                progressRecorder.record(userId, pendings.stream().map(Pending::entry).toList());
+                long now = System.nanoTime();
+                pendings.forEach(p -> lagTimer.record(now - p.enqueuedAt(), TimeUnit.NANOSECONDS));
+                drainedCounter.increment(pendings.size());
+            } catch (Exception e) {
+                failedCounter.increment(pendings.size());
+                log.error("No se pudieron guardar {} partidas del usuario {}", pendings.size(), userId, e);
+            }
+        });
+    }
+
+    /**
+     * Al apagar, detiene los workers y guarda lo que quede en la cola.
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        for (Thread worker : workerThreads) {
+            worker.join(Duration.ofSeconds(5));
+        }
+        List<Pending> remaining = new ArrayList<>();
+        while (queue.drainTo(remaining, batchSize) > 0) {
+            persist(remaining);
+            remaining.clear();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.educadino.service;
+
+import com.educadino.dto.UserProgressDto;
+import com.educadino.event.ProgressRecordedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Escritor de Progreso
+ *
+ * Único punto de escritura de partidas: inserta las filas de user_progress
+ * con batching JDBC y aplica a las estadísticas del usuario un solo
+ * incremento agregado, tanto si llega una partida como un lote. En la
+ * misma transacción actualiza user_minigame_stats, marca los días de
+ * actividad y concede los logros alcanzados (ver AchievementAwarder).
+ * Al terminar publica un ProgressRecordedEvent.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProgressRecorder {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO user_progress (user_id, minigame_type, score, time_played, completed, played_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Suma el resultado de las partidas a users y recalcula el nivel en la
+     * misma sentencia. Las expresiones del SET ven los valores previos de la
+     * fila, por eso el nivel parte de los valores antiguos más los
+     * incrementos. learning_time suma los minutos completos que añade el
+     * nuevo tiempo de juego.
+     */
+    private static final String NEW_LEARNING_TIME =
+            "COALESCE(learning_time, 0) + (COALESCE(total_time_played, 0) + ?) / 60 - COALESCE(total_time_played, 0) / 60";
+
+    private static final String INCREMENT_STATS_SQL = "UPDATE users SET "
+            + "total_score = COALESCE(total_score, 0) + ?, "
+            + "completed_minigames = COALESCE(completed_minigames, 0) + ?, "
+            + "total_time_played = COALESCE(total_time_played, 0) + ?, "
+            + "learning_time = " + NEW_LEARNING_TIME + ", "
+            + "level = " + LevelPolicy.sql(NEW_LEARNING_TIME,
+                    "COALESCE(completed_minigames, 0) + ?", "COALESCE(total_score, 0) + ?") + ", "
+            + "updated_at = ? "
+            + "WHERE id = ?";
+
+    private static final String UPSERT_MINIGAME_STATS_SQL = """
+            INSERT INTO user_minigame_stats
+                (user_id, minigame_type, best_score, plays, total_score, total_time, completions, last_played_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (user_id, minigame_type) DO UPDATE SET
+                best_score = GREATEST(user_minigame_stats.best_score, EXCLUDED.best_score),
+                plays = user_minigame_stats.plays + EXCLUDED.plays,
+                total_score = user_minigame_stats.total_score + EXCLUDED.total_score,
+                total_time = user_minigame_stats.total_time + EXCLUDED.total_time,
+                completions = user_minigame_stats.completions + EXCLUDED.completions,
+                last_played_at = GREATEST(user_minigame_stats.last_played_at, EXCLUDED.last_played_at)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ActivityStreakService activityStreakService;
+    private final AchievementAwarder achievementAwarder;
+
+    /**
+     * Partida ya validada lista para guardarse.
+     */
+    public record Entry(String minigameType, int score, int timePlayed, boolean completed, LocalDateTime playedAt) {
+    }
+
+    /**
+     * Guarda las partidas de un usuario y actualiza sus estadísticas una vez.
+     *
+     * @return las partidas guardadas, en el mismo orden que la entrada
+     */
+    @Transactional
+    public List<UserProgressDto> record(Long userId, List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Entry entry = entries.get(i);
+                        ps.setLong(1, userId);
+                        ps.setString(2, entry.minigameType());
+                        ps.setInt(3, entry.score());
+                        ps.setInt(4, entry.timePlayed());
+                        ps.setBoolean(5, entry.completed());
+                        ps.setTimestamp(6, Timestamp.valueOf(entry.playedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return entries.size();
+                    }
+                },
+                keyHolder
+        );
+
+        int score = 0;
+        int completed = 0;
+        int seconds = 0;
+        for (Entry entry : entries) {
+            score += entry.score();
+            completed += entry.completed() ? 1 : 0;
+            seconds += entry.timePlayed();
+        }
+        jdbcTemplate.update(INCREMENT_STATS_SQL, score, completed, seconds, seconds, seconds, completed, score,
+                Timestamp.valueOf(LocalDateTime.now()), userId);
+        Set<String> minigameTypes = upsertMinigameStats(userId, entries);
+        activityStreakService.markActive(userId, entries.stream().map(e -> e.playedAt().toLocalDate()).toList());
+        // Contadores ya actualizados (filas bloqueadas por esta transacción)
+        achievementAwarder.award(userId, minigameTypes);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        List<UserProgressDto> saved = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            saved.add(UserProgressDto.builder()
+                    .id(((Number) keys.get(i).get("id")).longValue())
+                    .userId(userId)
+                    .minigameType(entry.minigameType())
+                    .score(entry.score())
+                    .timePlayed(entry.timePlayed())
+                    .completed(entry.completed())
+                    .playedAt(entry.playedAt())
+                    .build());
+        }
+
+        eventPublisher.publishEvent(new ProgressRecordedEvent(userId, saved));
+        return saved;
+    }
+
+    /**
+     * Suma las partidas a user_minigame_stats con un upsert por minijuego.
+     *
+     * @return los minijuegos afectados
+     */
+    private Set<String> upsertMinigameStats(Long userId, List<Entry> entries) {
+        Map<String, MinigameDelta> deltas = new LinkedHashMap<>();
+        for (Entry entry : entries) {
+            deltas.computeIfAbsent(entry.minigameType(), type -> new MinigameDelta()).add(entry);
+        }
+
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((type, delta) -> rows.add(new Object[]{
+                userId, type, delta.bestScore, delta.plays, delta.totalScore, delta.totalTime,
+                delta.completions, Timestamp.valueOf(delta.lastPlayedAt)
+        }));
+        jdbcTemplate.batchUpdate(UPSERT_MINIGAME_STATS_SQL, rows);
+        return deltas.keySet();
+    }
+
+    private static final class MinigameDelta {
+        int bestScore;
+        int plays;
+        long totalScore;
+        long totalTime;
+        int completions;
+        LocalDateTime lastPlayedAt;
+
+        void add(Entry entry) {
+            bestScore = plays == 0 ? entry.score() : Math.max(bestScore, entry.score());
+            plays++;
+            totalScore += entry.score();
+            totalTime += entry.timePlayed();
+            completions += entry.completed() ? 1 : 0;
+            if (lastPlayedAt == null || entry.playedAt().isAfter(lastPlayedAt)) {
+                lastPlayedAt = entry.playedAt();
+            }
+        }
+    }
+}
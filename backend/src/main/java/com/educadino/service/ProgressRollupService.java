@@ -0,0 +1,339 @@
+package com.educadino.service;
+
+import com.educadino.dto.ActivityReportDto;
+import com.educadino.dto.UserProgressDto;
+import com.educadino.event.ProgressRecordedEvent;
+import com.educadino.exception.BadRequestException;
+import com.educadino.util.HyperLogLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Servicio de Resúmenes Diarios de Actividad
+ *
+ * Mantiene progress_daily_rollup de forma incremental: cada partida
+ * confirmada se suma a un acumulador en memoria por (día, minijuego) y un
+ * proceso periódico lo vuelca a la BD. El volcado bloquea la fila con
+ * SELECT ... FOR UPDATE, une el sketch de jugadores en Java y suma los
+ * contadores, así que varias instancias pueden volcar a la vez. Si el
+ * volcado falla el acumulador se devuelve a memoria y se reintenta.
+ *
+ * Los datos del informe pueden ir hasta educadino.analytics.rollup.flush-interval
+ * por detrás de user_progress.
+ *
+ * Volcar y reconstruir un día (replaceDay) se excluyen con un cerrojo por
+ * día. Al reconstruir se descartan antes de leer user_progress los
+ * acumuladores pendientes de ese día: sus partidas ya están confirmadas y
+ * entran en la lectura, así que volcarlos después las contaría dos veces.
+ * Esto incluye días pasados, porque las partidas en lote conservan su
+ * playedAt (hasta educadino.progress.batch.max-age atrás). El cerrojo es
+ * local: con varias instancias no se debe reconstruir un día que otra
+ * siga recibiendo.
+ *
+ * Métricas:
+ * - educadino.analytics.rollup.pending: pares (día, minijuego) pendientes de volcar
+ * - educadino.analytics.rollup.flushed: pares volcados
+ * - educadino.analytics.rollup.flush.failed: volcados fallidos (se reintentan)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProgressRollupService {
+
+    private static final String INSERT_EMPTY_SQL = """
+            INSERT INTO progress_daily_rollup
+                (day, minigame_type, plays, total_score, total_time, completions, unique_players, players_sketch, updated_at)
+            VALUES (?, ?, 0, 0, 0, 0, 0, ?, ?)
+            ON CONFLICT (day, minigame_type) DO NOTHING
+            """;
+
+    private static final String LOCK_SQL =
+            "SELECT players_sketch FROM progress_daily_rollup WHERE day = ? AND minigame_type = ? FOR UPDATE";
+
+    private static final String ADD_SQL = """
+            UPDATE progress_daily_rollup SET
+                plays = plays + ?, total_score = total_score + ?, total_time = total_time + ?,
+                completions = completions + ?, players_sketch = ?, unique_players = ?, updated_at = ?
+            WHERE day = ? AND minigame_type = ?
+            """;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO progress_daily_rollup
+                (day, minigame_type, plays, total_score, total_time, completions, unique_players, players_sketch, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${educadino.analytics.rollup.max-range-days:366}")
+    private int maxRangeDays;
+
+    private final Map<Key, Delta> pending = new ConcurrentHashMap<>();
+
+    /** Cerrojos por día (repartidos por epochDay) entre volcado y reconstrucción. */
+    private final ReentrantLock[] dayLocks =
+            Stream.generate(ReentrantLock::new).limit(64).toArray(ReentrantLock[]::new);
+
+    private Counter flushedCounter;
+    private Counter failedCounter;
+
+    private record Key(LocalDate day, String minigameType) {
+    }
+
+    /**
+     * Actividad acumulada de un día y minijuego, pendiente de sumarse a la BD.
+     */
+    public static final class Delta {
+        private long plays;
+        private long totalScore;
+        private long totalTime;
+        private long completions;
+        private final HyperLogLog players = new HyperLogLog();
+        private boolean closed;
+
+        public void add(long userId, int score, int timePlayed, boolean completed) {
+            plays++;
+            totalScore += score;
+            totalTime += timePlayed;
+            completions += completed ? 1 : 0;
+            players.add(userId);
+        }
+
+        void merge(Delta other) {
+            plays += other.plays;
+            totalScore += other.totalScore;
+            totalTime += other.totalTime;
+            completions += other.completions;
+            players.merge(other.players);
+        }
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("educadino.analytics.rollup.pending", pending, Map::size)
+                .description("Pares (día, minijuego) pendientes de volcar")
+                .register(meterRegistry);
+        flushedCounter = Counter.builder("educadino.analytics.rollup.flushed")
+                .description("Pares (día, minijuego) volcados a progress_daily_rollup")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("educadino.analytics.rollup.flush.failed")
+                .description("Volcados de resúmenes diarios fallidos")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Acumula las partidas confirmadas.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProgressRecorded(ProgressRecordedEvent event) {
+        for (UserProgressDto progress : event.progress()) {
+            Key key = new Key(progress.getPlayedAt().toLocalDate(), progress.getMinigameType());
+            // Si el volcado acaba de cerrar el acumulador se crea otro
+            while (true) {
+                Delta delta = pending.computeIfAbsent(key, k -> new Delta());
+                synchronized (delta) {
+                    if (!delta.closed) {
+                        delta.add(event.userId(), progress.getScore(), progress.getTimePlayed(),
+                                Boolean.TRUE.equals(progress.getCompleted()));
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Vuelca los acumuladores pendientes, un par (día, minijuego) por transacción.
+     */
+    @Scheduled(fixedDelayString = "${educadino.analytics.rollup.flush-interval:30s}")
+    public void flush() {
+        for (Key key : List.copyOf(pending.keySet())) {
+            ReentrantLock lock = lockOf(key.day());
+            lock.lock();
+            try {
+                Delta delta = pending.remove(key);
+                if (delta == null) {
+                    continue;
+                }
+                close(delta);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> addToRow(key, delta));
+                    flushedCounter.increment();
+                } catch (DataAccessException e) {
+                    failedCounter.increment();
+                    log.warn("No se pudo volcar el resumen de {} {}: {}", key.day(), key.minigameType(), e.getMessage());
+                    requeue(key, delta);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Sustituye los resúmenes de un día por los calculados desde user_progress.
+     *
+     * Bajo el cerrojo del día descarta sus acumuladores pendientes, lee las
+     * partidas con source y reemplaza las filas en una transacción. Las
+     * partidas que se confirmen durante la lectura quedan en un acumulador
+     * nuevo y se vuelcan después.
+     *
+     * @param source lectura de user_progress de ese día, por minijuego
+     */
+    public void replaceDay(LocalDate day, Supplier<Map<String, Delta>> source) {
+        ReentrantLock lock = lockOf(day);
+        lock.lock();
+        try {
+            for (Key key : List.copyOf(pending.keySet())) {
+                if (key.day().equals(day)) {
+                    Delta discarded = pending.remove(key);
+                    if (discarded != null) {
+                        close(discarded);
+                    }
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<String, Delta> deltas = source.get();
+                jdbcTemplate.update("DELETE FROM progress_daily_rollup WHERE day = ?", Date.valueOf(day));
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                List<Object[]> rows = new ArrayList<>(deltas.size());
+                deltas.forEach((type, delta) -> rows.add(new Object[]{
+                        Date.valueOf(day), type, delta.plays, delta.totalScore, delta.totalTime, delta.completions,
+                        delta.players.estimate(), delta.players.toBytes(), now
+                }));
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Informe de actividad diaria entre dos fechas (incluidas).
+     *
+     * Solo lee progress_daily_rollup; los jugadores únicos del rango se
+     * estiman uniendo los sketches diarios.
+     */
+    public ActivityReportDto getActivity(LocalDate from, LocalDate to, String minigameType) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' no puede ser posterior a 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) + 1 > maxRangeDays) {
+            throw new BadRequestException("El rango no puede superar " + maxRangeDays + " días");
+        }
+        boolean allTypes = minigameType == null || minigameType.isBlank();
+
+        String sql = "SELECT day, minigame_type, plays, total_score, total_time, completions, unique_players, "
+                + "players_sketch FROM progress_daily_rollup WHERE day BETWEEN ? AND ?"
+                + (allTypes ? "" : " AND minigame_type = ?")
+                + " ORDER BY day, minigame_type";
+        Object[] params = allTypes
+                ? new Object[]{Date.valueOf(from), Date.valueOf(to)}
+                : new Object[]{Date.valueOf(from), Date.valueOf(to), minigameType};
+
+        List<ActivityReportDto.Day> days = new ArrayList<>();
+        HyperLogLog rangePlayers = new HyperLogLog();
+        long[] totals = new long[4];  // plays, score, time, completions
+
+        jdbcTemplate.query(sql, rs -> {
+            long plays = rs.getLong("plays");
+            long score = rs.getLong("total_score");
+            days.add(ActivityReportDto.Day.builder()
+                    .day(rs.getDate("day").toLocalDate())
+                    .minigameType(rs.getString("minigame_type"))
+                    .plays(plays)
+                    .uniquePlayers(rs.getLong("unique_players"))
+                    .averageScore(plays > 0 ? (double) score / plays : 0)
+                    .totalTime(rs.getLong("total_time"))
+                    .completions(rs.getLong("completions"))
+                    .build());
+            rangePlayers.merge(HyperLogLog.fromBytes(rs.getBytes("players_sketch")));
+            totals[0] += plays;
+            totals[1] += score;
+            totals[2] += rs.getLong("total_time");
+            totals[3] += rs.getLong("completions");
+        }, params);
+
+        return ActivityReportDto.builder()
+                .from(from)
+                .to(to)
+                .minigameType(allTypes ? null : minigameType)
+                .totalPlays(totals[0])
+                .uniquePlayers(totals[0] > 0 ? rangePlayers.estimate() : 0)
+                .averageScore(totals[0] > 0 ? (double) totals[1] / totals[0] : 0)
+                .totalTime(totals[2])
+                .completions(totals[3])
+                .days(days)
+                .build();
+    }
+
+    private void addToRow(Key key, Delta delta) {
+        Date day = Date.valueOf(key.day());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(INSERT_EMPTY_SQL, day, key.minigameType(), new byte[0], now);
+
+        HyperLogLog players = HyperLogLog.fromBytes(
+                jdbcTemplate.queryForObject(LOCK_SQL, byte[].class, day, key.minigameType()));
+        players.merge(delta.players);
+
+        jdbcTemplate.update(ADD_SQL,
+                delta.plays, delta.totalScore, delta.totalTime, delta.completions,
+                players.toBytes(), players.estimate(), now, day, key.minigameType());
+    }
+
+    private ReentrantLock lockOf(LocalDate day) {
+        return dayLocks[Math.floorMod(day.toEpochDay(), dayLocks.length)];
+    }
+
+    /**
+     * Cierra un acumulador ya sacado de pending: las partidas que lleguen
+     * después crean uno nuevo.
+     */
+    private static void close(Delta delta) {
+        synchronized (delta) {
+            delta.closed = true;
+        }
+    }
+
+    private void requeue(Key key, Delta failed) {
+        pending.compute(key, (k, current) -> {
+            Delta target = current != null ? current : new Delta();
+            synchronized (target) {
+                target.merge(failed);
+            }
+            return target;
+        });
+    }
+}
@@ -0,0 +1,350 @@
+package com.educadino.service;
+
+import com.educadino.dto.DinosaurDto;
+import com.educadino.util.FacetIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Banco de preguntas del quiz, precalculado a partir del catálogo.
+ *
+ * Hay preguntas directas ("¿Qué comía el Velociraptor?") sobre dieta,
+ * período, tamaño, lugar y taxonomía, e inversas ("¿Cuál de estos
+ * dinosaurios era herbívoro?"). Cada pregunta guarda ya sus distractores
+ * candidatos: valores reales del catálogo que no coinciden ni en parte con
+ * la respuesta ("Carnívoro (peces)" no es distractor de "Carnívoro", ni
+ * "América del Norte" de "América del Norte, África"). En difícil se
+ * ordenan por parecido (los de dinosaurios de la misma familia, taxonomía
+ * o período primero) y solo se eligen entre los más cercanos.
+ *
+ * Para cada dificultad se guardan varias permutaciones barajadas de los
+ * índices de las preguntas. Un quiz toma count posiciones seguidas de una
+ * permutación al azar desde un punto al azar: muestreo sin repetición en
+ * O(count), sin barajar nada por petición.
+ *
+ * Es inmutable; el catálogo nuevo se publica construyendo otro.
+ */
+final class QuizPool {
+
+    private static final int ORDERS = 8;
+
+    enum Difficulty {
+        EASY(3),
+        MEDIUM(4),
+        HARD(4);
+
+        final int options;
+
+        Difficulty(int options) {
+            this.options = options;
+        }
+    }
+
+    /**
+     * Pregunta lista para enviar: opciones ya barajadas y posición de la correcta.
+     */
+    record Sampled(String text, List<String> options, int answer) {
+    }
+
+    /**
+     * Pregunta del banco. answers son las respuestas válidas (en las inversas
+     * puede haber varias; se elige una al generar) y los distractores se
+     * eligen entre los window primeros candidatos.
+     */
+    private record Question(String text, String[] answers, String[] candidates, int window) {
+    }
+
+    private record Pool(Question[] questions, int[][] orders) {
+    }
+
+    /**
+     * Atributo preguntable. reverse es null si no tiene pregunta inversa.
+     */
+    private record Attribute(Function<DinosaurDto, String> value, String forward, String reverse,
+                             boolean lowercase, boolean easy) {
+    }
+
+    private static final List<Attribute> ATTRIBUTES = List.of(
+            new Attribute(DinosaurDto::getDiet, "¿Qué comía el %s?",
+                    "¿Cuál de estos dinosaurios era %s?", true, true),
+            new Attribute(DinosaurDto::getPeriod, "¿En qué período vivió el %s?",
+                    "¿Cuál de estos dinosaurios vivió en el %s?", false, true),
+            new Attribute(DinosaurDto::getSize, "¿Qué tamaño tenía el %s?",
+                    "¿Cuál de estos dinosaurios era de tamaño %s?", true, true),
+            new Attribute(DinosaurDto::getLocation, "¿Dónde se han encontrado fósiles del %s?",
+                    null, false, false),
+            new Attribute(DinosaurDto::getTaxonomy, "¿A qué grupo pertenece el %s?",
+                    null, false, false)
+    );
+
+    private final Map<Difficulty, Pool> pools;
+
+    private QuizPool(Map<Difficulty, Pool> pools) {
+        this.pools = pools;
+    }
+
+    static QuizPool build(List<DinosaurDto> dinosaurs, Random random) {
+        Map<Difficulty, Pool> pools = new EnumMap<>(Difficulty.class);
+        for (Difficulty difficulty : Difficulty.values()) {
+            List<Question> questions = new ArrayList<>();
+            for (Attribute attribute : ATTRIBUTES) {
+                if (difficulty == Difficulty.EASY && !attribute.easy()) {
+                    continue;
+                }
+                addForward(questions, dinosaurs, attribute, difficulty);
+                if (attribute.reverse() != null && difficulty != Difficulty.EASY) {
+                    addReverse(questions, dinosaurs, attribute, difficulty);
+                }
+            }
+
+            int[][] orders = new int[ORDERS][];
+            for (int i = 0; i < ORDERS; i++) {
+                orders[i] = shuffledIndexes(questions.size(), random);
+            }
+            pools.put(difficulty, new Pool(questions.toArray(Question[]::new), orders));
+        }
+        return new QuizPool(pools);
+    }
+
+    int size(Difficulty difficulty) {
+        return pools.get(difficulty).questions().length;
+    }
+
+    /**
+     * Hasta count preguntas distintas, en O(count).
+     */
+    List<Sampled> sample(Difficulty difficulty, int count, Random random) {
+        Pool pool = pools.get(difficulty);
+        int n = pool.questions().length;
+        if (n == 0) {
+            return List.of();
+        }
+        int[] order = pool.orders()[random.nextInt(pool.orders().length)];
+        int start = random.nextInt(n);
+        int k = difficulty.options - 1;
+
+        List<Sampled> sampled = new ArrayList<>(Math.min(count, n));
+        for (int i = 0; i < Math.min(count, n); i++) {
+            Question question = pool.questions()[order[(start + i) % n]];
+            String[] options = new String[k + 1];
+            options[0] = question.answers()[random.nextInt(question.answers().length)];
+            int filled = 1;
+            for (int index : pick(question.window(), k, random)) {
+                options[filled++] = question.candidates()[index];
+            }
+            // Barajado de Fisher-Yates siguiendo dónde acaba la respuesta
+            int answer = 0;
+            for (int j = options.length - 1; j > 0; j--) {
+                int swap = random.nextInt(j + 1);
+                String tmp = options[j];
+                options[j] = options[swap];
+                options[swap] = tmp;
+                if (answer == j) {
+                    answer = swap;
+                } else if (answer == swap) {
+                    answer = j;
+                }
+            }
+            sampled.add(new Sampled(question.text(), List.of(options), answer));
+        }
+        return sampled;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // CONSTRUCCIÓN
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Una pregunta por dinosaurio con valor: la respuesta es su valor y los
+     * candidatos, los demás valores del catálogo que no se solapan con él.
+     */
+    private static void addForward(List<Question> questions, List<DinosaurDto> dinosaurs,
+                                   Attribute attribute, Difficulty difficulty) {
+        Map<String, String> labels = new LinkedHashMap<>();
+        Map<String, Integer> frequency = new HashMap<>();
+        for (DinosaurDto dinosaur : dinosaurs) {
+            String value = value(dinosaur, attribute);
+            if (value != null) {
+                String key = FacetIndex.normalize(value);
+                labels.putIfAbsent(key, value.trim());
+                frequency.merge(key, 1, Integer::sum);
+            }
+        }
+
+        int k = difficulty.options - 1;
+        for (DinosaurDto dinosaur : dinosaurs) {
+            String value = value(dinosaur, attribute);
+            if (value == null || dinosaur.getName() == null) {
+                continue;
+            }
+            String answerKey = FacetIndex.normalize(value);
+            List<String> candidates = new ArrayList<>();
+            for (String key : labels.keySet()) {
+                if (!overlaps(key, answerKey)) {
+                    candidates.add(key);
+                }
+            }
+            if (candidates.size() < k) {
+                continue;
+            }
+
+            Comparator<String> byFrequency = Comparator.comparing(frequency::get, Comparator.reverseOrder());
+            if (difficulty == Difficulty.HARD) {
+                // Valores de dinosaurios parecidos primero
+                Map<String, Integer> closeness = new HashMap<>();
+                for (DinosaurDto other : dinosaurs) {
+                    String otherValue = value(other, attribute);
+                    if (other != dinosaur && otherValue != null) {
+                        closeness.merge(FacetIndex.normalize(otherValue), similarity(dinosaur, other), Integer::sum);
+                    }
+                }
+                candidates.sort(Comparator.<String, Integer>comparing(key -> closeness.getOrDefault(key, 0),
+                        Comparator.reverseOrder()).thenComparing(byFrequency));
+            } else {
+                candidates.sort(byFrequency);
+            }
+
+            questions.add(new Question(
+                    String.format(attribute.forward(), dinosaur.getName()),
+                    new String[]{value.trim()},
+                    candidates.stream().map(labels::get).toArray(String[]::new),
+                    window(candidates.size(), k, difficulty)));
+        }
+    }
+
+    /**
+     * Una pregunta por valor: respuestas, los dinosaurios con ese valor;
+     * candidatos, los que tienen un valor que no se solapa.
+     */
+    private static void addReverse(List<Question> questions, List<DinosaurDto> dinosaurs,
+                                   Attribute attribute, Difficulty difficulty) {
+        Map<String, List<DinosaurDto>> byValue = new LinkedHashMap<>();
+        Map<String, String> labels = new HashMap<>();
+        for (DinosaurDto dinosaur : dinosaurs) {
+            String value = value(dinosaur, attribute);
+            if (value != null && dinosaur.getName() != null) {
+                String key = FacetIndex.normalize(value);
+                byValue.computeIfAbsent(key, x -> new ArrayList<>()).add(dinosaur);
+                labels.putIfAbsent(key, value.trim());
+            }
+        }
+
+        int k = difficulty.options - 1;
+        byValue.forEach((key, matching) -> {
+            List<DinosaurDto> candidates = new ArrayList<>();
+            for (DinosaurDto other : dinosaurs) {
+                String otherValue = value(other, attribute);
+                if (other.getName() != null && otherValue != null && !overlaps(FacetIndex.normalize(otherValue), key)) {
+                    candidates.add(other);
+                }
+            }
+            if (candidates.size() < k) {
+                return;
+            }
+            if (difficulty == Difficulty.HARD) {
+                candidates.sort(Comparator.comparing((DinosaurDto other) -> matching.stream()
+                        .mapToInt(dinosaur -> similarity(dinosaur, other)).max().orElse(0), Comparator.reverseOrder()));
+            }
+
+            String label = labels.get(key);
+            questions.add(new Question(
+                    String.format(attribute.reverse(), attribute.lowercase() ? label.toLowerCase(Locale.ROOT) : label),
+                    matching.stream().map(DinosaurDto::getName).toArray(String[]::new),
+                    candidates.stream().map(DinosaurDto::getName).toArray(String[]::new),
+                    window(candidates.size(), k, difficulty)));
+        });
+    }
+
+    /**
+     * En difícil solo se elige entre los k+1 candidatos más cercanos (hay
+     * algo de variedad sin perder dificultad); en el resto, entre todos.
+     */
+    private static int window(int candidates, int k, Difficulty difficulty) {
+        return difficulty == Difficulty.HARD ? Math.min(candidates, k + 1) : candidates;
+    }
+
+    private static int similarity(DinosaurDto a, DinosaurDto b) {
+        int score = 0;
+        if (same(a.getFamily(), b.getFamily())) {
+            score += 3;
+        }
+        if (same(a.getTaxonomy(), b.getTaxonomy())) {
+            score += 2;
+        }
+        if (same(a.getPeriod(), b.getPeriod())) {
+            score += 1;
+        }
+        return score;
+    }
+
+    private static boolean same(String a, String b) {
+        return a != null && b != null && FacetIndex.normalize(a).equals(FacetIndex.normalize(b));
+    }
+
+    /**
+     * Dos valores (normalizados) se solapan si uno empieza por el otro o
+     * comparten alguna parte separada por comas, barras o paréntesis.
+     */
+    static boolean overlaps(String a, String b) {
+        if (a.startsWith(b) || b.startsWith(a)) {
+            return true;
+        }
+        return !Collections.disjoint(parts(a), parts(b));
+    }
+
+    private static Set<String> parts(String value) {
+        Set<String> parts = new HashSet<>();
+        for (String part : value.split("[,;/()]|\\by\\b")) {
+            if (!part.isBlank()) {
+                parts.add(part.trim());
+            }
+        }
+        return parts;
+    }
+
+    private static String value(DinosaurDto dinosaur, Attribute attribute) {
+        String value = attribute.value().apply(dinosaur);
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static int[] shuffledIndexes(int n, Random random) {
+        int[] indexes = new int[n];
+        Arrays.setAll(indexes, i -> i);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = tmp;
+        }
+        return indexes;
+    }
+
+    /**
+     * k índices distintos de [0, n) con el algoritmo de Floyd: O(k) sin
+     * copiar ni barajar el rango.
+     */
+    private static Set<Integer> pick(int n, int k, Random random) {
+        Set<Integer> chosen = new LinkedHashSet<>();
+        for (int j = n - k; j < n; j++) {
+            int t = random.nextInt(j + 1);
+            if (!chosen.add(t)) {
+                chosen.add(j);
+            }
+        }
+        return chosen;
+    }
+}
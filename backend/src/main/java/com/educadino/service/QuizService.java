@@ -0,0 +1,294 @@
+package com.educadino.service;
+
+import com.educadino.dto.QuizDto;
+import com.educadino.dto.QuizResultDto;
+import com.educadino.event.DinosaurCatalogRebuiltEvent;
+import com.educadino.exception.BadRequestException;
+import com.educadino.exception.ResourceNotFoundException;
+import com.educadino.exception.TooManyRequestsException;
+import com.educadino.util.TimingWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Servicio de Quiz
+ *
+ * Genera los quizzes en el servidor para que el navegador no tenga que
+ * descargar el catálogo entero. Las preguntas salen de un banco
+ * precalculado (QuizPool) que se rehace a partir de la instantánea de
+ * DinosaurCatalog cada vez que esta cambia (DinosaurCatalogRebuiltEvent).
+ *
+ * Las respuestas correctas no se envían: se guardan en memoria con el
+ * quiz hasta que llegan las del niño, se corrigen aquí y el resultado se
+ * guarda como una partida más del minijuego "quiz". Cada usuario tiene como
+ * mucho un quiz abierto (pedir otro descarta el anterior) y los que no se
+ * contestan caducan tras educadino.minigames.quiz.ttl con una TimingWheel.
+ *
+ * Métricas:
+ * - educadino.minigames.quiz.open: quizzes abiertos
+ * - educadino.minigames.quiz.generated / graded
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class QuizService {
+
+    public static final String MINIGAME_TYPE = "quiz";
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int POINTS_PER_ANSWER = 10;
+
+    private final DinosaurCatalog dinosaurCatalog;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${educadino.minigames.quiz.ttl:30m}")
+    private Duration ttl;
+
+    @Value("${educadino.minigames.quiz.max-questions:20}")
+    private int maxQuestions;
+
+    @Value("${educadino.minigames.quiz.max-open:50000}")
+    private int maxOpen;
+
+    private volatile QuizPool pool = QuizPool.build(List.of(), new Random());
+
+    private final Map<UUID, OpenQuiz> quizzes = new ConcurrentHashMap<>();
+    private final Map<Long, OpenQuiz> quizzesByUser = new ConcurrentHashMap<>();
+    private TimingWheel<OpenQuiz> wheel;
+
+    private Counter generatedCounter;
+    private Counter gradedCounter;
+
+    /**
+     * Quiz pendiente de corregir: la opción correcta de cada pregunta.
+     */
+    static final class OpenQuiz extends TimingWheel.Timeout {
+        final UUID id;
+        final long userId;
+        final QuizPool.Difficulty difficulty;
+        final int[] answers;
+        final long createdAt;
+
+        OpenQuiz(UUID id, long userId, QuizPool.Difficulty difficulty, int[] answers, long createdAt) {
+            this.id = id;
+            this.userId = userId;
+            this.difficulty = difficulty;
+            this.answers = answers;
+            this.createdAt = createdAt;
+        }
+    }
+
+    /**
+     * Quiz corregido, listo para guardarse como partida.
+     */
+    public record GradedQuiz(QuizResultDto result, int score, int timePlayed, boolean completed) {
+    }
+
+    @PostConstruct
+    void init() {
+        int ticks = (int) (ttl.toMillis() / TICK_MILLIS) + 2;
+        wheel = new TimingWheel<>(TICK_MILLIS, ticks, System.currentTimeMillis());
+
+        Gauge.builder("educadino.minigames.quiz.open", quizzes, Map::size)
+                .description("Quizzes generados pendientes de corregir")
+                .register(meterRegistry);
+        generatedCounter = Counter.builder("educadino.minigames.quiz.generated")
+                .description("Quizzes generados")
+                .register(meterRegistry);
+        gradedCounter = Counter.builder("educadino.minigames.quiz.graded")
+                .description("Quizzes corregidos")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onCatalogRebuilt(DinosaurCatalogRebuiltEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Rehace el banco de preguntas. Sincronizado para publicar los bancos en orden.
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        QuizPool rebuilt = QuizPool.build(dinosaurCatalog.findAll(), new Random());
+        pool = rebuilt;
+        log.info("❓ Banco de preguntas del quiz: {} fáciles, {} medias, {} difíciles en {} µs",
+                rebuilt.size(QuizPool.Difficulty.EASY), rebuilt.size(QuizPool.Difficulty.MEDIUM),
+                rebuilt.size(QuizPool.Difficulty.HARD), (System.nanoTime() - start) / 1000);
+    }
+
+    /**
+     * Genera un quiz sin preguntas repetidas. Si el banco tiene menos de
+     * count preguntas, el quiz tiene las que haya.
+     *
+     * @param difficulty easy, medium o hard
+     */
+    public QuizDto generate(Long userId, int count, String difficulty) {
+        QuizPool.Difficulty level = parseDifficulty(difficulty);
+        if (count < 1 || count > maxQuestions) {
+            throw new BadRequestException("El número de preguntas debe estar entre 1 y " + maxQuestions);
+        }
+        List<QuizPool.Sampled> sampled = pool.sample(level, count, ThreadLocalRandom.current());
+        if (sampled.isEmpty()) {
+            throw new BadRequestException("No hay suficientes dinosaurios para generar preguntas");
+        }
+        if (quizzes.size() >= maxOpen && !quizzesByUser.containsKey(userId)) {
+            throw new TooManyRequestsException("Hay demasiados quizzes en curso, inténtalo de nuevo en unos segundos",
+                    Duration.ofSeconds(10));
+        }
+
+        long now = System.currentTimeMillis();
+        List<QuizDto.Question> questions = new ArrayList<>(sampled.size());
+        int[] answers = new int[sampled.size()];
+        for (int i = 0; i < sampled.size(); i++) {
+            QuizPool.Sampled question = sampled.get(i);
+            answers[i] = question.answer();
+            questions.add(QuizDto.Question.builder()
+                    .number(i)
+                    .text(question.text())
+                    .options(question.options())
+                    .build());
+        }
+
+        OpenQuiz quiz = new OpenQuiz(UUID.randomUUID(), userId, level, answers, now);
+        quizzes.put(quiz.id, quiz);
+        wheel.schedule(quiz, now + ttl.toMillis());
+        OpenQuiz previous = quizzesByUser.put(userId, quiz);
+        if (previous != null) {
+            remove(previous);
+        }
+        generatedCounter.increment();
+
+        return QuizDto.builder()
+                .quizId(quiz.id)
+                .difficulty(level.name().toLowerCase(Locale.ROOT))
+                .questions(questions)
+                .expiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(now + ttl.toMillis()), ZoneId.systemDefault()))
+                .build();
+    }
+
+    /**
+     * Corrige un quiz, guarda el resultado y lo cierra: enviar las respuestas
+     * dos veces (o tras caducar) responde 404, así que no se puede puntuar
+     * dos veces. Si save falla (429 de la cola de ingesta, error de BD...)
+     * el quiz se vuelve a abrir para que el niño pueda reenviarlas, salvo
+     * que entretanto haya pedido otro.
+     *
+     * @param chosen opción elegida en cada pregunta (null sin contestar)
+     * @param save   guarda la partida corregida; se llama una vez
+     */
+    public <R> R grade(Long userId, UUID quizId, List<Integer> chosen, Function<GradedQuiz, R> save) {
+        OpenQuiz quiz = quizzes.get(quizId);
+        if (quiz == null || quiz.userId != userId) {
+            throw new ResourceNotFoundException("Quiz no encontrado o caducado");
+        }
+        if (chosen.size() > quiz.answers.length) {
+            throw new BadRequestException("Hay más respuestas que preguntas");
+        }
+        int options = quiz.difficulty.options;
+        for (Integer option : chosen) {
+            if (option != null && (option < 0 || option >= options)) {
+                throw new BadRequestException("Opción no válida: " + option);
+            }
+        }
+        if (!remove(quiz)) {
+            throw new ResourceNotFoundException("Quiz no encontrado o caducado");
+        }
+
+        int correct = 0;
+        List<QuizResultDto.Answer> answers = new ArrayList<>(quiz.answers.length);
+        for (int i = 0; i < quiz.answers.length; i++) {
+            Integer option = i < chosen.size() ? chosen.get(i) : null;
+            boolean right = option != null && option == quiz.answers[i];
+            if (right) {
+                correct++;
+            }
+            answers.add(QuizResultDto.Answer.builder()
+                    .number(i)
+                    .chosen(option)
+                    .correctOption(quiz.answers[i])
+                    .correct(right)
+                    .build());
+        }
+
+        int total = quiz.answers.length;
+        int score = correct * POINTS_PER_ANSWER * (quiz.difficulty.ordinal() + 1);
+        int timePlayed = (int) (Math.min(System.currentTimeMillis() - quiz.createdAt, ttl.toMillis()) / 1000);
+        boolean completed = correct * 2 >= total;
+
+        QuizResultDto result = QuizResultDto.builder()
+                .correct(correct)
+                .total(total)
+                .score(score)
+                .timePlayed(timePlayed)
+                .completed(completed)
+                .answers(answers)
+                .build();
+        R saved;
+        try {
+            saved = save.apply(new GradedQuiz(result, score, timePlayed, completed));
+        } catch (RuntimeException e) {
+            reopen(quiz);
+            throw e;
+        }
+        gradedCounter.increment();
+        return saved;
+    }
+
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void expire() {
+        for (OpenQuiz quiz : wheel.advance(System.currentTimeMillis())) {
+            remove(quiz);
+        }
+    }
+
+    private boolean remove(OpenQuiz quiz) {
+        if (!quizzes.remove(quiz.id, quiz)) {
+            return false;
+        }
+        wheel.cancel(quiz);
+        quizzesByUser.remove(quiz.userId, quiz);
+        return true;
+    }
+
+    /**
+     * Devuelve a memoria un quiz retirado por grade, con un TTL nuevo.
+     */
+    private void reopen(OpenQuiz quiz) {
+        if (quizzesByUser.putIfAbsent(quiz.userId, quiz) != null) {
+            return;
+        }
+        quizzes.put(quiz.id, quiz);
+        wheel.schedule(quiz, System.currentTimeMillis() + ttl.toMillis());
+    }
+
+    private static QuizPool.Difficulty parseDifficulty(String difficulty) {
+        try {
+            return QuizPool.Difficulty.valueOf(difficulty.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new BadRequestException("Dificultad no válida: usa easy, medium o hard");
+        }
+    }
+}
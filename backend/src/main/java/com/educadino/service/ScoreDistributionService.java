@@ -0,0 +1,137 @@
+package com.educadino.service;
+
+import com.educadino.dto.ScoreDistributionDto;
+import com.educadino.dto.UserProgressDto;
+import com.educadino.event.ProgressRecordedEvent;
+import com.educadino.util.ScoreHistogram;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Servicio de Distribución de Puntuaciones
+ *
+ * Mantiene en memoria, por minijuego, un histograma log-lineal con la
+ * mejor puntuación de cada jugador. Responder "has superado al 80 % de
+ * los jugadores" cuesta recorrer menos de 900 cubos, sin ordenar
+ * user_progress. Se alimenta de las partidas guardadas y se reconstruye
+ * al arrancar desde user_minigame_stats.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScoreDistributionService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserService userService;
+
+    private final Map<String, Distribution> distributions = new ConcurrentHashMap<>();
+
+    /**
+     * Histograma de un minijuego y la mejor puntuación de cada jugador,
+     * necesaria para mover su entrada de cubo cuando mejora.
+     */
+    private static final class Distribution {
+        final ScoreHistogram histogram = new ScoreHistogram();
+        final Map<Long, Integer> best = new ConcurrentHashMap<>();
+
+        void offer(long userId, int score) {
+            best.compute(userId, (id, current) -> {
+                if (current == null) {
+                    histogram.add(score);
+                    return score;
+                }
+                if (score > current) {
+                    histogram.remove(current);
+                    histogram.add(score);
+                    return score;
+                }
+                return current;
+            });
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProgressRecorded(ProgressRecordedEvent event) {
+        for (UserProgressDto progress : event.progress()) {
+            distributionFor(progress.getMinigameType()).offer(event.userId(), progress.getScore());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        jdbcTemplate.query("SELECT user_id, minigame_type, best_score FROM user_minigame_stats", rs -> {
+            distributionFor(rs.getString(2)).offer(rs.getLong(1), rs.getInt(3));
+        });
+        log.info("📊 Distribuciones de puntuación reconstruidas para {} minijuegos en {} ms",
+                distributions.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Porcentaje (0-100) de los demás jugadores cuya mejor puntuación es
+     * menor que score. Si nadie más ha jugado devuelve 100.
+     */
+    public int percentileOf(String minigameType, long userId, int score) {
+        Distribution distribution = distributions.get(minigameType);
+        if (distribution == null) {
+            return 100;
+        }
+        double below = distribution.histogram.countBelow(score);
+        long others = distribution.histogram.total();
+        // El propio jugador no cuenta
+        Integer own = distribution.best.get(userId);
+        if (own != null) {
+            others--;
+            if (own < score) {
+                below--;
+            }
+        }
+        if (others <= 0) {
+            return 100;
+        }
+        return (int) Math.max(0, Math.min(100, Math.floor(below * 100 / others)));
+    }
+
+    /**
+     * Distribución de un minijuego con la posición del usuario actual.
+     */
+    public ScoreDistributionDto getDistribution(String minigameType) {
+        Distribution distribution = distributions.get(minigameType);
+        if (distribution == null) {
+            distribution = new Distribution();
+        }
+        ScoreHistogram histogram = distribution.histogram;
+        Long userId = userService.getCurrentUserId();
+        Integer myBest = distribution.best.get(userId);
+
+        return ScoreDistributionDto.builder()
+                .minigameType(minigameType)
+                .players(histogram.total())
+                .p50(histogram.quantile(0.50))
+                .p75(histogram.quantile(0.75))
+                .p90(histogram.quantile(0.90))
+                .p99(histogram.quantile(0.99))
+                .myBestScore(myBest)
+                .myPercentile(myBest != null ? percentileOf(minigameType, userId, myBest) : null)
+                .buckets(histogram.buckets().stream()
+                        .map(b -> ScoreDistributionDto.Bucket.builder()
+                                .from(b.from())
+                                .to(b.to())
+                                .players(b.count())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    private Distribution distributionFor(String minigameType) {
+        return distributions.computeIfAbsent(minigameType, type -> new Distribution());
+    }
+}
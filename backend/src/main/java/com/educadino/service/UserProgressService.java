@@ -1,18 +1,30 @@
 package com.educadino.service;
 
+import com.educadino.dto.CursorPage;
+import com.educadino.dto.MinigameStatsDto;
 import com.educadino.dto.SaveProgressRequest;
 import com.educadino.dto.UserProgressDto;
+import com.educadino.dto.UserStatsDto;
 import com.educadino.entity.User;
 import com.educadino.entity.UserProgress;
+import com.educadino.exception.BadRequestException;
+import com.educadino.exception.ResourceNotFoundException;
+import com.educadino.exception.TooManyRequestsException;
 import com.educadino.repository.UserProgressRepository;
-import com.educadino.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashMap;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -25,8 +37,27 @@ import java.util.stream.Collectors;
 public class UserProgressService {
 
     private final UserProgressRepository progressRepository;
-    private final UserRepository userRepository;
     private final UserService userService;
+    private final ProgressRecorder progressRecorder;
+    private final ProgressIngestQueue ingestQueue;
+    private final JdbcTemplate jdbcTemplate;
+    private final ScoreDistributionService scoreDistributionService;
+
+    /** Límites del rango cuando el cliente no envía from/to. */
+    private static final LocalDateTime HISTORY_START = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final LocalDateTime HISTORY_END = LocalDateTime.of(9999, 1, 1, 0, 0);
+
+    @Value("${educadino.progress.batch.max-age:7d}")
+    private Duration maxBatchAge;
+
+    @Value("${educadino.progress.history.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${educadino.progress.history.max-page-size:200}")
+    private int maxPageSize;
+
+    @Value("${educadino.progress.history.max-legacy-items:500}")
+    private int maxLegacyItems;
 
     /**
      * Guarda el progreso de un minijuego.
@@ -34,91 +65,212 @@ public class UserProgressService {
     @Transactional
     public UserProgressDto saveProgress(SaveProgressRequest request) {
         User user = userService.getCurrentUser();
+        UserProgressDto saved = progressRecorder.record(user.getId(), List.of(toEntry(request, LocalDateTime.now()))).get(0);
+        addPercentile(saved);
+        return saved;
+    }
 
-        UserProgress progress = UserProgress.builder()
-                .user(user)
-                .minigameType(request.getMinigameType())
-                .score(request.getScore())
-                .timePlayed(request.getTimePlayed())
-                .completed(request.getCompleted())
-                .build();
-
-        progressRepository.save(progress);
+    /**
+     * Indica si POST /progress debe encolar en lugar de guardar en línea.
+     */
+    public boolean isAsyncIngestEnabled() {
+        return ingestQueue.isEnabled();
+    }
 
-        // Actualizar estadísticas del usuario
-        updateUserStats(user);
+    /**
+     * Encola el progreso para guardarlo en segundo plano (modo asíncrono).
+     *
+     * @throws TooManyRequestsException si la cola de ingesta está llena
+     */
+    public void enqueueProgress(SaveProgressRequest request) {
+        Long userId = userService.getCurrentUserId();
+        if (!ingestQueue.offer(userId, toEntry(request, LocalDateTime.now()))) {
+            throw new TooManyRequestsException(
+                    "Estamos recibiendo muchas partidas, inténtalo de nuevo en unos segundos",
+                    ingestQueue.getRetryAfter());
+        }
+    }
 
-        return mapToDto(progress);
+    /**
+     * Guarda varias partidas de una vez (p. ej. jugadas sin conexión).
+     * Las estadísticas del usuario se actualizan una sola vez por lote.
+     *
+     * Cada partida conserva el playedAt que envía el cliente, ajustado a
+     * (ahora - educadino.progress.batch.max-age, ahora]: un reloj
+     * adelantado no crea partidas en el futuro y una cola antigua no
+     * reescribe rachas ni rankings ya cerrados.
+     */
+    @Transactional
+    public List<UserProgressDto> saveProgressBatch(List<SaveProgressRequest> requests) {
+        User user = userService.getCurrentUser();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime oldest = now.minus(maxBatchAge);
+        List<ProgressRecorder.Entry> entries = requests.stream()
+                .map(request -> toEntry(request, playedAt(request, oldest, now)))
+                .toList();
+        List<UserProgressDto> saved = progressRecorder.record(user.getId(), entries);
+        saved.forEach(this::addPercentile);
+        return saved;
     }
 
     /**
-     * Obtiene todo el progreso del usuario actual.
+     * Obtiene el progreso más reciente del usuario actual, limitado a
+     * educadino.progress.history.max-legacy-items partidas. Para recorrer
+     * el historial completo se usa getHistory.
      */
     @Transactional(readOnly = true)
     public List<UserProgressDto> getMyProgress() {
-        User user = userService.getCurrentUser();
-        return progressRepository.findByUserId(user.getId()).stream()
+        Long userId = userService.getCurrentUserId();
+        return progressRepository.findPageByUserId(
+                        userId, HISTORY_START, HISTORY_END, 0L, PageRequest.of(0, maxLegacyItems)).stream()
                 .map(this::mapToDto)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Obtiene el progreso por tipo de minijuego.
+     * Obtiene el progreso más reciente por tipo de minijuego (mismo límite).
      */
     @Transactional(readOnly = true)
     public List<UserProgressDto> getProgressByMinigame(String minigameType) {
-        User user = userService.getCurrentUser();
-        return progressRepository.findByUserIdAndMinigameType(user.getId(), minigameType).stream()
+        Long userId = userService.getCurrentUserId();
+        return progressRepository.findPageByUserIdAndMinigameType(
+                        userId, minigameType, HISTORY_START, HISTORY_END, 0L, PageRequest.of(0, maxLegacyItems)).stream()
                 .map(this::mapToDto)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Obtiene las estadísticas resumidas del usuario.
+     * Historial paginado por cursor, de la partida más reciente a la más antigua.
+     *
+     * @param minigameType filtro opcional por minijuego
+     * @param from         inicio del rango (incluido), opcional
+     * @param to           fin del rango (excluido), opcional
+     * @param cursor       nextCursor de la página anterior, o null para la primera
+     * @param limit        tamaño de página (se acota a educadino.progress.history.max-page-size)
      */
     @Transactional(readOnly = true)
-    public Map<String, Object> getStats() {
-        User user = userService.getCurrentUser();
+    public CursorPage<UserProgressDto> getHistory(String minigameType, LocalDateTime from, LocalDateTime to,
+                                                 String cursor, Integer limit) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestException("'from' debe ser anterior a 'to'");
+        }
+        Long userId = userService.getCurrentUserId();
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
 
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("totalScore", progressRepository.getTotalScoreByUserId(user.getId()));
-        stats.put("totalTimePlayed", progressRepository.getTotalTimePlayedByUserId(user.getId()));
-        stats.put("completedMinigames", progressRepository.getCompletedMinigamesCount(user.getId()));
-        stats.put("level", user.getLevel());
-        stats.put("learningTime", user.getLearningTime());
-
-        // Mejores puntuaciones por minijuego
-        Map<String, Integer> bestScores = new HashMap<>();
-        List<Object[]> scores = progressRepository.getBestScoresByMinigame(user.getId());
-        for (Object[] row : scores) {
-            bestScores.put((String) row[0], ((Number) row[1]).intValue());
+        // Sin cursor se empieza justo antes de 'to': (to, 0) excluye played_at = to
+        LocalDateTime cursorAt = to != null ? to : HISTORY_END;
+        long cursorId = 0L;
+        if (cursor != null && !cursor.isBlank()) {
+            ProgressCursor position = ProgressCursor.decode(cursor);
+            if (position.playedAt().isBefore(cursorAt)) {
+                cursorAt = position.playedAt();
+                cursorId = position.id();
+            }
         }
-        stats.put("bestScores", bestScores);
+        LocalDateTime start = from != null ? from : HISTORY_START;
 
-        return stats;
+        // Se pide una fila de más para saber si hay página siguiente
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+        List<UserProgress> rows = minigameType == null || minigameType.isBlank()
+                ? progressRepository.findPageByUserId(userId, start, cursorAt, cursorId, page)
+                : progressRepository.findPageByUserIdAndMinigameType(userId, minigameType, start, cursorAt, cursorId, page);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<UserProgress> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            UserProgress last = items.get(items.size() - 1);
+            nextCursor = new ProgressCursor(last.getPlayedAt(), last.getId()).encode();
+        }
+
+        return CursorPage.<UserProgressDto>builder()
+                .items(items.stream().map(this::mapToDto).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
     }
 
     /**
-     * Actualiza las estadísticas del usuario después de guardar progreso.
+     * Obtiene las estadísticas resumidas del usuario.
+     *
+     * Una sola consulta: la fila de users más sus filas de
+     * user_minigame_stats, sin agregar el historial de partidas.
      */
-    private void updateUserStats(User user) {
-        Integer totalScore = progressRepository.getTotalScoreByUserId(user.getId());
-        Integer completedCount = progressRepository.getCompletedMinigamesCount(user.getId());
-        Integer totalTime = progressRepository.getTotalTimePlayedByUserId(user.getId());
+    @Transactional(readOnly = true)
+    public UserStatsDto getStats() {
+        Long userId = userService.getCurrentUserId();
+
+        UserStatsDto stats = UserStatsDto.builder()
+                .totalTimePlayed(0L)
+                .bestScores(new LinkedHashMap<>())
+                .minigames(new ArrayList<>())
+                .build();
 
-        user.setTotalScore(totalScore != null ? totalScore : 0);
-        user.setCompletedMinigames(completedCount != null ? completedCount : 0);
+        jdbcTemplate.query("""
+                SELECT u.total_score, u.completed_minigames, u.level, u.learning_time,
+                       s.minigame_type, s.best_score, s.plays, s.total_time, s.completions, s.last_played_at
+                FROM users u
+                LEFT JOIN user_minigame_stats s ON s.user_id = u.id
+                WHERE u.id = ?
+                ORDER BY s.minigame_type
+                """, rs -> {
+            stats.setTotalScore(rs.getInt("total_score"));
+            stats.setCompletedMinigames(rs.getInt("completed_minigames"));
+            stats.setLevel(rs.getInt("level"));
+            stats.setLearningTime(rs.getInt("learning_time"));
 
-        // Añadir tiempo de juego al tiempo de aprendizaje (convertir segundos a minutos)
-        if (totalTime != null) {
-            user.setLearningTime(totalTime / 60);
+            String minigameType = rs.getString("minigame_type");
+            if (minigameType == null) {
+                return;
+            }
+            Timestamp lastPlayedAt = rs.getTimestamp("last_played_at");
+            MinigameStatsDto minigame = MinigameStatsDto.builder()
+                    .minigameType(minigameType)
+                    .bestScore(rs.getInt("best_score"))
+                    .plays(rs.getInt("plays"))
+                    .totalTime(rs.getLong("total_time"))
+                    .completions(rs.getInt("completions"))
+                    .lastPlayedAt(lastPlayedAt != null ? lastPlayedAt.toLocalDateTime() : null)
+                    .build();
+            stats.getMinigames().add(minigame);
+            stats.getBestScores().put(minigameType, minigame.getBestScore());
+            stats.setTotalTimePlayed(stats.getTotalTimePlayed() + minigame.getTotalTime());
+        }, userId);
+
+        if (stats.getLevel() == null) {
+            throw new ResourceNotFoundException("Usuario", userId);
         }
+        return stats;
+    }
+
+    /**
+     * Añade el % de jugadores superados. Se calcula antes de confirmar la
+     * transacción, así que la distribución aún no incluye esta partida.
+     */
+    private void addPercentile(UserProgressDto progress) {
+        progress.setPercentile(scoreDistributionService.percentileOf(
+                progress.getMinigameType(), progress.getUserId(), progress.getScore()));
+    }
 
-        // Calcular nivel
-        int progress = user.getLearningTime() + (user.getCompletedMinigames() * 10) + (user.getTotalScore() / 100);
-        user.setLevel(Math.min(1 + (progress / 50), 100));
+    private static LocalDateTime playedAt(SaveProgressRequest request, LocalDateTime oldest, LocalDateTime now) {
+        if (request.getPlayedAt() == null) {
+            return now;
+        }
+        LocalDateTime playedAt = LocalDateTime.ofInstant(request.getPlayedAt(), ZoneId.systemDefault());
+        if (playedAt.isAfter(now)) {
+            return now;
+        }
+        return playedAt.isBefore(oldest) ? oldest : playedAt;
+    }
 
-        userRepository.save(user);
+    private ProgressRecorder.Entry toEntry(SaveProgressRequest request, LocalDateTime playedAt) {
+        return new ProgressRecorder.Entry(
+                request.getMinigameType(),
+                request.getScore(),
+                request.getTimePlayed(),
+                Boolean.TRUE.equals(request.getCompleted()),
+                playedAt
+        );
     }
 
     /**
@@ -1,15 +1,19 @@
 package com.educadino.service;
 
+import com.educadino.dto.ActivityCalendarDto;
 import com.educadino.dto.UpdateProfileRequest;
 import com.educadino.dto.UserDto;
 import com.educadino.entity.User;
+import com.educadino.exception.BadRequestException;
 import com.educadino.exception.ResourceNotFoundException;
 import com.educadino.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -21,6 +25,10 @@ import java.util.stream.Collectors;
 public class UserService {
 
   private final UserRepository userRepository;
+  private final LearningTimeAccumulator learningTimeAccumulator;
+  private final AchievementEngine achievementEngine;
+  private final ActivityStreakService activityStreakService;
+  private final MediaService mediaService;
 
   /**
    * Obtiene el usuario autenticado actual.
@@ -31,13 +39,31 @@ public class UserService {
       .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
   }
 
+  /**
+   * Obtiene el ID del usuario autenticado sin consultar la BD cuando el
+   * principal ya es la entidad User cargada por el filtro JWT.
+   */
+  public Long getCurrentUserId() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication != null && authentication.getPrincipal() instanceof User user && user.getId() != null) {
+      return user.getId();
+    }
+    return getCurrentUser().getId();
+  }
+
   /**
    * Obtiene el perfil del usuario actual.
    */
   @Transactional(readOnly = true)
   public UserDto getProfile() {
     User user = getCurrentUser();
-    return mapToDto(user);
+    UserDto dto = mapToDto(user);
+    // Incluye los minutos que aún no se han volcado a la BD
+    long pendingMinutes = learningTimeAccumulator.pendingMinutes(user.getId());
+    if (pendingMinutes > 0) {
+      dto.setLearningTime((dto.getLearningTime() != null ? dto.getLearningTime() : 0) + (int) pendingMinutes);
+    }
+    return dto;
   }
 
   /**
@@ -57,7 +83,7 @@ public class UserService {
       user.setAgeRange(request.getAgeRange());
     }
     if (request.getProfileImage() != null) {
-      user.setProfileImage(request.getProfileImage());
+      user.setProfileImage(mediaService.toReference(request.getProfileImage()));
     }
 
     userRepository.save(user);
@@ -65,23 +91,25 @@ public class UserService {
   }
 
   /**
-   * Actualiza el tiempo de aprendizaje del usuario.
+   * Suma tiempo de aprendizaje al usuario actual.
+   *
+   * Los minutos se acumulan en memoria y se vuelcan por lotes junto con el
+   * nuevo nivel (ver LearningTimeAccumulator).
    */
-  @Transactional
   public void addLearningTime(int minutes) {
-    User user = getCurrentUser();
-    user.setLearningTime(user.getLearningTime() + minutes);
-    updateLevel(user);
-    userRepository.save(user);
+    if (minutes <= 0) {
+      throw new BadRequestException("Los minutos deben ser mayores que cero");
+    }
+    learningTimeAccumulator.add(getCurrentUserId(), minutes);
   }
 
   /**
-   * Calcula y actualiza el nivel del usuario según su progreso.
+   * Calendario de actividad y rachas del usuario actual.
+   *
+   * @param year año del mapa de calor (por defecto el actual)
    */
-  private void updateLevel(User user) {
-    int totalProgress = user.getLearningTime() + (user.getCompletedMinigames() * 10) + (user.getTotalScore() / 100);
-    int newLevel = 1 + (totalProgress / 50);
-    user.setLevel(Math.min(newLevel, 100)); // Máximo nivel 100
+  public ActivityCalendarDto getActivity(Integer year) {
+    return activityStreakService.getCalendar(getCurrentUserId(), year != null ? year : LocalDate.now().getYear());
   }
 
   /**
@@ -126,11 +154,12 @@ public class UserService {
       .email(user.getEmail())
       .role(user.getRole().name())
       .ageRange(user.getAgeRange())
-      .profileImage(user.getProfileImage())
+      .profileImage(MediaService.url(user.getProfileImage()))
       .level(user.getLevel())
       .learningTime(user.getLearningTime())
       .completedMinigames(user.getCompletedMinigames())
       .totalScore(user.getTotalScore())
+      .achievements(achievementEngine.decode(user.getAchievements() != null ? user.getAchievements() : 0L))
       .build();
   }
 }
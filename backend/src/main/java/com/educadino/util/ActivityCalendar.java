@@ -0,0 +1,104 @@
+package com.educadino.util;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calendario de actividad de un usuario: un bit por día.
+ *
+ * Cada año se guarda como un mapa de bits de 46 bytes (366 bits, bit n =
+ * día del año n + 1, orden little-endian igual que set_bit de PostgreSQL y
+ * BitSet.valueOf). Aquí se unen los años en un único BitSet indexado por
+ * días desde el 1 de enero del primer año, y las rachas se calculan
+ * saltando de bit a bit (nextSetBit / nextClearBit / previousClearBit)
+ * sin recorrer día a día.
+ */
+public class ActivityCalendar {
+
+    public static final int BYTES_PER_YEAR = 46;
+
+    private final LocalDate origin;
+    private final BitSet days;
+
+    private ActivityCalendar(LocalDate origin, BitSet days) {
+        this.origin = origin;
+        this.days = days;
+    }
+
+    /**
+     * @param years mapa de bits de cada año, por año
+     */
+    public static ActivityCalendar of(Map<Integer, byte[]> years) {
+        if (years.isEmpty()) {
+            return new ActivityCalendar(LocalDate.now().withDayOfYear(1), new BitSet());
+        }
+        int firstYear = years.keySet().stream().mapToInt(Integer::intValue).min().getAsInt();
+        LocalDate origin = LocalDate.of(firstYear, 1, 1);
+        BitSet days = new BitSet();
+        years.forEach((year, bytes) -> {
+            int offset = (int) (LocalDate.of(year, 1, 1).toEpochDay() - origin.toEpochDay());
+            BitSet yearBits = BitSet.valueOf(bytes);
+            for (int i = yearBits.nextSetBit(0); i >= 0; i = yearBits.nextSetBit(i + 1)) {
+                days.set(offset + i);
+            }
+        });
+        return new ActivityCalendar(origin, days);
+    }
+
+    /** Posición del día dentro del mapa de bits de su año. */
+    public static int dayIndex(LocalDate day) {
+        return day.getDayOfYear() - 1;
+    }
+
+    public boolean isActive(LocalDate day) {
+        int index = index(day);
+        return index >= 0 && days.get(index);
+    }
+
+    /**
+     * Días seguidos con actividad que terminan hoy, o ayer si hoy aún no
+     * ha jugado (la racha sigue viva hasta que acabe el día).
+     */
+    public int currentStreak(LocalDate today) {
+        int index = index(today);
+        if (index < 0) {
+            return 0;
+        }
+        int end = days.get(index) ? index : index - 1;
+        if (end < 0 || !days.get(end)) {
+            return 0;
+        }
+        return end - days.previousClearBit(end);
+    }
+
+    public int longestStreak() {
+        int longest = 0;
+        for (int start = days.nextSetBit(0); start >= 0; ) {
+            int end = days.nextClearBit(start);
+            longest = Math.max(longest, end - start);
+            start = days.nextSetBit(end);
+        }
+        return longest;
+    }
+
+    public List<LocalDate> activeDays(int year) {
+        LocalDate first = LocalDate.of(year, 1, 1);
+        int from = Math.max(0, index(first));
+        int to = index(first.plusYears(1));
+        List<LocalDate> result = new ArrayList<>();
+        if (to <= 0) {
+            return result;
+        }
+        for (int i = days.nextSetBit(from); i >= 0 && i < to; i = days.nextSetBit(i + 1)) {
+            result.add(origin.plusDays(i));
+        }
+        return result;
+    }
+
+    private int index(LocalDate day) {
+        return (int) (day.toEpochDay() - origin.toEpochDay());
+    }
+}
@@ -0,0 +1,182 @@
+package com.educadino.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria con ranking BM25.
+ *
+ * Cada documento tiene varios campos con un peso (p. ej. el nombre pesa
+ * más que la descripción); la frecuencia de un término es la suma
+ * ponderada de sus apariciones en cada campo (BM25F simplificado). Los
+ * términos salen de SpanishAnalyzer.
+ *
+ * Se actualiza documento a documento (put/remove) y un ReadWriteLock
+ * permite búsquedas concurrentes. Si un término de la consulta no existe
+ * se prueba como prefijo ("tricera" encuentra "triceratops"), gracias a
+ * que el diccionario es un TreeMap.
+ */
+public class Bm25Index {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MIN_PREFIX_LENGTH = 3;
+
+    /**
+     * Documento encontrado y su puntuación.
+     */
+    public record Hit(long id, double score) {
+    }
+
+    private record Document(Map<String, Double> frequencies, double length) {
+    }
+
+    private final Map<String, Double> fieldWeights;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /** término -> documento -> frecuencia ponderada */
+    private final NavigableMap<String, Map<Long, Double>> postings = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private double totalLength;
+
+    /**
+     * @param fieldWeights campo -> peso; los campos sin peso no se indexan
+     */
+    public Bm25Index(Map<String, Double> fieldWeights) {
+        this.fieldWeights = Map.copyOf(fieldWeights);
+    }
+
+    /**
+     * Indexa o reindexa un documento.
+     */
+    public void put(long id, Map<String, String> fields) {
+        Map<String, Double> frequencies = new HashMap<>();
+        double length = 0;
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            Double weight = fieldWeights.get(field.getKey());
+            if (weight == null) {
+                continue;
+            }
+            for (String term : SpanishAnalyzer.terms(field.getValue())) {
+                frequencies.merge(term, weight, Double::sum);
+                length += weight;
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            Document document = new Document(frequencies, length);
+            documents.put(id, document);
+            totalLength += length;
+            frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, tf));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Los documentos más relevantes para la consulta (basta con que
+     * contengan uno de sus términos).
+     */
+    public List<Hit> search(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return List.of();
+            }
+            double averageLength = Math.max(totalLength / documents.size(), 1e-9);
+            Map<Long, Double> scores = new HashMap<>();
+            for (String term : expandLocked(new LinkedHashSet<>(SpanishAnalyzer.terms(query)))) {
+                Map<Long, Double> docs = postings.get(term);
+                double idf = Math.log(1 + (documents.size() - docs.size() + 0.5) / (docs.size() + 0.5));
+                docs.forEach((id, tf) -> {
+                    double norm = K1 * (1 - B + B * documents.get(id).length() / averageLength);
+                    scores.merge(id, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                });
+            }
+
+            // Montículo de mínimos con los N mejores
+            Comparator<Hit> byScore = Comparator.comparingDouble(Hit::score).thenComparing(Hit::id, Comparator.reverseOrder());
+            PriorityQueue<Hit> top = new PriorityQueue<>(byScore);
+            scores.forEach((id, score) -> {
+                top.offer(new Hit(id, score));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            });
+            List<Hit> result = new ArrayList<>(top);
+            result.sort(byScore.reversed());
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Términos de la consulta presentes en el índice; los que no están se
+     * sustituyen por los términos que empiezan por ellos.
+     */
+    public Set<String> expand(Set<String> terms) {
+        lock.readLock().lock();
+        try {
+            return expandLocked(terms);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<String> expandLocked(Set<String> terms) {
+        Set<String> expanded = new LinkedHashSet<>();
+        for (String term : terms) {
+            if (postings.containsKey(term)) {
+                expanded.add(term);
+            } else if (term.length() >= MIN_PREFIX_LENGTH) {
+                expanded.addAll(postings.subMap(term, true, term + Character.MAX_VALUE, false).keySet());
+            }
+        }
+        return expanded;
+    }
+
+    private void removeLocked(long id) {
+        Document previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        totalLength -= previous.length();
+        for (String term : previous.frequencies().keySet()) {
+            Map<Long, Double> docs = postings.get(term);
+            docs.remove(id);
+            if (docs.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+}
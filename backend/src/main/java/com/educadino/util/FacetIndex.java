@@ -0,0 +1,151 @@
+package com.educadino.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Índice inmutable con un BitSet por cada valor de cada atributo.
+ *
+ * El bit i de un BitSet indica que el elemento en la posición i tiene ese
+ * valor. Un filtro hace OR entre los valores pedidos de un mismo atributo
+ * y AND entre atributos, y los recuentos de facetas son cardinalidades de
+ * intersecciones: todo con operaciones de bits sobre unos pocos long, sin
+ * recorrer los elementos.
+ *
+ * Los valores se comparan sin mayúsculas ni tildes ("carnivoro" encuentra
+ * "Carnívoro"); las facetas muestran el texto original.
+ */
+public final class FacetIndex<T> {
+
+    private final List<T> items;
+    /** atributo -> valor normalizado -> elementos con ese valor */
+    private final Map<String, Map<String, BitSet>> bitsets;
+    /** atributo -> valor normalizado -> texto original */
+    private final Map<String, Map<String, String>> labels;
+    private final BitSet all;
+
+    private FacetIndex(List<T> items, Map<String, Map<String, BitSet>> bitsets,
+                       Map<String, Map<String, String>> labels) {
+        this.items = items;
+        this.bitsets = bitsets;
+        this.labels = labels;
+        this.all = new BitSet(items.size());
+        all.set(0, items.size());
+    }
+
+    /**
+     * Construye el índice. Los elementos conservan el orden de la lista.
+     *
+     * @param attributes nombre del atributo -> extractor (null = sin valor)
+     */
+    public static <T> FacetIndex<T> build(List<T> items, Map<String, Function<T, String>> attributes) {
+        Map<String, Map<String, BitSet>> bitsets = new LinkedHashMap<>();
+        Map<String, Map<String, String>> labels = new LinkedHashMap<>();
+        attributes.forEach((attribute, extractor) -> {
+            Map<String, BitSet> byValue = new HashMap<>();
+            Map<String, String> byValueLabel = new HashMap<>();
+            for (int i = 0; i < items.size(); i++) {
+                String value = extractor.apply(items.get(i));
+                if (value == null || value.isBlank()) {
+                    continue;
+                }
+                String key = normalize(value);
+                byValue.computeIfAbsent(key, k -> new BitSet(items.size())).set(i);
+                byValueLabel.putIfAbsent(key, value.trim());
+            }
+            bitsets.put(attribute, byValue);
+            labels.put(attribute, byValueLabel);
+        });
+        return new FacetIndex<>(List.copyOf(items), bitsets, labels);
+    }
+
+    public List<T> items() {
+        return items;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Elementos que cumplen el filtro: OR dentro de cada atributo, AND entre
+     * atributos. Un atributo sin valores no filtra.
+     *
+     * @throws IllegalArgumentException si el atributo no existe
+     */
+    public BitSet match(Map<String, ? extends Collection<String>> filters) {
+        return matchExcept(filters, null);
+    }
+
+    public List<T> select(BitSet matches) {
+        List<T> result = new ArrayList<>(matches.cardinality());
+        for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+            result.add(items.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Recuentos por valor de cada atributo. Para un atributo se aplican los
+     * filtros de los demás pero no el suyo, de modo que las facetas indican
+     * cuántos resultados habría al cambiar o añadir ese valor.
+     *
+     * @return atributo -> texto del valor -> recuento (solo valores con recuento > 0)
+     */
+    public Map<String, Map<String, Integer>> facets(Map<String, ? extends Collection<String>> filters) {
+        Map<String, Map<String, Integer>> result = new LinkedHashMap<>();
+        for (String attribute : bitsets.keySet()) {
+            BitSet others = matchExcept(filters, attribute);
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            bitsets.get(attribute).forEach((key, bits) -> {
+                BitSet intersection = (BitSet) bits.clone();
+                intersection.and(others);
+                int count = intersection.cardinality();
+                if (count > 0) {
+                    counts.put(labels.get(attribute).get(key), count);
+                }
+            });
+            result.put(attribute, counts);
+        }
+        return result;
+    }
+
+    private BitSet matchExcept(Map<String, ? extends Collection<String>> filters, String skipped) {
+        BitSet result = (BitSet) all.clone();
+        for (Map.Entry<String, ? extends Collection<String>> filter : filters.entrySet()) {
+            String attribute = filter.getKey();
+            Map<String, BitSet> byValue = bitsets.get(attribute);
+            if (byValue == null) {
+                throw new IllegalArgumentException("Atributo no indexado: " + attribute);
+            }
+            if (attribute.equals(skipped) || filter.getValue() == null || filter.getValue().isEmpty()) {
+                continue;
+            }
+            BitSet union = new BitSet(items.size());
+            for (String value : filter.getValue()) {
+                BitSet bits = byValue.get(normalize(value));
+                if (bits != null) {
+                    union.or(bits);
+                }
+            }
+            result.and(union);
+        }
+        return result;
+    }
+
+    /**
+     * Minúsculas, sin tildes ni espacios sobrantes.
+     */
+    public static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value.trim(), Normalizer.Form.NFD);
+        return decomposed.replaceAll("\\p{M}+", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,13 @@
+package com.educadino.util;
+
+/**
+ * Punto geográfico en grados decimales (WGS84).
+ */
+public record GeoPoint(double latitude, double longitude) {
+
+    public GeoPoint {
+        if (!(latitude >= -90 && latitude <= 90) || !(longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("Coordenadas fuera de rango: " + latitude + ", " + longitude);
+        }
+    }
+}
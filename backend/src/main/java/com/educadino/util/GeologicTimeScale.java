@@ -0,0 +1,78 @@
+package com.educadino.util;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Escala temporal geológica del Mesozoico (ICS 2023), en millones de años.
+ *
+ * Traduce textos de period ("Cretácico Superior", "Jurásico", "Jurásico
+ * Superior - Cretácico Inferior") a un rango [fromMya, toMya]: el de la
+ * época si lleva Inferior/Medio/Superior (o Temprano/Tardío) y el del
+ * período entero si no. Si el texto menciona varios, se une todo.
+ */
+public final class GeologicTimeScale {
+
+    /**
+     * Rango temporal: fromMya es el inicio (más antiguo, mayor) y toMya el final.
+     */
+    public record Range(double fromMya, double toMya) {
+
+        public Range {
+            if (!(fromMya >= toMya && toMya >= 0)) {
+                throw new IllegalArgumentException("Rango temporal no válido: " + fromMya + "-" + toMya + " Ma");
+            }
+        }
+
+        Range union(Range other) {
+            return new Range(Math.max(fromMya, other.fromMya), Math.min(toMya, other.toMya));
+        }
+    }
+
+    /** Período -> [período completo, inferior, medio, superior] (null si no tiene esa época). */
+    private static final Map<String, Range[]> PERIODS = new LinkedHashMap<>();
+
+    static {
+        PERIODS.put("permico", new Range[]{
+                new Range(298.9, 251.9), new Range(298.9, 273.01), new Range(273.01, 259.51), new Range(259.51, 251.9)});
+        PERIODS.put("triasico", new Range[]{
+                new Range(251.9, 201.4), new Range(251.9, 247.2), new Range(247.2, 237.0), new Range(237.0, 201.4)});
+        PERIODS.put("jurasico", new Range[]{
+                new Range(201.4, 145.0), new Range(201.4, 174.7), new Range(174.7, 161.5), new Range(161.5, 145.0)});
+        PERIODS.put("cretacico", new Range[]{
+                new Range(145.0, 66.0), new Range(145.0, 100.5), null, new Range(100.5, 66.0)});
+        PERIODS.put("paleogeno", new Range[]{
+                new Range(66.0, 23.03), new Range(66.0, 56.0), new Range(56.0, 33.9), new Range(33.9, 23.03)});
+    }
+
+    private static final Map<String, Integer> EPOCHS = Map.of(
+            "inferior", 1, "temprano", 1, "early", 1,
+            "medio", 2, "middle", 2,
+            "superior", 3, "tardio", 3, "late", 3);
+
+    private GeologicTimeScale() {
+    }
+
+    /**
+     * Rango del texto, si menciona algún período conocido.
+     */
+    public static Optional<Range> range(String period) {
+        if (period == null || period.isBlank()) {
+            return Optional.empty();
+        }
+        List<String> words = List.of(FacetIndex.normalize(period).split("[^\\p{L}]+"));
+        Range result = null;
+        for (int i = 0; i < words.size(); i++) {
+            Range[] ranges = PERIODS.get(words.get(i));
+            if (ranges == null) {
+                continue;
+            }
+            Integer epoch = i + 1 < words.size() ? EPOCHS.get(words.get(i + 1)) : null;
+            Range range = epoch != null && ranges[epoch] != null ? ranges[epoch] : ranges[0];
+            result = result == null ? range : result.union(range);
+        }
+        return Optional.ofNullable(result);
+    }
+}
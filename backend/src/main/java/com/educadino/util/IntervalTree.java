@@ -0,0 +1,198 @@
+package com.educadino.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Árbol de intervalos centrado, inmutable.
+ *
+ * Cada nodo tiene un centro (la mediana de los extremos de su subárbol) y
+ * guarda los intervalos que lo contienen ordenados dos veces: por inicio
+ * ascendente y por fin descendente. Los que quedan enteros a la izquierda
+ * o a la derecha del centro bajan a ese hijo, así que la profundidad es
+ * O(log n).
+ *
+ * - stab(x): intervalos que contienen x. En cada nodo del camino se leen
+ *   solo los que lo contienen (se corta en el primero que no), así que
+ *   cuesta O(log n + k).
+ * - overlapping(a, b): stab(a) más los intervalos que empiezan en (a, b],
+ *   que salen de una búsqueda binaria en la lista ordenada por inicio.
+ *   Los dos conjuntos son disjuntos: O(log n + k).
+ *
+ * Los intervalos son cerrados [low, high].
+ */
+public final class IntervalTree<T> {
+
+    /**
+     * Intervalo cerrado con low <= high.
+     */
+    public record Interval(double low, double high) {
+
+        public Interval {
+            if (!(low <= high)) {
+                throw new IllegalArgumentException("Intervalo no válido: [" + low + ", " + high + "]");
+            }
+        }
+    }
+
+    private record Node(double center, int[] byLow, int[] byHigh, Node left, Node right) {
+    }
+
+    private final List<T> items;
+    private final Interval[] intervals;
+    private final Node root;
+    /** Índices ordenados por low, y los low en el mismo orden para la búsqueda binaria. */
+    private final int[] byLow;
+    private final double[] lows;
+
+    private IntervalTree(List<T> items, Interval[] intervals, Node root, int[] byLow, double[] lows) {
+        this.items = items;
+        this.intervals = intervals;
+        this.root = root;
+        this.byLow = byLow;
+        this.lows = lows;
+    }
+
+    /**
+     * Construye el árbol. Los elementos sin intervalo (null) se ignoran.
+     */
+    public static <T> IntervalTree<T> build(List<T> items, Function<T, Interval> interval) {
+        List<T> kept = new ArrayList<>();
+        List<Interval> ranges = new ArrayList<>();
+        for (T item : items) {
+            Interval range = interval.apply(item);
+            if (range != null) {
+                kept.add(item);
+                ranges.add(range);
+            }
+        }
+        Interval[] array = ranges.toArray(Interval[]::new);
+        int[] byLow = sorted(IntStream.range(0, array.length).toArray(), array, false);
+        double[] lows = Arrays.stream(byLow).mapToDouble(i -> array[i].low()).toArray();
+        return new IntervalTree<>(List.copyOf(kept), array,
+                node(IntStream.range(0, array.length).toArray(), array), byLow, lows);
+    }
+
+    private static Node node(int[] indices, Interval[] intervals) {
+        if (indices.length == 0) {
+            return null;
+        }
+        double[] endpoints = new double[indices.length * 2];
+        for (int i = 0; i < indices.length; i++) {
+            endpoints[2 * i] = intervals[indices[i]].low();
+            endpoints[2 * i + 1] = intervals[indices[i]].high();
+        }
+        Arrays.sort(endpoints);
+        double center = endpoints[indices.length];
+
+        int[] left = Arrays.stream(indices).filter(i -> intervals[i].high() < center).toArray();
+        int[] right = Arrays.stream(indices).filter(i -> intervals[i].low() > center).toArray();
+        int[] here = Arrays.stream(indices)
+                .filter(i -> intervals[i].low() <= center && intervals[i].high() >= center)
+                .toArray();
+        return new Node(center, sorted(here, intervals, false), sorted(here, intervals, true),
+                node(left, intervals), node(right, intervals));
+    }
+
+    /**
+     * @param byHighDescending false = por low ascendente; true = por high descendente
+     */
+    private static int[] sorted(int[] indices, Interval[] intervals, boolean byHighDescending) {
+        Comparator<Integer> order = byHighDescending
+                ? Comparator.comparingDouble((Integer i) -> intervals[i].high()).reversed()
+                : Comparator.comparingDouble((Integer i) -> intervals[i].low());
+        return Arrays.stream(indices).boxed().sorted(order).mapToInt(Integer::intValue).toArray();
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Elementos cuyo intervalo contiene x.
+     */
+    public List<T> stab(double x) {
+        List<T> result = new ArrayList<>();
+        stab(x, index -> result.add(items.get(index)));
+        return result;
+    }
+
+    /**
+     * Elementos cuyo intervalo se solapa con [a, b] (extremos incluidos).
+     */
+    public List<T> overlapping(double a, double b) {
+        List<T> result = new ArrayList<>();
+        overlapping(a, b, index -> result.add(items.get(index)));
+        return result;
+    }
+
+    /**
+     * Número de elementos que se solapan con [a, b], sin crear la lista.
+     */
+    public int countOverlapping(double a, double b) {
+        int[] count = new int[1];
+        overlapping(a, b, index -> count[0]++);
+        return count[0];
+    }
+
+    private void overlapping(double a, double b, IntConsumer action) {
+        if (a > b) {
+            throw new IllegalArgumentException("Intervalo no válido: [" + a + ", " + b + "]");
+        }
+        stab(a, action);
+        int from = upperBound(lows, a);
+        for (int i = from; i < byLow.length && lows[i] <= b; i++) {
+            action.accept(byLow[i]);
+        }
+    }
+
+    private void stab(double x, IntConsumer action) {
+        Node node = root;
+        while (node != null) {
+            if (x < node.center()) {
+                for (int index : node.byLow()) {
+                    if (intervals[index].low() > x) {
+                        break;
+                    }
+                    action.accept(index);
+                }
+                node = node.left();
+            } else if (x > node.center()) {
+                for (int index : node.byHigh()) {
+                    if (intervals[index].high() < x) {
+                        break;
+                    }
+                    action.accept(index);
+                }
+                node = node.right();
+            } else {
+                for (int index : node.byLow()) {
+                    action.accept(index);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Primera posición con valor estrictamente mayor que x.
+     */
+    private static int upperBound(double[] values, double x) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
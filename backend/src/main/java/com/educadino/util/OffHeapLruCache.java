@@ -0,0 +1,169 @@
+package com.educadino.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Caché LRU de bloques de bytes fuera del heap.
+ *
+ * Cada entrada guarda varias variantes de un mismo contenido (p. ej. el
+ * JSON tal cual, en gzip y en deflate) en un único ByteBuffer directo, así
+ * que los megas de respuestas cacheadas no cuentan para el heap ni alargan
+ * las pausas del GC. Las entradas son inmutables: se leen con duplicados
+ * de solo lectura y se pueden escribir sin bloquear la caché.
+ *
+ * La memoria total de las entradas no pasa de maxBytes: al insertar se
+ * expulsan las menos usadas recientemente. Una entrada expulsada libera su
+ * buffer cuando ya nadie la está escribiendo (lo recoge el GC).
+ */
+public final class OffHeapLruCache<K> {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    /**
+     * Entrada cacheada: tipo de contenido y sus variantes.
+     */
+    public static final class Entry {
+        private final String contentType;
+        private final ByteBuffer[] variants;
+        private final int size;
+
+        private Entry(String contentType, ByteBuffer[] variants, int size) {
+            this.contentType = contentType;
+            this.variants = variants;
+            this.size = size;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        /**
+         * @return bytes de la variante, o -1 si no se guardó
+         */
+        public int length(int variant) {
+            return variants[variant] == null ? -1 : variants[variant].remaining();
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Copia la variante al stream por trozos, sin pasar por un byte[]
+         * del tamaño completo.
+         */
+        public void writeTo(int variant, OutputStream out) throws IOException {
+            ByteBuffer buffer = variants[variant].duplicate();
+            byte[] chunk = new byte[Math.min(buffer.remaining(), CHUNK_SIZE)];
+            while (buffer.hasRemaining()) {
+                int n = Math.min(chunk.length, buffer.remaining());
+                buffer.get(chunk, 0, n);
+                out.write(chunk, 0, n);
+            }
+        }
+    }
+
+    private final long maxBytes;
+    private final LinkedHashMap<K, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long evictions;
+
+    public OffHeapLruCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes debe ser positivo");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    public synchronized Entry get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Copia las variantes fuera del heap y guarda la entrada, expulsando las
+     * menos recientes si hace falta sitio.
+     *
+     * @param variants contenido de cada variante; null si no existe
+     * @return la entrada, o null si por sí sola no cabe en la caché
+     */
+    public Entry put(K key, String contentType, byte[]... variants) {
+        int size = 0;
+        for (byte[] variant : variants) {
+            size += variant == null ? 0 : variant.length;
+        }
+        if (size > maxBytes) {
+            return null;
+        }
+
+        // Un solo buffer directo por entrada, con una vista por variante
+        ByteBuffer block = ByteBuffer.allocateDirect(size);
+        ByteBuffer[] slices = new ByteBuffer[variants.length];
+        for (int i = 0; i < variants.length; i++) {
+            if (variants[i] == null) {
+                continue;
+            }
+            int start = block.position();
+            block.put(variants[i]);
+            slices[i] = block.duplicate().position(start).limit(block.position()).slice().asReadOnlyBuffer();
+        }
+        Entry entry = new Entry(contentType, slices, size);
+
+        synchronized (this) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                bytes -= previous.size();
+            }
+            bytes += size;
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                Entry evicted = eldest.next();
+                if (evicted == entry) {
+                    continue;
+                }
+                eldest.remove();
+                bytes -= evicted.size();
+                evictions++;
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Elimina las entradas cuya clave cumple la condición.
+     */
+    public synchronized void removeIf(Predicate<K> condition) {
+        Iterator<Map.Entry<K, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, Entry> e = iterator.next();
+            if (condition.test(e.getKey())) {
+                iterator.remove();
+                bytes -= e.getValue().size();
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Bytes fuera del heap ocupados por las entradas vivas.
+     */
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+}
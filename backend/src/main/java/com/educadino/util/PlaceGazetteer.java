@@ -0,0 +1,102 @@
+package com.educadino.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Nomenclátor mínimo para ubicar los textos de location ("América del
+ * Norte", "Asia (Mongolia)", "Argentina") sin servicios externos.
+ *
+ * Devuelve un punto representativo: el yacimiento o la zona con más
+ * hallazgos del país, o el centro aproximado del continente. Un país se
+ * prefiere a un continente ("Asia (Mongolia)" -> Mongolia) y, a igual
+ * nivel, gana el que aparece primero ("América del Norte, África").
+ * Solo cuentan palabras completas: "Indiana" no es India.
+ */
+public final class PlaceGazetteer {
+
+    private static final Map<String, GeoPoint> COUNTRIES = new LinkedHashMap<>();
+    private static final Map<String, GeoPoint> CONTINENTS = new LinkedHashMap<>();
+
+    static {
+        country(38.5, -105.0, "estados unidos", "eeuu", "ee. uu.");
+        country(52.0, -112.0, "canada");
+        country(25.5, -103.0, "mexico");
+        country(-38.5, -68.5, "argentina", "patagonia");
+        country(-20.0, -47.0, "brasil");
+        country(-27.0, -70.0, "chile");
+        country(40.5, -0.5, "espana");
+        country(39.5, -9.0, "portugal");
+        country(44.0, 2.5, "francia");
+        country(51.0, 10.5, "alemania");
+        country(52.0, -1.5, "reino unido", "inglaterra", "escocia");
+        country(-8.5, 39.5, "tanzania");
+        country(31.0, -4.0, "marruecos");
+        country(29.0, 28.5, "egipto");
+        country(17.0, 8.0, "niger");
+        country(44.0, 103.5, "mongolia", "desierto de gobi", "gobi");
+        country(41.0, 120.5, "china");
+        country(22.0, 77.0, "india");
+        country(36.0, 138.0, "japon");
+        country(-23.0, 143.0, "australia");
+        country(-84.5, 165.0, "antartida");
+
+        continent(45.0, -100.0, "america del norte", "norteamerica");
+        continent(-15.0, -60.0, "america del sur", "sudamerica", "suramerica");
+        continent(50.0, 10.0, "europa");
+        continent(5.0, 20.0, "africa");
+        continent(45.0, 95.0, "asia");
+        continent(-25.0, 135.0, "oceania");
+    }
+
+    private PlaceGazetteer() {
+    }
+
+    /**
+     * Punto representativo del texto, si menciona algún lugar conocido.
+     */
+    public static Optional<GeoPoint> locate(String location) {
+        if (location == null || location.isBlank()) {
+            return Optional.empty();
+        }
+        String text = FacetIndex.normalize(location);
+        return first(text, COUNTRIES).or(() -> first(text, CONTINENTS));
+    }
+
+    private static Optional<GeoPoint> first(String text, Map<String, GeoPoint> places) {
+        int best = Integer.MAX_VALUE;
+        GeoPoint point = null;
+        for (Map.Entry<String, GeoPoint> place : places.entrySet()) {
+            int position = indexOfWord(text, place.getKey());
+            if (position >= 0 && position < best) {
+                best = position;
+                point = place.getValue();
+            }
+        }
+        return Optional.ofNullable(point);
+    }
+
+    private static int indexOfWord(String text, String word) {
+        for (int i = text.indexOf(word); i >= 0; i = text.indexOf(word, i + 1)) {
+            int end = i + word.length();
+            if ((i == 0 || !Character.isLetter(text.charAt(i - 1)))
+                    && (end == text.length() || !Character.isLetter(text.charAt(end)))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void country(double latitude, double longitude, String... names) {
+        for (String name : names) {
+            COUNTRIES.put(name, new GeoPoint(latitude, longitude));
+        }
+    }
+
+    private static void continent(double latitude, double longitude, String... names) {
+        for (String name : names) {
+            CONTINENTS.put(name, new GeoPoint(latitude, longitude));
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.educadino.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Clasificación en memoria con la mejor puntuación de cada usuario.
+ *
+ * Treap ordenado por (puntuación desc, userId asc) con tamaño de subárbol
+ * en cada nodo: actualizar, consultar el top N y calcular la posición de
+ * un usuario cuestan O(log n) (+ N para el top). Un ReadWriteLock permite
+ * lecturas concurrentes mientras se guardan partidas.
+ */
+public class RankedScoreBoard {
+
+    /**
+     * Posición de un usuario. Los empates comparten posición (1, 2, 2, 4...).
+     */
+    public record Entry(int rank, long userId, int score) {
+    }
+
+    private static final class Node {
+        final int score;
+        final long userId;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        Node left;
+        Node right;
+        int size = 1;
+
+        Node(int score, long userId) {
+            this.score = score;
+            this.userId = userId;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> bestScores = new HashMap<>();
+    private Node root;
+
+    /**
+     * Registra una puntuación; solo cambia algo si mejora la del usuario.
+     *
+     * @return true si la clasificación ha cambiado
+     */
+    public boolean offer(long userId, int score) {
+        lock.writeLock().lock();
+        try {
+            Integer current = bestScores.get(userId);
+            if (current != null && current >= score) {
+                return false;
+            }
+            if (current != null) {
+                root = remove(root, current, userId);
+            }
+            root = insert(root, new Node(score, userId));
+            bestScores.put(userId, score);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Los N primeros de la clasificación.
+     */
+    public List<Entry> top(int limit) {
+        lock.readLock().lock();
+        try {
+            List<Entry> result = new ArrayList<>(Math.min(limit, size(root)));
+            collect(root, limit, result);
+            // Posiciones con empates: igual puntuación => misma posición
+            List<Entry> ranked = new ArrayList<>(result.size());
+            for (int i = 0; i < result.size(); i++) {
+                Entry entry = result.get(i);
+                int rank = i > 0 && ranked.get(i - 1).score() == entry.score() ? ranked.get(i - 1).rank() : i + 1;
+                ranked.add(new Entry(rank, entry.userId(), entry.score()));
+            }
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Posición de un usuario, o null si aún no tiene puntuación.
+     */
+    public Entry rankOf(long userId) {
+        lock.readLock().lock();
+        try {
+            Integer score = bestScores.get(userId);
+            if (score == null) {
+                return null;
+            }
+            return new Entry(countGreater(root, score) + 1, userId, score);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return bestScores.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // TREAP
+    // ═══════════════════════════════════════════════════════════════
+
+    /** Orden de la clasificación: mayor puntuación primero, desempate por userId. */
+    private static int compare(int scoreA, long userA, int scoreB, long userB) {
+        if (scoreA != scoreB) {
+            return scoreA > scoreB ? -1 : 1;
+        }
+        return Long.compare(userA, userB);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static Node update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    private static Node insert(Node node, Node item) {
+        if (node == null) {
+            return item;
+        }
+        if (compare(item.score, item.userId, node.score, node.userId) < 0) {
+            node.left = insert(node.left, item);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, item);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        return update(node);
+    }
+
+    private static Node remove(Node node, int score, long userId) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(score, userId, node.score, node.userId);
+        if (cmp < 0) {
+            node.left = remove(node.left, score, userId);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, score, userId);
+        } else {
+            return merge(node.left, node.right);
+        }
+        return update(node);
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = update(node);
+        return update(pivot);
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = update(node);
+        return update(pivot);
+    }
+
+    /** Número de usuarios con puntuación estrictamente mayor. */
+    private static int countGreater(Node node, int score) {
+        int count = 0;
+        while (node != null) {
+            if (node.score > score) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    private static void collect(Node node, int limit, List<Entry> out) {
+        if (node == null || out.size() >= limit) {
+            return;
+        }
+        collect(node.left, limit, out);
+        if (out.size() < limit) {
+            out.add(new Entry(0, node.userId, node.score));
+            collect(node.right, limit, out);
+        }
+    }
+}
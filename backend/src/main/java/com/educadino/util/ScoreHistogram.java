@@ -0,0 +1,126 @@
+package com.educadino.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma log-lineal de puntuaciones (enteros no negativos).
+ *
+ * Los valores 0-63 tienen cubo propio; a partir de 64 cada potencia de
+ * dos se divide en 32 cubos, así que el error relativo es < 3 % con menos
+ * de 900 cubos para todo el rango de int. Los contadores son atómicos:
+ * añadir o quitar es O(1) y consultar un percentil recorre los cubos.
+ * Dos histogramas se combinan sumando cubo a cubo.
+ */
+public class ScoreHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;          // 64
+    private static final int LINEAR_EXPONENT = 6;                     // log2(64)
+    private static final int BUCKETS = LINEAR_LIMIT + (31 - LINEAR_EXPONENT) * SUB_BUCKETS;
+
+    /**
+     * Cubo no vacío: puntuaciones en [from, to).
+     */
+    public record Bucket(long from, long to, long count) {
+    }
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+
+    public void add(int value) {
+        counts.incrementAndGet(indexOf(value));
+        total.incrementAndGet();
+    }
+
+    public void remove(int value) {
+        counts.decrementAndGet(indexOf(value));
+        total.decrementAndGet();
+    }
+
+    public void merge(ScoreHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        total.addAndGet(other.total.get());
+    }
+
+    public long total() {
+        return total.get();
+    }
+
+    /**
+     * Número estimado de valores estrictamente menores que value,
+     * interpolando linealmente dentro de su cubo.
+     */
+    public double countBelow(int value) {
+        int index = indexOf(value);
+        double below = 0;
+        for (int i = 0; i < index; i++) {
+            below += counts.get(i);
+        }
+        long from = lowerBound(index);
+        long width = lowerBound(index + 1) - from;
+        return below + counts.get(index) * (double) (Math.max(value, 0) - from) / width;
+    }
+
+    /**
+     * Valor aproximado del cuantil q (0-1), o 0 si está vacío.
+     */
+    public long quantile(double q) {
+        long n = total.get();
+        if (n <= 0) {
+            return 0;
+        }
+        double target = q * n;
+        double seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = counts.get(i);
+            if (count > 0 && seen + count >= target) {
+                long from = lowerBound(i);
+                long width = lowerBound(i + 1) - from;
+                return from + Math.round((width - 1) * Math.max(0, target - seen) / count);
+            }
+            seen += count;
+        }
+        return lowerBound(BUCKETS - 1);
+    }
+
+    /**
+     * Cubos no vacíos en orden creciente.
+     */
+    public List<Bucket> buckets() {
+        List<Bucket> result = new ArrayList<>();
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = counts.get(i);
+            if (count > 0) {
+                result.add(new Bucket(lowerBound(i), lowerBound(i + 1), count));
+            }
+        }
+        return result;
+    }
+
+    static int indexOf(int value) {
+        if (value < LINEAR_LIMIT) {
+            return Math.max(value, 0);
+        }
+        int exponent = 31 - Integer.numberOfLeadingZeros(value);
+        int sub = (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - LINEAR_EXPONENT) * SUB_BUCKETS + sub;
+    }
+
+    static long lowerBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + LINEAR_EXPONENT;
+        int sub = (index - LINEAR_LIMIT) % SUB_BUCKETS;
+        return (1L << exponent) + ((long) sub << (exponent - SUB_BITS));
+    }
+}
@@ -0,0 +1,249 @@
+package com.educadino.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * Vecinos más parecidos de cada elemento, precalculados e inmutables.
+ *
+ * Cada elemento se describe con varios bloques de términos (por ejemplo,
+ * sus atributos y las palabras de su descripción). Cada bloque se pondera
+ * con TF-IDF (1 + ln tf) · ln(n / df), se normaliza y se escala por la
+ * raíz de su peso, así que la similitud coseno del vector completo es la
+ * media ponderada de las similitudes de cada bloque. Los términos que
+ * tienen todos los elementos pesan 0 y no cuentan.
+ *
+ * Al construirlo se calculan los k vecinos de todos los elementos con un
+ * índice invertido: para cada elemento solo se recorren los que comparten
+ * algún término, acumulando los productos escalares en un array, y un
+ * montículo de tamaño k se queda con los mejores. Los elementos se reparten
+ * en tareas fork-join (ForkJoinPool común), cada una con su acumulador.
+ * Después, neighbors(key) es una búsqueda en un mapa.
+ */
+public final class SimilarityIndex<T> {
+
+    /** Elementos por tarea por debajo de los cuales no se divide más. */
+    private static final int THRESHOLD = 64;
+
+    /**
+     * Bloque de términos de cada elemento y su peso en la similitud.
+     * Los términos pueden repetirse (cuenta su frecuencia).
+     */
+    public record Block<T>(Function<T, List<String>> terms, double weight) {
+
+        public Block {
+            if (!(weight > 0)) {
+                throw new IllegalArgumentException("El peso debe ser positivo");
+            }
+        }
+    }
+
+    /**
+     * Vecino y su similitud coseno, en (0, 1].
+     */
+    public record Neighbor<T>(T item, double score) {
+    }
+
+    private final Map<Object, List<Neighbor<T>>> neighbors;
+
+    private SimilarityIndex(Map<Object, List<Neighbor<T>>> neighbors) {
+        this.neighbors = neighbors;
+    }
+
+    /**
+     * Calcula los k vecinos de cada elemento. Los elementos sin ningún
+     * término en común con otro no tienen vecinos.
+     *
+     * @param key clave para consultar los vecinos de un elemento (por ejemplo, su id)
+     */
+    public static <T> SimilarityIndex<T> build(List<T> items, Function<T, ?> key, List<Block<T>> blocks, int k) {
+        int n = items.size();
+        double total = blocks.stream().mapToDouble(Block::weight).sum();
+
+        // Vectores dispersos: término (numerado) -> peso, ya normalizados
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<Map<Integer, Double>> vectors = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            vectors.add(new HashMap<>());
+        }
+        for (int b = 0; b < blocks.size(); b++) {
+            Block<T> block = blocks.get(b);
+            List<Map<String, Integer>> frequencies = new ArrayList<>(n);
+            Map<String, Integer> documentFrequency = new HashMap<>();
+            for (T item : items) {
+                Map<String, Integer> tf = new HashMap<>();
+                for (String term : block.terms().apply(item)) {
+                    tf.merge(term, 1, Integer::sum);
+                }
+                tf.keySet().forEach(term -> documentFrequency.merge(term, 1, Integer::sum));
+                frequencies.add(tf);
+            }
+            double scale = Math.sqrt(block.weight() / total);
+            for (int i = 0; i < n; i++) {
+                Map<String, Double> weights = new HashMap<>();
+                double norm = 0;
+                for (Map.Entry<String, Integer> entry : frequencies.get(i).entrySet()) {
+                    double idf = Math.log((double) n / documentFrequency.get(entry.getKey()));
+                    double weight = (1 + Math.log(entry.getValue())) * idf;
+                    if (weight > 0) {
+                        weights.put(entry.getKey(), weight);
+                        norm += weight * weight;
+                    }
+                }
+                double factor = scale / Math.sqrt(norm);
+                for (Map.Entry<String, Double> entry : weights.entrySet()) {
+                    int term = dictionary.computeIfAbsent(b + ":" + entry.getKey(), t -> dictionary.size());
+                    vectors.get(i).put(term, entry.getValue() * factor);
+                }
+            }
+        }
+
+        // Índice invertido: término -> (elementos, pesos)
+        int[] postingCount = new int[dictionary.size()];
+        vectors.forEach(vector -> vector.keySet().forEach(term -> postingCount[term]++));
+        int[][] postingItems = new int[dictionary.size()][];
+        double[][] postingWeights = new double[dictionary.size()][];
+        for (int term = 0; term < postingCount.length; term++) {
+            postingItems[term] = new int[postingCount[term]];
+            postingWeights[term] = new double[postingCount[term]];
+        }
+        int[] filled = new int[dictionary.size()];
+        for (int i = 0; i < n; i++) {
+            for (Map.Entry<Integer, Double> entry : vectors.get(i).entrySet()) {
+                int term = entry.getKey();
+                postingItems[term][filled[term]] = i;
+                postingWeights[term][filled[term]] = entry.getValue();
+                filled[term]++;
+            }
+        }
+
+        int[][] nearest = new int[n][];
+        double[][] scores = new double[n][];
+        if (n > 0 && k > 0) {
+            ForkJoinPool.commonPool().invoke(
+                    new NeighborsTask(vectors, postingItems, postingWeights, k, 0, n, nearest, scores));
+        }
+
+        Map<Object, List<Neighbor<T>>> result = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            Object itemKey = key.apply(items.get(i));
+            if (itemKey == null) {
+                continue;
+            }
+            List<Neighbor<T>> list = new ArrayList<>();
+            if (nearest[i] != null) {
+                for (int j = 0; j < nearest[i].length; j++) {
+                    list.add(new Neighbor<>(items.get(nearest[i][j]), scores[i][j]));
+                }
+            }
+            result.putIfAbsent(itemKey, List.copyOf(list));
+        }
+        return new SimilarityIndex<>(Map.copyOf(result));
+    }
+
+    /**
+     * Vecinos de un elemento, del más parecido al menos (vacío si no existe).
+     */
+    public List<Neighbor<T>> neighbors(Object key) {
+        return neighbors.getOrDefault(key, List.of());
+    }
+
+    public int size() {
+        return neighbors.size();
+    }
+
+    /**
+     * Calcula los vecinos de los elementos [from, to), dividiendo el rango
+     * en dos mientras sea mayor que THRESHOLD. Nunca se serializa (vive
+     * dentro de build), aunque RecursiveAction sea Serializable.
+     */
+    @SuppressWarnings("serial")
+    private static final class NeighborsTask extends RecursiveAction {
+        private final List<Map<Integer, Double>> vectors;
+        private final int[][] postingItems;
+        private final double[][] postingWeights;
+        private final int k;
+        private final int from;
+        private final int to;
+        private final int[][] nearest;
+        private final double[][] scores;
+
+        NeighborsTask(List<Map<Integer, Double>> vectors, int[][] postingItems, double[][] postingWeights, int k,
+                      int from, int to, int[][] nearest, double[][] scores) {
+            this.vectors = vectors;
+            this.postingItems = postingItems;
+            this.postingWeights = postingWeights;
+            this.k = k;
+            this.from = from;
+            this.to = to;
+            this.nearest = nearest;
+            this.scores = scores;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new NeighborsTask(vectors, postingItems, postingWeights, k, from, mid, nearest, scores),
+                        new NeighborsTask(vectors, postingItems, postingWeights, k, mid, to, nearest, scores));
+                return;
+            }
+            double[] dot = new double[vectors.size()];
+            int[] touched = new int[vectors.size()];
+            for (int i = from; i < to; i++) {
+                int count = 0;
+                for (Map.Entry<Integer, Double> entry : vectors.get(i).entrySet()) {
+                    int[] others = postingItems[entry.getKey()];
+                    double[] weights = postingWeights[entry.getKey()];
+                    for (int p = 0; p < others.length; p++) {
+                        int other = others[p];
+                        if (other == i) {
+                            continue;
+                        }
+                        if (dot[other] == 0) {
+                            touched[count++] = other;
+                        }
+                        dot[other] += entry.getValue() * weights[p];
+                    }
+                }
+                select(i, dot, touched, count);
+                for (int t = 0; t < count; t++) {
+                    dot[touched[t]] = 0;
+                }
+            }
+        }
+
+        /**
+         * Guarda los k mayores: montículo de mínimos por similitud (a igual
+         * similitud gana el índice menor, para que el resultado sea estable).
+         */
+        private void select(int i, double[] dot, int[] touched, int count) {
+            PriorityQueue<Integer> heap = new PriorityQueue<>(k + 1, (a, b) -> dot[a] != dot[b]
+                    ? Double.compare(dot[a], dot[b])
+                    : Integer.compare(b, a));
+            for (int t = 0; t < count; t++) {
+                heap.add(touched[t]);
+                if (heap.size() > k) {
+                    heap.poll();
+                }
+            }
+            int size = heap.size();
+            int[] best = new int[size];
+            double[] bestScores = new double[size];
+            for (int j = size - 1; j >= 0; j--) {
+                int other = heap.poll();
+                best[j] = other;
+                bestScores[j] = Math.min(1.0, dot[other]);
+            }
+            nearest[i] = best;
+            scores[i] = bestScores;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.educadino.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Análisis de texto en español para búsqueda.
+ *
+ * Parte el texto en palabras, pasa a minúsculas, quita tildes y diéresis,
+ * descarta palabras vacías ("de", "la", "que"...) y reduce cada palabra a
+ * una raíz ligera: quita plurales y la vocal final de género, así que
+ * "carnívoros", "carnivoro" y "carnívora" dan la misma raíz. Es el
+ * stemmer ligero de Savoy (el de Lucene para español): pocas reglas, sin
+ * diccionario, suficiente para búsquedas de niños.
+ */
+public final class SpanishAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "al", "algo", "algunas", "algunos", "ante", "antes", "como", "con", "contra", "cual", "cuando",
+            "de", "del", "desde", "donde", "durante", "e", "el", "ella", "ellos", "en", "entre", "era", "eran",
+            "es", "esa", "esas", "ese", "eso", "esos", "esta", "estaba", "estas", "este", "esto", "estos", "fue",
+            "fueron", "ha", "habia", "han", "hasta", "hay", "la", "las", "le", "les", "lo", "los", "mas", "me",
+            "mi", "muy", "nada", "ni", "no", "nos", "o", "otra", "otras", "otro", "otros", "para", "pero", "poco",
+            "por", "porque", "que", "quien", "se", "ser", "si", "sin", "sobre", "son", "su", "sus", "tambien",
+            "tanto", "te", "tenia", "tiene", "tienen", "todo", "todos", "tu", "un", "una", "uno", "unos", "y", "ya"
+    );
+
+    private SpanishAnalyzer() {
+    }
+
+    /**
+     * Palabra del texto original con su posición y su término analizado
+     * (null si es una palabra vacía).
+     */
+    public record Token(int start, int end, String term) {
+    }
+
+    /**
+     * Términos del texto, en orden y con repeticiones.
+     */
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        for (Token token : tokens(text)) {
+            if (token.term() != null) {
+                terms.add(token.term());
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Palabras del texto con sus posiciones, para resaltar coincidencias.
+     */
+    public static List<Token> tokens(String text) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                tokens.add(new Token(start, i, analyze(text.substring(start, i))));
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Término de una palabra suelta, o null si es una palabra vacía.
+     */
+    public static String analyze(String word) {
+        String folded = fold(word);
+        if (STOP_WORDS.contains(folded)) {
+            return null;
+        }
+        return stem(folded);
+    }
+
+    /**
+     * Minúsculas sin tildes ni diéresis (la ñ pasa a n).
+     */
+    static String fold(String word) {
+        String decomposed = Normalizer.normalize(word, Normalizer.Form.NFD);
+        return decomposed.replaceAll("\\p{M}+", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Stemmer ligero: solo toca palabras de 5 letras o más.
+     */
+    static String stem(String word) {
+        int len = word.length();
+        if (len < 5) {
+            return word;
+        }
+        char last = word.charAt(len - 1);
+        if (last == 'o' || last == 'a' || last == 'e') {
+            return word.substring(0, len - 1);
+        }
+        if (last == 's') {
+            char c2 = word.charAt(len - 2);
+            char c3 = word.charAt(len - 3);
+            if (c2 == 'e' && c3 == 's' && word.charAt(len - 4) == 'e') {
+                return word.substring(0, len - 2);                   // meses -> mes
+            }
+            if (c2 == 'e' && c3 == 'c') {
+                return word.substring(0, len - 3) + "z";             // nueces -> nuez
+            }
+            if (c2 == 'o' || c2 == 'a' || c2 == 'e') {
+                return word.substring(0, len - 2);                   // plumas -> plum
+            }
+        }
+        return word;
+    }
+}
@@ -0,0 +1,269 @@
+package com.educadino.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Índice espacial inmutable en rejillas uniformes, una por nivel de zoom.
+ *
+ * En el zoom z el mundo se divide en celdas de 360 / (4 · 2^z) grados
+ * (unos 64 px con teselas de 256 px). Cada nivel guarda sus celdas no
+ * vacías ordenadas por clave (fila · columnas + columna), con el número
+ * de puntos y su centroide ya calculados, así que los grupos de un mapa
+ * salen de recorrer solo las celdas del rectángulo visible: por cada fila
+ * una búsqueda binaria y después las celdas contiguas. Nunca se recorren
+ * todos los puntos.
+ *
+ * Por encima de maxZoom se devuelven los puntos sueltos del rectángulo,
+ * sacados de las celdas del nivel más fino. Las celdas son cuadradas en
+ * grados (proyección equirectangular): en latitudes altas quedan más
+ * estrechas en pantalla que en Mercator, lo que solo hace los grupos algo
+ * más pequeños.
+ */
+public final class SpatialGrid<T> {
+
+    public static final int CELLS_PER_TILE = 4;
+
+    /**
+     * Rectángulo en grados. Si minLongitude > maxLongitude cruza el
+     * antimeridiano (por ejemplo, de 170 a -170).
+     */
+    public record BoundingBox(double minLongitude, double minLatitude, double maxLongitude, double maxLatitude) {
+
+        public static final BoundingBox WORLD = new BoundingBox(-180, -90, 180, 90);
+
+        public BoundingBox {
+            if (!(minLatitude >= -90 && maxLatitude <= 90 && minLatitude <= maxLatitude)
+                    || !(minLongitude >= -180 && minLongitude <= 180 && maxLongitude >= -180 && maxLongitude <= 180)) {
+                throw new IllegalArgumentException("Rectángulo fuera de rango");
+            }
+        }
+
+        /**
+         * Lee "minLon,minLat,maxLon,maxLat", el orden de GeoJSON.
+         */
+        public static BoundingBox parse(String value) {
+            String[] parts = value.split(",");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Se esperaban cuatro coordenadas");
+            }
+            double[] numbers = new double[4];
+            for (int i = 0; i < 4; i++) {
+                numbers[i] = Double.parseDouble(parts[i].trim());
+            }
+            return new BoundingBox(numbers[0], numbers[1], numbers[2], numbers[3]);
+        }
+
+        public boolean contains(GeoPoint point) {
+            if (point.latitude() < minLatitude || point.latitude() > maxLatitude) {
+                return false;
+            }
+            return minLongitude <= maxLongitude
+                    ? point.longitude() >= minLongitude && point.longitude() <= maxLongitude
+                    : point.longitude() >= minLongitude || point.longitude() <= maxLongitude;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s,%s,%s,%s", minLongitude, minLatitude, maxLongitude, maxLatitude);
+        }
+    }
+
+    /**
+     * Grupo de puntos de una celda. item solo se rellena si count es 1.
+     */
+    public record Cluster<T>(double latitude, double longitude, int count, T item) {
+    }
+
+    /**
+     * Celdas no vacías de un nivel. La celda i tiene los puntos
+     * order[start[i], start[i + 1]).
+     */
+    private record Level(double size, int columns, int rows, long[] keys, int[] start, int[] order,
+                         double[] latitude, double[] longitude) {
+
+        int cells() {
+            return keys.length;
+        }
+
+        int count(int cell) {
+            return start[cell + 1] - start[cell];
+        }
+
+        int column(double longitude) {
+            return Math.min(columns - 1, (int) Math.floor((longitude + 180) / size));
+        }
+
+        int row(double latitude) {
+            return Math.min(rows - 1, (int) Math.floor((latitude + 90) / size));
+        }
+    }
+
+    private final List<T> items;
+    private final GeoPoint[] points;
+    private final Level[] levels;
+
+    private SpatialGrid(List<T> items, GeoPoint[] points, Level[] levels) {
+        this.items = items;
+        this.points = points;
+        this.levels = levels;
+    }
+
+    /**
+     * Construye el índice. Los elementos sin ubicación (null) se ignoran.
+     */
+    public static <T> SpatialGrid<T> build(List<T> items, Function<T, GeoPoint> location, int maxZoom) {
+        List<T> located = new ArrayList<>();
+        List<GeoPoint> points = new ArrayList<>();
+        for (T item : items) {
+            GeoPoint point = location.apply(item);
+            if (point != null) {
+                located.add(item);
+                points.add(point);
+            }
+        }
+        GeoPoint[] array = points.toArray(GeoPoint[]::new);
+
+        Level[] levels = new Level[maxZoom + 1];
+        for (int zoom = 0; zoom <= maxZoom; zoom++) {
+            levels[zoom] = level(array, zoom);
+        }
+        return new SpatialGrid<>(List.copyOf(located), array, levels);
+    }
+
+    private static Level level(GeoPoint[] points, int zoom) {
+        int columns = CELLS_PER_TILE << zoom;
+        double size = 360.0 / columns;
+        int rows = (int) Math.ceil(180 / size);
+        // Solo para calcular filas y columnas; las celdas se rellenan abajo
+        Level grid = new Level(size, columns, rows, null, null, null, null, null);
+
+        long[] keyOf = new long[points.length];
+        for (int i = 0; i < points.length; i++) {
+            keyOf[i] = (long) grid.row(points[i].latitude()) * columns + grid.column(points[i].longitude());
+        }
+        int[] order = IntStream.range(0, points.length).boxed()
+                .sorted(Comparator.comparingLong(i -> keyOf[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        long[] keys = new long[points.length];
+        int[] start = new int[points.length + 1];
+        double[] latitude = new double[points.length];
+        double[] longitude = new double[points.length];
+        int cells = 0;
+        for (int i = 0; i < order.length; ) {
+            int j = i;
+            double sumLatitude = 0;
+            double sumLongitude = 0;
+            while (j < order.length && keyOf[order[j]] == keyOf[order[i]]) {
+                sumLatitude += points[order[j]].latitude();
+                sumLongitude += points[order[j]].longitude();
+                j++;
+            }
+            keys[cells] = keyOf[order[i]];
+            start[cells] = i;
+            latitude[cells] = sumLatitude / (j - i);
+            longitude[cells] = sumLongitude / (j - i);
+            cells++;
+            i = j;
+        }
+        start[cells] = order.length;
+        return new Level(size, columns, rows, Arrays.copyOf(keys, cells), Arrays.copyOf(start, cells + 1), order,
+                Arrays.copyOf(latitude, cells), Arrays.copyOf(longitude, cells));
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public int maxZoom() {
+        return levels.length - 1;
+    }
+
+    /**
+     * Grupos visibles en el rectángulo con el zoom dado. Por encima de
+     * maxZoom, cada punto del rectángulo es un grupo de uno.
+     */
+    public List<Cluster<T>> clusters(BoundingBox box, int zoom) {
+        List<Cluster<T>> result = new ArrayList<>();
+        if (zoom > maxZoom()) {
+            for (int index : within(box, levels[maxZoom()])) {
+                GeoPoint point = points[index];
+                result.add(new Cluster<>(point.latitude(), point.longitude(), 1, items.get(index)));
+            }
+            return result;
+        }
+        Level level = levels[Math.max(zoom, 0)];
+        forEachCell(level, box, cell -> {
+            int count = level.count(cell);
+            T item = count == 1 ? items.get(level.order()[level.start()[cell]]) : null;
+            result.add(new Cluster<>(level.latitude()[cell], level.longitude()[cell], count, item));
+        });
+        return result;
+    }
+
+    /**
+     * Elementos cuya ubicación está dentro del rectángulo.
+     */
+    public List<T> within(BoundingBox box) {
+        List<T> result = new ArrayList<>();
+        for (int index : within(box, levels[maxZoom()])) {
+            result.add(items.get(index));
+        }
+        return result;
+    }
+
+    private List<Integer> within(BoundingBox box, Level level) {
+        List<Integer> result = new ArrayList<>();
+        forEachCell(level, box, cell -> {
+            for (int i = level.start()[cell]; i < level.start()[cell + 1]; i++) {
+                int index = level.order()[i];
+                if (box.contains(points[index])) {
+                    result.add(index);
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Recorre las celdas no vacías que tocan el rectángulo, fila a fila.
+     */
+    private static void forEachCell(Level level, BoundingBox box, IntConsumer action) {
+        if (level.cells() == 0) {
+            return;
+        }
+        int firstRow = level.row(box.minLatitude());
+        int lastRow = level.row(box.maxLatitude());
+        int firstColumn = level.column(box.minLongitude());
+        int lastColumn = level.column(box.maxLongitude());
+        for (int row = firstRow; row <= lastRow; row++) {
+            if (box.minLongitude() <= box.maxLongitude()) {
+                scan(level, row, firstColumn, lastColumn, action);
+            } else {
+                scan(level, row, firstColumn, level.columns() - 1, action);
+                scan(level, row, 0, lastColumn, action);
+            }
+        }
+    }
+
+    private static void scan(Level level, int row, int fromColumn, int toColumn,
+                             IntConsumer action) {
+        long from = (long) row * level.columns() + fromColumn;
+        long to = (long) row * level.columns() + toColumn;
+        int cell = Arrays.binarySearch(level.keys(), from);
+        if (cell < 0) {
+            cell = -cell - 1;
+        }
+        for (; cell < level.cells() && level.keys()[cell] <= to; cell++) {
+            action.accept(cell);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.educadino.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Árbol taxonómico inmutable (clados → familia → género) con recorridos
+ * precalculados.
+ *
+ * Al construirlo se numeran los nodos en preorden y los elementos (las
+ * hojas) quedan en orden de recorrido, así que los elementos bajo un
+ * nodo ocupan un rango contiguo [from, to) de esa lista: "todos los
+ * terópodos" es una subList, en O(1). Cada nodo guarda además su camino
+ * desde la raíz.
+ *
+ * El ancestro común más bajo se resuelve en O(1) con el recorrido de
+ * Euler del árbol y una sparse table de mínimos por profundidad
+ * (O(n log n) de memoria, con n el número de nodos).
+ *
+ * Los nombres se comparan sin mayúsculas ni tildes, como en FacetIndex.
+ * Los hijos de cada nodo se ordenan alfabéticamente.
+ */
+public final class TaxonomyTree<T> {
+
+    public enum Rank {
+        ROOT, CLADE, FAMILY, GENUS
+    }
+
+    /**
+     * Grupo del camino de un elemento (sin la raíz ni el propio elemento).
+     */
+    public record Level(String name, Rank rank) {
+    }
+
+    /**
+     * Nodo del árbol. Los elementos bajo él son items()[from, to).
+     */
+    public record Node(int id, String name, Rank rank, int depth, int from, int to) {
+
+        public int count() {
+            return to - from;
+        }
+    }
+
+    private final Node[] nodes;
+    private final int[][] children;
+    private final int[][] paths;
+    private final List<T> items;
+    private final Map<String, Integer> byName;
+    private final Map<Object, Integer> byKey;
+
+    /** Primera aparición de cada nodo en el recorrido de Euler. */
+    private final int[] first;
+    /** sparse[k][i]: nodo menos profundo de euler[i, i + 2^k). */
+    private final int[][] sparse;
+
+    private TaxonomyTree(Node[] nodes, int[][] children, int[][] paths, List<T> items,
+                         Map<String, Integer> byName, Map<Object, Integer> byKey, int[] first, int[][] sparse) {
+        this.nodes = nodes;
+        this.children = children;
+        this.paths = paths;
+        this.items = items;
+        this.byName = byName;
+        this.byKey = byKey;
+        this.first = first;
+        this.sparse = sparse;
+    }
+
+    /**
+     * Construye el árbol.
+     *
+     * @param root   nombre de la raíz
+     * @param levels grupos de cada elemento desde la raíz (lista vacía = cuelga de la raíz)
+     * @param label  nombre de la hoja de cada elemento (género)
+     * @param key    clave para buscar la hoja de un elemento (por ejemplo, su id)
+     */
+    public static <T> TaxonomyTree<T> build(String root, List<T> items, Function<T, List<Level>> levels,
+                                            Function<T, String> label, Function<T, ?> key) {
+        Draft<T> draft = new Draft<>(root, Rank.ROOT);
+        for (T item : items) {
+            Draft<T> node = draft;
+            for (Level level : levels.apply(item)) {
+                node = node.children.computeIfAbsent(FacetIndex.normalize(level.name()),
+                        k -> new Draft<>(level.name().trim(), level.rank()));
+            }
+            node.items.add(item);
+        }
+
+        Builder<T> builder = new Builder<>(label, key);
+        builder.visit(draft, -1, 0);
+        return builder.finish();
+    }
+
+    public Node root() {
+        return nodes[0];
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    public List<T> items() {
+        return items;
+    }
+
+    public List<Node> children(Node node) {
+        int[] ids = children[node.id()];
+        List<Node> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(nodes[id]);
+        }
+        return result;
+    }
+
+    /**
+     * Grupo (clado o familia) por nombre. Si dos grupos se llaman igual
+     * devuelve el menos profundo.
+     */
+    public Optional<Node> find(String name) {
+        Integer id = name == null ? null : byName.get(FacetIndex.normalize(name));
+        return id == null ? Optional.empty() : Optional.of(nodes[id]);
+    }
+
+    /**
+     * Hoja de un elemento por su clave.
+     */
+    public Optional<Node> leaf(Object key) {
+        Integer id = byKey.get(key);
+        return id == null ? Optional.empty() : Optional.of(nodes[id]);
+    }
+
+    /**
+     * Elementos bajo el nodo, en orden de recorrido. Vista de solo lectura, O(1).
+     */
+    public List<T> items(Node node) {
+        return items.subList(node.from(), node.to());
+    }
+
+    /**
+     * Elemento de una hoja.
+     */
+    public T item(Node leaf) {
+        if (leaf.rank() != Rank.GENUS) {
+            throw new IllegalArgumentException("El nodo no es una hoja: " + leaf.name());
+        }
+        return items.get(leaf.from());
+    }
+
+    /**
+     * Camino desde la raíz hasta el nodo, ambos incluidos.
+     */
+    public List<Node> path(Node node) {
+        int[] ids = paths[node.id()];
+        List<Node> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(nodes[id]);
+        }
+        return result;
+    }
+
+    /**
+     * Ancestro común más bajo de dos nodos (uno de ellos si es ancestro del otro).
+     */
+    public Node lowestCommonAncestor(Node a, Node b) {
+        int left = Math.min(first[a.id()], first[b.id()]);
+        int right = Math.max(first[a.id()], first[b.id()]);
+        int k = 31 - Integer.numberOfLeadingZeros(right - left + 1);
+        return shallower(nodes[sparse[k][left]], nodes[sparse[k][right - (1 << k) + 1]]);
+    }
+
+    private static Node shallower(Node a, Node b) {
+        return a.depth() <= b.depth() ? a : b;
+    }
+
+    /**
+     * Nodo mutable mientras se agrupan los elementos.
+     */
+    private static final class Draft<T> {
+        final String name;
+        final Rank rank;
+        final Map<String, Draft<T>> children = new TreeMap<>();
+        final List<T> items = new ArrayList<>();
+
+        Draft(String name, Rank rank) {
+            this.name = name;
+            this.rank = rank;
+        }
+    }
+
+    /**
+     * Recorre el borrador en preorden numerando nodos, hojas y el recorrido de Euler.
+     */
+    private static final class Builder<T> {
+        final Function<T, String> label;
+        final Function<T, ?> key;
+
+        final List<Node> nodes = new ArrayList<>();
+        final List<int[]> children = new ArrayList<>();
+        final List<int[]> paths = new ArrayList<>();
+        final List<T> items = new ArrayList<>();
+        final Map<String, Integer> byName = new HashMap<>();
+        final Map<Object, Integer> byKey = new HashMap<>();
+        final List<Integer> euler = new ArrayList<>();
+        final List<Integer> first = new ArrayList<>();
+
+        Builder(Function<T, String> label, Function<T, ?> key) {
+            this.label = label;
+            this.key = key;
+        }
+
+        int visit(Draft<T> draft, int parent, int depth) {
+            int id = open(draft.name, draft.rank, parent, depth);
+            if (draft.rank != Rank.ROOT) {
+                byName.merge(FacetIndex.normalize(draft.name), id,
+                        (a, b) -> nodes.get(a).depth() <= nodes.get(b).depth() ? a : b);
+            }
+            int from = items.size();
+            List<Integer> ids = new ArrayList<>();
+            for (Draft<T> child : draft.children.values()) {
+                ids.add(visit(child, id, depth + 1));
+                euler.add(id);
+            }
+            List<T> genera = new ArrayList<>(draft.items);
+            genera.sort(Comparator.comparing(item -> FacetIndex.normalize(String.valueOf(label.apply(item)))));
+            for (T item : genera) {
+                String name = String.valueOf(label.apply(item));
+                int leaf = open(name, Rank.GENUS, id, depth + 1);
+                nodes.set(leaf, new Node(leaf, name, Rank.GENUS, depth + 1, items.size(), items.size() + 1));
+                children.set(leaf, new int[0]);
+                Object itemKey = key.apply(item);
+                if (itemKey != null) {
+                    byKey.putIfAbsent(itemKey, leaf);
+                }
+                items.add(item);
+                ids.add(leaf);
+                euler.add(id);
+            }
+            nodes.set(id, new Node(id, draft.name, draft.rank, depth, from, items.size()));
+            children.set(id, ids.stream().mapToInt(Integer::intValue).toArray());
+            return id;
+        }
+
+        private int open(String name, Rank rank, int parent, int depth) {
+            int id = nodes.size();
+            nodes.add(new Node(id, name, rank, depth, 0, 0));
+            children.add(null);
+            int[] path = parent < 0 ? new int[1] : Arrays.copyOf(paths.get(parent), depth + 1);
+            path[depth] = id;
+            paths.add(path);
+            first.add(euler.size());
+            euler.add(id);
+            return id;
+        }
+
+        TaxonomyTree<T> finish() {
+            int n = euler.size();
+            int levels = 32 - Integer.numberOfLeadingZeros(n);
+            int[][] sparse = new int[levels][];
+            sparse[0] = euler.stream().mapToInt(Integer::intValue).toArray();
+            for (int k = 1; k < levels; k++) {
+                int span = 1 << (k - 1);
+                sparse[k] = new int[n - (1 << k) + 1];
+                for (int i = 0; i < sparse[k].length; i++) {
+                    int a = sparse[k - 1][i];
+                    int b = sparse[k - 1][i + span];
+                    sparse[k][i] = nodes.get(a).depth() <= nodes.get(b).depth() ? a : b;
+                }
+            }
+            return new TaxonomyTree<>(
+                    nodes.toArray(Node[]::new),
+                    children.toArray(int[][]::new),
+                    paths.toArray(int[][]::new),
+                    Collections.unmodifiableList(items),
+                    Map.copyOf(byName),
+                    Map.copyOf(byKey),
+                    first.stream().mapToInt(Integer::intValue).toArray(),
+                    sparse);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.educadino.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rueda de temporizadores para caducar elementos por inactividad.
+ *
+ * Cada elemento está en la ranura del tick en que vence. Renovar un
+ * elemento ({@link Timeout#touch}) solo escribe su nuevo vencimiento, sin
+ * moverlo de ranura: al pasar por la ranura antigua {@link #advance} ve
+ * que aún no ha vencido y lo recoloca. Así renovar cuesta una escritura
+ * volátil y cada elemento se recoloca como mucho una vez por periodo de
+ * vida, en lugar de reordenar una cola en cada renovación.
+ *
+ * La rueda debe abarcar más que el mayor tiempo de vida
+ * (ticks × tickMillis), o un elemento se revisaría antes de tiempo una
+ * vuelta de más (inocuo, pero inútil).
+ */
+public class TimingWheel<T extends TimingWheel.Timeout> {
+
+    /**
+     * Elemento con vencimiento, en milisegundos de System.currentTimeMillis().
+     */
+    public abstract static class Timeout {
+        volatile long deadline;
+        volatile int slot = -1;
+
+        public long deadline() {
+            return deadline;
+        }
+
+        /** Aplaza el vencimiento sin tocar la rueda. */
+        public void touch(long newDeadline) {
+            deadline = newDeadline;
+        }
+    }
+
+    private final long tickMillis;
+    private final List<Set<T>> slots;
+    private long lastTick;
+
+    public TimingWheel(long tickMillis, int ticks, long nowMillis) {
+        if (tickMillis <= 0 || ticks < 2) {
+            throw new IllegalArgumentException("tickMillis > 0 y ticks >= 2");
+        }
+        this.tickMillis = tickMillis;
+        List<Set<T>> slots = new ArrayList<>(ticks);
+        for (int i = 0; i < ticks; i++) {
+            slots.add(ConcurrentHashMap.newKeySet());
+        }
+        this.slots = List.copyOf(slots);
+        this.lastTick = nowMillis / tickMillis - 1;
+    }
+
+    public void schedule(T item, long deadline) {
+        item.deadline = deadline;
+        place(item);
+    }
+
+    public void cancel(T item) {
+        int slot = item.slot;
+        if (slot >= 0) {
+            slots.get(slot).remove(item);
+        }
+    }
+
+    /**
+     * Avanza hasta nowMillis y retira los elementos vencidos. Debe llamarse
+     * desde un solo hilo a la vez.
+     *
+     * @return los elementos vencidos, ya fuera de la rueda
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        long nowTick = nowMillis / tickMillis;
+        // Tras una pausa larga basta con una vuelta completa
+        long first = Math.max(lastTick + 1, nowTick - slots.size() + 1);
+        for (long tick = first; tick <= nowTick; tick++) {
+            int index = (int) Math.floorMod(tick, (long) slots.size());
+            Set<T> slot = slots.get(index);
+            for (T item : slot) {
+                if (item.deadline <= nowMillis) {
+                    if (slot.remove(item)) {
+                        item.slot = -1;
+                        expired.add(item);
+                    }
+                } else if (slotOf(item.deadline) != index) {
+                    slot.remove(item);
+                    place(item);
+                }
+            }
+        }
+        // El tick en curso se vuelve a revisar: puede tener vencimientos posteriores a nowMillis
+        lastTick = Math.max(lastTick, nowTick - 1);
+        return expired;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Set<T> slot : slots) {
+            size += slot.size();
+        }
+        return size;
+    }
+
+    private void place(T item) {
+        int index = slotOf(item.deadline);
+        item.slot = index;
+        slots.get(index).add(item);
+    }
+
+    private int slotOf(long deadline) {
+        return (int) Math.floorMod(deadline / tickMillis, (long) slots.size());
+    }
+}
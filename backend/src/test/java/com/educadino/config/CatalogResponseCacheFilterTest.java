@@ -0,0 +1,84 @@
+package com.educadino.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogResponseCacheFilterTest {
+
+    private static final Set<String> FILTERS = Set.of("diet", "period");
+
+    private static Map<String, String[]> parameters(String... nameValues) {
+        Map<String, String[]> parameters = new LinkedHashMap<>();
+        for (int i = 0; i < nameValues.length; i += 2) {
+            String[] previous = parameters.getOrDefault(nameValues[i], new String[0]);
+            String[] values = Arrays.copyOf(previous, previous.length + 1);
+            values[previous.length] = nameValues[i + 1];
+            parameters.put(nameValues[i], values);
+        }
+        return parameters;
+    }
+
+    @Test
+    void normalizeQueryIgnoresOrder() {
+        String a = CatalogResponseCacheFilter.normalizeQuery(
+                parameters("diet", "carnivoro", "period", "jurasico", "diet", "herbivoro"), FILTERS);
+        String b = CatalogResponseCacheFilter.normalizeQuery(
+                parameters("period", "jurasico", "diet", "herbivoro", "diet", "carnivoro"), FILTERS);
+
+        assertNotNull(a);
+        assertEquals(a, b);
+    }
+
+    @Test
+    void normalizeQueryDistinguishesValues() {
+        assertNotEquals(
+                CatalogResponseCacheFilter.normalizeQuery(parameters("diet", "carnivoro"), FILTERS),
+                CatalogResponseCacheFilter.normalizeQuery(parameters("diet", "herbivoro"), FILTERS));
+        assertNotEquals(
+                CatalogResponseCacheFilter.normalizeQuery(parameters("diet", "jurasico"), FILTERS),
+                CatalogResponseCacheFilter.normalizeQuery(parameters("period", "jurasico"), FILTERS));
+    }
+
+    @Test
+    void normalizeQueryWithoutParametersIsEmpty() {
+        assertEquals("", CatalogResponseCacheFilter.normalizeQuery(Map.of(), FILTERS));
+        assertEquals("", CatalogResponseCacheFilter.normalizeQuery(Map.of(), Set.of()));
+    }
+
+    @Test
+    void unknownParametersBypassTheCache() {
+        assertNull(CatalogResponseCacheFilter.normalizeQuery(parameters("_", "1700000000"), FILTERS));
+        assertNull(CatalogResponseCacheFilter.normalizeQuery(
+                parameters("diet", "carnivoro", "random", "x"), FILTERS));
+        assertNull(CatalogResponseCacheFilter.normalizeQuery(parameters("diet", "carnivoro"), Set.of()));
+    }
+
+    @Test
+    void negotiatePrefersGzipThenDeflate() {
+        assertEquals(CatalogResponseCacheFilter.GZIP, CatalogResponseCacheFilter.negotiate("gzip, deflate, br"));
+        assertEquals(CatalogResponseCacheFilter.GZIP, CatalogResponseCacheFilter.negotiate("deflate, x-gzip"));
+        assertEquals(CatalogResponseCacheFilter.DEFLATE, CatalogResponseCacheFilter.negotiate("br, deflate"));
+        assertEquals(CatalogResponseCacheFilter.GZIP, CatalogResponseCacheFilter.negotiate("*"));
+    }
+
+    @Test
+    void negotiateWithoutSupportedCodingIsIdentity() {
+        assertEquals(CatalogResponseCacheFilter.IDENTITY, CatalogResponseCacheFilter.negotiate(null));
+        assertEquals(CatalogResponseCacheFilter.IDENTITY, CatalogResponseCacheFilter.negotiate(" "));
+        assertEquals(CatalogResponseCacheFilter.IDENTITY, CatalogResponseCacheFilter.negotiate("br, identity"));
+    }
+
+    @Test
+    void negotiateRespectsZeroQuality() {
+        assertEquals(CatalogResponseCacheFilter.DEFLATE, CatalogResponseCacheFilter.negotiate("gzip;q=0, deflate"));
+        assertEquals(CatalogResponseCacheFilter.GZIP, CatalogResponseCacheFilter.negotiate("GZIP;q=0.5, deflate;q=0"));
+        assertEquals(CatalogResponseCacheFilter.IDENTITY, CatalogResponseCacheFilter.negotiate("gzip;q=0, deflate;q=0.0"));
+        assertEquals(CatalogResponseCacheFilter.IDENTITY, CatalogResponseCacheFilter.negotiate("gzip;q=abc"));
+    }
+}
@@ -47,6 +47,25 @@ class DinosaurControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("GET /dinosaurs/changes sin token debe devolver el catálogo completo")
+    void getChanges_withoutToken_shouldReturnFullSnapshot() throws Exception {
+        mockMvc.perform(get("/dinosaurs/changes")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.reset").value(true))
+                .andExpect(jsonPath("$.data.syncToken").isNotEmpty());
+    }
+
+    @Test
+    @DisplayName("GET /dinosaurs/changes con un token no válido debe devolver 400")
+    void getChanges_withInvalidToken_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/dinosaurs/changes")
+                .param("since", "no-es-un-token")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     // ═══════════════════════════════════════════════════════════════
     // TESTS DE CONTROL DE ACCESO - ADMIN
     // ═══════════════════════════════════════════════════════════════
@@ -0,0 +1,141 @@
+package com.educadino.job;
+
+import com.educadino.repository.CartItemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios del limpiador de carritos, con un repositorio falso que
+ * guarda en memoria los ids caducados.
+ */
+@DisplayName("Tests de AbandonedCartReaper")
+class AbandonedCartReaperTest {
+
+    /** Ids de items caducados y tamaños de los lotes borrados. */
+    private final List<Long> expired = new ArrayList<>();
+    private final List<Integer> deletedChunks = new ArrayList<>();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AbandonedCartReaper reaper = new AbandonedCartReaper(
+            repository(), new DirectTransactionTemplate(), meterRegistry);
+
+    /**
+     * Ejecuta cada lote sin transacción.
+     */
+    private static final class DirectTransactionTemplate extends TransactionTemplate {
+        @Override
+        public <T> T execute(TransactionCallback<T> action) throws TransactionException {
+            return action.doInTransaction(null);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private CartItemRepository repository() {
+        return (CartItemRepository) Proxy.newProxyInstance(
+                CartItemRepository.class.getClassLoader(),
+                new Class<?>[]{CartItemRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "countByAddedAtBefore" -> (long) expired.size();
+                    case "findIdsAddedBefore" -> List.copyOf(
+                            expired.subList(0, Math.min(((Pageable) args[1]).getPageSize(), expired.size())));
+                    case "deleteAllByIdInBatch" -> {
+                        List<Long> ids = new ArrayList<>();
+                        ((Iterable<Long>) args[0]).forEach(ids::add);
+                        expired.removeAll(ids);
+                        deletedChunks.add(ids.size());
+                        yield null;
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    AbandonedCartReaperTest() {
+        ReflectionTestUtils.setField(reaper, "maxAge", Duration.ofDays(30));
+        ReflectionTestUtils.setField(reaper, "chunkSize", 2);
+        ReflectionTestUtils.setField(reaper, "maxChunksPerRun", 10);
+        ReflectionTestUtils.setField(reaper, "pauseBetweenChunks", Duration.ZERO);
+        reaper.registerMetrics();
+    }
+
+    @AfterEach
+    void clearInterrupt() {
+        Thread.interrupted();
+    }
+
+    private void addExpired(int count) {
+        LongStream.rangeClosed(1, count).forEach(expired::add);
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    @Test
+    @DisplayName("Borra por lotes hasta que un lote sale incompleto")
+    void reap_deletesInChunks() {
+        addExpired(5);
+
+        assertEquals(5, reaper.reap());
+
+        assertEquals(List.of(2, 2, 1), deletedChunks);
+        assertTrue(expired.isEmpty());
+        assertEquals(5, meterRegistry.get("educadino.cart.reaper.removed").counter().count());
+        assertEquals(5, gauge("educadino.cart.reaper.last.removed"));
+        assertEquals(0, gauge("educadino.cart.reaper.pending"));
+    }
+
+    @Test
+    @DisplayName("No borra más de max-chunks-per-run lotes por ejecución")
+    void reap_stopsAfterMaxChunks() {
+        ReflectionTestUtils.setField(reaper, "maxChunksPerRun", 2);
+        addExpired(7);
+
+        assertEquals(4, reaper.reap());
+        assertEquals(3, expired.size());
+
+        assertEquals(3, reaper.reap());
+        assertTrue(expired.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Sin items caducados no borra nada")
+    void reap_withoutExpiredItems() {
+        assertEquals(0, reaper.reap());
+        assertTrue(deletedChunks.isEmpty());
+        assertEquals(0, gauge("educadino.cart.reaper.last.removed"));
+    }
+
+    @Test
+    @DisplayName("Una interrupción durante la pausa termina la ejecución y conserva el estado interrumpido")
+    void reap_interruptedDuringPause() {
+        ReflectionTestUtils.setField(reaper, "pauseBetweenChunks", Duration.ofSeconds(10));
+        addExpired(5);
+
+        Thread.currentThread().interrupt();
+        long removed = reaper.reap();
+
+        assertTrue(Thread.interrupted());
+        assertEquals(2, removed);
+        assertEquals(List.of(2), deletedChunks);
+        assertEquals(2, gauge("educadino.cart.reaper.last.removed"));
+
+        // La siguiente ejecución sigue donde se quedó
+        ReflectionTestUtils.setField(reaper, "pauseBetweenChunks", Duration.ZERO);
+        assertEquals(3, reaper.reap());
+    }
+}
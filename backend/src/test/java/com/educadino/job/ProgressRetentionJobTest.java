@@ -0,0 +1,288 @@
+package com.educadino.job;
+
+import com.educadino.dto.RollupBackfillStatusDto;
+import com.educadino.service.ProgressRollupService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios de la retención de user_progress, con un JdbcTemplate
+ * falso que simula el catálogo de particiones y anota cada sentencia.
+ * Incluye las lecturas que dependen de la retención: la carga inicial de
+ * user_minigame_stats y el límite de la reconstrucción de resúmenes.
+ */
+@DisplayName("Tests de ProgressRetentionJob")
+class ProgressRetentionJobTest {
+
+    /** Sentencia ejecutada, sus parámetros y si iba dentro de una transacción. */
+    private record Statement(String sql, List<Object> args, boolean inTransaction) {
+    }
+
+    /**
+     * Ejecuta cada callback sin BD, marcando que hay transacción abierta.
+     */
+    private static final class DirectTransactionTemplate extends TransactionTemplate {
+        boolean active;
+
+        @Override
+        public <T> T execute(TransactionCallback<T> action) throws TransactionException {
+            active = true;
+            try {
+                return action.doInTransaction(null);
+            } finally {
+                active = false;
+            }
+        }
+    }
+
+    private final class FakeJdbcTemplate extends JdbcTemplate {
+        boolean partitioned;
+        final List<String> partitions = new ArrayList<>();
+        final Deque<Long> deletedPerChunk = new ArrayDeque<>();
+        final Set<String> failingCreates = new HashSet<>();
+        final List<Statement> statements = new ArrayList<>();
+
+        private void log(String sql, Object... args) {
+            statements.add(new Statement(sql, Arrays.asList(args), transactionTemplate.active));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T queryForObject(String sql, Class<T> requiredType) {
+            log(sql);
+            if (sql.contains("pg_partitioned_table")) {
+                return (T) Boolean.valueOf(partitioned);
+            }
+            if (sql.startsWith("SELECT COUNT(*) FROM user_progress_")) {
+                return (T) Long.valueOf(10);
+            }
+            throw new UnsupportedOperationException(sql);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+            log(sql, args);
+            return (T) (deletedPerChunk.isEmpty() ? Long.valueOf(0) : deletedPerChunk.poll());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> queryForList(String sql, Class<T> elementType) {
+            log(sql);
+            return (List<T>) List.copyOf(partitions);
+        }
+
+        @Override
+        public void execute(String sql) {
+            log(sql);
+            if (failingCreates.stream().anyMatch(sql::contains)) {
+                throw new IllegalStateException("filas en la partición por defecto");
+            }
+        }
+
+        @Override
+        public int update(String sql) {
+            log(sql);
+            return 1;
+        }
+
+        List<String> sqlStartingWith(String prefix) {
+            return statements.stream().map(Statement::sql).filter(sql -> sql.startsWith(prefix)).toList();
+        }
+    }
+
+    private final DirectTransactionTemplate transactionTemplate = new DirectTransactionTemplate();
+    private final FakeJdbcTemplate jdbcTemplate = new FakeJdbcTemplate();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ProgressRetentionJob job = new ProgressRetentionJob(jdbcTemplate, transactionTemplate, meterRegistry);
+
+    ProgressRetentionJobTest() {
+        ReflectionTestUtils.setField(job, "retentionEnabled", true);
+        ReflectionTestUtils.setField(job, "retentionMonths", 24);
+        ReflectionTestUtils.setField(job, "premakeMonths", 2);
+        ReflectionTestUtils.setField(job, "chunkSize", 3);
+        job.registerMetrics();
+    }
+
+    private static String partition(YearMonth month) {
+        return String.format("user_progress_%d_%02d", month.getYear(), month.getMonthValue());
+    }
+
+    private double count(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    @Test
+    @DisplayName("El primer mes conservado es el actual menos retention.months, o null sin retención")
+    void oldestRetainedMonth_followsConfiguration() {
+        assertEquals(YearMonth.now().minusMonths(24), job.oldestRetainedMonth());
+
+        ReflectionTestUtils.setField(job, "retentionEnabled", false);
+        assertNull(job.oldestRetainedMonth());
+    }
+
+    @Test
+    @DisplayName("Sin retención no compacta ni borra nada")
+    void run_disabledOnlyChecksPartitioning() {
+        ReflectionTestUtils.setField(job, "retentionEnabled", false);
+        jdbcTemplate.deletedPerChunk.add(3L);
+
+        job.run();
+
+        assertEquals(1, jdbcTemplate.statements.size());
+        assertTrue(jdbcTemplate.statements.get(0).sql().contains("pg_partitioned_table"));
+        assertEquals(0, count("educadino.progress.retention.compacted"));
+    }
+
+    @Test
+    @DisplayName("Sin particiones compacta y borra por lotes hasta que un lote sale vacío")
+    void run_unpartitionedDeletesInChunks() {
+        jdbcTemplate.deletedPerChunk.addAll(List.of(3L, 3L, 1L));
+
+        job.run();
+
+        List<Statement> chunks = jdbcTemplate.statements.stream()
+                .filter(statement -> statement.sql().contains("DELETE FROM user_progress"))
+                .toList();
+        assertEquals(4, chunks.size());
+        Timestamp cutoff = Timestamp.valueOf(YearMonth.now().minusMonths(24).atDay(1).atStartOfDay());
+        for (Statement chunk : chunks) {
+            assertEquals(List.of(cutoff, 3), chunk.args());
+            assertTrue(chunk.inTransaction());
+            assertTrue(chunk.sql().contains("INSERT INTO user_progress_compacted"));
+            assertTrue(chunk.sql().contains("ON CONFLICT (user_id, minigame_type, month_start) DO UPDATE"));
+        }
+        assertEquals(7, count("educadino.progress.retention.compacted"));
+    }
+
+    @Test
+    @DisplayName("Con particiones crea las de los próximos meses y tolera que una falle")
+    void run_partitionedCreatesUpcomingPartitions() {
+        jdbcTemplate.partitioned = true;
+        YearMonth current = YearMonth.now();
+        jdbcTemplate.failingCreates.add(partition(current.plusMonths(1)));
+
+        job.run();
+
+        List<String> creates = jdbcTemplate.sqlStartingWith("CREATE TABLE IF NOT EXISTS");
+        assertEquals(3, creates.size());
+        assertEquals("CREATE TABLE IF NOT EXISTS " + partition(current) + " PARTITION OF user_progress FOR VALUES FROM ('"
+                + current.atDay(1) + "') TO ('" + current.plusMonths(1).atDay(1) + "')", creates.get(0));
+        assertTrue(creates.get(2).contains(partition(current.plusMonths(2))));
+    }
+
+    @Test
+    @DisplayName("Con particiones compacta y elimina solo los meses caducados, en la misma transacción")
+    void run_partitionedDropsExpiredMonths() {
+        jdbcTemplate.partitioned = true;
+        YearMonth oldestRetained = YearMonth.now().minusMonths(24);
+        String expired = partition(oldestRetained.minusMonths(2));
+        String lastExpired = partition(oldestRetained.minusMonths(1));
+        String retained = partition(oldestRetained);
+        jdbcTemplate.partitions.addAll(List.of(expired, lastExpired, retained, "user_progress_default"));
+
+        job.run();
+
+        assertEquals(List.of("DROP TABLE " + expired, "DROP TABLE " + lastExpired),
+                jdbcTemplate.sqlStartingWith("DROP TABLE"));
+        List<Statement> compactions = jdbcTemplate.statements.stream()
+                .filter(statement -> statement.sql().contains("INSERT INTO user_progress_compacted"))
+                .toList();
+        assertEquals(2, compactions.size());
+        assertTrue(compactions.get(0).sql().contains("FROM " + expired + " GROUP BY"));
+        for (Statement statement : jdbcTemplate.statements) {
+            if (statement.sql().contains(expired)) {
+                assertTrue(statement.inTransaction(), statement.sql());
+            }
+        }
+        // La compactación va antes del DROP de su partición
+        List<String> sql = jdbcTemplate.statements.stream().map(Statement::sql).toList();
+        assertTrue(sql.indexOf(compactions.get(0).sql()) < sql.indexOf("DROP TABLE " + expired));
+
+        assertEquals(20, count("educadino.progress.retention.compacted"));
+        assertEquals(2, count("educadino.progress.retention.partitions.dropped"));
+    }
+
+    @Test
+    @DisplayName("La carga inicial de user_minigame_stats suma también user_progress_compacted")
+    void minigameStatsBackfill_readsCompactedHistory() {
+        List<String> updates = new ArrayList<>();
+        MinigameStatsBackfill backfill = new MinigameStatsBackfill(new JdbcTemplate() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T queryForObject(String sql, Class<T> requiredType) {
+                return (T) Boolean.TRUE;
+            }
+
+            @Override
+            public int update(String sql) {
+                updates.add(sql);
+                return 0;
+            }
+        });
+
+        backfill.backfillIfEmpty();
+
+        assertEquals(1, updates.size());
+        String sql = updates.get(0);
+        assertTrue(sql.contains("FROM user_progress\n"));
+        assertTrue(sql.contains("UNION ALL"));
+        assertTrue(sql.contains("FROM user_progress_compacted"));
+    }
+
+    @Test
+    @DisplayName("La reconstrucción de resúmenes no baja del primer mes conservado")
+    void rollupBackfill_startsAtOldestRetainedMonth() throws InterruptedException {
+        List<LocalDate> rebuilt = Collections.synchronizedList(new ArrayList<>());
+        ProgressRollupService rollupService = new ProgressRollupService(null, null, null) {
+            @Override
+            public void replaceDay(LocalDate day, Supplier<Map<String, Delta>> source) {
+                source.get();
+                rebuilt.add(day);
+            }
+        };
+        JdbcTemplate noRows = new JdbcTemplate() {
+            @Override
+            public void query(PreparedStatementCreator psc, RowCallbackHandler rch) {
+            }
+        };
+        ProgressRollupBackfill backfill = new ProgressRollupBackfill(noRows, rollupService, job);
+        ReflectionTestUtils.setField(backfill, "parallelism", 1);
+        LocalDate oldestRetained = YearMonth.now().minusMonths(24).atDay(1);
+
+        RollupBackfillStatusDto status = backfill.start(oldestRetained.minusDays(10), oldestRetained.plusDays(1));
+
+        assertEquals(oldestRetained, status.getFrom());
+        assertEquals(2, status.getDaysTotal());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (backfill.status().isRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(Set.of(oldestRetained, oldestRetained.plusDays(1)), Set.copyOf(rebuilt));
+    }
+}
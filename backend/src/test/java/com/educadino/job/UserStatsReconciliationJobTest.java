@@ -0,0 +1,365 @@
+package com.educadino.job;
+
+import com.educadino.dto.ReconciliationStatusDto;
+import com.educadino.service.LevelPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios de la conciliación de estadísticas, con un JdbcTemplate
+ * falso que guarda en memoria users, el historial (detallado y compactado)
+ * y la fila de avance de user_stats_reconciliation.
+ */
+@DisplayName("Tests de UserStatsReconciliationJob")
+class UserStatsReconciliationJobTest {
+
+    /** Columnas de SAVE_SQL, en el orden de sus parámetros. */
+    private static final List<String> STATE_COLUMNS = List.of(
+            "id", "status", "next_user_id", "max_user_id", "users_checked", "users_updated",
+            "total_score_drift", "completed_minigames_drift", "total_time_played_drift",
+            "learning_time_drift", "level_drift", "started_at", "updated_at", "finished_at");
+
+    /**
+     * Fila de users: total_score, completed_minigames, total_time_played,
+     * learning_time, level y sent_minutes (null si no está inicializado).
+     */
+    private static final class UserRow {
+        long[] stats;
+        Long sentMinutes;
+
+        UserRow(long[] stats, Long sentMinutes) {
+            this.stats = stats;
+            this.sentMinutes = sentMinutes;
+        }
+    }
+
+    /**
+     * Ejecuta cada callback sin BD.
+     */
+    private static final class DirectTransactionTemplate extends TransactionTemplate {
+        @Override
+        public <T> T execute(TransactionCallback<T> action) throws TransactionException {
+            return action.doInTransaction(null);
+        }
+    }
+
+    private final class FakeJdbcTemplate extends JdbcTemplate {
+        final TreeMap<Long, UserRow> users = new TreeMap<>();
+        /** Totales por usuario (puntuación, completados, segundos) de user_progress. */
+        final Map<Long, long[]> progress = new HashMap<>();
+        /** Lo mismo de user_progress_compacted. */
+        final Map<Long, long[]> compacted = new HashMap<>();
+        /** Rangos [start, end) bloqueados, en orden. */
+        final List<List<Long>> lockedRanges = new ArrayList<>();
+        /** Usuarios reescritos por UPDATE_SQL. */
+        final List<Long> updatedUsers = new ArrayList<>();
+        Map<String, Object> state;
+
+        @Override
+        public synchronized void query(String sql, RowCallbackHandler rch, Object... args) {
+            long start = (Long) args[0];
+            long end = (Long) args[1];
+            try {
+                if (sql.contains("FOR NO KEY UPDATE")) {
+                    lockedRanges.add(List.of(start, end));
+                    for (Map.Entry<Long, UserRow> user : users.entrySet()) {
+                        if (user.getKey() >= start && user.getKey() < end) {
+                            long[] s = user.getValue().stats;
+                            Object[] row = {user.getKey(), s[0], s[1], s[2], s[3], s[4], user.getValue().sentMinutes};
+                            rch.processRow(resultSet(column -> row[(Integer) column - 1]));
+                        }
+                    }
+                } else {
+                    // Solo se suma el historial compactado si la consulta lo lee
+                    Map<Long, long[]> totals = new TreeMap<>();
+                    progress.forEach((id, values) -> add(totals, id, values, start, end));
+                    if (sql.contains("FROM user_progress_compacted")) {
+                        assertEquals(List.of(start, end, start, end), List.of(args));
+                        compacted.forEach((id, values) -> add(totals, id, values, start, end));
+                    }
+                    for (Map.Entry<Long, long[]> total : totals.entrySet()) {
+                        long[] t = total.getValue();
+                        Object[] row = {total.getKey(), t[0], t[1], t[2]};
+                        rch.processRow(resultSet(column -> row[(Integer) column - 1]));
+                    }
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private void add(Map<Long, long[]> totals, Long id, long[] values, long start, long end) {
+            if (id >= start && id < end) {
+                long[] total = totals.computeIfAbsent(id, k -> new long[3]);
+                for (int i = 0; i < 3; i++) {
+                    total[i] += values[i];
+                }
+            }
+        }
+
+        @Override
+        public synchronized int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            for (Object[] args : batchArgs) {
+                Long userId = (Long) args[6];
+                updatedUsers.add(userId);
+                UserRow user = users.get(userId);
+                for (int i = 0; i < 5; i++) {
+                    user.stats[i] = ((Number) args[i]).longValue();
+                }
+            }
+            return new int[batchArgs.size()];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T queryForObject(String sql, Class<T> requiredType) {
+            return (T) (Long) (users.isEmpty() ? 0L : users.lastKey());
+        }
+
+        @Override
+        public synchronized <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            if (state == null) {
+                return List.of();
+            }
+            try {
+                return List.of(rowMapper.mapRow(resultSet(state::get), 0));
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public synchronized int update(String sql, Object... args) {
+            state = new LinkedHashMap<>();
+            for (int i = 0; i < STATE_COLUMNS.size(); i++) {
+                state.put(STATE_COLUMNS.get(i), args[i]);
+            }
+            return 1;
+        }
+    }
+
+    /**
+     * ResultSet de una fila; las columnas se piden por posición o por nombre.
+     */
+    private static ResultSet resultSet(Function<Object, Object> column) {
+        boolean[] lastNull = new boolean[1];
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("wasNull")) {
+                        return lastNull[0];
+                    }
+                    Object value = column.apply(args[0]);
+                    lastNull[0] = value == null;
+                    return switch (method.getName()) {
+                        case "getLong" -> value == null ? 0L : ((Number) value).longValue();
+                        case "getString", "getTimestamp" -> value;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    };
+                });
+    }
+
+    private final FakeJdbcTemplate jdbcTemplate = new FakeJdbcTemplate();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UserStatsReconciliationJob job = new UserStatsReconciliationJob(
+            jdbcTemplate, new DirectTransactionTemplate(), meterRegistry);
+
+    UserStatsReconciliationJobTest() {
+        ReflectionTestUtils.setField(job, "chunkSize", 2);
+        ReflectionTestUtils.setField(job, "parallelism", 1);
+        job.registerMetrics();
+    }
+
+    private void addUser(long id, Long sentMinutes, long score, long completed, long seconds, long learningTime,
+                         long level) {
+        jdbcTemplate.users.put(id, new UserRow(new long[]{score, completed, seconds, learningTime, level}, sentMinutes));
+    }
+
+    /** Usuario cuyas columnas ya coinciden con su historial de user_progress. */
+    private void addConsistentUser(long id, long sentMinutes, long score, long completed, long seconds) {
+        long learningTime = sentMinutes + seconds / 60;
+        addUser(id, sentMinutes, score, completed, seconds, learningTime,
+                LevelPolicy.level(learningTime, completed, score));
+        jdbcTemplate.progress.put(id, new long[]{score, completed, seconds});
+    }
+
+    /** Fila de avance guardada por una ejecución anterior. */
+    private void saveState(String status, long nextUserId, long maxUserId, long checked, long updated,
+                           long scoreDrift) {
+        jdbcTemplate.update("", "user-stats", status, nextUserId, maxUserId, checked, updated, scoreDrift,
+                0L, 0L, 0L, 0L, null, null, null);
+    }
+
+    private long[] stats(long id) {
+        return jdbcTemplate.users.get(id).stats;
+    }
+
+    private ReconciliationStatusDto runToEnd(boolean restart) throws InterruptedException {
+        job.start(restart);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (job.status().isRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        ReconciliationStatusDto status = job.status();
+        assertFalse(status.isRunning());
+        return status;
+    }
+
+    @Test
+    @DisplayName("Solo reescribe los usuarios cuyas columnas difieren del historial")
+    void run_updatesOnlyDriftedUsers() throws InterruptedException {
+        addConsistentUser(1, 5, 100, 2, 600);
+        addConsistentUser(2, 0, 40, 1, 120);
+        addConsistentUser(3, 3, 70, 0, 60);
+        stats(2)[0] = 999;  // total_score desviado
+
+        ReconciliationStatusDto status = runToEnd(false);
+
+        assertEquals(List.of(2L), jdbcTemplate.updatedUsers);
+        assertEquals(40, stats(2)[0]);
+        assertEquals("FINISHED", status.getStatus());
+        assertEquals(3, status.getUsersChecked());
+        assertEquals(1, status.getUsersUpdated());
+        assertEquals(Map.of("totalScore", 1L, "completedMinigames", 0L, "totalTimePlayed", 0L,
+                "learningTime", 0L, "level", 0L), status.getDrift());
+        assertEquals(1, meterRegistry.get("educadino.users.reconciliation.drift")
+                .tag("field", "totalScore").counter().count());
+    }
+
+    @Test
+    @DisplayName("learning_time es sent_minutes más los minutos de juego, sin volver a sumarlos")
+    void run_recomputesLearningTimeFromSentMinutes() throws InterruptedException {
+        // total_time_played desactualizado (0) con learning_time ya correcto: no se duplican los minutos
+        long level = LevelPolicy.level(20, 1, 50);
+        addUser(1, 10L, 50, 1, 0, 20, level);
+        jdbcTemplate.progress.put(1L, new long[]{50, 1, 600});
+        // learning_time desviado: se recalcula y el nivel con él
+        addUser(2, 30L, 50, 1, 600, 5, 1);
+        jdbcTemplate.progress.put(2L, new long[]{50, 1, 600});
+
+        ReconciliationStatusDto status = runToEnd(false);
+
+        assertArrayEquals(new long[]{50, 1, 600, 20, level}, stats(1));
+        assertArrayEquals(new long[]{50, 1, 600, 40, LevelPolicy.level(40, 1, 50)}, stats(2));
+        assertEquals(1, status.getDrift().get("learningTime"));
+        assertEquals(1, status.getDrift().get("totalTimePlayed"));
+    }
+
+    @Test
+    @DisplayName("Con sent_minutes NULL conserva learning_time y level y corrige el resto")
+    void run_keepsLearningTimeWhenSentMinutesIsNull() throws InterruptedException {
+        addUser(1, null, 0, 0, 0, 123, 7);
+        jdbcTemplate.progress.put(1L, new long[]{80, 2, 300});
+
+        runToEnd(false);
+
+        assertArrayEquals(new long[]{80, 2, 300, 123, 7}, stats(1));
+    }
+
+    @Test
+    @DisplayName("Suma las partidas compactadas en user_progress_compacted")
+    void run_includesCompactedHistory() throws InterruptedException {
+        addUser(1, 0L, 0, 0, 0, 0, 1);
+        jdbcTemplate.progress.put(1L, new long[]{30, 1, 120});
+        jdbcTemplate.compacted.put(1L, new long[]{500, 9, 3600});
+        // Usuario con todo su historial compactado
+        addUser(2, 0L, 0, 0, 0, 0, 1);
+        jdbcTemplate.compacted.put(2L, new long[]{70, 2, 60});
+
+        runToEnd(false);
+
+        assertArrayEquals(new long[]{530, 10, 3720, 62, LevelPolicy.level(62, 10, 530)}, stats(1));
+        assertArrayEquals(new long[]{70, 2, 60, 1, LevelPolicy.level(1, 2, 70)}, stats(2));
+    }
+
+    @Test
+    @DisplayName("Sin historial las columnas vuelven a cero")
+    void run_userWithoutHistoryIsReset() throws InterruptedException {
+        addUser(1, 4L, 90, 3, 300, 9, 5);
+
+        runToEnd(false);
+
+        assertArrayEquals(new long[]{0, 0, 0, 4, LevelPolicy.level(4, 0, 0)}, stats(1));
+    }
+
+    @Test
+    @DisplayName("Una conciliación a medias continúa desde el punto de control guardado")
+    void start_resumesFromWatermark() throws InterruptedException {
+        for (long id = 1; id <= 6; id++) {
+            addConsistentUser(id, 0, 10, 1, 60);
+            stats(id)[0] = 0;
+        }
+        saveState("STOPPED", 4, 6, 3, 3, 3);
+
+        ReconciliationStatusDto status = runToEnd(false);
+
+        assertEquals(List.of(List.of(4L, 6L), List.of(6L, 8L)), jdbcTemplate.lockedRanges);
+        assertEquals(List.of(4L, 5L, 6L), jdbcTemplate.updatedUsers);
+        assertEquals(0, stats(1)[0]);
+        assertEquals("FINISHED", status.getStatus());
+        assertEquals(8, status.getNextUserId());
+        assertEquals(6, status.getUsersChecked());
+        assertEquals(6, status.getUsersUpdated());
+        assertEquals(6, status.getDrift().get("totalScore"));
+        assertEquals("FINISHED", jdbcTemplate.state.get("status"));
+        assertNotNull(jdbcTemplate.state.get("finished_at"));
+    }
+
+    @Test
+    @DisplayName("Con restart empieza desde el primer usuario aunque haya una a medias")
+    void start_restartIgnoresWatermark() throws InterruptedException {
+        for (long id = 1; id <= 3; id++) {
+            addConsistentUser(id, 0, 10, 1, 60);
+        }
+        saveState("STOPPED", 2, 3, 1, 0, 0);
+
+        ReconciliationStatusDto status = runToEnd(true);
+
+        assertEquals(List.of(0L, 2L), jdbcTemplate.lockedRanges.stream().map(range -> range.get(0)).toList());
+        assertEquals(3, status.getUsersChecked());
+        assertEquals(0, status.getUsersUpdated());
+    }
+
+    @Test
+    @DisplayName("Al arrancar se reanuda solo si quedó en curso")
+    void resumeOnStartup_onlyWhenRunning() throws InterruptedException {
+        addConsistentUser(1, 0, 10, 1, 60);
+        saveState("FINISHED", 2, 1, 1, 0, 0);
+
+        job.resumeOnStartup();
+        assertFalse(job.status().isRunning());
+        assertTrue(jdbcTemplate.lockedRanges.isEmpty());
+
+        saveState("RUNNING", 0, 1, 0, 0, 0);
+        job.resumeOnStartup();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (job.status().isRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(List.of(List.of(0L, 2L)), jdbcTemplate.lockedRanges);
+        assertEquals("FINISHED", job.status().getStatus());
+    }
+}
@@ -0,0 +1,121 @@
+package com.educadino.service;
+
+import com.educadino.config.AchievementProperties;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios de la concesión de logros, con un JdbcTemplate falso
+ * que simula la latencia de la BD.
+ */
+@DisplayName("Tests de AchievementAwarder")
+class AchievementAwarderTest {
+
+    private static final long DB_LATENCY_MS = 20;
+
+    /** Fila de COUNTERS_SQL: un usuario con una partida completada de quiz. */
+    private static final Map<String, Object> COUNTERS = Map.of(
+            "total_score", 50L, "completed_minigames", 1L, "level", 1L, "learning_time", 0L,
+            "achievements", 0L, "minigame_type", "quiz", "plays", 1L, "completions", 1L, "best_score", 50L);
+
+    private final List<Object[]> updates = new ArrayList<>();
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+        @Override
+        public void query(String sql, RowCallbackHandler rch, Object... args) {
+            sleep();
+            ResultSet row = (ResultSet) Proxy.newProxyInstance(
+                    ResultSet.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class},
+                    (proxy, method, methodArgs) -> COUNTERS.get((String) methodArgs[0]));
+            try {
+                rch.processRow(row);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            sleep();
+            updates.add(args);
+            return 1;
+        }
+    };
+
+    private final ActivityStreakService streakService = new ActivityStreakService(null) {
+        @Override
+        public int currentStreak(Long userId, LocalDate today) {
+            sleep();
+            return 3;
+        }
+    };
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AchievementAwarder awarder;
+
+    AchievementAwarderTest() {
+        AchievementProperties properties = new AchievementProperties();
+        properties.setRules(List.of(
+                rule("first", 0, "COMPLETED_MINIGAMES", 1),
+                rule("streak-3", 1, "STREAK", 3)));
+        awarder = new AchievementAwarder(jdbcTemplate, new AchievementEngine(properties, meterRegistry),
+                streakService, meterRegistry);
+        awarder.registerMetrics();
+    }
+
+    private static AchievementProperties.Rule rule(String id, int bit, String metric, long threshold) {
+        AchievementProperties.Rule rule = new AchievementProperties.Rule();
+        rule.setId(id);
+        rule.setBit(bit);
+        rule.setName(id);
+        rule.setMetric(metric);
+        rule.setThreshold(threshold);
+        return rule;
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(DB_LATENCY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    @DisplayName("Concede los logros alcanzados y los guarda con un OR")
+    void award_savesNewAchievements() {
+        assertEquals(0b11L, awarder.award(7L, null));
+
+        assertEquals(1, updates.size());
+        assertArrayEquals(new Object[]{0b11L, 7L}, updates.get(0));
+    }
+
+    @Test
+    @DisplayName("educadino.achievements.award mide también las lecturas y la escritura en BD")
+    void award_timerIncludesDatabaseWork() {
+        awarder.award(7L, null);
+
+        Timer award = meterRegistry.get("educadino.achievements.award").timer();
+        Timer evaluate = meterRegistry.get("educadino.achievements.evaluate").timer();
+        assertEquals(1, award.count());
+        // Contadores, racha y UPDATE
+        assertTrue(award.totalTime(TimeUnit.MILLISECONDS) >= 3 * DB_LATENCY_MS);
+        assertTrue(evaluate.totalTime(TimeUnit.MILLISECONDS) < DB_LATENCY_MS);
+    }
+}
@@ -0,0 +1,90 @@
+package com.educadino.service;
+
+import com.educadino.config.AchievementProperties;
+import com.educadino.dto.AchievementDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios del motor de logros.
+ */
+@DisplayName("Tests de AchievementEngine")
+class AchievementEngineTest {
+
+    private static AchievementProperties.Rule rule(String id, int bit, String metric, String minigameType, long threshold) {
+        AchievementProperties.Rule rule = new AchievementProperties.Rule();
+        rule.setId(id);
+        rule.setBit(bit);
+        rule.setName(id);
+        rule.setMetric(metric);
+        rule.setMinigameType(minigameType);
+        rule.setThreshold(threshold);
+        return rule;
+    }
+
+    private static AchievementEngine engine(AchievementProperties.Rule... rules) {
+        AchievementProperties properties = new AchievementProperties();
+        properties.setRules(List.of(rules));
+        return new AchievementEngine(properties, new SimpleMeterRegistry());
+    }
+
+    private static AchievementEngine.Counters counters(long completed, Map<String, AchievementEngine.MinigameCounters> minigames) {
+        return new AchievementEngine.Counters(0, completed, 1, 0, 0, minigames);
+    }
+
+    @Test
+    @DisplayName("Se conceden todos los umbrales alcanzados y solo los nuevos")
+    void evaluate_awardsReachedThresholdsOnce() {
+        AchievementEngine engine = engine(
+                rule("first", 0, "COMPLETED_MINIGAMES", null, 1),
+                rule("ten", 1, "COMPLETED_MINIGAMES", null, 10),
+                rule("hundred", 2, "COMPLETED_MINIGAMES", null, 100));
+
+        assertEquals(0L, engine.evaluate(0L, counters(0, Map.of())));
+        assertEquals(0b011L, engine.evaluate(0L, counters(10, Map.of())));
+        assertEquals(0b010L, engine.evaluate(0b001L, counters(50, Map.of())));
+        assertEquals(0L, engine.evaluate(0b011L, counters(50, Map.of())));
+    }
+
+    @Test
+    @DisplayName("Las reglas por minijuego solo miran su minijuego")
+    void evaluate_perMinigameRules() {
+        AchievementEngine engine = engine(rule("quiz-10", 3, "MINIGAME_COMPLETIONS", "quiz", 10));
+
+        long other = engine.evaluate(0L, counters(10, Map.of(
+                "dino-ride", new AchievementEngine.MinigameCounters(20, 20, 100))));
+        long quiz = engine.evaluate(0L, counters(10, Map.of(
+                "quiz", new AchievementEngine.MinigameCounters(12, 10, 100))));
+
+        assertEquals(0L, other);
+        assertEquals(1L << 3, quiz);
+    }
+
+    @Test
+    @DisplayName("decode ignora bits sin regla y respeta el orden de bit")
+    void decode_mapsBitsToAchievements() {
+        AchievementEngine engine = engine(
+                rule("a", 5, "LEVEL", null, 5),
+                rule("b", 1, "LEVEL", null, 2));
+
+        List<AchievementDto> achievements = engine.decode((1L << 5) | (1L << 1) | (1L << 40));
+
+        assertEquals(List.of("b", "a"), achievements.stream().map(AchievementDto::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Un bit repetido o una métrica desconocida impiden arrancar")
+    void compile_rejectsInvalidRules() {
+        assertThrows(IllegalStateException.class, () -> engine(
+                rule("a", 1, "LEVEL", null, 5),
+                rule("b", 1, "LEVEL", null, 6)));
+        assertThrows(IllegalStateException.class, () -> engine(rule("a", 1, "NOPE", null, 5)));
+        assertThrows(IllegalStateException.class, () -> engine(rule("a", 1, "MINIGAME_PLAYS", null, 5)));
+    }
+}
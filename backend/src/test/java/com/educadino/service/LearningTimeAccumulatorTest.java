@@ -0,0 +1,167 @@
+package com.educadino.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios del acumulador de tiempo de aprendizaje, con un
+ * JdbcTemplate falso que guarda los lotes en memoria.
+ */
+@DisplayName("Tests de LearningTimeAccumulator")
+class LearningTimeAccumulatorTest {
+
+    /**
+     * Guarda los lotes del UPDATE de users y puede fallar las próximas N veces.
+     */
+    private static final class FakeJdbcTemplate extends JdbcTemplate {
+        final List<List<Object[]>> flushed = new ArrayList<>();
+        int failures;
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            if (!sql.startsWith("UPDATE users")) {
+                return new int[batchArgs.size()];
+            }
+            if (failures > 0) {
+                failures--;
+                throw new DataAccessResourceFailureException("BD caída");
+            }
+            flushed.add(batchArgs.stream().map(Object[]::clone).toList());
+            return new int[batchArgs.size()];
+        }
+    }
+
+    private final FakeJdbcTemplate jdbcTemplate = new FakeJdbcTemplate();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    /**
+     * Anota los usuarios evaluados en lugar de leer sus contadores.
+     */
+    private static final class RecordingAwarder extends AchievementAwarder {
+        final List<Long> evaluated = new ArrayList<>();
+
+        RecordingAwarder(JdbcTemplate jdbcTemplate) {
+            super(jdbcTemplate, null, null, null);
+        }
+
+        @Override
+        public boolean usesLearningMetrics() {
+            return true;
+        }
+
+        @Override
+        public long award(Long userId, Set<String> minigameTypes) {
+            evaluated.add(userId);
+            return 0L;
+        }
+    }
+
+    private final RecordingAwarder achievementAwarder = new RecordingAwarder(jdbcTemplate);
+    private final LearningTimeAccumulator accumulator = new LearningTimeAccumulator(
+            jdbcTemplate, meterRegistry, new ActivityStreakService(jdbcTemplate), achievementAwarder);
+
+    LearningTimeAccumulatorTest() {
+        ReflectionTestUtils.setField(accumulator, "batchSize", 500);
+        accumulator.registerMetrics();
+    }
+
+    /** Minutos escritos por usuario (columna learning_time). */
+    private Map<Long, Long> flushedMinutes() {
+        Map<Long, Long> minutes = new HashMap<>();
+        jdbcTemplate.flushed.forEach(batch -> batch.forEach(row -> minutes.merge((Long) row[4], (Long) row[0], Long::sum)));
+        return minutes;
+    }
+
+    private double lagSeconds() {
+        return meterRegistry.get("educadino.learning-time.flush.lag").gauge().value();
+    }
+
+    @Test
+    @DisplayName("Los incrementos de un usuario se vuelcan en una sola fila")
+    void flush_coalescesIncrementsPerUser() {
+        accumulator.add(1L, 5);
+        accumulator.add(1L, 3);
+        accumulator.add(2L, 4);
+        assertEquals(8, accumulator.pendingMinutes(1L));
+
+        accumulator.flush();
+
+        assertEquals(1, jdbcTemplate.flushed.size());
+        assertEquals(2, jdbcTemplate.flushed.get(0).size());
+        assertEquals(Map.of(1L, 8L, 2L, 4L), flushedMinutes());
+        assertEquals(0, accumulator.pendingMinutes(1L));
+
+        accumulator.flush();
+        assertEquals(1, jdbcTemplate.flushed.size());
+    }
+
+    @Test
+    @DisplayName("Los usuarios se vuelcan en lotes de batch-size")
+    void flush_splitsIntoBatches() {
+        ReflectionTestUtils.setField(accumulator, "batchSize", 2);
+        for (long user = 1; user <= 5; user++) {
+            accumulator.add(user, 1);
+        }
+
+        accumulator.flush();
+
+        assertEquals(List.of(2, 2, 1), jdbcTemplate.flushed.stream().map(List::size).toList());
+    }
+
+    @Test
+    @DisplayName("Si el volcado falla los minutos vuelven a los contadores y se escriben en el siguiente")
+    void flush_requeuesFailedBatch() {
+        accumulator.add(1L, 5);
+        jdbcTemplate.failures = 1;
+
+        accumulator.flush();
+        assertTrue(jdbcTemplate.flushed.isEmpty());
+        assertEquals(5, accumulator.pendingMinutes(1L));
+
+        accumulator.add(1L, 2);
+        accumulator.flush();
+        assertEquals(Map.of(1L, 7L), flushedMinutes());
+        assertEquals(0, accumulator.pendingMinutes(1L));
+    }
+
+    @Test
+    @DisplayName("Solo se evalúan los logros de los usuarios cuyos minutos se escribieron")
+    void flush_awardsAchievementsOfWrittenUsers() {
+        accumulator.add(1L, 5);
+        jdbcTemplate.failures = 1;
+        accumulator.flush();
+        assertTrue(achievementAwarder.evaluated.isEmpty());
+
+        accumulator.add(2L, 3);
+        accumulator.flush();
+        assertEquals(Set.of(1L, 2L), Set.copyOf(achievementAwarder.evaluated));
+        assertEquals(2, achievementAwarder.evaluated.size());
+    }
+
+    @Test
+    @DisplayName("El retraso del volcado solo se reinicia cuando todos los lotes se escriben")
+    void flushLag_onlyResetsAfterSuccessfulFlush() {
+        AtomicLong lastFlush = (AtomicLong) ReflectionTestUtils.getField(accumulator, "lastFlushMillis");
+        lastFlush.set(System.currentTimeMillis() - 60_000);
+        accumulator.add(1L, 5);
+        jdbcTemplate.failures = 1;
+
+        accumulator.flush();
+        assertTrue(lagSeconds() >= 60);
+
+        accumulator.flush();
+        assertTrue(lagSeconds() < 30);
+    }
+}
@@ -0,0 +1,126 @@
+package com.educadino.service;
+
+import com.educadino.dto.SaveProgressRequest;
+import com.educadino.exception.BadRequestException;
+import com.educadino.exception.PayloadTooLargeException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios del lector de lotes de progreso: límites de elementos y
+ * de bytes (413) y validación de cada partida (400).
+ */
+@DisplayName("Tests de ProgressBatchReader")
+class ProgressBatchReaderTest {
+
+    private static final String ITEM = "{\"minigameType\":\"quiz\",\"score\":10,\"timePlayed\":30,\"completed\":true}";
+
+    private final Validator validator = Validation.byDefaultProvider()
+            .configure()
+            .messageInterpolator(new ParameterMessageInterpolator())
+            .buildValidatorFactory()
+            .getValidator();
+    private final ProgressBatchReader reader = new ProgressBatchReader(
+            new ObjectMapper().registerModule(new JavaTimeModule()), validator);
+
+    ProgressBatchReaderTest() {
+        ReflectionTestUtils.setField(reader, "maxItems", 3);
+        ReflectionTestUtils.setField(reader, "maxBytes", DataSize.ofBytes(512));
+    }
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Lee el cuerpo sin Content-Length, como una petición chunked. */
+    private List<SaveProgressRequest> read(String json) {
+        return reader.read(body(json), -1);
+    }
+
+    private static String batch(int items) {
+        return "[" + String.join(",", Collections.nCopies(items, ITEM)) + "]";
+    }
+
+    @Test
+    @DisplayName("Lee un lote válido conservando el playedAt enviado")
+    void read_validBatch() {
+        List<SaveProgressRequest> items = read("[" + ITEM + ","
+                + "{\"minigameType\":\"dino-ride\",\"score\":0,\"timePlayed\":5,\"playedAt\":\"2024-03-01T10:15:30Z\"}]");
+
+        assertEquals(2, items.size());
+        assertEquals("quiz", items.get(0).getMinigameType());
+        assertTrue(items.get(0).getCompleted());
+        assertNull(items.get(0).getPlayedAt());
+        assertEquals(Instant.parse("2024-03-01T10:15:30Z"), items.get(1).getPlayedAt());
+        assertFalse(items.get(1).getCompleted());
+    }
+
+    @Test
+    @DisplayName("Más partidas que max-items responde 413")
+    void read_tooManyItems() {
+        assertEquals(3, read(batch(3)).size());
+
+        PayloadTooLargeException e = assertThrows(PayloadTooLargeException.class, () -> read(batch(4)));
+        assertTrue(e.getMessage().contains("3 partidas"));
+    }
+
+    @Test
+    @DisplayName("Un Content-Length mayor que max-bytes responde 413 sin leer el cuerpo")
+    void read_declaredLengthTooLarge() {
+        InputStream unread = new InputStream() {
+            @Override
+            public int read() {
+                throw new AssertionError("No debería leerse el cuerpo");
+            }
+        };
+
+        assertThrows(PayloadTooLargeException.class, () -> reader.read(unread, 513));
+    }
+
+    @Test
+    @DisplayName("Un cuerpo sin Content-Length que supera max-bytes responde 413 al leerlo")
+    void read_streamedBodyTooLarge() {
+        String padding = " ".repeat(600);
+
+        assertThrows(PayloadTooLargeException.class, () -> read("[" + ITEM + padding + "]"));
+        // Aunque el exceso llegue dentro de un campo que está deserializando Jackson
+        String longType = "{\"minigameType\":\"" + "x".repeat(600) + "\",\"score\":1,\"timePlayed\":1}";
+        assertThrows(PayloadTooLargeException.class, () -> read("[" + longType + "]"));
+    }
+
+    @Test
+    @DisplayName("Una partida inválida responde 400 indicando su posición")
+    void read_invalidItem() {
+        BadRequestException e = assertThrows(BadRequestException.class,
+                () -> read("[" + ITEM + ",{\"minigameType\":\" \",\"score\":-1,\"timePlayed\":30}]"));
+
+        assertEquals("Partida 1: El tipo de minijuego es obligatorio, La puntuación debe ser positiva o cero",
+                e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Un cuerpo que no es un array de objetos responde 400")
+    void read_malformedBody() {
+        assertThrows(BadRequestException.class, () -> read(ITEM));
+        assertThrows(BadRequestException.class, () -> read("[]"));
+        assertThrows(BadRequestException.class, () -> read("[" + ITEM + ",42]"));
+        assertThrows(BadRequestException.class, () -> read("[" + ITEM + ","));
+        assertThrows(BadRequestException.class, () -> read("[{\"score\":\"mucho\"}]"));
+    }
+}
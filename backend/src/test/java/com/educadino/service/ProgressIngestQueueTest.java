@@ -0,0 +1,170 @@
+package com.educadino.service;
+
+import com.educadino.dto.ApiResponse;
+import com.educadino.dto.SaveProgressRequest;
+import com.educadino.dto.UserProgressDto;
+import com.educadino.exception.GlobalExceptionHandler;
+import com.educadino.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios de la cola de ingesta asíncrona, con un ProgressRecorder
+ * falso que anota los lotes guardados por usuario.
+ */
+@DisplayName("Tests de ProgressIngestQueue")
+class ProgressIngestQueueTest {
+
+    /**
+     * Anota las partidas guardadas y puede fallar para algunos usuarios.
+     */
+    private static final class RecordingRecorder extends ProgressRecorder {
+        final List<Map.Entry<Long, Integer>> calls = Collections.synchronizedList(new ArrayList<>());
+        final Set<Long> failingUsers = ConcurrentHashMap.newKeySet();
+
+        RecordingRecorder() {
+            super(null, null, null, null);
+        }
+
+        @Override
+        public List<UserProgressDto> record(Long userId, List<Entry> entries) {
+            if (failingUsers.contains(userId)) {
+                throw new IllegalStateException("BD caída");
+            }
+            calls.add(Map.entry(userId, entries.size()));
+            return List.of();
+        }
+    }
+
+    private final RecordingRecorder recorder = new RecordingRecorder();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ProgressIngestQueue queue = new ProgressIngestQueue(recorder, meterRegistry);
+
+    ProgressIngestQueueTest() {
+        ReflectionTestUtils.setField(queue, "enabled", true);
+        ReflectionTestUtils.setField(queue, "capacity", 3);
+        ReflectionTestUtils.setField(queue, "batchSize", 2);
+        ReflectionTestUtils.setField(queue, "retryAfter", Duration.ofSeconds(5));
+        // Sin workers la cola solo se vacía al apagar
+        ReflectionTestUtils.setField(queue, "workers", 0);
+    }
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        queue.shutdown();
+    }
+
+    private static ProgressRecorder.Entry entry() {
+        return new ProgressRecorder.Entry("quiz", 10, 30, true, LocalDateTime.now());
+    }
+
+    private double count(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    @Test
+    @DisplayName("Con la cola llena offer devuelve false sin bloquear")
+    void offer_rejectsWhenFull() {
+        queue.start();
+
+        assertTrue(queue.offer(1L, entry()));
+        assertTrue(queue.offer(1L, entry()));
+        assertTrue(queue.offer(2L, entry()));
+        assertFalse(queue.offer(3L, entry()));
+
+        assertEquals(1, count("educadino.progress.ingest.rejected"));
+        assertEquals(3, meterRegistry.get("educadino.progress.ingest.depth").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Con la cola llena POST /progress responde 429 con Retry-After")
+    void enqueueProgress_fullQueueAnswers429WithRetryAfter() {
+        queue.start();
+        UserService userService = new UserService(null, null, null, null, null) {
+            @Override
+            public Long getCurrentUserId() {
+                return 7L;
+            }
+        };
+        UserProgressService progressService = new UserProgressService(null, userService, recorder, queue, null, null);
+        SaveProgressRequest request = new SaveProgressRequest();
+        request.setMinigameType("quiz");
+        request.setScore(10);
+        request.setTimePlayed(30);
+
+        for (int i = 0; i < 3; i++) {
+            progressService.enqueueProgress(request);
+        }
+        TooManyRequestsException rejected = assertThrows(TooManyRequestsException.class,
+                () -> progressService.enqueueProgress(request));
+
+        assertEquals(Duration.ofSeconds(5), rejected.getRetryAfter());
+        ResponseEntity<ApiResponse<Void>> response = new GlobalExceptionHandler().handleTooManyRequests(rejected);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("5", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    @DisplayName("Al apagar se guarda lo que queda en la cola, agrupado por usuario y lote")
+    void shutdown_drainsRemainingEntries() throws InterruptedException {
+        queue.start();
+        queue.offer(1L, entry());
+        queue.offer(1L, entry());
+        queue.offer(2L, entry());
+
+        queue.shutdown();
+
+        assertEquals(List.of(Map.entry(1L, 2), Map.entry(2L, 1)), recorder.calls);
+        assertEquals(3, count("educadino.progress.ingest.drained"));
+        assertEquals(0, meterRegistry.get("educadino.progress.ingest.depth").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Si falla el guardado de un usuario, el resto del lote se guarda igual")
+    void shutdown_failureOfOneUserKeepsTheRest() throws InterruptedException {
+        queue.start();
+        recorder.failingUsers.add(1L);
+        queue.offer(1L, entry());
+        queue.offer(2L, entry());
+
+        queue.shutdown();
+
+        assertEquals(List.of(Map.entry(2L, 1)), recorder.calls);
+        assertEquals(1, count("educadino.progress.ingest.failed"));
+        assertEquals(1, count("educadino.progress.ingest.drained"));
+    }
+
+    @Test
+    @DisplayName("Los workers vacían la cola en segundo plano")
+    void workers_drainQueuedEntries() throws InterruptedException {
+        ReflectionTestUtils.setField(queue, "workers", 1);
+        queue.start();
+        queue.offer(1L, entry());
+        queue.offer(2L, entry());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (count("educadino.progress.ingest.drained") < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(2, count("educadino.progress.ingest.drained"));
+        assertEquals(Set.of(1L, 2L), Set.copyOf(recorder.calls.stream().map(Map.Entry::getKey).toList()));
+    }
+}
@@ -0,0 +1,156 @@
+package com.educadino.service;
+
+import com.educadino.dto.UserProgressDto;
+import com.educadino.event.ProgressRecordedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios de los resúmenes diarios, con un JdbcTemplate falso que
+ * anota los incrementos volcados y las filas sustituidas.
+ */
+@DisplayName("Tests de ProgressRollupService")
+class ProgressRollupServiceTest {
+
+    private static final LocalDate YESTERDAY = LocalDate.of(2024, 3, 1);
+    private static final LocalDate TODAY = YESTERDAY.plusDays(1);
+
+    /**
+     * Ejecuta cada callback sin BD.
+     */
+    private static final class DirectTransactionTemplate extends TransactionTemplate {
+        @Override
+        public <T> T execute(TransactionCallback<T> action) throws TransactionException {
+            return action.doInTransaction(null);
+        }
+    }
+
+    /** Incrementos volcados: (día, minijuego, partidas). */
+    private final List<List<Object>> added = new ArrayList<>();
+    /** Días sustituidos por replaceDay. */
+    private final List<LocalDate> replaced = new ArrayList<>();
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+        @Override
+        public int update(String sql, Object... args) {
+            if (sql.contains("plays = plays + ?")) {
+                added.add(List.of(((Date) args[7]).toLocalDate(), args[8], args[0]));
+            } else if (sql.startsWith("DELETE FROM progress_daily_rollup")) {
+                replaced.add(((Date) args[0]).toLocalDate());
+            }
+            return 1;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+            return (T) new byte[0];
+        }
+
+        @Override
+        public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+            return new int[batchArgs.size()];
+        }
+    };
+
+    private final ProgressRollupService service = new ProgressRollupService(
+            jdbcTemplate, new DirectTransactionTemplate(), new SimpleMeterRegistry());
+
+    ProgressRollupServiceTest() {
+        service.registerMetrics();
+    }
+
+    private void record(LocalDate day, String minigameType) {
+        service.onProgressRecorded(new ProgressRecordedEvent(1L, List.of(UserProgressDto.builder()
+                .minigameType(minigameType)
+                .score(10)
+                .timePlayed(30)
+                .completed(true)
+                .playedAt(day.atTime(23, 59, 55))
+                .build())));
+    }
+
+    @Test
+    @DisplayName("Volcar suma los acumuladores pendientes y los vacía")
+    void flush_addsPendingDeltas() {
+        record(TODAY, "quiz");
+        record(TODAY, "quiz");
+
+        service.flush();
+        service.flush();
+
+        assertEquals(List.of(List.of(TODAY, "quiz", 2L)), added);
+    }
+
+    @Test
+    @DisplayName("Reconstruir un día descarta sus acumuladores pendientes y conserva los de otros días")
+    void replaceDay_discardsPendingDeltasOfThatDay() {
+        record(YESTERDAY, "quiz");
+        record(YESTERDAY, "dino-ride");
+        record(TODAY, "quiz");
+
+        // La lectura de user_progress ya incluye las partidas de ayer
+        service.replaceDay(YESTERDAY, Map::of);
+        service.flush();
+
+        assertEquals(List.of(YESTERDAY), replaced);
+        assertEquals(List.of(List.of(TODAY, "quiz", 1L)), added);
+    }
+
+    @Test
+    @DisplayName("Las partidas confirmadas durante la lectura del día se vuelcan después")
+    void replaceDay_keepsDeltasAddedWhileReading() {
+        record(YESTERDAY, "quiz");
+
+        service.replaceDay(YESTERDAY, () -> {
+            record(YESTERDAY, "quiz");
+            return Map.of();
+        });
+        service.flush();
+
+        assertEquals(List.of(List.of(YESTERDAY, "quiz", 1L)), added);
+    }
+
+    @Test
+    @DisplayName("Un volcado no escribe un día mientras se está reconstruyendo")
+    void flush_waitsForReplaceDayOfTheSameDay() throws InterruptedException {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread rebuild = Thread.ofVirtual().start(() -> service.replaceDay(YESTERDAY, () -> {
+            reading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Map.of();
+        }));
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+        record(YESTERDAY, "quiz");
+
+        Thread flusher = Thread.ofVirtual().start(service::flush);
+        flusher.join(200);
+        assertTrue(flusher.isAlive());
+        assertTrue(added.isEmpty());
+
+        release.countDown();
+        rebuild.join();
+        flusher.join();
+        assertEquals(List.of(List.of(YESTERDAY, "quiz", 1L)), added);
+    }
+}
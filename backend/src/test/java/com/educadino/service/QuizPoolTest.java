@@ -0,0 +1,105 @@
+package com.educadino.service;
+
+import com.educadino.dto.DinosaurDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios del banco de preguntas del quiz.
+ */
+@DisplayName("Tests de QuizPool")
+class QuizPoolTest {
+
+    private static DinosaurDto dinosaur(long id, String name, String diet, String period, String size, String location) {
+        return DinosaurDto.builder()
+                .id(id)
+                .name(name)
+                .diet(diet)
+                .period(period)
+                .size(size)
+                .location(location)
+                .taxonomy("Theropoda")
+                .family("Familia " + id)
+                .build();
+    }
+
+    private static final List<DinosaurDto> DINOSAURS = List.of(
+            dinosaur(1, "Tyrannosaurus Rex", "Carnívoro", "Cretácico Superior", "Grande", "América del Norte"),
+            dinosaur(2, "Velociraptor", "Carnívoro", "Cretácico Superior", "Pequeño", "Asia (Mongolia)"),
+            dinosaur(3, "Triceratops", "Herbívoro", "Cretácico Superior", "Grande", "América del Norte"),
+            dinosaur(4, "Brachiosaurus", "Herbívoro", "Jurásico Superior", "Gigante", "América del Norte, África"),
+            dinosaur(5, "Pteranodon", "Carnívoro (peces)", "Cretácico Superior", "Grande", "América del Norte"),
+            dinosaur(6, "Spinosaurus", "Piscívoro", "Cretácico Inferior", "Gigante", "África")
+    );
+
+    @Test
+    @DisplayName("Cada quiz tiene preguntas distintas con una sola respuesta correcta")
+    void samplesDistinctQuestionsWithTheRightNumberOfOptions() {
+        QuizPool pool = QuizPool.build(DINOSAURS, new Random(1));
+        Random random = new Random(2);
+
+        for (QuizPool.Difficulty difficulty : QuizPool.Difficulty.values()) {
+            int size = pool.size(difficulty);
+            List<QuizPool.Sampled> quiz = pool.sample(difficulty, size + 5, random);
+
+            assertEquals(size, quiz.size());
+            Set<String> texts = new HashSet<>();
+            for (QuizPool.Sampled question : quiz) {
+                assertEquals(difficulty.options, question.options().size());
+                assertEquals(difficulty.options, new HashSet<>(question.options()).size());
+                assertTrue(question.answer() >= 0 && question.answer() < difficulty.options);
+                texts.add(question.text() + question.options().get(question.answer()));
+            }
+            assertEquals(size, texts.size());
+        }
+    }
+
+    @Test
+    @DisplayName("La opción correcta es el valor del dinosaurio")
+    void answerMatchesTheDinosaur() {
+        QuizPool pool = QuizPool.build(DINOSAURS, new Random(1));
+
+        for (QuizPool.Sampled question : pool.sample(QuizPool.Difficulty.EASY, 50, new Random(3))) {
+            if (question.text().equals("¿Qué comía el Triceratops?")) {
+                assertEquals("Herbívoro", question.options().get(question.answer()));
+            }
+            if (question.text().equals("¿En qué período vivió el Spinosaurus?")) {
+                assertEquals("Cretácico Inferior", question.options().get(question.answer()));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Los distractores no se solapan con la respuesta")
+    void distractorsDoNotOverlapTheAnswer() {
+        QuizPool pool = QuizPool.build(DINOSAURS, new Random(1));
+
+        for (int i = 0; i < 50; i++) {
+            for (QuizPool.Sampled question : pool.sample(QuizPool.Difficulty.MEDIUM, 50, new Random(i))) {
+                if (question.text().equals("¿Dónde se han encontrado fósiles del Brachiosaurus?")) {
+                    assertFalse(question.options().contains("América del Norte"));
+                    assertFalse(question.options().contains("África"));
+                }
+                if (question.text().equals("¿Qué comía el Tyrannosaurus Rex?")) {
+                    assertFalse(question.options().contains("Carnívoro (peces)"));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Sin dinosaurios no hay preguntas")
+    void emptyCatalogHasNoQuestions() {
+        QuizPool pool = QuizPool.build(List.of(), new Random(1));
+
+        assertEquals(0, pool.size(QuizPool.Difficulty.MEDIUM));
+        assertTrue(pool.sample(QuizPool.Difficulty.MEDIUM, 10, new Random(1)).isEmpty());
+    }
+}
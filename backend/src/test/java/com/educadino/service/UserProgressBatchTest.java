@@ -0,0 +1,118 @@
+package com.educadino.service;
+
+import com.educadino.dto.SaveProgressRequest;
+import com.educadino.dto.UserProgressDto;
+import com.educadino.entity.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios del guardado en lote: el playedAt de cada partida se
+ * ajusta a (ahora - max-age, ahora].
+ */
+@DisplayName("Tests del guardado de progreso en lote")
+class UserProgressBatchTest {
+
+    /**
+     * Anota las partidas que recibe.
+     */
+    private static final class RecordingRecorder extends ProgressRecorder {
+        final List<Entry> entries = new ArrayList<>();
+
+        RecordingRecorder() {
+            super(null, null, null, null);
+        }
+
+        @Override
+        public List<UserProgressDto> record(Long userId, List<Entry> batch) {
+            entries.addAll(batch);
+            return List.of();
+        }
+    }
+
+    private final RecordingRecorder recorder = new RecordingRecorder();
+    private final UserProgressService service;
+
+    UserProgressBatchTest() {
+        UserService userService = new UserService(null, null, null, null, null) {
+            @Override
+            public User getCurrentUser() {
+                return User.builder().id(7L).build();
+            }
+        };
+        service = new UserProgressService(null, userService, recorder, null, null, null);
+        ReflectionTestUtils.setField(service, "maxBatchAge", Duration.ofDays(7));
+    }
+
+    private static SaveProgressRequest request(Instant playedAt) {
+        SaveProgressRequest request = new SaveProgressRequest();
+        request.setMinigameType("quiz");
+        request.setScore(10);
+        request.setTimePlayed(30);
+        request.setPlayedAt(playedAt);
+        return request;
+    }
+
+    private LocalDateTime savedPlayedAt(Instant playedAt) {
+        recorder.entries.clear();
+        service.saveProgressBatch(List.of(request(playedAt)));
+        return recorder.entries.get(0).playedAt();
+    }
+
+    private static void assertClose(LocalDateTime expected, LocalDateTime actual) {
+        assertTrue(Duration.between(expected, actual).abs().compareTo(Duration.ofSeconds(5)) < 0,
+                () -> "Se esperaba ~" + expected + " y se obtuvo " + actual);
+    }
+
+    @Test
+    @DisplayName("Un playedAt dentro de la ventana se conserva")
+    void saveProgressBatch_keepsPlayedAtWithinWindow() {
+        Instant twoDaysAgo = Instant.now().minus(Duration.ofDays(2));
+
+        assertEquals(LocalDateTime.ofInstant(twoDaysAgo, ZoneId.systemDefault()), savedPlayedAt(twoDaysAgo));
+    }
+
+    @Test
+    @DisplayName("Sin playedAt se usa la hora de recepción")
+    void saveProgressBatch_missingPlayedAtIsNow() {
+        assertClose(LocalDateTime.now(), savedPlayedAt(null));
+    }
+
+    @Test
+    @DisplayName("Un playedAt en el futuro se ajusta a ahora")
+    void saveProgressBatch_futurePlayedAtIsNow() {
+        assertClose(LocalDateTime.now(), savedPlayedAt(Instant.now().plus(Duration.ofDays(3))));
+    }
+
+    @Test
+    @DisplayName("Un playedAt anterior a max-age se ajusta al límite más antiguo")
+    void saveProgressBatch_oldPlayedAtIsClampedToMaxAge() {
+        assertClose(LocalDateTime.now().minusDays(7), savedPlayedAt(Instant.now().minus(Duration.ofDays(30))));
+    }
+
+    @Test
+    @DisplayName("Cada partida del lote se ajusta por separado y en orden")
+    void saveProgressBatch_clampsEachEntry() {
+        Instant yesterday = Instant.now().minus(Duration.ofDays(1));
+
+        service.saveProgressBatch(List.of(
+                request(Instant.now().plus(Duration.ofHours(1))),
+                request(yesterday),
+                request(Instant.EPOCH)));
+
+        assertEquals(3, recorder.entries.size());
+        assertClose(LocalDateTime.now(), recorder.entries.get(0).playedAt());
+        assertEquals(LocalDateTime.ofInstant(yesterday, ZoneId.systemDefault()), recorder.entries.get(1).playedAt());
+        assertClose(LocalDateTime.now().minusDays(7), recorder.entries.get(2).playedAt());
+    }
+}
@@ -0,0 +1,213 @@
+package com.educadino.service;
+
+import com.educadino.dto.CursorPage;
+import com.educadino.dto.UserProgressDto;
+import com.educadino.entity.User;
+import com.educadino.entity.UserProgress;
+import com.educadino.exception.BadRequestException;
+import com.educadino.repository.UserProgressRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios del historial paginado por cursor, con un repositorio
+ * falso que aplica en memoria el mismo filtro y orden que las consultas.
+ */
+@DisplayName("Tests del historial de progreso por cursor")
+class UserProgressHistoryTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 1, 10, 0);
+
+    private final User user = User.builder().id(7L).build();
+    private final List<UserProgress> rows = new ArrayList<>();
+    private final List<Integer> requestedSizes = new ArrayList<>();
+    private final List<String> queries = new ArrayList<>();
+
+    private final UserProgressService service;
+
+    UserProgressHistoryTest() {
+        UserService userService = new UserService(null, null, null, null, null) {
+            @Override
+            public Long getCurrentUserId() {
+                return 7L;
+            }
+        };
+        service = new UserProgressService(repository(), userService, null, null, null, null);
+        ReflectionTestUtils.setField(service, "defaultPageSize", 3);
+        ReflectionTestUtils.setField(service, "maxPageSize", 5);
+    }
+
+    private UserProgressRepository repository() {
+        return (UserProgressRepository) Proxy.newProxyInstance(
+                UserProgressRepository.class.getClassLoader(),
+                new Class<?>[]{UserProgressRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findPageByUserId" -> page(method.getName(), (Long) args[0], null,
+                            (LocalDateTime) args[1], (LocalDateTime) args[2], (Long) args[3], (Pageable) args[4]);
+                    case "findPageByUserIdAndMinigameType" -> page(method.getName(), (Long) args[0], (String) args[1],
+                            (LocalDateTime) args[2], (LocalDateTime) args[3], (Long) args[4], (Pageable) args[5]);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private List<UserProgress> page(String query, Long userId, String minigameType, LocalDateTime from,
+                                    LocalDateTime cursorAt, Long cursorId, Pageable pageable) {
+        queries.add(query);
+        requestedSizes.add(pageable.getPageSize());
+        return rows.stream()
+                .filter(row -> row.getUser().getId().equals(userId))
+                .filter(row -> minigameType == null || row.getMinigameType().equals(minigameType))
+                .filter(row -> !row.getPlayedAt().isBefore(from))
+                .filter(row -> row.getPlayedAt().isBefore(cursorAt)
+                        || (row.getPlayedAt().equals(cursorAt) && row.getId() < cursorId))
+                .sorted(Comparator.comparing(UserProgress::getPlayedAt).thenComparing(UserProgress::getId).reversed())
+                .limit(pageable.getPageSize())
+                .toList();
+    }
+
+    private void addRow(long id, String minigameType, LocalDateTime playedAt) {
+        rows.add(UserProgress.builder()
+                .id(id)
+                .user(user)
+                .minigameType(minigameType)
+                .score(10)
+                .timePlayed(30)
+                .playedAt(playedAt)
+                .build());
+    }
+
+    /** Añade partidas 1..count, una por hora, la de id mayor la más reciente. */
+    private void addHourly(int count) {
+        for (int i = 1; i <= count; i++) {
+            addRow(i, "quiz", BASE.plusHours(i));
+        }
+    }
+
+    private static List<Long> ids(CursorPage<UserProgressDto> page) {
+        return page.getItems().stream().map(UserProgressDto::getId).toList();
+    }
+
+    @Test
+    @DisplayName("El cursor se codifica y decodifica sin pérdidas")
+    void cursor_roundTrip() {
+        ProgressCursor cursor = new ProgressCursor(LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_000_000), 42L);
+
+        assertEquals(cursor, ProgressCursor.decode(cursor.encode()));
+        assertFalse(cursor.encode().contains("|"));
+    }
+
+    @Test
+    @DisplayName("Un cursor manipulado responde 400")
+    void cursor_invalidIsBadRequest() {
+        assertThrows(BadRequestException.class, () -> ProgressCursor.decode("%%%"));
+        assertThrows(BadRequestException.class, () -> ProgressCursor.decode(
+                new ProgressCursor(BASE, 1L).encode().substring(2)));
+        assertThrows(BadRequestException.class, () -> service.getHistory(null, null, null, "bm8tc2VwYXJhdG9y", null));
+    }
+
+    @Test
+    @DisplayName("Recorre todas las páginas de la más reciente a la más antigua sin repetir partidas")
+    void getHistory_walksAllPages() {
+        addHourly(7);
+
+        CursorPage<UserProgressDto> first = service.getHistory(null, null, null, null, null);
+        assertEquals(List.of(7L, 6L, 5L), ids(first));
+        assertTrue(first.isHasMore());
+        assertNotNull(first.getNextCursor());
+
+        CursorPage<UserProgressDto> second = service.getHistory(null, null, null, first.getNextCursor(), null);
+        assertEquals(List.of(4L, 3L, 2L), ids(second));
+        assertTrue(second.isHasMore());
+
+        CursorPage<UserProgressDto> last = service.getHistory(null, null, null, second.getNextCursor(), null);
+        assertEquals(List.of(1L), ids(last));
+        assertFalse(last.isHasMore());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Las partidas con el mismo playedAt se desempatan por id entre páginas")
+    void getHistory_tiesOnPlayedAtAreSplitById() {
+        for (long id = 1; id <= 5; id++) {
+            addRow(id, "quiz", BASE);
+        }
+
+        CursorPage<UserProgressDto> first = service.getHistory(null, null, null, null, 2);
+        CursorPage<UserProgressDto> second = service.getHistory(null, null, null, first.getNextCursor(), 2);
+        CursorPage<UserProgressDto> third = service.getHistory(null, null, null, second.getNextCursor(), 2);
+
+        assertEquals(List.of(5L, 4L), ids(first));
+        assertEquals(List.of(3L, 2L), ids(second));
+        assertEquals(List.of(1L), ids(third));
+        assertFalse(third.isHasMore());
+    }
+
+    @Test
+    @DisplayName("Sin limit usa el tamaño por defecto y limit se acota entre 1 y max-page-size")
+    void getHistory_clampsPageSize() {
+        addHourly(10);
+
+        assertEquals(3, service.getHistory(null, null, null, null, null).getItems().size());
+        assertEquals(5, service.getHistory(null, null, null, null, 1000).getItems().size());
+        assertEquals(1, service.getHistory(null, null, null, null, 0).getItems().size());
+        assertEquals(1, service.getHistory(null, null, null, null, -3).getItems().size());
+
+        // Siempre se pide una fila de más para saber si hay otra página
+        assertEquals(List.of(4, 6, 2, 2), requestedSizes);
+    }
+
+    @Test
+    @DisplayName("Una página exacta no anuncia página siguiente")
+    void getHistory_exactPageHasNoNext() {
+        addHourly(3);
+
+        CursorPage<UserProgressDto> page = service.getHistory(null, null, null, null, null);
+
+        assertEquals(List.of(3L, 2L, 1L), ids(page));
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("from se incluye, to se excluye y un cursor posterior a to se ignora")
+    void getHistory_respectsRange() {
+        addHourly(6);
+        LocalDateTime from = BASE.plusHours(2);
+        LocalDateTime to = BASE.plusHours(5);
+
+        assertEquals(List.of(4L, 3L, 2L), ids(service.getHistory(null, from, to, null, 10)));
+
+        String laterCursor = new ProgressCursor(BASE.plusHours(6), 6L).encode();
+        assertEquals(List.of(4L, 3L, 2L), ids(service.getHistory(null, from, to, laterCursor, 10)));
+    }
+
+    @Test
+    @DisplayName("from igual o posterior a to responde 400")
+    void getHistory_rejectsEmptyRange() {
+        assertThrows(BadRequestException.class, () -> service.getHistory(null, BASE, BASE, null, null));
+        assertThrows(BadRequestException.class, () -> service.getHistory(null, BASE.plusHours(1), BASE, null, null));
+        assertTrue(queries.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Con minigameType filtra con la consulta por minijuego")
+    void getHistory_filtersByMinigame() {
+        addRow(1, "quiz", BASE.plusHours(1));
+        addRow(2, "dino-ride", BASE.plusHours(2));
+        addRow(3, "quiz", BASE.plusHours(3));
+
+        assertEquals(List.of(3L, 1L), ids(service.getHistory("quiz", null, null, null, null)));
+        assertEquals(List.of(3L, 2L, 1L), ids(service.getHistory(" ", null, null, null, null)));
+        assertEquals(List.of("findPageByUserIdAndMinigameType", "findPageByUserId"), queries);
+    }
+}
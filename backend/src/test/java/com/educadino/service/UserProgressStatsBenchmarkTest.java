@@ -0,0 +1,134 @@
+package com.educadino.service;
+
+import com.educadino.dto.SaveProgressRequest;
+import com.educadino.entity.Role;
+import com.educadino.entity.User;
+import com.educadino.repository.UserProgressRepository;
+import com.educadino.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark del guardado de progreso con un historial de 10.000 partidas.
+ *
+ * Compara el coste de las tres agregaciones sobre todo el historial que
+ * hacía antes saveProgress con el guardado actual (INSERT + UPDATE
+ * incremental). Se ejecuta solo bajo demanda:
+ *
+ *   mvn test -Dtest=UserProgressStatsBenchmarkTest -Dbenchmark=true
+ *
+ * Trabaja en su propio esquema (educadino_bench), que Hibernate crea al
+ * arrancar y vacía al terminar, para no mezclar sus 10.000 partidas con
+ * los datos de la BD compartida de application-test.yml.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.connection-init-sql="
+                + "CREATE SCHEMA IF NOT EXISTS educadino_bench; SET search_path TO educadino_bench",
+        "spring.jpa.properties.hibernate.default_schema=educadino_bench",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Benchmark de estadísticas incrementales")
+@Slf4j
+class UserProgressStatsBenchmarkTest {
+
+    private static final int HISTORY_ROWS = 10_000;
+    private static final int WARMUP = 50;
+    private static final int SAVES = 200;
+
+    @Autowired
+    private UserProgressService progressService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserProgressRepository progressRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void seedHistory() {
+        user = userRepository.save(User.builder()
+                .username("bench_" + System.nanoTime())
+                .email("bench_" + System.nanoTime() + "@educadino.com")
+                .password("x")
+                .role(Role.USER)
+                .build());
+
+        Timestamp playedAt = Timestamp.valueOf(LocalDateTime.now().minusDays(30));
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO user_progress (user_id, minigame_type, score, time_played, completed, played_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)",
+                IntStream.range(0, HISTORY_ROWS)
+                        .mapToObj(i -> new Object[]{user.getId(), "quiz", 10, 30, i % 2 == 0, playedAt})
+                        .toList());
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        jdbcTemplate.update("DELETE FROM user_progress WHERE user_id = ?", user.getId());
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    @DisplayName("saveProgress no debe depender del tamaño del historial")
+    void saveProgress_withLargeHistory() {
+        SaveProgressRequest request = new SaveProgressRequest();
+        request.setMinigameType("quiz");
+        request.setScore(100);
+        request.setTimePlayed(60);
+        request.setCompleted(true);
+
+        for (int i = 0; i < WARMUP; i++) {
+            progressService.saveProgress(request);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < SAVES; i++) {
+            progressService.saveProgress(request);
+        }
+        double incrementalMs = (System.nanoTime() - start) / 1e6 / SAVES;
+
+        start = System.nanoTime();
+        for (int i = 0; i < SAVES; i++) {
+            progressRepository.getTotalScoreByUserId(user.getId());
+            progressRepository.getCompletedMinigamesCount(user.getId());
+            progressRepository.getTotalTimePlayedByUserId(user.getId());
+        }
+        double fullScanMs = (System.nanoTime() - start) / 1e6 / SAVES;
+
+        log.info("saveProgress incremental: {} ms/op | agregados completos (solo lectura): {} ms/op",
+                String.format("%.3f", incrementalMs), String.format("%.3f", fullScanMs));
+
+        // Las estadísticas incrementales solo reflejan las partidas guardadas por el servicio
+        User reloaded = userRepository.findById(user.getId()).orElseThrow();
+        assertEquals((WARMUP + SAVES) * 100, reloaded.getTotalScore());
+        assertEquals(WARMUP + SAVES, reloaded.getCompletedMinigames());
+        assertEquals((WARMUP + SAVES) * 60, reloaded.getTotalTimePlayed());
+    }
+}
@@ -0,0 +1,65 @@
+package com.educadino.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios del calendario de actividad.
+ */
+@DisplayName("Tests de ActivityCalendar")
+class ActivityCalendarTest {
+
+    private static byte[] year(LocalDate... days) {
+        BitSet bits = new BitSet();
+        for (LocalDate day : days) {
+            bits.set(ActivityCalendar.dayIndex(day));
+        }
+        byte[] bytes = new byte[ActivityCalendar.BYTES_PER_YEAR];
+        byte[] set = bits.toByteArray();
+        System.arraycopy(set, 0, bytes, 0, set.length);
+        return bytes;
+    }
+
+    @Test
+    @DisplayName("La racha actual cruza el cambio de año y sigue viva si hoy no ha jugado")
+    void currentStreak_acrossYears() {
+        ActivityCalendar calendar = ActivityCalendar.of(Map.of(
+                2024, year(LocalDate.of(2024, 12, 30), LocalDate.of(2024, 12, 31)),
+                2025, year(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 2))));
+
+        assertEquals(4, calendar.currentStreak(LocalDate.of(2025, 1, 2)));
+        assertEquals(4, calendar.currentStreak(LocalDate.of(2025, 1, 3)));
+        assertEquals(0, calendar.currentStreak(LocalDate.of(2025, 1, 4)));
+    }
+
+    @Test
+    @DisplayName("La racha más larga es la mayor secuencia de bits a 1")
+    void longestStreak() {
+        ActivityCalendar calendar = ActivityCalendar.of(Map.of(2025, year(
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 2),
+                LocalDate.of(2025, 3, 10), LocalDate.of(2025, 3, 11), LocalDate.of(2025, 3, 12),
+                LocalDate.of(2025, 5, 1))));
+
+        assertEquals(3, calendar.longestStreak());
+        assertEquals(List.of(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 2), LocalDate.of(2025, 3, 10),
+                        LocalDate.of(2025, 3, 11), LocalDate.of(2025, 3, 12), LocalDate.of(2025, 5, 1)),
+                calendar.activeDays(2025));
+    }
+
+    @Test
+    @DisplayName("Sin actividad no hay rachas")
+    void empty() {
+        ActivityCalendar calendar = ActivityCalendar.of(Map.of());
+
+        assertEquals(0, calendar.currentStreak(LocalDate.now()));
+        assertEquals(0, calendar.longestStreak());
+        assertTrue(calendar.activeDays(2025).isEmpty());
+    }
+}
@@ -0,0 +1,59 @@
+package com.educadino.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Bm25IndexTest {
+
+    private static Bm25Index index() {
+        Bm25Index index = new Bm25Index(Map.of("name", 3.0, "description", 1.0));
+        index.put(1, Map.of("name", "Tyrannosaurus Rex", "description", "Gran carnívoro con dientes enormes."));
+        index.put(2, Map.of("name", "Brachiosaurus", "description", "Herbívoro de cuello muy largo."));
+        index.put(3, Map.of("name", "Velociraptor", "description", "Pequeño carnivoro cubierto de plumas."));
+        return index;
+    }
+
+    private static List<Long> ids(List<Bm25Index.Hit> hits) {
+        return hits.stream().map(Bm25Index.Hit::id).toList();
+    }
+
+    @Test
+    void ranksDocumentsMatchingMoreTermsFirst() {
+        assertEquals(List.of(3L, 1L), ids(index().search("carnívoros con pluma", 10)));
+    }
+
+    @Test
+    void nameWeighsMoreThanDescription() {
+        Bm25Index index = index();
+        index.put(4, Map.of("name", "Otro", "description", "Se parecía al Velociraptor."));
+
+        assertEquals(List.of(3L, 4L), ids(index.search("velociraptor", 10)));
+    }
+
+    @Test
+    void matchesPrefixesOfUnknownTerms() {
+        assertEquals(List.of(2L), ids(index().search("brachio", 10)));
+    }
+
+    @Test
+    void updatesAndRemovesDocuments() {
+        Bm25Index index = index();
+
+        index.put(2, Map.of("name", "Brachiosaurus", "description", "Tenía plumas."));
+        assertTrue(ids(index.search("cuello", 10)).isEmpty());
+        assertEquals(2, index.search("plumas", 10).size());
+
+        index.remove(3);
+        assertEquals(List.of(2L), ids(index.search("plumas", 10)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void respectsTheLimit() {
+        assertEquals(1, index().search("carnivoro", 1).size());
+    }
+}
@@ -0,0 +1,71 @@
+package com.educadino.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FacetIndexTest {
+
+    private record Dino(String name, String diet, String period) {
+    }
+
+    private static final List<Dino> DINOS = List.of(
+            new Dino("T-Rex", "Carnívoro", "Cretácico"),
+            new Dino("Triceratops", "Herbívoro", "Cretácico"),
+            new Dino("Stegosaurus", "Herbívoro", "Jurásico"),
+            new Dino("Allosaurus", "Carnívoro", "Jurásico"),
+            new Dino("Oviraptor", "Omnívoro", null)
+    );
+
+    private static FacetIndex<Dino> index() {
+        Map<String, Function<Dino, String>> attributes = new LinkedHashMap<>();
+        attributes.put("diet", Dino::diet);
+        attributes.put("period", Dino::period);
+        return FacetIndex.build(DINOS, attributes);
+    }
+
+    private static List<String> names(FacetIndex<Dino> index, Map<String, List<String>> filters) {
+        return index.select(index.match(filters)).stream().map(Dino::name).toList();
+    }
+
+    @Test
+    void combinesValuesWithOrAndAttributesWithAnd() {
+        FacetIndex<Dino> index = index();
+
+        assertEquals(List.of("Triceratops", "Stegosaurus", "Oviraptor"),
+                names(index, Map.of("diet", List.of("Herbívoro", "Omnívoro"))));
+        assertEquals(List.of("Stegosaurus"),
+                names(index, Map.of("diet", List.of("Herbívoro"), "period", List.of("Jurásico"))));
+    }
+
+    @Test
+    void ignoresAccentsAndCase() {
+        assertEquals(List.of("T-Rex", "Allosaurus"), names(index(), Map.of("diet", List.of("CARNIVORO"))));
+    }
+
+    @Test
+    void emptyFilterMatchesEverythingAndUnknownValueMatchesNothing() {
+        FacetIndex<Dino> index = index();
+
+        assertEquals(5, index.match(Map.of()).cardinality());
+        assertEquals(0, index.match(Map.of("diet", List.of("Piscívoro"))).cardinality());
+    }
+
+    @Test
+    void facetsIgnoreTheirOwnFilter() {
+        Map<String, Map<String, Integer>> facets = index().facets(Map.of("diet", List.of("Herbívoro")));
+
+        assertEquals(Map.of("Carnívoro", 2, "Herbívoro", 2, "Omnívoro", 1), facets.get("diet"));
+        assertEquals(Map.of("Cretácico", 1, "Jurásico", 1), facets.get("period"));
+    }
+
+    @Test
+    void rejectsUnknownAttributes() {
+        assertThrows(IllegalArgumentException.class, () -> index().match(Map.of("color", List.of("verde"))));
+    }
+}
@@ -0,0 +1,36 @@
+package com.educadino.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeologicTimeScaleTest {
+
+    @Test
+    void usesTheEpochWhenThePeriodHasOne() {
+        assertEquals(new GeologicTimeScale.Range(100.5, 66.0), GeologicTimeScale.range("Cretácico Superior").orElseThrow());
+        assertEquals(new GeologicTimeScale.Range(161.5, 145.0), GeologicTimeScale.range("jurasico tardío").orElseThrow());
+    }
+
+    @Test
+    void usesTheWholePeriodWithoutEpoch() {
+        assertEquals(new GeologicTimeScale.Range(251.9, 201.4), GeologicTimeScale.range("Triásico").orElseThrow());
+    }
+
+    @Test
+    void joinsSeveralPeriods() {
+        assertEquals(new GeologicTimeScale.Range(161.5, 100.5),
+                GeologicTimeScale.range("Jurásico Superior - Cretácico Inferior").orElseThrow());
+    }
+
+    @Test
+    void unknownPeriodsHaveNoRange() {
+        assertTrue(GeologicTimeScale.range("Mesozoico").isEmpty());
+        assertTrue(GeologicTimeScale.range(null).isEmpty());
+    }
+
+    @Test
+    void rejectsInvertedRanges() {
+        assertThrows(IllegalArgumentException.class, () -> new GeologicTimeScale.Range(66, 68));
+    }
+}
@@ -0,0 +1,57 @@
+package com.educadino.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios del estimador HyperLogLog.
+ */
+@DisplayName("Tests de HyperLogLog")
+class HyperLogLogTest {
+
+    @Test
+    @DisplayName("Los repetidos no cuentan y las cardinalidades pequeñas son casi exactas")
+    void estimate_smallCardinality() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int round = 0; round < 10; round++) {
+            for (long id = 1; id <= 100; id++) {
+                sketch.add(id);
+            }
+        }
+
+        assertEquals(100, sketch.estimate(), 2);
+    }
+
+    @Test
+    @DisplayName("Unir sketches estima la unión dentro del margen de error")
+    void merge_estimatesUnion() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for (long id = 0; id < 60_000; id++) {
+            first.add(id);
+        }
+        for (long id = 40_000; id < 100_000; id++) {
+            second.add(id);
+        }
+
+        first.merge(second);
+
+        assertEquals(100_000, first.estimate(), 100_000 * 0.05);
+    }
+
+    @Test
+    @DisplayName("Serializar y deserializar conserva el sketch")
+    void toBytes_roundTrip() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long id = 0; id < 5_000; id++) {
+            sketch.add(id);
+        }
+
+        HyperLogLog copy = HyperLogLog.fromBytes(sketch.toBytes());
+
+        assertEquals(sketch.estimate(), copy.estimate());
+        assertEquals(0, HyperLogLog.fromBytes(new byte[0]).estimate());
+    }
+}
@@ -0,0 +1,107 @@
+package com.educadino.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalTreeTest {
+
+    /** Rango en millones de años: de fromMya (aparición) a toMya (extinción). */
+    private record Dino(String name, double fromMya, double toMya) {
+    }
+
+    private static final List<Dino> DINOS = List.of(
+            new Dino("Tyrannosaurus", 68, 66),
+            new Dino("Triceratops", 68, 66),
+            new Dino("Velociraptor", 75, 71),
+            new Dino("Pteranodon", 86, 84.5),
+            new Dino("Allosaurus", 155, 145),
+            new Dino("Brachiosaurus", 154, 153),
+            new Dino("Diplodocus", 154, 152)
+    );
+
+    private static IntervalTree<Dino> tree(List<Dino> dinos) {
+        return IntervalTree.build(dinos, dino -> new IntervalTree.Interval(dino.toMya(), dino.fromMya()));
+    }
+
+    private static Set<String> names(List<Dino> dinos) {
+        Set<String> names = new HashSet<>();
+        dinos.forEach(dino -> names.add(dino.name()));
+        return names;
+    }
+
+    @Test
+    void stabFindsWhoLivedAtAGivenTime() {
+        IntervalTree<Dino> tree = tree(DINOS);
+
+        assertEquals(Set.of("Tyrannosaurus", "Triceratops"), names(tree.stab(67)));
+        assertEquals(Set.of("Allosaurus", "Brachiosaurus", "Diplodocus"), names(tree.stab(153.5)));
+        assertEquals(Set.of(), names(tree.stab(100)));
+    }
+
+    @Test
+    void endpointsAreIncluded() {
+        IntervalTree<Dino> tree = tree(DINOS);
+
+        assertEquals(Set.of("Tyrannosaurus", "Triceratops"), names(tree.stab(66)));
+        assertEquals(Set.of("Allosaurus"), names(tree.stab(145)));
+    }
+
+    @Test
+    void overlappingFindsContemporaries() {
+        IntervalTree<Dino> tree = tree(DINOS);
+
+        assertEquals(Set.of("Allosaurus", "Brachiosaurus", "Diplodocus"), names(tree.overlapping(153, 154)));
+        assertEquals(Set.of("Tyrannosaurus", "Triceratops", "Velociraptor"), names(tree.overlapping(60, 80)));
+        assertEquals(3, tree.countOverlapping(60, 80));
+        assertThrows(IllegalArgumentException.class, () -> tree.overlapping(80, 60));
+    }
+
+    @Test
+    void ignoresItemsWithoutInterval() {
+        IntervalTree<Dino> tree = IntervalTree.build(DINOS,
+                dino -> dino.name().startsWith("T") ? new IntervalTree.Interval(dino.toMya(), dino.fromMya()) : null);
+
+        assertEquals(2, tree.size());
+        assertEquals(Set.of(), names(tree.stab(150)));
+    }
+
+    @Test
+    void matchesBruteForce() {
+        Random random = new Random(11);
+        List<Dino> dinos = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            double to = random.nextInt(190) + 66;
+            dinos.add(new Dino("D" + i, to + random.nextInt(15), to));
+        }
+        IntervalTree<Dino> tree = tree(dinos);
+
+        for (int i = 0; i < 500; i++) {
+            double a = random.nextInt(200) + 60;
+            double b = a + random.nextInt(20);
+
+            Set<Dino> alive = new HashSet<>();
+            Set<Dino> overlapping = new HashSet<>();
+            for (Dino dino : dinos) {
+                if (dino.toMya() <= a && a <= dino.fromMya()) {
+                    alive.add(dino);
+                }
+                if (dino.toMya() <= b && a <= dino.fromMya()) {
+                    overlapping.add(dino);
+                }
+            }
+            List<Dino> stabbed = tree.stab(a);
+            List<Dino> overlapped = tree.overlapping(a, b);
+            assertEquals(alive.size(), stabbed.size());
+            assertEquals(alive, new HashSet<>(stabbed));
+            assertEquals(overlapping.size(), overlapped.size());
+            assertEquals(overlapping, new HashSet<>(overlapped));
+        }
+    }
+}
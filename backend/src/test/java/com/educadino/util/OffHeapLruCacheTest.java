@@ -0,0 +1,73 @@
+package com.educadino.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapLruCacheTest {
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String read(OffHeapLruCache.Entry entry, int variant) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        entry.writeTo(variant, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void storesEveryVariantOfAnEntry() throws IOException {
+        OffHeapLruCache<String> cache = new OffHeapLruCache<>(1024);
+        cache.put("a", "application/json", bytes("{\"x\":1}"), bytes("gz"), null);
+
+        OffHeapLruCache.Entry entry = cache.get("a");
+
+        assertEquals("application/json", entry.contentType());
+        assertEquals("{\"x\":1}", read(entry, 0));
+        assertEquals("gz", read(entry, 1));
+        assertEquals(-1, entry.length(2));
+        assertEquals(9, cache.bytes());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWhenFull() {
+        OffHeapLruCache<String> cache = new OffHeapLruCache<>(10);
+        cache.put("a", "text/plain", bytes("aaaa"));
+        cache.put("b", "text/plain", bytes("bbbb"));
+        cache.get("a");
+
+        cache.put("c", "text/plain", bytes("cccc"));
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+        assertEquals(8, cache.bytes());
+        assertEquals(1, cache.evictions());
+    }
+
+    @Test
+    void rejectsEntriesLargerThanTheCache() {
+        OffHeapLruCache<String> cache = new OffHeapLruCache<>(4);
+
+        assertNull(cache.put("a", "text/plain", bytes("12345")));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void replacingAndRemovingKeepsTheByteCount() {
+        OffHeapLruCache<String> cache = new OffHeapLruCache<>(100);
+        cache.put("dinos|1", "text/plain", bytes("123"));
+        cache.put("dinos|1", "text/plain", bytes("12345"));
+        cache.put("products|1", "text/plain", bytes("12"));
+
+        cache.removeIf(key -> key.startsWith("dinos"));
+
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.bytes());
+    }
+}
@@ -0,0 +1,31 @@
+package com.educadino.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlaceGazetteerTest {
+
+    @Test
+    void prefersCountriesOverContinents() {
+        assertEquals(PlaceGazetteer.locate("Mongolia"), PlaceGazetteer.locate("Asia (Mongolia)"));
+    }
+
+    @Test
+    void takesTheFirstPlaceMentioned() {
+        assertEquals(PlaceGazetteer.locate("América del Norte"), PlaceGazetteer.locate("América del Norte, África"));
+        assertEquals(PlaceGazetteer.locate("africa"), PlaceGazetteer.locate("África y Europa"));
+    }
+
+    @Test
+    void matchesWholeWordsOnly() {
+        assertTrue(PlaceGazetteer.locate("Indiana").isEmpty());
+        assertTrue(PlaceGazetteer.locate("India").isPresent());
+    }
+
+    @Test
+    void unknownPlacesHaveNoLocation() {
+        assertTrue(PlaceGazetteer.locate("Desconocida").isEmpty());
+        assertTrue(PlaceGazetteer.locate(null).isEmpty());
+    }
+}
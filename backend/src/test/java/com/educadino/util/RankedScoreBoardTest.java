@@ -0,0 +1,58 @@
+package com.educadino.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios de la clasificación en memoria.
+ */
+@DisplayName("Tests de RankedScoreBoard")
+class RankedScoreBoardTest {
+
+    @Test
+    @DisplayName("Solo se conserva la mejor puntuación de cada usuario")
+    void offer_keepsBestScorePerUser() {
+        RankedScoreBoard board = new RankedScoreBoard();
+
+        assertTrue(board.offer(1, 50));
+        assertFalse(board.offer(1, 40));
+        assertTrue(board.offer(1, 70));
+
+        assertEquals(1, board.size());
+        assertEquals(70, board.rankOf(1).score());
+    }
+
+    @Test
+    @DisplayName("El top N está ordenado y los empates comparten posición")
+    void top_ordersByScoreWithTies() {
+        RankedScoreBoard board = new RankedScoreBoard();
+        board.offer(1, 100);
+        board.offer(2, 300);
+        board.offer(3, 200);
+        board.offer(4, 200);
+        board.offer(5, 10);
+
+        List<RankedScoreBoard.Entry> top = board.top(4);
+
+        assertEquals(List.of(2L, 3L, 4L, 1L), top.stream().map(RankedScoreBoard.Entry::userId).toList());
+        assertEquals(List.of(1, 2, 2, 4), top.stream().map(RankedScoreBoard.Entry::rank).toList());
+    }
+
+    @Test
+    @DisplayName("La posición de un usuario cuenta solo a los que tienen más puntos")
+    void rankOf_countsStrictlyGreaterScores() {
+        RankedScoreBoard board = new RankedScoreBoard();
+        for (int user = 1; user <= 1000; user++) {
+            board.offer(user, user);
+        }
+
+        assertEquals(1, board.rankOf(1000).rank());
+        assertEquals(1000, board.rankOf(1).rank());
+        assertEquals(501, board.rankOf(500).rank());
+        assertNull(board.rankOf(5000));
+    }
+}
@@ -0,0 +1,56 @@
+package com.educadino.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitarios del histograma de puntuaciones.
+ */
+@DisplayName("Tests de ScoreHistogram")
+class ScoreHistogramTest {
+
+    @Test
+    @DisplayName("Los cubos cubren todo el rango de int sin huecos")
+    void buckets_areContiguous() {
+        assertEquals(0, ScoreHistogram.indexOf(0));
+        assertEquals(63, ScoreHistogram.indexOf(63));
+        for (int value : new int[]{64, 65, 100, 1_000, 123_456, Integer.MAX_VALUE}) {
+            int index = ScoreHistogram.indexOf(value);
+            assertTrue(ScoreHistogram.lowerBound(index) <= value);
+            assertTrue(value < ScoreHistogram.lowerBound(index + 1));
+        }
+    }
+
+    @Test
+    @DisplayName("countBelow y quantile aproximan la distribución uniforme")
+    void countBelowAndQuantile_uniform() {
+        ScoreHistogram histogram = new ScoreHistogram();
+        for (int score = 0; score < 1_000; score++) {
+            histogram.add(score);
+        }
+
+        assertEquals(1_000, histogram.total());
+        assertEquals(800, histogram.countBelow(800), 1_000 * 0.03);
+        assertEquals(500, histogram.quantile(0.5), 500 * 0.03);
+        assertEquals(900, histogram.quantile(0.9), 900 * 0.03);
+    }
+
+    @Test
+    @DisplayName("Quitar y combinar mantiene los totales")
+    void removeAndMerge() {
+        ScoreHistogram first = new ScoreHistogram();
+        ScoreHistogram second = new ScoreHistogram();
+        first.add(10);
+        first.add(20);
+        first.remove(10);
+        second.add(5);
+
+        first.merge(second);
+
+        assertEquals(2, first.total());
+        assertEquals(1.0, first.countBelow(20), 0.0001);
+        assertEquals(2, first.buckets().size());
+    }
+}
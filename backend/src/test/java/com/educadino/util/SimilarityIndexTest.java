@@ -0,0 +1,167 @@
+package com.educadino.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimilarityIndexTest {
+
+    private record Dino(long id, List<String> attributes, String text) {
+    }
+
+    private static final List<Dino> DINOS = List.of(
+            new Dino(1, List.of("diet=carnivoro", "clade=theropoda", "period=cretacico"),
+                    "Gran depredador con dientes enormes"),
+            new Dino(2, List.of("diet=carnivoro", "clade=theropoda", "period=cretacico"),
+                    "Pequeño depredador con plumas y garras"),
+            new Dino(3, List.of("diet=herbivoro", "clade=sauropoda", "period=jurasico"),
+                    "Cuello muy largo para comer hojas altas"),
+            new Dino(4, List.of("diet=herbivoro", "clade=sauropoda", "period=jurasico"),
+                    "Cuello y cola larguísimos, comía hojas"),
+            new Dino(5, List.of("diet=herbivoro", "clade=ceratopsia", "period=cretacico"),
+                    "Tres cuernos y un gran escudo")
+    );
+
+    private static final List<SimilarityIndex.Block<Dino>> BLOCKS = List.of(
+            new SimilarityIndex.Block<>(Dino::attributes, 0.6),
+            new SimilarityIndex.Block<>(dino -> SpanishAnalyzer.terms(dino.text()), 0.4));
+
+    private static List<Long> ids(List<SimilarityIndex.Neighbor<Dino>> neighbors) {
+        return neighbors.stream().map(neighbor -> neighbor.item().id()).toList();
+    }
+
+    @Test
+    void mostSimilarComesFirst() {
+        SimilarityIndex<Dino> index = SimilarityIndex.build(DINOS, Dino::id, BLOCKS, 3);
+
+        assertEquals(2L, ids(index.neighbors(1L)).get(0));
+        assertEquals(4L, ids(index.neighbors(3L)).get(0));
+        assertFalse(ids(index.neighbors(1L)).contains(1L));
+    }
+
+    @Test
+    void keepsAtMostKNeighbors() {
+        SimilarityIndex<Dino> index = SimilarityIndex.build(DINOS, Dino::id, BLOCKS, 1);
+
+        assertEquals(List.of(2L), ids(index.neighbors(1L)));
+        assertEquals(List.of(), index.neighbors(99L));
+    }
+
+    @Test
+    void itemsWithNothingInCommonHaveNoNeighbors() {
+        List<Dino> dinos = List.of(
+                new Dino(1, List.of("diet=carnivoro"), "plumas"),
+                new Dino(2, List.of("diet=herbivoro"), "cuernos"));
+
+        SimilarityIndex<Dino> index = SimilarityIndex.build(dinos, Dino::id, BLOCKS, 5);
+
+        assertEquals(List.of(), index.neighbors(1L));
+    }
+
+    @Test
+    void scoresAreSymmetricCosines() {
+        SimilarityIndex<Dino> index = SimilarityIndex.build(DINOS, Dino::id, BLOCKS, 4);
+
+        double ab = score(index, 1, 2);
+        assertEquals(ab, score(index, 2, 1), 1e-12);
+        assertTrue(ab > 0 && ab <= 1);
+    }
+
+    @Test
+    void matchesBruteForce() {
+        Random random = new Random(5);
+        String[] words = {"plumas", "cuernos", "cuello", "garras", "dientes", "cola", "escudo", "alas", "huevos"};
+        List<Dino> dinos = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            List<String> attributes = List.of("diet=" + random.nextInt(3), "size=" + random.nextInt(4),
+                    "family=" + random.nextInt(30));
+            StringBuilder text = new StringBuilder();
+            for (int w = random.nextInt(6); w >= 0; w--) {
+                text.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            dinos.add(new Dino(i, attributes, text.toString()));
+        }
+        int k = 5;
+        SimilarityIndex<Dino> index = SimilarityIndex.build(dinos, Dino::id, BLOCKS, k);
+
+        List<Map<String, Double>> vectors = bruteForceVectors(dinos);
+        for (int i = 0; i < dinos.size(); i++) {
+            List<Double> expected = new ArrayList<>();
+            for (int j = 0; j < dinos.size(); j++) {
+                double cosine = dot(vectors.get(i), vectors.get(j));
+                if (j != i && cosine > 1e-12) {
+                    expected.add(cosine);
+                }
+            }
+            expected.sort((a, b) -> Double.compare(b, a));
+            List<SimilarityIndex.Neighbor<Dino>> neighbors = index.neighbors((long) i);
+            assertEquals(Math.min(k, expected.size()), neighbors.size());
+            for (int n = 0; n < neighbors.size(); n++) {
+                assertEquals(expected.get(n), neighbors.get(n).score(), 1e-9);
+                assertEquals(neighbors.get(n).score(),
+                        dot(vectors.get(i), vectors.get((int) neighbors.get(n).item().id())), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void rejectsNonPositiveWeights() {
+        assertThrows(IllegalArgumentException.class, () -> new SimilarityIndex.Block<Dino>(Dino::attributes, 0));
+    }
+
+    private static double score(SimilarityIndex<Dino> index, long from, long to) {
+        return index.neighbors(from).stream()
+                .filter(neighbor -> neighbor.item().id() == to)
+                .findFirst().orElseThrow()
+                .score();
+    }
+
+    /**
+     * Vectores TF-IDF por bloque, normalizados y escalados por la raíz del peso.
+     */
+    private static List<Map<String, Double>> bruteForceVectors(List<Dino> dinos) {
+        double total = BLOCKS.stream().mapToDouble(SimilarityIndex.Block::weight).sum();
+        List<Map<String, Double>> vectors = new ArrayList<>();
+        dinos.forEach(dino -> vectors.add(new HashMap<>()));
+        for (int b = 0; b < BLOCKS.size(); b++) {
+            SimilarityIndex.Block<Dino> block = BLOCKS.get(b);
+            String prefix = b + ":";
+            double scale = Math.sqrt(block.weight() / total);
+            Map<String, Integer> df = new HashMap<>();
+            List<Map<String, Integer>> tfs = new ArrayList<>();
+            for (Dino dino : dinos) {
+                Map<String, Integer> tf = new HashMap<>();
+                block.terms().apply(dino).forEach(term -> tf.merge(term, 1, Integer::sum));
+                tf.keySet().forEach(term -> df.merge(term, 1, Integer::sum));
+                tfs.add(tf);
+            }
+            for (int i = 0; i < dinos.size(); i++) {
+                Map<String, Double> weights = new HashMap<>();
+                tfs.get(i).forEach((term, tf) -> weights.put(term,
+                        (1 + Math.log(tf)) * Math.log((double) dinos.size() / df.get(term))));
+                double norm = Math.sqrt(weights.values().stream().mapToDouble(w -> w * w).sum());
+                Map<String, Double> vector = vectors.get(i);
+                weights.forEach((term, w) -> {
+                    if (w > 0) {
+                        vector.put(prefix + term, w / norm * scale);
+                    }
+                });
+            }
+        }
+        return vectors;
+    }
+
+    private static double dot(Map<String, Double> a, Map<String, Double> b) {
+        double sum = 0;
+        for (Map.Entry<String, Double> entry : a.entrySet()) {
+            sum += entry.getValue() * b.getOrDefault(entry.getKey(), 0.0);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,37 @@
+package com.educadino.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpanishAnalyzerTest {
+
+    @Test
+    void foldsAccentsAndCase() {
+        assertEquals(SpanishAnalyzer.terms("carnivoro"), SpanishAnalyzer.terms("CARNÍVORO"));
+    }
+
+    @Test
+    void dropsStopWords() {
+        assertEquals(List.of("cuell", "larg"), SpanishAnalyzer.terms("el cuello más largo de todos"));
+    }
+
+    @Test
+    void reducesPluralsAndGender() {
+        assertEquals(SpanishAnalyzer.analyze("pluma"), SpanishAnalyzer.analyze("plumas"));
+        assertEquals(SpanishAnalyzer.analyze("carnívoro"), SpanishAnalyzer.analyze("carnívoras"));
+        assertEquals("nuez", SpanishAnalyzer.analyze("nueces"));
+        assertEquals("rex", SpanishAnalyzer.analyze("Rex"));
+    }
+
+    @Test
+    void tokensKeepOriginalOffsets() {
+        List<SpanishAnalyzer.Token> tokens = SpanishAnalyzer.tokens("¡Un T-Rex!");
+
+        assertEquals(3, tokens.size());
+        assertNull(tokens.get(0).term());
+        assertEquals("Rex", "¡Un T-Rex!".substring(tokens.get(2).start(), tokens.get(2).end()));
+    }
+}
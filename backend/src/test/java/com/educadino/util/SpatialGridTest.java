@@ -0,0 +1,114 @@
+package com.educadino.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpatialGridTest {
+
+    private record Site(String name, GeoPoint point) {
+    }
+
+    private static final List<Site> SITES = List.of(
+            new Site("Hell Creek", new GeoPoint(47.6, -106.7)),
+            new Site("Como Bluff", new GeoPoint(41.95, -106.1)),
+            new Site("Cleveland-Lloyd", new GeoPoint(39.32, -110.69)),
+            new Site("Flaming Cliffs", new GeoPoint(44.14, 103.73)),
+            new Site("Plaza Huincul", new GeoPoint(-38.93, -69.21)),
+            new Site("Chatham", new GeoPoint(-44.0, -176.5)),
+            new Site("Sin ubicar", null)
+    );
+
+    private static List<String> names(List<Site> sites) {
+        return sites.stream().map(Site::name).sorted().toList();
+    }
+
+    @Test
+    void ignoresItemsWithoutLocation() {
+        SpatialGrid<Site> grid = SpatialGrid.build(SITES, Site::point, 8);
+
+        assertEquals(6, grid.size());
+        assertEquals(6, grid.within(SpatialGrid.BoundingBox.WORLD).size());
+    }
+
+    @Test
+    void findsSitesInsideTheBoundingBox() {
+        SpatialGrid<Site> grid = SpatialGrid.build(SITES, Site::point, 8);
+
+        assertEquals(List.of("Cleveland-Lloyd", "Como Bluff", "Hell Creek"),
+                names(grid.within(SpatialGrid.BoundingBox.parse("-130,20,-60,55"))));
+        assertEquals(List.of(), grid.within(SpatialGrid.BoundingBox.parse("0,0,10,10")));
+    }
+
+    @Test
+    void boundingBoxCanCrossTheAntimeridian() {
+        SpatialGrid<Site> grid = SpatialGrid.build(SITES, Site::point, 8);
+
+        assertEquals(List.of("Chatham"), names(grid.within(SpatialGrid.BoundingBox.parse("170,-50,-170,-40"))));
+    }
+
+    @Test
+    void clustersNearbySitesAtLowZoomAndSplitsThemWhenZoomingIn() {
+        SpatialGrid<Site> grid = SpatialGrid.build(SITES, Site::point, 8);
+        SpatialGrid.BoundingBox northAmerica = SpatialGrid.BoundingBox.parse("-130,20,-60,55");
+
+        List<SpatialGrid.Cluster<Site>> far = grid.clusters(northAmerica, 0);
+        assertEquals(1, far.size());
+        assertEquals(3, far.get(0).count());
+        assertNull(far.get(0).item());
+        assertEquals((47.6 + 41.95 + 39.32) / 3, far.get(0).latitude(), 1e-9);
+
+        List<SpatialGrid.Cluster<Site>> near = grid.clusters(northAmerica, 8);
+        assertEquals(3, near.size());
+        assertTrue(near.stream().allMatch(cluster -> cluster.count() == 1 && cluster.item() != null));
+    }
+
+    @Test
+    void returnsSingleSitesAboveMaxZoom() {
+        SpatialGrid<Site> grid = SpatialGrid.build(SITES, Site::point, 4);
+
+        List<SpatialGrid.Cluster<Site>> clusters = grid.clusters(SpatialGrid.BoundingBox.parse("-107,41,-106,48"), 10);
+        assertEquals(2, clusters.size());
+        assertEquals(Set.of("Hell Creek", "Como Bluff"),
+                Set.of(clusters.get(0).item().name(), clusters.get(1).item().name()));
+    }
+
+    @Test
+    void withinMatchesBruteForce() {
+        Random random = new Random(7);
+        List<Site> sites = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            sites.add(new Site("S" + i, new GeoPoint(random.nextDouble() * 180 - 90, random.nextDouble() * 360 - 180)));
+        }
+        SpatialGrid<Site> grid = SpatialGrid.build(sites, Site::point, 10);
+
+        for (int i = 0; i < 500; i++) {
+            double a = random.nextDouble() * 180 - 90;
+            double b = random.nextDouble() * 180 - 90;
+            SpatialGrid.BoundingBox box = new SpatialGrid.BoundingBox(random.nextDouble() * 360 - 180,
+                    Math.min(a, b), random.nextDouble() * 360 - 180, Math.max(a, b));
+
+            Set<Site> expected = new HashSet<>();
+            sites.stream().filter(site -> box.contains(site.point())).forEach(expected::add);
+            assertEquals(expected, new HashSet<>(grid.within(box)));
+
+            int zoom = random.nextInt(11);
+            int clustered = grid.clusters(box, zoom).stream().mapToInt(SpatialGrid.Cluster::count).sum();
+            assertTrue(clustered >= expected.size());
+        }
+    }
+
+    @Test
+    void rejectsInvalidBoundingBoxes() {
+        assertThrows(IllegalArgumentException.class, () -> SpatialGrid.BoundingBox.parse("1,2,3"));
+        assertThrows(IllegalArgumentException.class, () -> SpatialGrid.BoundingBox.parse("0,50,10,40"));
+        assertThrows(IllegalArgumentException.class, () -> SpatialGrid.BoundingBox.parse("0,0,200,10"));
+        assertThrows(IllegalArgumentException.class, () -> SpatialGrid.BoundingBox.parse("a,0,10,10"));
+    }
+}
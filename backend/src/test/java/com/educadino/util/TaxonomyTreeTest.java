@@ -0,0 +1,125 @@
+package com.educadino.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaxonomyTreeTest {
+
+    private record Dino(long id, String name, List<String> clades, String family) {
+    }
+
+    private static final List<Dino> DINOS = List.of(
+            new Dino(1, "Tyrannosaurus", List.of("Dinosauria", "Saurischia", "Theropoda"), "Tyrannosauridae"),
+            new Dino(2, "Velociraptor", List.of("Dinosauria", "Saurischia", "Theropoda"), "Dromaeosauridae"),
+            new Dino(3, "Allosaurus", List.of("Dinosauria", "Saurischia", "Theropoda"), "Allosauridae"),
+            new Dino(4, "Diplodocus", List.of("Dinosauria", "Saurischia", "Sauropoda"), "Diplodocidae"),
+            new Dino(5, "Triceratops", List.of("Dinosauria", "Ornithischia"), "Ceratopsidae"),
+            new Dino(6, "Pteranodon", List.of("Pterosauria"), "Pteranodontidae"),
+            new Dino(7, "Daspletosaurus", List.of("Dinosauria", "Saurischia", "Theropoda"), "Tyrannosauridae")
+    );
+
+    private static List<TaxonomyTree.Level> levels(Dino dino) {
+        List<TaxonomyTree.Level> levels = new ArrayList<>();
+        dino.clades().forEach(clade -> levels.add(new TaxonomyTree.Level(clade, TaxonomyTree.Rank.CLADE)));
+        levels.add(new TaxonomyTree.Level(dino.family(), TaxonomyTree.Rank.FAMILY));
+        return levels;
+    }
+
+    private static TaxonomyTree<Dino> tree(List<Dino> dinos) {
+        return TaxonomyTree.build("Reptilia", dinos, TaxonomyTreeTest::levels, Dino::name, Dino::id);
+    }
+
+    private static List<String> names(List<Dino> dinos) {
+        return dinos.stream().map(Dino::name).toList();
+    }
+
+    @Test
+    void groupsItemsUnderTheirCladesAndFamilies() {
+        TaxonomyTree<Dino> tree = tree(DINOS);
+
+        assertEquals(7, tree.root().count());
+        assertEquals(List.of("Allosaurus", "Velociraptor", "Daspletosaurus", "Tyrannosaurus"),
+                names(tree.items(tree.find("Theropoda").orElseThrow())));
+        assertEquals(List.of("Daspletosaurus", "Tyrannosaurus"),
+                names(tree.items(tree.find("Tyrannosauridae").orElseThrow())));
+        assertEquals(5, tree.find("saurischia").orElseThrow().count());
+        assertTrue(tree.find("Stegosauria").isEmpty());
+    }
+
+    @Test
+    void findsGroupsWithoutCaseOrAccents() {
+        List<Dino> dinos = List.of(
+                new Dino(1, "Iguanodon", List.of("Ornitópodos"), "Iguanodóntidos"),
+                new Dino(2, "Hadrosaurus", List.of("ornitopodos"), "Hadrosáuridos"));
+        TaxonomyTree<Dino> tree = tree(dinos);
+
+        TaxonomyTree.Node clade = tree.find("ORNITOPODOS").orElseThrow();
+        assertEquals("Ornitópodos", clade.name());
+        assertEquals(2, clade.count());
+    }
+
+    @Test
+    void lowestCommonAncestorIsTheDeepestSharedClade() {
+        TaxonomyTree<Dino> tree = tree(DINOS);
+
+        assertEquals("Tyrannosauridae", lca(tree, 1, 7).name());
+        assertEquals("Theropoda", lca(tree, 1, 2).name());
+        assertEquals("Saurischia", lca(tree, 2, 4).name());
+        assertEquals("Dinosauria", lca(tree, 4, 5).name());
+        assertEquals("Reptilia", lca(tree, 5, 6).name());
+        assertEquals("Tyrannosaurus", lca(tree, 1, 1).name());
+    }
+
+    @Test
+    void pathGoesFromRootToNode() {
+        TaxonomyTree<Dino> tree = tree(DINOS);
+
+        TaxonomyTree.Node leaf = tree.leaf(4L).orElseThrow();
+        assertEquals(List.of("Reptilia", "Dinosauria", "Saurischia", "Sauropoda", "Diplodocidae", "Diplodocus"),
+                tree.path(leaf).stream().map(TaxonomyTree.Node::name).toList());
+        assertEquals("Diplodocus", tree.item(leaf).name());
+        assertThrows(IllegalArgumentException.class, () -> tree.item(tree.root()));
+    }
+
+    @Test
+    void lowestCommonAncestorMatchesPathPrefixes() {
+        Random random = new Random(42);
+        String[] clades = {"Theropoda", "Sauropoda", "Ornithopoda", "Stegosauria"};
+        List<Dino> dinos = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            String clade = clades[random.nextInt(clades.length)];
+            dinos.add(new Dino(i, "G" + i, List.of("Dinosauria", clade), clade + "-" + random.nextInt(10)));
+        }
+        TaxonomyTree<Dino> tree = tree(dinos);
+
+        for (int i = 0; i < 2000; i++) {
+            TaxonomyTree.Node a = tree.leaf((long) random.nextInt(500)).orElseThrow();
+            TaxonomyTree.Node b = tree.leaf((long) random.nextInt(500)).orElseThrow();
+            List<TaxonomyTree.Node> pathA = tree.path(a);
+            List<TaxonomyTree.Node> pathB = tree.path(b);
+            int shared = 0;
+            while (shared < pathA.size() && shared < pathB.size() && pathA.get(shared).equals(pathB.get(shared))) {
+                shared++;
+            }
+            assertEquals(pathA.get(shared - 1), tree.lowestCommonAncestor(a, b));
+        }
+    }
+
+    @Test
+    void emptyTreeHasOnlyTheRoot() {
+        TaxonomyTree<Dino> tree = tree(List.of());
+
+        assertEquals(1, tree.size());
+        assertEquals(0, tree.root().count());
+        assertEquals(tree.root(), tree.lowestCommonAncestor(tree.root(), tree.root()));
+    }
+
+    private static TaxonomyTree.Node lca(TaxonomyTree<Dino> tree, long a, long b) {
+        return tree.lowestCommonAncestor(tree.leaf(a).orElseThrow(), tree.leaf(b).orElseThrow());
+    }
+}
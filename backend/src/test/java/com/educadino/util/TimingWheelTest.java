@@ -0,0 +1,70 @@
+package com.educadino.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private static final class Item extends TimingWheel.Timeout {
+        final String name;
+
+        Item(String name) {
+            this.name = name;
+        }
+    }
+
+    @Test
+    void expiresItemsOnceTheirDeadlinePasses() {
+        TimingWheel<Item> wheel = new TimingWheel<>(1000, 10, 0);
+        Item item = new Item("a");
+        wheel.schedule(item, 3500);
+
+        assertTrue(wheel.advance(3000).isEmpty());
+        List<Item> expired = wheel.advance(3600);
+
+        assertEquals(List.of(item), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void touchPostponesExpiryWithoutRescheduling() {
+        TimingWheel<Item> wheel = new TimingWheel<>(1000, 10, 0);
+        Item item = new Item("a");
+        wheel.schedule(item, 3000);
+
+        item.touch(7000);
+
+        assertTrue(wheel.advance(5000).isEmpty());
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(item), wheel.advance(7000));
+    }
+
+    @Test
+    void cancelledItemsNeverExpire() {
+        TimingWheel<Item> wheel = new TimingWheel<>(1000, 10, 0);
+        Item item = new Item("a");
+        wheel.schedule(item, 2000);
+
+        wheel.cancel(item);
+
+        assertTrue(wheel.advance(5000).isEmpty());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void catchesUpAfterALongPause() {
+        TimingWheel<Item> wheel = new TimingWheel<>(1000, 5, 0);
+        Item first = new Item("a");
+        Item second = new Item("b");
+        wheel.schedule(first, 1000);
+        wheel.schedule(second, 4000);
+
+        List<Item> expired = wheel.advance(60_000);
+
+        assertEquals(2, expired.size());
+        assertTrue(expired.containsAll(List.of(first, second)));
+    }
+}
@@ -0,0 +1,116 @@
+package com.educadino.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZeroCopyFileSenderTest {
+
+    private static final String ETAG = "\"abc\"";
+    private static final String CACHE = "public, max-age=31536000, immutable";
+
+    @TempDir
+    Path dir;
+
+    private Path file() throws IOException {
+        return Files.writeString(dir.resolve("file"), "0123456789", StandardCharsets.UTF_8);
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ZeroCopyFileSender.send(request, response, file(), "image/png", ETAG, CACHE);
+        return response;
+    }
+
+    @Test
+    void sendsWholeFileWithCacheHeaders() throws IOException {
+        MockHttpServletResponse response = send(new MockHttpServletRequest("GET", "/media/abc"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+        assertEquals(10, response.getContentLength());
+        assertEquals(ETAG, response.getHeader("ETag"));
+        assertEquals(CACHE, response.getHeader("Cache-Control"));
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+    }
+
+    @Test
+    void sendsRequestedRange() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/media/abc");
+        request.addHeader("Range", "bytes=2-5");
+
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("2345", response.getContentAsString());
+        assertEquals("bytes 2-5/10", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    void sendsSuffixRange() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/media/abc");
+        request.addHeader("Range", "bytes=-3");
+
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("789", response.getContentAsString());
+    }
+
+    @Test
+    void rejectsUnsatisfiableRange() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/media/abc");
+        request.addHeader("Range", "bytes=20-");
+
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader("Content-Range"));
+    }
+
+    @Test
+    void ignoresRangeWhenIfRangeDoesNotMatch() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/media/abc");
+        request.addHeader("Range", "bytes=2-5");
+        request.addHeader("If-Range", "\"other\"");
+
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+    }
+
+    @Test
+    void answersNotModifiedWhenEtagMatches() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/media/abc");
+        request.addHeader("If-None-Match", ETAG);
+
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void delegatesToContainerSendfileWhenSupported() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/media/abc");
+        request.setAttribute(ZeroCopyFileSender.SENDFILE_SUPPORTED, Boolean.TRUE);
+        request.addHeader("Range", "bytes=4-");
+
+        MockHttpServletResponse response = send(request);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(4L, request.getAttribute(ZeroCopyFileSender.SENDFILE_START));
+        assertEquals(10L, request.getAttribute(ZeroCopyFileSender.SENDFILE_END));
+        assertEquals(dir.resolve("file").toAbsolutePath().toString(), request.getAttribute(ZeroCopyFileSender.SENDFILE_FILENAME));
+    }
+}
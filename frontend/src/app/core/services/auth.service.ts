@@ -49,6 +49,13 @@ export interface UserProfile {
   learningTime: number;
   completedMinigames: number;
   totalScore: number;
+  achievements?: Achievement[];
+}
+
+export interface Achievement {
+  id: string;
+  name: string;
+  description: string;
 }
 
 /**
@@ -11,13 +11,31 @@ export interface Dinosaur {
   description: string;
   diet: string;
   period: string;
+  /** Millones de años: aparición (fromMya) y extinción (toMya) */
+  fromMya?: number;
+  toMya?: number;
   taxonomy: string;
   family: string;
   imageUrl: string;
   size: string;
   location: string;
+  latitude?: number;
+  longitude?: number;
   curiosities: string;
   createdAt: string;
+  updatedAt: string;
+  /** Solo con getById(id, { similar: true }) */
+  similar?: SimilarDinosaur[];
+}
+
+/**
+ * Dinosaurio parecido; score es la similitud (0-1).
+ */
+export interface SimilarDinosaur {
+  id: number;
+  name: string;
+  imageUrl: string;
+  score: number;
 }
 
 export interface DinosaurRequest {
@@ -25,14 +43,107 @@ export interface DinosaurRequest {
   description?: string;
   diet?: string;
   period?: string;
+  /** Sin rango se deduce de period si es un período conocido */
+  fromMya?: number;
+  toMya?: number;
   taxonomy?: string;
   family?: string;
   imageUrl?: string;
   size?: string;
   location?: string;
+  /** Sin coordenadas se deducen de location si es un lugar conocido */
+  latitude?: number;
+  longitude?: number;
   curiosities?: string;
 }
 
+/**
+ * Filtros combinados: varios valores de un atributo se combinan con OR
+ * y los atributos entre sí con AND.
+ */
+export interface DinosaurFilters {
+  diet?: string[];
+  period?: string[];
+  taxonomy?: string[];
+  family?: string[];
+  size?: string[];
+}
+
+export interface DinosaurFacets {
+  total: number;
+  facets: Record<string, { value: string; count: number }[]>;
+}
+
+export interface DinosaurSearchHit {
+  dinosaur: Dinosaur;
+  score: number;
+  /** Fragmentos con <mark> en las coincidencias (HTML ya escapado) */
+  highlights: Record<string, string>;
+}
+
+/**
+ * Grupo de yacimientos del mapa. dinosaurId, name e imageUrl solo vienen
+ * cuando count es 1.
+ */
+export interface MapCluster {
+  latitude: number;
+  longitude: number;
+  count: number;
+  dinosaurId?: number;
+  name?: string;
+  imageUrl?: string;
+}
+
+export interface DinosaurMap {
+  bbox: string;
+  zoom: number;
+  total: number;
+  clusters: MapCluster[];
+}
+
+/**
+ * Línea temporal en franjas de step millones de años, de la más antigua
+ * a la más reciente.
+ */
+export interface DinosaurTimeline {
+  fromMya: number;
+  toMya: number;
+  step: number;
+  slices: { fromMya: number; toMya: number; count: number; dinosaurIds: number[] }[];
+}
+
+export type TaxonomyRank = 'root' | 'clade' | 'family' | 'genus';
+
+/**
+ * Nodo del árbol taxonómico (clados → familia → género).
+ */
+export interface TaxonomyNode {
+  name: string;
+  rank: TaxonomyRank;
+  count: number;
+  /** Solo en los géneros */
+  dinosaurId?: number;
+  children?: TaxonomyNode[];
+}
+
+export interface CommonAncestor {
+  name: string;
+  rank: TaxonomyRank;
+  path: string[];
+  lineages: { dinosaurId: number; name: string; path: string[] }[];
+}
+
+/**
+ * Cambios del catálogo desde un token de sincronización. Con reset=true
+ * changed es el catálogo completo y hay que sustituir la copia local.
+ */
+export interface CatalogChanges<T> {
+  changed: T[];
+  deleted: number[];
+  syncToken: string;
+  reset: boolean;
+}
+
 /**
  * DinosaurService - Servicio de Dinosaurios
  *
@@ -82,8 +193,10 @@ export class DinosaurService {
   /**
    * Obtiene un dinosaurio por ID.
    */
-  getById(id: number): Observable<{ success: boolean; data: Dinosaur }> {
-    return this.api.get<{ success: boolean; data: Dinosaur }>(`/dinosaurs/${id}`);
+  getById(id: number, options: { similar?: boolean } = {}): Observable<{ success: boolean; data: Dinosaur }> {
+    return this.api.get<{ success: boolean; data: Dinosaur }>(`/dinosaurs/${id}`, {
+      params: options.similar ? { include: 'similar' } : {},
+    });
   }
 
   /**
@@ -93,6 +206,13 @@ export class DinosaurService {
     return this.api.get<{ success: boolean; data: Dinosaur[] }>(`/dinosaurs/search?name=${name}`);
   }
 
+  /**
+   * Búsqueda de texto en descripción, curiosidades... ("cuello largo", "plumas").
+   */
+  searchText(q: string, limit = 10): Observable<{ success: boolean; data: DinosaurSearchHit[] }> {
+    return this.api.get<{ success: boolean; data: DinosaurSearchHit[] }>('/dinosaurs/search/text', { params: { q, limit } });
+  }
+
   /**
    * Filtra dinosaurios por dieta.
    */
@@ -107,6 +227,94 @@ export class DinosaurService {
     return this.api.get<{ success: boolean; data: Dinosaur[] }>(`/dinosaurs/period/${period}`);
   }
 
+  /**
+   * Filtra por dieta, período, taxonomía, familia y tamaño a la vez.
+   */
+  filter(filters: DinosaurFilters): Observable<{ success: boolean; data: Dinosaur[] }> {
+    return this.api.get<{ success: boolean; data: Dinosaur[] }>('/dinosaurs', { params: this.toParams(filters) });
+  }
+
+  /**
+   * Recuentos por atributo para los filtros actuales (para pintar los filtros).
+   */
+  getFacets(filters: DinosaurFilters = {}): Observable<{ success: boolean; data: DinosaurFacets }> {
+    return this.api.get<{ success: boolean; data: DinosaurFacets }>('/dinosaurs/facets', { params: this.toParams(filters) });
+  }
+
+  /**
+   * Yacimientos visibles en el mapa (bbox = [minLon, minLat, maxLon, maxLat]).
+   */
+  getMap(bbox: [number, number, number, number], zoom: number): Observable<{ success: boolean; data: DinosaurMap }> {
+    return this.api.get<{ success: boolean; data: DinosaurMap }>('/dinosaurs/map', {
+      params: { bbox: bbox.join(','), zoom },
+    });
+  }
+
+  /**
+   * Dinosaurios que vivían hace mya millones de años.
+   */
+  getAliveAt(mya: number): Observable<{ success: boolean; data: Dinosaur[] }> {
+    return this.api.get<{ success: boolean; data: Dinosaur[] }>('/dinosaurs/timeline', { params: { at: mya } });
+  }
+
+  /**
+   * Recuentos por franjas de tiempo, de from a to millones de años.
+   */
+  getTimeline(from: number, to: number, step: number): Observable<{ success: boolean; data: DinosaurTimeline }> {
+    return this.api.get<{ success: boolean; data: DinosaurTimeline }>('/dinosaurs/timeline/slices', {
+      params: { from, to, step },
+    });
+  }
+
+  /**
+   * Dinosaurios que coincidieron en el tiempo con uno.
+   */
+  getContemporaries(id: number): Observable<{ success: boolean; data: Dinosaur[] }> {
+    return this.api.get<{ success: boolean; data: Dinosaur[] }>(`/dinosaurs/${id}/contemporaries`);
+  }
+
+  /**
+   * Árbol taxonómico del catálogo.
+   */
+  getTaxonomy(): Observable<{ success: boolean; data: { root: TaxonomyNode } }> {
+    return this.api.get<{ success: boolean; data: { root: TaxonomyNode } }>('/dinosaurs/taxonomy');
+  }
+
+  /**
+   * Dinosaurios bajo un clado o familia ("Theropoda").
+   */
+  getByTaxonomyGroup(group: string): Observable<{ success: boolean; data: Dinosaur[] }> {
+    return this.api.get<{ success: boolean; data: Dinosaur[] }>(`/dinosaurs/taxonomy/${encodeURIComponent(group)}/dinosaurs`);
+  }
+
+  /**
+   * Clado común más bajo de varios dinosaurios ("¿qué tienen en común?").
+   */
+  getCommonAncestor(ids: number[]): Observable<{ success: boolean; data: CommonAncestor }> {
+    return this.api.get<{ success: boolean; data: CommonAncestor }>('/dinosaurs/taxonomy/common-ancestor', {
+      params: { ids: ids.join(',') },
+    });
+  }
+
+  /**
+   * Cambios desde el último syncToken guardado (sin token, catálogo completo).
+   */
+  getChanges(since?: string): Observable<{ success: boolean; data: CatalogChanges<Dinosaur> }> {
+    return this.api.get<{ success: boolean; data: CatalogChanges<Dinosaur> }>('/dinosaurs/changes', {
+      params: since ? { since } : {},
+    });
+  }
+
+  private toParams(filters: DinosaurFilters): Record<string, string> {
+    const params: Record<string, string> = {};
+    for (const [key, values] of Object.entries(filters)) {
+      if (values?.length) {
+        params[key] = values.join(',');
+      }
+    }
+    return params;
+  }
+
   // ═══════════════════════════════════════════════════════════════
   // MÉTODOS DE ADMIN
   // ═══════════════════════════════════════════════════════════════
@@ -26,5 +26,9 @@ export type { SaveProgressRequest, UserProgress, ProgressStats } from './progres
 
 // Dinosaurios
 export { DinosaurService } from './dinosaur.service';
-export type { Dinosaur, DinosaurRequest } from './dinosaur.service';
+export type { Dinosaur, DinosaurRequest, SimilarDinosaur, CatalogChanges, TaxonomyNode, CommonAncestor, DinosaurMap, MapCluster, DinosaurTimeline } from './dinosaur.service';
 
+
+// Multimedia
+export { MediaService } from './media.service';
+export type { MediaFile } from './media.service';
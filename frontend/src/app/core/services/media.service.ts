@@ -0,0 +1,48 @@
+import { Injectable, inject } from '@angular/core';
+import { Observable } from 'rxjs';
+import { ApiService } from './api.service';
+
+/**
+ * Imagen del almacén multimedia. El id es lo que se guarda en
+ * imageUrl, image o profileImage.
+ */
+export interface MediaFile {
+  id: string;
+  url: string;
+  contentType: string;
+  size: number;
+  width: number;
+  height: number;
+  /** ancho en píxeles -> url de la miniatura */
+  thumbnails: Record<number, string>;
+}
+
+/**
+ * MediaService - Servicio de Imágenes
+ *
+ * Sube imágenes al backend y construye las urls de sus miniaturas.
+ */
+@Injectable({
+  providedIn: 'root',
+})
+export class MediaService {
+  private readonly api = inject(ApiService);
+
+  /**
+   * Sube una imagen (JPEG, PNG o GIF).
+   */
+  upload(file: File): Observable<{ success: boolean; data: MediaFile }> {
+    return this.api.uploadFile<{ success: boolean; data: MediaFile }>('/media', file);
+  }
+
+  /**
+   * Url de una imagen con el ancho más adecuado. Las urls que no son
+   * del almacén (assets, externas) se devuelven sin cambios.
+   */
+  thumbnailUrl(url: string, width: number): string {
+    if (!url || !url.startsWith('/api/media/') || url.includes('?')) {
+      return url;
+    }
+    return `${url}?width=${width}`;
+  }
+}
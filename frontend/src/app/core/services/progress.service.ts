@@ -1,6 +1,7 @@
 import { Injectable, inject, signal, computed } from '@angular/core';
 import { Observable, tap, catchError, of } from 'rxjs';
 import { ApiService } from './api.service';
+import type { HttpErrorInfo } from '../interceptors';
 
 /**
  * Interfaces para progreso de usuario
@@ -10,6 +11,8 @@ export interface SaveProgressRequest {
   score: number;
   timePlayed: number;
   completed: boolean;
+  /** Solo en el lote sin conexión: cuándo se jugó (ISO 8601) */
+  playedAt?: string;
 }
 
 export interface UserProgress {
@@ -20,6 +23,8 @@ export interface UserProgress {
   timePlayed: number;
   completed: boolean;
   playedAt: string;
+  /** % de jugadores superados (solo en la respuesta al guardar) */
+  percentile?: number;
 }
 
 export interface ProgressStats {
@@ -29,6 +34,66 @@ export interface ProgressStats {
   level: number;
   learningTime: number;
   bestScores: Record<string, number>;
+  minigames: MinigameStats[];
+}
+
+export interface ProgressHistoryPage {
+  items: UserProgress[];
+  nextCursor: string | null;
+  hasMore: boolean;
+}
+
+export interface ProgressHistoryQuery {
+  minigameType?: string;
+  from?: string;
+  to?: string;
+  cursor?: string;
+  limit?: number;
+}
+
+export interface ActivityCalendar {
+  year: number;
+  activeDays: string[];
+  currentStreak: number;
+  longestStreak: number;
+}
+
+export interface MinigameSession {
+  sessionId: string;
+  minigameType: string;
+  startedAt: string;
+  activeSeconds: number;
+  heartbeatIntervalSeconds: number;
+  expiresAt: string;
+}
+
+export interface MinigameStats {
+  minigameType: string;
+  bestScore: number;
+  plays: number;
+  totalTime: number;
+  completions: number;
+  lastPlayedAt: string | null;
+}
+
+export type QuizDifficulty = 'easy' | 'medium' | 'hard';
+
+export interface Quiz {
+  quizId: string;
+  difficulty: QuizDifficulty;
+  questions: { number: number; text: string; options: string[] }[];
+  expiresAt: string;
+}
+
+export interface QuizResult {
+  correct: number;
+  total: number;
+  score: number;
+  timePlayed: number;
+  completed: boolean;
+  answers: { number: number; chosen: number | null; correctOption: number; correct: boolean }[];
+  /** null si el servidor guarda la partida de forma asíncrona */
+  progress: UserProgress | null;
 }
 
 /**
@@ -45,6 +110,19 @@ export interface ProgressStats {
 export class ProgressService {
   private readonly api = inject(ApiService);
 
+  /** Clave de localStorage con las partidas pendientes de enviar */
+  private static readonly LOCAL_PROGRESS_KEY = 'educadino_local_progress';
+
+  /**
+   * Partidas por POST /progress/batch. Por debajo de
+   * educadino.progress.batch.max-items (200) y, con partidas de unos
+   * 150 bytes, muy lejos de max-bytes (256KB).
+   */
+  private static readonly SYNC_BATCH_SIZE = 100;
+
+  /** Evita dos sincronizaciones a la vez sobre la misma cola */
+  private syncing = false;
+
   // Estado reactivo
   private readonly _myProgress = signal<UserProgress[]>([]);
   private readonly _stats = signal<ProgressStats | null>(null);
@@ -101,6 +179,57 @@ export class ProgressService {
     );
   }
 
+  /**
+   * Empieza una partida con el tiempo medido por el servidor.
+   * Mientras se juega hay que llamar a sendHeartbeat cada heartbeatIntervalSeconds.
+   */
+  startSession(minigameType: string): Observable<{ success: boolean; data: MinigameSession }> {
+    return this.api.post<{ success: boolean; data: MinigameSession }>(`/minigames/${minigameType}/sessions`, {});
+  }
+
+  sendHeartbeat(session: MinigameSession): Observable<{ success: boolean; data: MinigameSession }> {
+    return this.api.post<{ success: boolean; data: MinigameSession }>(
+      `/minigames/${session.minigameType}/sessions/${session.sessionId}/heartbeat`, {});
+  }
+
+  /**
+   * Genera un quiz en el servidor (sin las respuestas correctas).
+   */
+  getQuiz(count = 10, difficulty: QuizDifficulty = 'medium'): Observable<{ success: boolean; data: Quiz }> {
+    return this.api.get<{ success: boolean; data: Quiz }>('/minigames/quiz', { params: { count, difficulty } });
+  }
+
+  /**
+   * Envía las respuestas (índice de la opción elegida o null); el servidor
+   * corrige y guarda la partida.
+   */
+  submitQuiz(quiz: Quiz, answers: (number | null)[]): Observable<{ success: boolean; data: QuizResult }> {
+    return this.api.post<{ success: boolean; data: QuizResult }>(`/minigames/quiz/${quiz.quizId}/answers`, { answers }).pipe(
+      tap((response) => {
+        const progress = response.data?.progress;
+        if (response.success && progress) {
+          this._myProgress.update((list) => [progress, ...list]);
+          this.loadStats().subscribe();
+        }
+      })
+    );
+  }
+
+  /**
+   * Termina la partida y guarda el resultado (el tiempo jugado lo pone el servidor).
+   */
+  finishSession(session: MinigameSession, score: number, completed: boolean): Observable<{ success: boolean; data: UserProgress }> {
+    return this.api.post<{ success: boolean; data: UserProgress }>(
+      `/minigames/${session.minigameType}/sessions/${session.sessionId}/finish`, { score, completed }).pipe(
+      tap((response) => {
+        if (response.success && response.data) {
+          this._myProgress.update((progress) => [response.data, ...progress]);
+          this.loadStats().subscribe();
+        }
+      })
+    );
+  }
+
   /**
    * Carga todo el historial de progreso del usuario.
    */
@@ -147,6 +276,28 @@ export class ProgressService {
     return this.api.get<{ success: boolean; data: UserProgress[] }>(`/progress/minigame/${minigameType}`);
   }
 
+  /**
+   * Obtiene una página del historial (más reciente primero).
+   * Para la siguiente página se repite la consulta con cursor = nextCursor.
+   */
+  getHistory(query: ProgressHistoryQuery = {}): Observable<{ success: boolean; data: ProgressHistoryPage }> {
+    const params: Record<string, string | number> = {};
+    Object.entries(query).forEach(([key, value]) => {
+      if (value !== undefined && value !== null && value !== '') {
+        params[key] = value;
+      }
+    });
+    return this.api.get<{ success: boolean; data: ProgressHistoryPage }>('/progress/history', { params });
+  }
+
+  /**
+   * Obtiene el calendario de actividad (mapa de calor) y las rachas.
+   */
+  getActivity(year?: number): Observable<{ success: boolean; data: ActivityCalendar }> {
+    const params: Record<string, number> = year ? { year } : {};
+    return this.api.get<{ success: boolean; data: ActivityCalendar }>('/users/me/activity', { params });
+  }
+
   /**
    * Obtiene la mejor puntuación en un minijuego.
    */
@@ -163,42 +314,86 @@ export class ProgressService {
    * Guarda progreso en localStorage como fallback.
    */
   private saveLocalProgress(data: SaveProgressRequest): void {
-    const key = 'educadino_local_progress';
-    const stored = localStorage.getItem(key);
-    const localProgress: SaveProgressRequest[] = stored ? JSON.parse(stored) : [];
+    const localProgress = this.readLocalProgress();
 
     localProgress.push({
       ...data,
+      playedAt: new Date().toISOString(),
     });
 
-    localStorage.setItem(key, JSON.stringify(localProgress));
+    localStorage.setItem(ProgressService.LOCAL_PROGRESS_KEY, JSON.stringify(localProgress));
     console.log('[ProgressService] Progreso guardado localmente');
   }
 
   /**
    * Sincroniza el progreso local con el servidor.
+   *
+   * Envía la cola en lotes de SYNC_BATCH_SIZE partidas, uno detrás de
+   * otro, y tras cada lote confirmado borra solo las partidas enviadas:
+   * las que se guarden mientras tanto siguen en la cola. Si el servidor
+   * rechaza un lote por inválido (400) o demasiado grande (413) se parte
+   * por la mitad; una partida suelta rechazada se descarta para no
+   * reenviarla siempre. Ante otros errores (sin conexión, 429, 5xx) la
+   * cola se queda como está hasta la siguiente sincronización.
    */
   syncLocalProgress(): void {
-    const key = 'educadino_local_progress';
-    const stored = localStorage.getItem(key);
-
-    if (!stored) return;
-
-    const localProgress: SaveProgressRequest[] = JSON.parse(stored);
-
-    if (localProgress.length === 0) return;
+    if (this.syncing || this.readLocalProgress().length === 0) return;
 
     console.log('[ProgressService] Sincronizando progreso local...');
+    this.syncing = true;
+    this.syncNextBatch(ProgressService.SYNC_BATCH_SIZE);
+  }
 
-    // Enviar cada progreso pendiente
-    localProgress.forEach((progress) => {
-      this.api.post('/progress', progress).subscribe({
-        next: () => console.log('[ProgressService] Sincronizado:', progress.minigameType),
-        error: (err) => console.error('[ProgressService] Error sincronizando:', err),
-      });
+  private syncNextBatch(size: number): void {
+    const batch = this.readLocalProgress().slice(0, size);
+    if (batch.length === 0) {
+      this.syncing = false;
+      return;
+    }
+
+    this.api.post('/progress/batch', batch).subscribe({
+      next: () => {
+        console.log('[ProgressService] Sincronizadas', batch.length, 'partidas');
+        this.removeLocalProgress(batch);
+        this.syncNextBatch(size);
+      },
+      error: (err: HttpErrorInfo) => {
+        if (err.code !== 400 && err.code !== 413) {
+          console.error('[ProgressService] Error sincronizando:', err);
+          this.syncing = false;
+        } else if (batch.length > 1) {
+          this.syncNextBatch(Math.ceil(batch.length / 2));
+        } else {
+          console.warn('[ProgressService] Partida local rechazada por el servidor, se descarta:', batch[0]);
+          this.removeLocalProgress(batch);
+          this.syncNextBatch(size);
+        }
+      },
     });
+  }
 
-    // Limpiar localStorage
-    localStorage.removeItem(key);
+  private readLocalProgress(): SaveProgressRequest[] {
+    const stored = localStorage.getItem(ProgressService.LOCAL_PROGRESS_KEY);
+    return stored ? JSON.parse(stored) : [];
+  }
+
+  /**
+   * Quita de la cola las partidas enviadas, comparando su contenido (otra
+   * pestaña o una partida nueva pueden haber cambiado la cola).
+   */
+  private removeLocalProgress(sent: SaveProgressRequest[]): void {
+    const remaining = this.readLocalProgress().map((entry) => JSON.stringify(entry));
+    for (const entry of sent) {
+      const index = remaining.indexOf(JSON.stringify(entry));
+      if (index >= 0) {
+        remaining.splice(index, 1);
+      }
+    }
+
+    if (remaining.length === 0) {
+      localStorage.removeItem(ProgressService.LOCAL_PROGRESS_KEY);
+    } else {
+      localStorage.setItem(ProgressService.LOCAL_PROGRESS_KEY, `[${remaining.join(',')}]`);
+    }
   }
 }